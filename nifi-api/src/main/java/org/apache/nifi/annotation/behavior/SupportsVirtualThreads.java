@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.annotation.behavior;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marker annotation a Processor implementation can use to indicate that it spends
+ * most of its time blocked on I/O, such as waiting for a remote service to respond,
+ * and that it is safe to trigger the Processor on a virtual thread. If the framework
+ * is configured to allow it, the Processor's timer-driven tasks are then run on
+ * virtual threads rather than on the shared Timer-Driven Thread Pool, so that a large
+ * number of blocking calls may be in progress at once without starving other Processors
+ * of threads.
+ *
+ * A Processor should not use this annotation if it performs long-running, CPU-intensive
+ * work, or if it holds a monitor (i.e., uses a <code>synchronized</code> block) while
+ * blocking on I/O, since doing so prevents the virtual thread from releasing its carrier thread.
+ */
+@Documented
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface SupportsVirtualThreads {
+}
@@ -19,6 +19,7 @@ package org.apache.nifi.processor;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
@@ -34,6 +35,7 @@ import org.apache.nifi.processor.exception.FlowFileAccessException;
 import org.apache.nifi.processor.exception.FlowFileHandlingException;
 import org.apache.nifi.processor.exception.MissingFlowFileException;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.io.ByteBufferCallback;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.io.StreamCallback;
@@ -610,6 +612,35 @@ public interface ProcessSession {
      */
     void read(FlowFile source, InputStreamCallback reader) throws FlowFileAccessException;
 
+    /**
+     * Executes the given {@code reader} {@link ByteBufferCallback} against the content of the given {@link FlowFile}, providing the content
+     * as a read-only {@link ByteBuffer}. Depending on the Content Repository, the buffer may be a view of memory-mapped content,
+     * which allows processors that hash or parse content to do so without copying it. The buffer must not be accessed after the
+     * callback returns.
+     * <p>
+     * The default implementation reads the content of the {@link FlowFile} into a heap buffer, so this method should only be used
+     * for content that is small enough to be held in memory and cannot be used for content larger than 2 GB.
+     *
+     * @param source the {@link FlowFile} to retrieve the content from
+     * @param reader {@link ByteBufferCallback} that will be called to read the {@link FlowFile} content
+     * @throws IllegalStateException if detected that this method is being called from within a write callback
+     *              (see {@link #write(FlowFile, StreamCallback)}, {@link #write(FlowFile, OutputStreamCallback)})
+     *              or while a write stream is open (see {@link #write(FlowFile)}) for the given {@code source} {@link FlowFile}.
+     * @throws FlowFileHandlingException if the given {@link FlowFile} is already transferred or removed or doesn't belong to this session.
+     *              Automatic rollback will occur.
+     * @throws MissingFlowFileException if the given {@link FlowFile} content cannot be found.
+     *              The FlowFile should no longer be referenced, will be internally destroyed. The session is automatically rolled back.
+     * @throws FlowFileAccessException if some IO problem occurs accessing {@link FlowFile} content, or if the content is too large to fit in a ByteBuffer
+     */
+    default void readAsByteBuffer(final FlowFile source, final ByteBufferCallback reader) throws FlowFileAccessException {
+        if (source.getSize() > Integer.MAX_VALUE) {
+            throw new FlowFileAccessException("Cannot read content of " + source + " as a ByteBuffer because its size of " + source.getSize()
+                + " bytes exceeds the maximum size of a ByteBuffer");
+        }
+
+        read(source, in -> reader.process(ByteBuffer.wrap(in.readAllBytes()).asReadOnlyBuffer()));
+    }
+
     /**
      * Provides an {@link InputStream} that can be used to read the content of the given {@link FlowFile}.
      * <p>
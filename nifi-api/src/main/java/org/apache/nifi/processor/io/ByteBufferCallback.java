@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Provides read-only access to the content of a FlowFile as a ByteBuffer
+ */
+public interface ByteBufferCallback {
+
+    /**
+     * Provides a read-only ByteBuffer over the content of a FlowFile. The buffer may be
+     * a view of memory-mapped content, so it must not be accessed after this method returns.
+     *
+     * @param content the content of the FlowFile, positioned at the first byte of the content and limited to the size of the FlowFile
+     * @throws IOException if unable to process the content
+     */
+    void process(ByteBuffer content) throws IOException;
+
+}
@@ -68,6 +68,10 @@ public class ColumnSchema {
         return nullable;
     }
 
+    public ColumnType getColumnType() {
+        return columnType;
+    }
+
     RelDataType toRelationalDataType(final JavaTypeFactory typeFactory) {
         final RelDataType javaType = columnType.getRelationalDataType(typeFactory);
         return typeFactory.createTypeWithNullability(javaType, nullable);
@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.sql;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link ResettableDataSource} that holds all rows of another data source in memory, column by column, so that the other data source
+ * needs to be read only once regardless of how many times this data source is reset. This is useful when several queries are to be run
+ * against data that is expensive to produce, such as data that must be parsed from a FlowFile.
+ * </p>
+ *
+ * <p>
+ * Columns of type {@link ScalarType#LONG}, {@link ScalarType#INTEGER}, {@link ScalarType#SHORT}, {@link ScalarType#BYTE},
+ * {@link ScalarType#DOUBLE}, {@link ScalarType#FLOAT} and {@link ScalarType#BOOLEAN} are held in primitive arrays, as long as all of
+ * their values are of the expected type. All other columns are held as arrays of Objects. When the data source is reset for a query
+ * that references only some of the columns, only those columns are populated in the rows that are returned.
+ * </p>
+ *
+ * <p>
+ * Once loaded, the data source is immutable and may be reset any number of times.
+ * </p>
+ */
+public class ColumnarDataSource implements ResettableDataSource {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final NiFiTableSchema schema;
+    private final Column[] columns;
+    private final int rowCount;
+
+    private ColumnarDataSource(final NiFiTableSchema schema, final Column[] columns, final int rowCount) {
+        this.schema = schema;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Reads all rows from the given data source into memory
+     *
+     * @param source the data source to read
+     * @return a ColumnarDataSource that holds all rows of the given data source
+     * @throws IOException if unable to read from the given data source
+     */
+    public static ColumnarDataSource load(final ResettableDataSource source) throws IOException {
+        final NiFiTableSchema schema = source.getSchema();
+        final List<ColumnSchema> columnSchemas = schema.columns();
+        final Column[] columns = new Column[columnSchemas.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createColumn(columnSchemas.get(i).getColumnType());
+        }
+
+        int rowCount = 0;
+        try (final RowStream rowStream = source.reset()) {
+            Object[] row;
+            while ((row = rowStream.nextRow()) != null) {
+                for (int i = 0; i < columns.length; i++) {
+                    final Object value = i < row.length ? row[i] : null;
+                    if (!columns[i].add(rowCount, value)) {
+                        columns[i] = columns[i].toObjectColumn(rowCount);
+                        columns[i].add(rowCount, value);
+                    }
+                }
+
+                rowCount++;
+            }
+        } catch (final IOException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IOException("Failed to read rows from " + source, e);
+        }
+
+        return new ColumnarDataSource(schema, columns, rowCount);
+    }
+
+    private static Column createColumn(final ColumnType columnType) {
+        if (ScalarType.LONG.equals(columnType)) {
+            return new LongColumn(Long.class);
+        } else if (ScalarType.INTEGER.equals(columnType)) {
+            return new LongColumn(Integer.class);
+        } else if (ScalarType.SHORT.equals(columnType)) {
+            return new LongColumn(Short.class);
+        } else if (ScalarType.BYTE.equals(columnType)) {
+            return new LongColumn(Byte.class);
+        } else if (ScalarType.DOUBLE.equals(columnType)) {
+            return new DoubleColumn(Double.class);
+        } else if (ScalarType.FLOAT.equals(columnType)) {
+            return new DoubleColumn(Float.class);
+        } else if (ScalarType.BOOLEAN.equals(columnType)) {
+            return new BooleanColumn();
+        }
+
+        return new ObjectColumn(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the number of rows that are held by this data source
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public NiFiTableSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public RowStream reset() {
+        return reset(null);
+    }
+
+    @Override
+    public RowStream reset(final int[] fields) {
+        return new ColumnarRowStream(fields);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarDataSource[columns=" + columns.length + ", rows=" + rowCount + "]";
+    }
+
+    private class ColumnarRowStream implements RowStream {
+        private final int[] fields;
+        private final Object[] projectedRow;
+        private int nextRow = 0;
+
+        private ColumnarRowStream(final int[] fields) {
+            this.fields = fields;
+
+            // When only some of the columns are referenced, the values are copied out of the row before the next row is requested,
+            // so a single array can be used for all rows. Otherwise, the row itself may be retained, so each row needs its own array.
+            this.projectedRow = fields == null ? null : new Object[columns.length];
+        }
+
+        @Override
+        public Object[] nextRow() {
+            if (nextRow >= rowCount) {
+                return null;
+            }
+
+            final int row = nextRow++;
+            if (fields == null) {
+                final Object[] values = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = columns[i].get(row);
+                }
+                return values;
+            }
+
+            for (final int field : fields) {
+                projectedRow[field] = columns[field].get(row);
+            }
+            return projectedRow;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private abstract static class Column {
+        /**
+         * Adds the value for the given row, which is always one greater than the row that was previously added
+         *
+         * @return <code>true</code> if the value was added, <code>false</code> if the value cannot be held by this column
+         */
+        abstract boolean add(int row, Object value);
+
+        abstract Object get(int row);
+
+        ObjectColumn toObjectColumn(final int rowCount) {
+            final ObjectColumn objectColumn = new ObjectColumn(Math.max(INITIAL_CAPACITY, rowCount));
+            for (int row = 0; row < rowCount; row++) {
+                objectColumn.add(row, get(row));
+            }
+            return objectColumn;
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values;
+
+        private ObjectColumn(final int initialCapacity) {
+            values = new Object[initialCapacity];
+        }
+
+        @Override
+        boolean add(final int row, final Object value) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        Object get(final int row) {
+            return values[row];
+        }
+    }
+
+    private abstract static class PrimitiveColumn extends Column {
+        private final BitSet nulls = new BitSet();
+
+        @Override
+        final boolean add(final int row, final Object value) {
+            if (value == null) {
+                ensureCapacity(row);
+                nulls.set(row);
+                return true;
+            }
+
+            if (!accepts(value)) {
+                return false;
+            }
+
+            ensureCapacity(row);
+            set(row, value);
+            return true;
+        }
+
+        @Override
+        final Object get(final int row) {
+            return nulls.get(row) ? null : getNonNull(row);
+        }
+
+        abstract boolean accepts(Object value);
+
+        abstract void ensureCapacity(int row);
+
+        abstract void set(int row, Object value);
+
+        abstract Object getNonNull(int row);
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private final Class<?> valueType;
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        private LongColumn(final Class<?> valueType) {
+            this.valueType = valueType;
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value.getClass() == valueType;
+        }
+
+        @Override
+        void ensureCapacity(final int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values[row] = ((Number) value).longValue();
+        }
+
+        @Override
+        Object getNonNull(final int row) {
+            final long value = values[row];
+            if (valueType == Long.class) {
+                return value;
+            } else if (valueType == Integer.class) {
+                return (int) value;
+            } else if (valueType == Short.class) {
+                return (short) value;
+            }
+            return (byte) value;
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private final Class<?> valueType;
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        private DoubleColumn(final Class<?> valueType) {
+            this.valueType = valueType;
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value.getClass() == valueType;
+        }
+
+        @Override
+        void ensureCapacity(final int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        Object getNonNull(final int row) {
+            final double value = values[row];
+            return valueType == Double.class ? value : (Object) (float) value;
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+        private final BitSet values = new BitSet();
+
+        @Override
+        boolean accepts(final Object value) {
+            return value instanceof Boolean;
+        }
+
+        @Override
+        void ensureCapacity(final int row) {
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if ((Boolean) value) {
+                values.set(row);
+            }
+        }
+
+        @Override
+        Object getNonNull(final int row) {
+            return values.get(row);
+        }
+    }
+}
@@ -36,4 +36,18 @@ public interface ResettableDataSource {
      * @throws IOException if unable to obtain a RowStream due to IO failures
      */
     RowStream reset() throws IOException;
+
+    /**
+     * Resets the data source and establishes a {@link RowStream} for a query that references only the columns at the given indices.
+     * Each row returned must still be sized according to the schema, but the values of columns that are not referenced may be left
+     * <code>null</code>, and the array returned may be reused for the next row. The default implementation ignores the projection
+     * and delegates to {@link #reset()}.
+     *
+     * @param fields the indices of the columns that are referenced, or <code>null</code> if all columns are referenced
+     * @return the newly established RowStream
+     * @throws IOException if unable to obtain a RowStream due to IO failures
+     */
+    default RowStream reset(final int[] fields) throws IOException {
+        return reset();
+    }
 }
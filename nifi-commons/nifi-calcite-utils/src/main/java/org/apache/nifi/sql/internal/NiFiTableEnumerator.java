@@ -148,7 +148,7 @@ public class NiFiTableEnumerator implements Enumerator<Object> {
         }
 
         try {
-            rowStream = dataSource.reset();
+            rowStream = dataSource.reset(fields);
         } catch (final Exception e) {
             throw new RuntimeException("Failed to data stream from " + dataSource, e);
         }
@@ -27,9 +27,12 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -106,6 +109,95 @@ public class TestCalciteDatabase {
         }
     }
 
+    @Test
+    public void testColumnarDataSource() throws SQLException, IOException {
+        final NiFiTableSchema tableSchema = new NiFiTableSchema(List.of(
+            new ColumnSchema("name", ScalarType.STRING, false),
+            new ColumnSchema("number", ScalarType.INTEGER, true),
+            new ColumnSchema("total", ScalarType.LONG, true)
+        ));
+
+        final List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"Mark", 192, 5L});
+        rows.add(new Object[] {"John Doe", null, 7L});
+        rows.add(new Object[] {"Jane Doe", 2910, null});
+        rows.add(new Object[] {"Other", -42, 9L});
+
+        final AtomicInteger resetCount = new AtomicInteger();
+        final ListDataSource listDataSource = new ListDataSource(tableSchema, rows) {
+            @Override
+            public RowStream reset() {
+                resetCount.incrementAndGet();
+                return super.reset();
+            }
+        };
+
+        final ColumnarDataSource columnarDataSource = ColumnarDataSource.load(listDataSource);
+        assertEquals(4, columnarDataSource.getRowCount());
+        assertEquals(tableSchema, columnarDataSource.getSchema());
+
+        try (final CalciteDatabase database = new CalciteDatabase()) {
+            database.addTable(new NiFiTable("CANNED_DATA", columnarDataSource, mock(ComponentLog.class)));
+
+            try (final PreparedStatement stmt = database.getConnection().prepareStatement("SELECT name, number FROM CANNED_DATA WHERE number > 100");
+                 final ResultSet resultSet = stmt.executeQuery()) {
+
+                assertTrue(resultSet.next());
+                assertEquals("Mark", resultSet.getString(1));
+                assertEquals(192, resultSet.getObject(2));
+                assertTrue(resultSet.next());
+                assertEquals("Jane Doe", resultSet.getString(1));
+                assertEquals(2910, resultSet.getObject(2));
+                assertFalse(resultSet.next());
+            }
+
+            try (final PreparedStatement stmt = database.getConnection().prepareStatement("SELECT * FROM CANNED_DATA");
+                 final ResultSet resultSet = stmt.executeQuery()) {
+
+                final List<Object[]> results = new ArrayList<>();
+                while (resultSet.next()) {
+                    results.add(new Object[] {resultSet.getObject(1), resultSet.getObject(2), resultSet.getObject(3)});
+                }
+
+                assertEquals(rows.size(), results.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    assertArrayEquals(rows.get(i), results.get(i));
+                }
+            }
+        }
+
+        assertEquals(1, resetCount.get());
+    }
+
+    @Test
+    public void testColumnarDataSourceWithUnexpectedValueType() throws Exception {
+        final NiFiTableSchema tableSchema = new NiFiTableSchema(List.of(
+            new ColumnSchema("name", ScalarType.STRING, false),
+            new ColumnSchema("total", ScalarType.LONG, true)
+        ));
+
+        final List<Object[]> rows = List.of(
+            new Object[] {"Mark", 5L},
+            new Object[] {"John Doe", null},
+            new Object[] {"Jane Doe", 7}
+        );
+
+        final ColumnarDataSource columnarDataSource = ColumnarDataSource.load(new ListDataSource(tableSchema, rows));
+        try (final RowStream rowStream = columnarDataSource.reset()) {
+            for (final Object[] row : rows) {
+                assertArrayEquals(row, rowStream.nextRow());
+            }
+            assertNull(rowStream.nextRow());
+        }
+
+        try (final RowStream rowStream = columnarDataSource.reset(new int[] {1})) {
+            assertArrayEquals(new Object[] {null, 5L}, rowStream.nextRow());
+            assertArrayEquals(new Object[] {null, null}, rowStream.nextRow());
+            assertArrayEquals(new Object[] {null, 7}, rowStream.nextRow());
+            assertNull(rowStream.nextRow());
+        }
+    }
+
     public static class ToUpperCase {
         public String invoke(final String value) {
             return value.toUpperCase();
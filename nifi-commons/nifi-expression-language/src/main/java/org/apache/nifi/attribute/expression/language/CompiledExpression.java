@@ -18,6 +18,8 @@
 package org.apache.nifi.attribute.expression.language;
 
 import org.antlr.runtime.tree.Tree;
+import org.apache.nifi.attribute.expression.language.compile.DirectEvaluator;
+import org.apache.nifi.attribute.expression.language.compile.DirectEvaluatorCompiler;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.expression.AttributeValueDecorator;
 
@@ -28,12 +30,14 @@ public class CompiledExpression implements Expression {
     private final Tree tree;
     private final String expression;
     private final Set<Evaluator<?>> allEvaluators;
+    private final DirectEvaluator directEvaluator;
 
     public CompiledExpression(final String expression, final Evaluator<?> rootEvaluator, final Tree tree, final Set<Evaluator<?>> allEvaluators) {
         this.rootEvaluator = rootEvaluator;
         this.tree = tree;
         this.expression = expression;
         this.allEvaluators = allEvaluators;
+        this.directEvaluator = DirectEvaluatorCompiler.compile(rootEvaluator);
     }
 
     public Evaluator<?> getRootEvaluator() {
@@ -53,8 +57,24 @@ public class CompiledExpression implements Expression {
         return allEvaluators;
     }
 
+    /**
+     * @return <code>true</code> if the Expression can be evaluated without walking the Evaluator tree, <code>false</code> otherwise
+     */
+    public boolean isDirectlyEvaluated() {
+        return directEvaluator != null;
+    }
+
     @Override
     public String evaluate(final EvaluationContext evaluationContext, final AttributeValueDecorator decorator) {
-        return Query.evaluateExpression(tree, rootEvaluator, expression, evaluationContext, decorator);
+        if (directEvaluator == null) {
+            return Query.evaluateExpression(tree, rootEvaluator, expression, evaluationContext, decorator);
+        }
+
+        final String value = directEvaluator.evaluate(evaluationContext);
+        if (value == null) {
+            return null;
+        }
+
+        return decorator == null ? value : decorator.decorate(value);
     }
 }
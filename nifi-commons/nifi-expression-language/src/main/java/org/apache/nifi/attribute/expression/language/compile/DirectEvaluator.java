@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.EvaluationContext;
+
+/**
+ * A String-valued expression that has been specialized by the {@link DirectEvaluatorCompiler} so that it can be evaluated without
+ * walking the Evaluator tree or wrapping each intermediate value in a QueryResult.
+ */
+@FunctionalInterface
+public interface DirectEvaluator {
+
+    /**
+     * Evaluates the expression against the given context
+     *
+     * @param evaluationContext the context to evaluate against
+     * @return the result of evaluating the expression, or <code>null</code> if the expression evaluates to <code>null</code>
+     */
+    String evaluate(EvaluationContext evaluationContext);
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.AppendEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.PrependEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ReplaceEmptyEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ReplaceNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ToLowerEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ToUpperEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.TrimEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.AttributeEvaluator;
+
+/**
+ * <p>
+ * Specializes the Evaluator tree of a compiled Expression into a {@link DirectEvaluator}. The specialization is performed once, when the
+ * Expression is compiled: string literals are resolved up front, attribute references with a literal name capture that name, and each supported
+ * function is replaced by a closure that invokes its arguments' closures directly. As a result, evaluating the Expression does not walk the
+ * Evaluator tree, does not allocate a QueryResult for every intermediate value, and does not re-evaluate the name of each referenced attribute.
+ * </p>
+ *
+ * <p>
+ * Only String-valued attribute references, literals, and the String manipulation functions that are most commonly used in property values are supported.
+ * If any part of the tree is not supported, no DirectEvaluator is created and the Expression is evaluated by walking the Evaluator tree, as before.
+ * The result of evaluating a DirectEvaluator is always the same as the result of evaluating the Evaluator tree that it was created from.
+ * </p>
+ */
+public class DirectEvaluatorCompiler {
+
+    private DirectEvaluatorCompiler() {
+    }
+
+    /**
+     * Creates a DirectEvaluator that is equivalent to the given Evaluator
+     *
+     * @param evaluator the root of the Evaluator tree
+     * @return an equivalent DirectEvaluator, or <code>null</code> if the tree contains an Evaluator that cannot be specialized
+     */
+    public static DirectEvaluator compile(final Evaluator<?> evaluator) {
+        if (evaluator instanceof StringLiteralEvaluator) {
+            // A literal does not depend on the context, so it can be resolved now
+            final String value = ((StringLiteralEvaluator) evaluator).evaluate(null).getValue();
+            return context -> value;
+        }
+
+        if (evaluator instanceof AttributeEvaluator) {
+            final Evaluator<String> nameEvaluator = ((AttributeEvaluator) evaluator).getNameEvaluator();
+            if (nameEvaluator instanceof StringLiteralEvaluator) {
+                final String attributeName = nameEvaluator.evaluate(null).getValue();
+                return context -> context.getExpressionValue(attributeName);
+            }
+
+            final DirectEvaluator name = compile(nameEvaluator);
+            if (name == null) {
+                return null;
+            }
+            return context -> context.getExpressionValue(name.evaluate(context));
+        }
+
+        if (evaluator instanceof ToUpperEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            if (subject == null) {
+                return null;
+            }
+            return context -> {
+                final String value = subject.evaluate(context);
+                return value == null ? null : value.toUpperCase();
+            };
+        }
+
+        if (evaluator instanceof ToLowerEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            if (subject == null) {
+                return null;
+            }
+            return context -> {
+                final String value = subject.evaluate(context);
+                return value == null ? null : value.toLowerCase();
+            };
+        }
+
+        if (evaluator instanceof TrimEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            if (subject == null) {
+                return null;
+            }
+            return context -> {
+                final String value = subject.evaluate(context);
+                return value == null ? null : value.trim();
+            };
+        }
+
+        if (evaluator instanceof AppendEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            final DirectEvaluator append = compile(((AppendEvaluator) evaluator).getAppendEvaluator());
+            if (subject == null || append == null) {
+                return null;
+            }
+            return context -> nullToEmpty(subject.evaluate(context)) + nullToEmpty(append.evaluate(context));
+        }
+
+        if (evaluator instanceof PrependEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            final DirectEvaluator prepend = compile(((PrependEvaluator) evaluator).getPrependEvaluator());
+            if (subject == null || prepend == null) {
+                return null;
+            }
+            return context -> {
+                // Evaluate the subject first, as the PrependEvaluator does
+                final String subjectValue = subject.evaluate(context);
+                return nullToEmpty(prepend.evaluate(context)) + nullToEmpty(subjectValue);
+            };
+        }
+
+        if (evaluator instanceof ReplaceNullEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            final DirectEvaluator replacement = compile(((ReplaceNullEvaluator) evaluator).getResultEvaluator());
+            if (subject == null || replacement == null) {
+                return null;
+            }
+            return context -> {
+                final String value = subject.evaluate(context);
+                return value == null ? replacement.evaluate(context) : value;
+            };
+        }
+
+        if (evaluator instanceof ReplaceEmptyEvaluator) {
+            final DirectEvaluator subject = compile(evaluator.getSubjectEvaluator());
+            final DirectEvaluator replacement = compile(((ReplaceEmptyEvaluator) evaluator).getReplacementEvaluator());
+            if (subject == null || replacement == null) {
+                return null;
+            }
+            return context -> {
+                final String value = subject.evaluate(context);
+                return value == null || value.trim().isEmpty() ? replacement.evaluate(context) : value;
+            };
+        }
+
+        return null;
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -47,4 +47,8 @@ public class ReplaceEmptyEvaluator extends StringEvaluator {
     public Evaluator<?> getSubjectEvaluator() {
         return subjectEvaluator;
     }
+
+    public Evaluator<String> getReplacementEvaluator() {
+        return replacementEvaluator;
+    }
 }
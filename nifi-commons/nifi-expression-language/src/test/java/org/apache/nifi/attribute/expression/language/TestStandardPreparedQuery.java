@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.attribute.expression.language;
 
+import org.apache.nifi.attribute.expression.language.compile.ExpressionCompiler;
 import org.apache.nifi.parameter.Parameter;
 import org.apache.nifi.parameter.ParameterDescriptor;
 import org.apache.nifi.parameter.ParameterLookup;
@@ -32,6 +33,7 @@ import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -342,6 +344,88 @@ public class TestStandardPreparedQuery {
         assertFalse(Query.prepare("#{param}").isExpressionLanguagePresent());
     }
 
+    @Test
+    public void testDirectEvaluationMatchesEvaluatorTree() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "  Data.TXT ");
+        attributes.put("empty", " ");
+        attributes.put("name", "filename");
+
+        final String[] expressions = {
+            "${filename}",
+            "${missing}",
+            "${'filename'}",
+            "${${name}}",
+            "${filename:trim():toLower()}",
+            "${filename:toUpper():append('.bak')}",
+            "${missing:append(${filename:trim()})}",
+            "${filename:trim():prepend('archive/')}",
+            "${missing:prepend('archive/')}",
+            "${missing:replaceNull('default')}",
+            "${empty:replaceEmpty(${filename:trim()})}",
+            "${filename:replaceEmpty('default')}",
+            "${literal('hello\\nworld')}"
+        };
+
+        for (final String text : expressions) {
+            final CompiledExpression expression = new ExpressionCompiler().compile(text);
+            assertTrue(expression.isDirectlyEvaluated(), "Expected " + text + " to be evaluated directly");
+
+            final String expected = Query.evaluateExpression(expression.getTree(), expression.getRootEvaluator(), text, new StandardEvaluationContext(attributes), null);
+            assertEquals(expected, expression.evaluate(new StandardEvaluationContext(attributes), null), text);
+        }
+    }
+
+    @Test
+    public void testDirectEvaluationUsesDecorator() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("xx", "world");
+
+        final CompiledExpression expression = new ExpressionCompiler().compile("${xx}");
+        assertTrue(expression.isDirectlyEvaluated());
+        assertEquals("[world]", expression.evaluate(new StandardEvaluationContext(attributes), value -> "[" + value + "]"));
+        assertNull(new ExpressionCompiler().compile("${yy}").evaluate(new StandardEvaluationContext(attributes), value -> "[" + value + "]"));
+    }
+
+    @Test
+    public void testUnsupportedFunctionsUseEvaluatorTree() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("xx", "world");
+
+        final CompiledExpression expression = new ExpressionCompiler().compile("${xx:toUpper():substring(1)}");
+        assertFalse(expression.isDirectlyEvaluated());
+        assertEquals("ORLD", expression.evaluate(new StandardEvaluationContext(attributes), null));
+
+        assertFalse(new ExpressionCompiler().compile("${xx:equals('world')}").isDirectlyEvaluated());
+        assertFalse(new ExpressionCompiler().compile("${allAttributes('xx'):join(',')}").isDirectlyEvaluated());
+        assertEquals("true", evaluate("${xx:equals('world')}", attributes));
+    }
+
+    @Test
+    @Disabled("Intended for manual performance testing; should not be run in an automated environment")
+    public void testDirectEvaluationVersusEvaluatorTree() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", " World ");
+
+        final String text = "${xx:trim():toLower():prepend('hello, ')}";
+        final CompiledExpression expression = new ExpressionCompiler().compile(text);
+        final StandardEvaluationContext context = new StandardEvaluationContext(attrs);
+
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 10000000; i++) {
+                Query.evaluateExpression(expression.getTree(), expression.getRootEvaluator(), text, context, null);
+            }
+            System.out.println("Evaluator tree: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " millis");
+
+            start = System.nanoTime();
+            for (int i = 0; i < 10000000; i++) {
+                expression.evaluate(context, null);
+            }
+            System.out.println("Direct evaluation: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " millis");
+        }
+    }
+
     private String evaluate(final String query, final Map<String, String> attrs) {
         return Query.prepare(query).evaluateExpressions(new StandardEvaluationContext(attrs), null);
     }
@@ -244,6 +244,7 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String LOAD_BALANCE_CONNECTIONS_PER_NODE = "nifi.cluster.load.balance.connections.per.node";
     public static final String LOAD_BALANCE_MAX_THREAD_COUNT = "nifi.cluster.load.balance.max.thread.count";
     public static final String LOAD_BALANCE_COMMS_TIMEOUT = "nifi.cluster.load.balance.comms.timeout";
+    public static final String LOAD_BALANCE_COMPRESSION_CODEC = "nifi.cluster.load.balance.compression.codec";
 
     // zookeeper properties
     public static final String ZOOKEEPER_CONNECT_STRING = "nifi.zookeeper.connect.string";
@@ -411,6 +412,7 @@ public class NiFiProperties extends ApplicationProperties {
     public static final int DEFAULT_LOAD_BALANCE_CONNECTIONS_PER_NODE = 4;
     public static final int DEFAULT_LOAD_BALANCE_MAX_THREAD_COUNT = 8;
     public static final String DEFAULT_LOAD_BALANCE_COMMS_TIMEOUT = "30 sec";
+    public static final String DEFAULT_LOAD_BALANCE_COMPRESSION_CODEC = "LZ4";
 
 
     // state management defaults
@@ -25,11 +25,15 @@ import org.antlr.runtime.CharStream;
 import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.tree.Tree;
 import org.apache.nifi.record.path.exception.RecordPathException;
+import org.apache.nifi.record.path.paths.FieldReferencePath;
 import org.apache.nifi.record.path.paths.RecordPathCompiler;
 import org.apache.nifi.record.path.paths.RecordPathSegment;
 import org.apache.nifi.record.path.paths.RootPath;
 import org.apache.nifi.serialization.record.Record;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface RecordPath {
 
     /**
@@ -60,6 +64,21 @@ public interface RecordPath {
      */
     RecordPathResult evaluate(Record record, FieldValue contextNode);
 
+    /**
+     * Evaluates the RecordPath against the given Record, returning the value of each field that matches. This is equivalent to
+     * obtaining the value of each FieldValue that is returned by {@link #evaluate(Record)}, but a RecordPath that consists only of
+     * child field references and array indices, such as <code>/a/b[0]/c</code>, is able to obtain the value without creating
+     * a FieldValue for each segment of the path.
+     *
+     * @param record the Record to evaluate
+     * @return the value of each field that matches
+     */
+    default List<Object> evaluateValues(final Record record) {
+        return evaluate(record).getSelectedFields()
+            .map(FieldValue::getValue)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Indicates whether the RecordPath is an Absolute Path (starts with a '/' character) or a Relative Path (starts with a '.' character).
      *
@@ -98,7 +117,8 @@ public interface RecordPath {
                 absolute = false;
             }
 
-            return RecordPathCompiler.compile(firstChild, rootPath, absolute);
+            final RecordPathSegment compiled = RecordPathCompiler.compile(firstChild, rootPath, absolute);
+            return absolute ? FieldReferencePath.of(compiled) : compiled;
         } catch (final RecordPathException e) {
             throw e;
         } catch (final Exception e) {
@@ -36,6 +36,10 @@ public class ArrayIndexPath extends RecordPathSegment {
         this.index = index;
     }
 
+    int getIndex() {
+        return index;
+    }
+
     @Override
     public Stream<FieldValue> evaluate(final RecordPathEvaluationContext context) {
         final Stream<FieldValue> parentResult = getParentPath().evaluate(context);
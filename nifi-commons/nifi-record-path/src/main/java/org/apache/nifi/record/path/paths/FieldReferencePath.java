@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.record.path.paths;
+
+import org.apache.nifi.record.path.ArrayIndexFieldValue;
+import org.apache.nifi.record.path.FieldValue;
+import org.apache.nifi.record.path.RecordPathEvaluationContext;
+import org.apache.nifi.record.path.StandardFieldValue;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A RecordPath that consists only of child field references and array indices relative to the root Record, such as <code>/a/b[0]/c</code>.
+ * Rather than evaluating each segment of the path as a Stream of FieldValues, the path is followed directly through the Record, using
+ * the fields that were resolved for the schema of each Record along the path. The resolved fields are cached, so that they are looked up
+ * only once for each schema.
+ * </p>
+ *
+ * <p>
+ * If the path cannot be followed directly, because a field along the path is missing, is null, or is not of the expected type, the path is
+ * evaluated by the segments that it was created from, so that the result is always the same as that of the segments.
+ * </p>
+ */
+public class FieldReferencePath extends RecordPathSegment {
+    private static final Object UNRESOLVED = new Object();
+
+    private final RecordPathSegment segments;
+    private final Step[] steps;
+    private volatile ResolvedField rootField;
+
+    private FieldReferencePath(final RecordPathSegment segments, final List<Step> steps) {
+        super(segments.getPath(), segments.getParentPath(), true);
+        this.segments = segments;
+        this.steps = steps.toArray(new Step[0]);
+    }
+
+    /**
+     * Creates a FieldReferencePath for the given path if the path consists only of child field references and array indices relative to the root Record
+     *
+     * @param path the compiled path
+     * @return a FieldReferencePath that selects the same field as the given path, or the given path if it cannot be followed directly
+     */
+    public static RecordPathSegment of(final RecordPathSegment path) {
+        final List<Step> steps = new ArrayList<>();
+
+        RecordPathSegment segment = path;
+        while (segment != null && !(segment instanceof RootPath)) {
+            if (segment instanceof final ChildFieldPath childFieldPath) {
+                steps.add(new ChildStep(childFieldPath.getChildName()));
+            } else if (segment instanceof final ArrayIndexPath arrayIndexPath) {
+                steps.add(new ArrayIndexStep(arrayIndexPath.getIndex()));
+            } else {
+                return path;
+            }
+
+            segment = segment.getParentPath();
+        }
+
+        if (segment == null || steps.isEmpty() || !path.isAbsolute()) {
+            return path;
+        }
+
+        Collections.reverse(steps);
+        return new FieldReferencePath(path, steps);
+    }
+
+    @Override
+    public Stream<FieldValue> evaluate(final RecordPathEvaluationContext context) {
+        final Record record = context.getRecord();
+        final FieldValue rootValue = new StandardFieldValue(record, getRootField(record.getSchema()), null);
+
+        final Object result = follow(rootValue, true);
+        if (result == UNRESOLVED) {
+            return segments.evaluate(context);
+        }
+
+        return Stream.of((FieldValue) result);
+    }
+
+    @Override
+    public List<Object> evaluateValues(final Record record) {
+        final Object result = follow(record, false);
+        if (result == UNRESOLVED) {
+            return segments.evaluateValues(record);
+        }
+
+        return Collections.singletonList(result);
+    }
+
+    /**
+     * Follows the path from the given root. If creating FieldValues, the root and result are FieldValues; otherwise, they are the values themselves.
+     *
+     * @return the value or FieldValue that was selected, or UNRESOLVED if the path could not be followed directly
+     */
+    private Object follow(final Object root, final boolean createFieldValues) {
+        Object current = root;
+        Object value = createFieldValues ? ((FieldValue) root).getValue() : root;
+        DataType dataType = null;
+
+        for (final Step step : steps) {
+            if (step instanceof final ChildStep childStep) {
+                if (!(value instanceof final Record record)) {
+                    return UNRESOLVED;
+                }
+
+                final RecordField field = childStep.getField(record.getSchema());
+                if (field == null) {
+                    return UNRESOLVED;
+                }
+
+                value = record.getValue(field);
+                if (value == null) {
+                    return UNRESOLVED;
+                }
+
+                dataType = field.getDataType();
+                if (createFieldValues) {
+                    current = new StandardFieldValue(value, field, (FieldValue) current);
+                }
+            } else {
+                if (dataType == null || dataType.getFieldType() != RecordFieldType.ARRAY || !(value instanceof final Object[] array)) {
+                    return UNRESOLVED;
+                }
+
+                final int index = ((ArrayIndexStep) step).getArrayIndex(array.length);
+                if (index < 0 || index >= array.length) {
+                    return UNRESOLVED;
+                }
+
+                value = array[index];
+                dataType = ((ArrayDataType) dataType).getElementType();
+                if (createFieldValues) {
+                    final FieldValue arrayFieldValue = (FieldValue) current;
+                    final RecordField elementField = new RecordField(arrayFieldValue.getField().getFieldName(), dataType);
+                    current = new ArrayIndexFieldValue(value, elementField, arrayFieldValue, index);
+                }
+            }
+        }
+
+        return createFieldValues ? current : value;
+    }
+
+    private RecordField getRootField(final RecordSchema schema) {
+        final ResolvedField resolved = rootField;
+        if (resolved != null && resolved.schema() == schema) {
+            return resolved.field();
+        }
+
+        final RecordField field = new RecordField("root", RecordFieldType.RECORD.getRecordDataType(schema));
+        rootField = new ResolvedField(schema, -1, field);
+        return field;
+    }
+
+    private interface Step {
+    }
+
+    private static class ChildStep implements Step {
+        private final String childName;
+        private volatile ResolvedField resolved;
+
+        ChildStep(final String childName) {
+            this.childName = childName;
+        }
+
+        /**
+         * @return the field of the given schema that this step refers to, or <code>null</code> if the schema has no such field
+         */
+        RecordField getField(final RecordSchema schema) {
+            final ResolvedField cached = resolved;
+            if (cached != null && cached.schema() == schema) {
+                // A schema may rename or remove fields in place, so ensure that the field is still at the resolved index
+                final int index = cached.index();
+                if (index >= 0 && index < schema.getFieldCount() && schema.getField(index) == cached.field()) {
+                    return cached.field();
+                }
+            }
+
+            final List<RecordField> fields = schema.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                final RecordField field = fields.get(i);
+                if (field.getFieldName().equals(childName)) {
+                    resolved = new ResolvedField(schema, i, field);
+                    return field;
+                }
+            }
+
+            // The child may be referenced by an alias, or may not be in the schema at all; both are handled by evaluating the segments
+            return null;
+        }
+    }
+
+    private static class ArrayIndexStep implements Step {
+        private final int index;
+
+        ArrayIndexStep(final int index) {
+            this.index = index;
+        }
+
+        int getArrayIndex(final int arrayLength) {
+            return index < 0 ? arrayLength + index : index;
+        }
+    }
+
+    private record ResolvedField(RecordSchema schema, int index, RecordField field) {
+    }
+}
@@ -142,6 +142,57 @@ public class TestRecordPath {
         assertEquals(accountRecord, RecordPath.compile("/mainAccount/id").evaluate(record).getSelectedFields().findFirst().get().getParentRecord().get());
     }
 
+    @Test
+    public void testEvaluateValues() {
+        final Map<String, Object> accountValues = new HashMap<>();
+        accountValues.put("id", 1);
+        accountValues.put("balance", 123.45D);
+        final Record accountRecord = new MapRecord(getAccountSchema(), accountValues);
+
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("mainAccount", accountRecord);
+        values.put("numbers", new Object[] {1, 2, 3});
+        values.put("accounts", new Object[] {accountRecord, null});
+        final Record record = new MapRecord(schema, values);
+
+        assertEquals(List.of(48), RecordPath.compile("/id").evaluateValues(record));
+        assertEquals(List.of(123.45D), RecordPath.compile("/mainAccount/balance").evaluateValues(record));
+        assertEquals(List.of(3), RecordPath.compile("/numbers[-1]").evaluateValues(record));
+        assertEquals(List.of(1), RecordPath.compile("/accounts[0]/id").evaluateValues(record));
+        assertEquals(List.of(2, 3), RecordPath.compile("/numbers[1..2]").evaluateValues(record));
+
+        // Missing fields are selected with a null value, whereas array indices that do not exist are not selected
+        assertEquals(Collections.singletonList(null), RecordPath.compile("/name").evaluateValues(record));
+        assertEquals(Collections.singletonList(null), RecordPath.compile("/accounts[1]/id").evaluateValues(record));
+        assertEquals(Collections.emptyList(), RecordPath.compile("/numbers[3]").evaluateValues(record));
+    }
+
+    @Test
+    public void testChildFieldAfterSchemaChange() {
+        final RecordPath recordPath = RecordPath.compile("/mainAccount/balance");
+
+        final Map<String, Object> accountValues = new HashMap<>();
+        accountValues.put("id", 1);
+        accountValues.put("balance", 123.45D);
+        final Record accountRecord = new MapRecord(getAccountSchema(), accountValues);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("mainAccount", accountRecord);
+        final Record record = new MapRecord(new SimpleRecordSchema(getDefaultFields()), values);
+
+        final FieldValue fieldValue = recordPath.evaluate(record).getSelectedFields().findFirst().get();
+        assertEquals(123.45D, fieldValue.getValue());
+        assertEquals(accountRecord, fieldValue.getParentRecord().get());
+        fieldValue.updateValue(100D);
+        assertEquals(100D, accountRecord.getValue("balance"));
+
+        accountRecord.rename(accountRecord.getSchema().getField("balance").get(), "total");
+        assertEquals(Collections.singletonList(null), recordPath.evaluateValues(record));
+        assertNull(recordPath.evaluate(record).getSelectedFields().findFirst().get().getValue());
+    }
+
     @Test
     public void testRootRecord() {
         final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.FieldIndex;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldRemovalPath;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -41,6 +42,7 @@ public class SimpleRecordSchema implements RecordSchema {
     private String schemaName;
     private String schemaNamespace;
     private volatile int hashCode;
+    private volatile FieldIndex fieldIndex;
 
     public SimpleRecordSchema(final List<RecordField> fields) {
         this(fields, null, null, false, SchemaIdentifier.EMPTY);
@@ -101,6 +103,7 @@ public class SimpleRecordSchema implements RecordSchema {
 
         this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
         this.fieldMap = new HashMap<>(fields.size() * 2);
+        this.fieldIndex = null;
 
         for (final RecordField field : fields) {
             RecordField previousValue = fieldMap.put(field.getFieldName(), field);
@@ -117,6 +120,18 @@ public class SimpleRecordSchema implements RecordSchema {
         }
     }
 
+    /**
+     * @return the index of the schema's fields, which is created the first time that it is requested and then reused until the fields change
+     */
+    public FieldIndex getFieldIndex() {
+        FieldIndex index = this.fieldIndex;
+        if (index == null) {
+            index = this.fieldIndex = new FieldIndex(fields);
+        }
+
+        return index;
+    }
+
     @Override
     public int getFieldCount() {
         return fields.size();
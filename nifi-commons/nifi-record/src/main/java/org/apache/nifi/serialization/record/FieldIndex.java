@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+
+import java.util.List;
+
+/**
+ * An immutable mapping of field names to slot positions, used by {@link IndexedFieldMap} to store the values of a Record in arrays
+ * rather than in hash-based entries. An index is built once for a schema and then shared by every Record that is created for it.
+ */
+public final class FieldIndex {
+    private final String[] fieldNames;
+
+    // Open-addressed hash table of field names to slots. Record Readers generally look up a field using the same String instance
+    // that is held by the schema, so the names are compared by reference before falling back to String#equals.
+    private final String[] tableNames;
+    private final int[] tableSlots;
+    private final int mask;
+
+    public FieldIndex(final List<RecordField> fields) {
+        this.fieldNames = new String[fields.size()];
+
+        final int tableSize = Integer.highestOneBit(Math.max(2, fieldNames.length) * 2) << 1;
+        this.tableNames = new String[tableSize];
+        this.tableSlots = new int[tableSize];
+        this.mask = tableSize - 1;
+
+        for (int i = 0; i < fieldNames.length; i++) {
+            final String fieldName = fields.get(i).getFieldName();
+            fieldNames[i] = fieldName;
+
+            if (getSlot(fieldName) < 0) {
+                int position = spread(fieldName.hashCode()) & mask;
+                while (tableNames[position] != null) {
+                    position = (position + 1) & mask;
+                }
+
+                tableNames[position] = fieldName;
+                tableSlots[position] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the index for the fields of the given schema. If the schema is a {@link SimpleRecordSchema}, the index is cached by
+     * the schema so that it is not recreated for each Record.
+     *
+     * @param schema the schema
+     * @return the index for the fields of the schema
+     */
+    public static FieldIndex of(final RecordSchema schema) {
+        if (schema instanceof final SimpleRecordSchema simpleRecordSchema) {
+            return simpleRecordSchema.getFieldIndex();
+        }
+
+        return new FieldIndex(schema.getFields());
+    }
+
+    /**
+     * @param fieldName the name of the field
+     * @return the slot of the field with the given name, or <code>-1</code> if the field is not part of the index
+     */
+    public int getSlot(final String fieldName) {
+        final int hash = fieldName.hashCode();
+        int position = spread(hash) & mask;
+
+        while (true) {
+            final String tableName = tableNames[position];
+            if (tableName == null) {
+                return -1;
+            }
+            if (tableName == fieldName || (tableName.hashCode() == hash && tableName.equals(fieldName))) {
+                return tableSlots[position];
+            }
+
+            position = (position + 1) & mask;
+        }
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @param slot the slot
+     * @return the name of the field that is stored in the given slot
+     */
+    public String getFieldName(final int slot) {
+        return fieldNames[slot];
+    }
+
+    /**
+     * @return the number of slots in the index
+     */
+    public int size() {
+        return fieldNames.length;
+    }
+}
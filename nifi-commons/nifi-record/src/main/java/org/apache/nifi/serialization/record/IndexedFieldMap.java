@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * A Map of field names to values that stores the values of the fields in a {@link FieldIndex} in an array, indexed by the position of the
+ * field, instead of allocating a hash table and an entry for every field. This is intended to be used as the backing Map of a
+ * {@link MapRecord} that is created by a Record Reader, which creates many Records for the same schema, each of which holds
+ * only a few values.
+ * </p>
+ *
+ * <p>
+ * Fields that are not part of the index, such as fields that are not in the schema or fields that have been renamed, are held in a
+ * separate array and are located by a linear scan, as there are expected to be very few of them. As with a {@link java.util.LinkedHashMap},
+ * the entries are iterated in the order in which they were inserted, and null keys are not supported.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IndexedFieldMap extends AbstractMap<String, Object> {
+    private static final Object ABSENT = new Object();
+
+    private final FieldIndex index;
+    private final Object[] values;
+    private int[] order;
+    private int size = 0;
+
+    private String[] extraNames;
+    private Object[] extraValues;
+    private int extraCount = 0;
+
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    public IndexedFieldMap(final RecordSchema schema) {
+        this(FieldIndex.of(schema));
+    }
+
+    public IndexedFieldMap(final FieldIndex index) {
+        this.index = Objects.requireNonNull(index);
+        this.values = new Object[index.size()];
+        this.order = new int[index.size() + 2];
+        Arrays.fill(values, ABSENT);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return getSlot(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final int slot = getSlot(key);
+        return slot < 0 ? null : getSlotValue(slot);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        Objects.requireNonNull(key, "Field name cannot be null");
+
+        final int indexedSlot = index.getSlot(key);
+        if (indexedSlot >= 0) {
+            final Object previous = values[indexedSlot];
+            values[indexedSlot] = value;
+            if (previous == ABSENT) {
+                appendSlot(indexedSlot);
+                return null;
+            }
+
+            return previous;
+        }
+
+        final int extraIndex = getExtraIndex(key);
+        if (extraIndex >= 0) {
+            final Object previous = extraValues[extraIndex];
+            extraValues[extraIndex] = value;
+            return previous;
+        }
+
+        if (extraNames == null) {
+            extraNames = new String[4];
+            extraValues = new Object[4];
+        } else if (extraCount == extraNames.length) {
+            extraNames = Arrays.copyOf(extraNames, extraCount * 2);
+            extraValues = Arrays.copyOf(extraValues, extraCount * 2);
+        }
+
+        extraNames[extraCount] = key;
+        extraValues[extraCount] = value;
+        appendSlot(index.size() + extraCount);
+        extraCount++;
+        return null;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        final int slot = getSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        final Object previous = getSlotValue(slot);
+        removeSlot(slot);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        if (extraNames != null) {
+            Arrays.fill(extraNames, null);
+            Arrays.fill(extraValues, null);
+        }
+
+        extraCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    private int getSlot(final Object key) {
+        if (!(key instanceof final String fieldName)) {
+            return -1;
+        }
+
+        final int indexedSlot = index.getSlot(fieldName);
+        if (indexedSlot >= 0) {
+            return values[indexedSlot] == ABSENT ? -1 : indexedSlot;
+        }
+
+        final int extraIndex = getExtraIndex(fieldName);
+        return extraIndex < 0 ? -1 : index.size() + extraIndex;
+    }
+
+    private int getExtraIndex(final String fieldName) {
+        final int hash = fieldName.hashCode();
+        for (int i = 0; i < extraCount; i++) {
+            final String extraName = extraNames[i];
+            if (extraName != null && extraName.hashCode() == hash && extraName.equals(fieldName)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private String getSlotName(final int slot) {
+        return slot < index.size() ? index.getFieldName(slot) : extraNames[slot - index.size()];
+    }
+
+    private Object getSlotValue(final int slot) {
+        return slot < index.size() ? values[slot] : extraValues[slot - index.size()];
+    }
+
+    private void setSlotValue(final int slot, final Object value) {
+        if (slot < index.size()) {
+            values[slot] = value;
+        } else {
+            extraValues[slot - index.size()] = value;
+        }
+    }
+
+    private void appendSlot(final int slot) {
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+        }
+
+        order[size++] = slot;
+    }
+
+    private void removeSlot(final int slot) {
+        if (slot < index.size()) {
+            values[slot] = ABSENT;
+        } else {
+            // Leave the position of the extra field in place so that the positions of other extra fields do not change
+            extraNames[slot - index.size()] = null;
+            extraValues[slot - index.size()] = null;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (order[i] == slot) {
+                System.arraycopy(order, i + 1, order, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IndexedFieldMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<>() {
+                private int position = 0;
+                private int lastSlot = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return position < size;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if (position >= size) {
+                        throw new NoSuchElementException();
+                    }
+
+                    lastSlot = order[position++];
+                    return new SlotEntry(lastSlot);
+                }
+
+                @Override
+                public void remove() {
+                    if (lastSlot < 0) {
+                        throw new IllegalStateException();
+                    }
+
+                    removeSlot(lastSlot);
+                    position--;
+                    lastSlot = -1;
+                }
+            };
+        }
+    }
+
+    private class SlotEntry implements Map.Entry<String, Object> {
+        private final int slot;
+
+        private SlotEntry(final int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return getSlotName(slot);
+        }
+
+        @Override
+        public Object getValue() {
+            return getSlotValue(slot);
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            final Object previous = getSlotValue(slot);
+            setSlotValue(slot, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof final Map.Entry<?, ?> other)) {
+                return false;
+            }
+
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
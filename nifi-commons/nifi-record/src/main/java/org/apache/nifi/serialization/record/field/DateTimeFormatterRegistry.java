@@ -22,12 +22,16 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Caching Registry containing DateTimeFormatter objects for internal use with Field Converters
+ * Caching Registry containing DateTimeFormatter objects for internal use with Field Converters and Data Type compatibility checks
  */
-class DateTimeFormatterRegistry {
+public class DateTimeFormatterRegistry {
     private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
 
-    static DateTimeFormatter getDateTimeFormatter(final String pattern) {
+    private DateTimeFormatterRegistry() {
+
+    }
+
+    public static DateTimeFormatter getDateTimeFormatter(final String pattern) {
         Objects.requireNonNull(pattern, "Pattern required");
         final DateTimeFormatter formatter = FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
         FORMATTERS.putIfAbsent(pattern, formatter);
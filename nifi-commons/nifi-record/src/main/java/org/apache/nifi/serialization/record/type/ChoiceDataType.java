@@ -22,11 +22,16 @@ import org.apache.nifi.serialization.record.RecordFieldRemovalPath;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 
 public class ChoiceDataType extends DataType {
     private final List<DataType> possibleSubTypes;
+    private volatile List<DataType> flattenedSubTypes;
 
     public ChoiceDataType(final List<DataType> possibleSubTypes) {
         super(RecordFieldType.CHOICE, null);
@@ -37,6 +42,34 @@ public class ChoiceDataType extends DataType {
         return possibleSubTypes;
     }
 
+    /**
+     * Returns the possible sub-types with each nested Choice replaced by its own possible sub-types. The list is computed the first
+     * time that it is requested so that choosing a sub-type for each value does not need to walk the nested Choices again.
+     *
+     * @return the possible sub-types that are not themselves Choices, in the order in which they are evaluated
+     */
+    public List<DataType> getFlattenedSubTypes() {
+        List<DataType> flattened = flattenedSubTypes;
+        if (flattened == null) {
+            final Queue<DataType> remainingSubTypes = new LinkedList<>(possibleSubTypes);
+            final List<DataType> simpleSubTypes = new ArrayList<>(possibleSubTypes.size());
+
+            DataType subType;
+            while ((subType = remainingSubTypes.poll()) != null) {
+                if (subType instanceof ChoiceDataType) {
+                    remainingSubTypes.addAll(((ChoiceDataType) subType).getPossibleSubTypes());
+                } else {
+                    simpleSubTypes.add(subType);
+                }
+            }
+
+            flattened = Collections.unmodifiableList(simpleSubTypes);
+            flattenedSubTypes = flattened;
+        }
+
+        return flattened;
+    }
+
     @Override
     public RecordFieldType getFieldType() {
         return RecordFieldType.CHOICE;
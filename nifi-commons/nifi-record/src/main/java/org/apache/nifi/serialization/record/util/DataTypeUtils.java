@@ -24,6 +24,7 @@ import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.field.DateTimeFormatterRegistry;
 import org.apache.nifi.serialization.record.field.FieldConverter;
 import org.apache.nifi.serialization.record.field.StandardFieldConverterRegistry;
 import org.apache.nifi.serialization.record.type.ArrayDataType;
@@ -55,7 +56,6 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -66,12 +66,10 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
@@ -347,33 +345,65 @@ public class DataTypeUtils {
     }
 
     public static DataType chooseDataType(final Object value, final ChoiceDataType choiceType) {
-        Queue<DataType> possibleSubTypes = new LinkedList<>(choiceType.getPossibleSubTypes());
-        List<DataType> compatibleSimpleSubTypes = new ArrayList<>();
+        final List<DataType> possibleSubTypes = choiceType.getFlattenedSubTypes();
 
-        DataType subType;
-        while ((subType = possibleSubTypes.poll()) != null) {
-            if (subType instanceof ChoiceDataType) {
-                possibleSubTypes.addAll(((ChoiceDataType) subType).getPossibleSubTypes());
+        // A value whose type is determined by its class alone is always compatible with the sub-type of that same type, and that sub-type
+        // is preferred over any other compatible sub-type, so the remaining sub-types do not need to be evaluated.
+        final DataType classDataType = getClassDataType(value);
+        if (classDataType != null) {
+            final int index = possibleSubTypes.indexOf(classDataType);
+            if (index > -1) {
+                return possibleSubTypes.get(index);
+            }
+        }
+
+        if (value instanceof String) {
+            // Of the compatible sub-types, the simplest is chosen, as determined by the ordering of the RecordFieldType enum
+            DataType chosenSimpleType = null;
+            for (final DataType subType : possibleSubTypes) {
+                if (isCompatibleDataType(value, subType) && (chosenSimpleType == null || subType.getFieldType().compareTo(chosenSimpleType.getFieldType()) < 0)) {
+                    chosenSimpleType = subType;
+                }
+            }
+
+            return chosenSimpleType;
+        }
+
+        DataType firstCompatibleSubType = null;
+        List<DataType> compatibleSimpleSubTypes = null;
+        for (final DataType subType : possibleSubTypes) {
+            if (!isCompatibleDataType(value, subType)) {
+                continue;
+            }
+
+            if (firstCompatibleSubType == null) {
+                firstCompatibleSubType = subType;
             } else {
-                if (isCompatibleDataType(value, subType)) {
-                    compatibleSimpleSubTypes.add(subType);
+                if (compatibleSimpleSubTypes == null) {
+                    compatibleSimpleSubTypes = new ArrayList<>();
+                    compatibleSimpleSubTypes.add(firstCompatibleSubType);
                 }
+                compatibleSimpleSubTypes.add(subType);
             }
         }
 
-        int nrOfCompatibleSimpleSubTypes = compatibleSimpleSubTypes.size();
+        if (compatibleSimpleSubTypes == null) {
+            return firstCompatibleSubType;
+        }
 
-        final DataType chosenSimpleType;
-        if (nrOfCompatibleSimpleSubTypes == 0) {
-            chosenSimpleType = null;
-        } else if (nrOfCompatibleSimpleSubTypes == 1) {
-            chosenSimpleType = compatibleSimpleSubTypes.get(0);
-        } else {
-            chosenSimpleType = findMostSuitableType(value, compatibleSimpleSubTypes, Function.identity())
-                    .orElse(compatibleSimpleSubTypes.get(0));
+        return findMostSuitableType(value, compatibleSimpleSubTypes, Function.identity()).orElse(firstCompatibleSubType);
+    }
+
+    /**
+     * Returns the Data Type that {@link #inferDataType(Object, DataType)} infers for the given value if that Data Type depends only on the class of
+     * the value. BigDecimal values are excluded because their inferred Data Type depends on the precision and scale of the value.
+     */
+    private static DataType getClassDataType(final Object value) {
+        if ((value instanceof Number && !(value instanceof BigDecimal)) || value instanceof Boolean || value instanceof java.util.Date || value instanceof Character) {
+            return inferDataType(value, null);
         }
 
-        return chosenSimpleType;
+        return null;
     }
 
     public static <T> Optional<T> findMostSuitableType(Object value, List<T> types, Function<T, DataType> dataTypeMapper) {
@@ -1190,7 +1220,7 @@ public class DataTypeUtils {
             }
 
             try {
-                DateTimeFormatter.ofPattern(format).parse(value.toString());
+                DateTimeFormatterRegistry.getDateTimeFormatter(format).parse(value.toString());
                 return true;
             } catch (final DateTimeParseException e) {
                 return false;
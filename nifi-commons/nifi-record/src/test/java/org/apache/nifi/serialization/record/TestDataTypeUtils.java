@@ -56,6 +56,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -827,6 +828,59 @@ public class TestDataTypeUtils {
         testChooseDataTypeAlsoReverseTypes(value, dataTypes, expected);
     }
 
+    @Test
+    public void testChooseDataTypeWhenStringValueThenShouldReturnSimplestCompatibleType() {
+        // GIVEN
+        List<DataType> dataTypes = Arrays.asList(
+                RecordFieldType.STRING.getDataType(),
+                RecordFieldType.LONG.getDataType(),
+                RecordFieldType.CHOICE.getChoiceDataType(
+                        RecordFieldType.DOUBLE.getDataType(),
+                        RecordFieldType.INT.getDataType()
+                )
+        );
+
+        Object value = "42";
+        DataType expected = RecordFieldType.INT.getDataType();
+
+        // WHEN
+        // THEN
+        testChooseDataTypeAlsoReverseTypes(value, dataTypes, expected);
+    }
+
+    @Test
+    public void testChooseDataTypeWhenNoCompatibleTypeThenShouldReturnNull() {
+        // GIVEN
+        List<DataType> dataTypes = Arrays.asList(
+                RecordFieldType.INT.getDataType(),
+                RecordFieldType.DOUBLE.getDataType()
+        );
+
+        // WHEN
+        // THEN
+        testChooseDataTypeAlsoReverseTypes(Boolean.TRUE, dataTypes, null);
+        testChooseDataTypeAlsoReverseTypes("abc", dataTypes, null);
+    }
+
+    @Test
+    public void testGetFlattenedSubTypes() {
+        final ChoiceDataType choiceDataType = (ChoiceDataType) RecordFieldType.CHOICE.getChoiceDataType(
+                RecordFieldType.CHOICE.getChoiceDataType(
+                        RecordFieldType.DOUBLE.getDataType(),
+                        RecordFieldType.INT.getDataType()
+                ),
+                RecordFieldType.STRING.getDataType()
+        );
+
+        final List<DataType> expected = Arrays.asList(
+                RecordFieldType.STRING.getDataType(),
+                RecordFieldType.DOUBLE.getDataType(),
+                RecordFieldType.INT.getDataType()
+        );
+        assertEquals(expected, choiceDataType.getFlattenedSubTypes());
+        assertSame(choiceDataType.getFlattenedSubTypes(), choiceDataType.getFlattenedSubTypes());
+    }
+
     private <E> void testChooseDataTypeAlsoReverseTypes(Object value, List<DataType> dataTypes, DataType expected) {
         testChooseDataType(dataTypes, value, expected);
         Collections.reverse(dataTypes);
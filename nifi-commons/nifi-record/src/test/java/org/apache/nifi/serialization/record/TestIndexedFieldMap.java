@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestIndexedFieldMap {
+
+    private static final RecordSchema SCHEMA = new SimpleRecordSchema(List.of(
+        new RecordField("id", RecordFieldType.INT.getDataType()),
+        new RecordField("name", RecordFieldType.STRING.getDataType()),
+        new RecordField("balance", RecordFieldType.DOUBLE.getDataType())
+    ));
+
+    @Test
+    void testIterationFollowsInsertionOrder() {
+        final Map<String, Object> values = new IndexedFieldMap(SCHEMA);
+        values.put("balance", 4.5D);
+        values.put("unknown", "x");
+        values.put("id", 1);
+
+        assertEquals(List.of("balance", "unknown", "id"), new ArrayList<>(values.keySet()));
+        assertEquals(List.of(4.5D, "x", 1), new ArrayList<>(values.values()));
+
+        values.put("balance", 8.0D);
+        assertEquals(List.of("balance", "unknown", "id"), new ArrayList<>(values.keySet()));
+        assertEquals(8.0D, values.get("balance"));
+    }
+
+    @Test
+    void testNullValuesAndRemoval() {
+        final Map<String, Object> values = new IndexedFieldMap(SCHEMA);
+        values.put("name", null);
+        values.put("other", null);
+
+        assertEquals(2, values.size());
+        assertTrue(values.containsKey("name"));
+        assertTrue(values.containsKey("other"));
+        assertFalse(values.containsKey("id"));
+        assertNull(values.get("name"));
+
+        assertNull(values.remove("name"));
+        assertFalse(values.containsKey("name"));
+        assertEquals(1, values.size());
+
+        values.put("name", "John");
+        values.put("third", 3);
+        assertNull(values.remove("other"));
+        assertEquals(List.of("name", "third"), new ArrayList<>(values.keySet()));
+        assertEquals(3, values.get("third"));
+
+        final Iterator<String> itr = values.keySet().iterator();
+        itr.next();
+        itr.remove();
+        assertEquals(Map.of("third", 3), values);
+
+        values.clear();
+        assertTrue(values.isEmpty());
+        assertNull(values.get("third"));
+    }
+
+    @Test
+    void testEqualToHashMap() {
+        final Map<String, Object> indexed = new IndexedFieldMap(SCHEMA);
+        indexed.put("id", 1);
+        indexed.put("name", "John");
+        indexed.put("unknown", true);
+
+        final Map<String, Object> hashed = new HashMap<>();
+        hashed.put("unknown", true);
+        hashed.put("name", "John");
+        hashed.put("id", 1);
+
+        assertEquals(hashed, indexed);
+        assertEquals(indexed, hashed);
+        assertEquals(hashed.hashCode(), indexed.hashCode());
+        assertEquals(new MapRecord(SCHEMA, hashed), new MapRecord(SCHEMA, indexed));
+    }
+
+    @Test
+    void testRecordOperations() {
+        final Map<String, Object> values = new IndexedFieldMap(SCHEMA);
+        values.put("id", 1);
+        values.put("name", "John");
+
+        final Record record = new MapRecord(new SimpleRecordSchema(SCHEMA.getFields()), values);
+        assertEquals(1, record.getAsInt("id"));
+        assertNull(record.getValue("balance"));
+
+        record.setValue("balance", 12.5D);
+        assertEquals(12.5D, record.getAsDouble("balance"));
+
+        assertTrue(record.rename(record.getSchema().getField("name").get(), "fullName"));
+        assertEquals("John", record.getValue("fullName"));
+        assertNull(record.getValue("name"));
+        assertEquals(List.of("id", "balance", "fullName"), new ArrayList<>(record.getRawFieldNames()));
+    }
+
+    @Test
+    void testFieldIndexCachedBySchema() {
+        final SimpleRecordSchema schema = new SimpleRecordSchema(SCHEMA.getFields());
+        final FieldIndex fieldIndex = FieldIndex.of(schema);
+        assertSame(fieldIndex, FieldIndex.of(schema));
+        assertEquals(1, fieldIndex.getSlot("name"));
+        assertEquals(-1, fieldIndex.getSlot("unknown"));
+
+        schema.renameField("name", "fullName");
+        final FieldIndex renamedIndex = FieldIndex.of(schema);
+        assertEquals(-1, renamedIndex.getSlot("name"));
+        assertEquals(1, renamedIndex.getSlot("fullName"));
+    }
+
+    @Test
+    @Disabled("Intended for manual performance testing; should not be run in an automated environment")
+    void testIndexedVersusLinkedHashMapRecords() {
+        final List<RecordField> fields = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            fields.add(new RecordField("field" + i, RecordFieldType.LONG.getDataType()));
+        }
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < 5_000_000; i++) {
+                final Map<String, Object> values = new LinkedHashMap<>(fields.size() * 2);
+                sum += populateAndRead(schema, fields, values, i);
+            }
+            System.out.println("LinkedHashMap: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " millis (" + sum + ")");
+
+            start = System.nanoTime();
+            sum = 0;
+            for (int i = 0; i < 5_000_000; i++) {
+                final Map<String, Object> values = new IndexedFieldMap(schema);
+                sum += populateAndRead(schema, fields, values, i);
+            }
+            System.out.println("IndexedFieldMap: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " millis (" + sum + ")");
+        }
+    }
+
+    private long populateAndRead(final RecordSchema schema, final List<RecordField> fields, final Map<String, Object> values, final long value) {
+        for (final RecordField field : fields) {
+            values.put(field.getFieldName(), value);
+        }
+
+        final Record record = new MapRecord(schema, values);
+        long sum = 0;
+        for (final RecordField field : fields) {
+            sum += (Long) record.getValue(field);
+        }
+        return sum;
+    }
+}
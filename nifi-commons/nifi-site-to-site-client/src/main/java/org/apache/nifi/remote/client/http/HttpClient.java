@@ -56,9 +56,23 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
     private final ScheduledExecutorService taskExecutor;
     private final PeerSelector peerSelector;
     private final Set<HttpClientTransaction> activeTransactions = Collections.synchronizedSet(new HashSet<>());
+    private final int maxStreamsPerTransaction;
 
     public HttpClient(final SiteToSiteClientConfig config) {
+        this(config, 1);
+    }
+
+    /**
+     * Create an HTTP Site-to-Site Client sending the Data Packets of each SEND Transaction over as many as the specified
+     * number of connections. The connections are committed separately, so this is not available through the public
+     * client configuration until Transactions spanning several connections can be committed atomically.
+     *
+     * @param config Site-to-Site Client configuration
+     * @param maxStreamsPerTransaction maximum number of connections for a single SEND Transaction
+     */
+    HttpClient(final SiteToSiteClientConfig config, final int maxStreamsPerTransaction) {
         super(config);
+        this.maxStreamsPerTransaction = maxStreamsPerTransaction;
 
         peerSelector = new PeerSelector(this, config.getPeerPersistence());
         peerSelector.setEventReporter(config.getEventReporter());
@@ -134,6 +148,16 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
     @Override
     public Transaction createTransaction(final TransferDirection direction) throws IOException {
+        final HttpClientTransaction transaction = createHttpClientTransaction(direction);
+
+        if (transaction == null || direction != TransferDirection.SEND || maxStreamsPerTransaction < 2) {
+            return transaction;
+        }
+
+        return new MultiStreamTransaction(transaction, maxStreamsPerTransaction, () -> createHttpClientTransaction(TransferDirection.SEND));
+    }
+
+    private HttpClientTransaction createHttpClientTransaction(final TransferDirection direction) throws IOException {
         final int timeoutMillis = (int) config.getTimeout(TimeUnit.MILLISECONDS);
 
         PeerStatus peerStatus;
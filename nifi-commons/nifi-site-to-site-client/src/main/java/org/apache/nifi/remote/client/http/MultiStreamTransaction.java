@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.client.http;
+
+import org.apache.nifi.remote.ClientTransactionCompletion;
+import org.apache.nifi.remote.Communicant;
+import org.apache.nifi.remote.Transaction;
+import org.apache.nifi.remote.TransactionCompletion;
+import org.apache.nifi.remote.protocol.DataPacket;
+import org.apache.nifi.remote.util.StandardDataPacket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A SEND Transaction that spreads its Data Packets across several underlying Transactions, each of which transfers
+ * its Data Packets over its own HTTP connection. Sending over a high-latency link with a single connection is limited
+ * by the throughput of a single TCP stream, so additional streams are opened as the amount of data sent grows, until
+ * the configured maximum number of streams is reached. Each Data Packet is sent to the stream that has sent the fewest bytes.
+ * </p>
+ *
+ * <p>
+ * Every stream is a complete Transaction with the remote instance and retains its own checksum verification. All streams
+ * are confirmed before any stream is completed, so a failure to transfer or verify the data of any stream cancels every
+ * stream. Completing the Transaction commits each stream separately, however, and the remote instance cannot roll back a
+ * stream that has been committed. Delivery is therefore at-least-once for each stream rather than atomic for the Transaction
+ * as a whole: if completing one stream fails, the streams that have not yet been completed are canceled, while the Data
+ * Packets of the streams already completed have been delivered and will be delivered again if the Transaction is retried.
+ * </p>
+ */
+class MultiStreamTransaction implements Transaction {
+    private static final Logger logger = LoggerFactory.getLogger(MultiStreamTransaction.class);
+
+    static final long STREAM_THRESHOLD_BYTES = 1024 * 1024;
+
+    private final List<TransactionStream> streams = new ArrayList<>();
+    private final int maxStreams;
+    private final TransactionStreamFactory streamFactory;
+    private final long creationNanoTime = System.nanoTime();
+
+    private TransactionState state = TransactionState.TRANSACTION_STARTED;
+    private boolean streamCreationFailed = false;
+
+    MultiStreamTransaction(final Transaction transaction, final int maxStreams, final TransactionStreamFactory streamFactory) {
+        this.streams.add(new TransactionStream(Objects.requireNonNull(transaction, "Transaction required")));
+        this.maxStreams = maxStreams;
+        this.streamFactory = Objects.requireNonNull(streamFactory, "Transaction Stream Factory required");
+    }
+
+    @Override
+    public void send(final DataPacket dataPacket) throws IOException {
+        if (state != TransactionState.DATA_EXCHANGED && state != TransactionState.TRANSACTION_STARTED) {
+            throw new IllegalStateException("Cannot send data because Transaction State is " + state);
+        }
+
+        final TransactionStream stream = selectStream();
+        try {
+            stream.transaction.send(dataPacket);
+        } catch (final Exception e) {
+            state = TransactionState.ERROR;
+            throw e;
+        }
+
+        stream.bytesSent += dataPacket.getSize();
+        state = TransactionState.DATA_EXCHANGED;
+    }
+
+    @Override
+    public void send(final byte[] content, final Map<String, String> attributes) throws IOException {
+        send(new StandardDataPacket(attributes, new ByteArrayInputStream(content), content.length));
+    }
+
+    @Override
+    public DataPacket receive() {
+        throw new IllegalStateException("Attempting to receive data but started a SEND Transaction");
+    }
+
+    @Override
+    public void confirm() throws IOException {
+        try {
+            // Confirming a stream finishes its transfer and verifies its checksum, so all streams must be
+            // confirmed before any of them is committed by completing the Transaction.
+            for (final TransactionStream stream : streams) {
+                stream.transaction.confirm();
+            }
+        } catch (final Exception e) {
+            state = TransactionState.ERROR;
+            cancelStreams("Failed to confirm all streams of the transaction");
+            throw e;
+        }
+
+        state = TransactionState.TRANSACTION_CONFIRMED;
+    }
+
+    @Override
+    public TransactionCompletion complete() throws IOException {
+        if (state != TransactionState.TRANSACTION_CONFIRMED) {
+            throw new IllegalStateException("Cannot complete transaction because state is " + state
+                    + "; Transaction can only be completed when state is " + TransactionState.TRANSACTION_CONFIRMED);
+        }
+
+        boolean backoff = false;
+        int streamsCompleted = 0;
+        int dataPacketsTransferred = 0;
+        long bytesTransferred = 0;
+        try {
+            for (final TransactionStream stream : streams) {
+                final TransactionCompletion completion = stream.transaction.complete();
+                backoff |= completion.isBackoff();
+                streamsCompleted++;
+                dataPacketsTransferred += completion.getDataPacketsTransferred();
+                bytesTransferred += completion.getBytesTransferred();
+            }
+        } catch (final Exception e) {
+            state = TransactionState.ERROR;
+            cancelStreams("Failed to complete all streams of the transaction");
+            if (streamsCompleted == 0) {
+                throw e;
+            }
+
+            // Streams already completed have been committed by the remote instance, so the Transaction was partially delivered
+            throw new IOException(String.format("Failed to complete stream %d of %d; %d Data Packets (%d bytes) of the completed streams were delivered",
+                    streamsCompleted + 1, streams.size(), dataPacketsTransferred, bytesTransferred), e);
+        }
+
+        state = TransactionState.TRANSACTION_COMPLETED;
+        return new ClientTransactionCompletion(backoff, dataPacketsTransferred, bytesTransferred, System.nanoTime() - creationNanoTime);
+    }
+
+    @Override
+    public void cancel(final String explanation) throws IOException {
+        if (state == TransactionState.TRANSACTION_CANCELED || state == TransactionState.TRANSACTION_COMPLETED || state == TransactionState.ERROR) {
+            throw new IllegalStateException("Cannot cancel transaction because state is already " + state);
+        }
+
+        IOException failure = null;
+        for (final TransactionStream stream : streams) {
+            try {
+                stream.transaction.cancel(explanation);
+            } catch (final IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            error();
+            throw failure;
+        }
+
+        state = TransactionState.TRANSACTION_CANCELED;
+    }
+
+    @Override
+    public void error() {
+        state = TransactionState.ERROR;
+        for (final TransactionStream stream : streams) {
+            stream.transaction.error();
+        }
+    }
+
+    @Override
+    public TransactionState getState() {
+        return state;
+    }
+
+    @Override
+    public Communicant getCommunicant() {
+        return streams.get(0).transaction.getCommunicant();
+    }
+
+    int getStreamCount() {
+        return streams.size();
+    }
+
+    private TransactionStream selectStream() {
+        TransactionStream selected = streams.get(0);
+        for (final TransactionStream stream : streams) {
+            if (stream.bytesSent < selected.bytesSent) {
+                selected = stream;
+            }
+        }
+
+        // Open another stream only once every stream has sent enough data to benefit from it,
+        // so that small transactions do not incur the cost of establishing additional connections.
+        if (selected.bytesSent < STREAM_THRESHOLD_BYTES || streams.size() >= maxStreams || streamCreationFailed) {
+            return selected;
+        }
+
+        final Transaction transaction;
+        try {
+            transaction = streamFactory.createStream();
+        } catch (final IOException e) {
+            logger.warn("{} Failed to open an additional stream; continuing with {} streams", this, streams.size(), e);
+            streamCreationFailed = true;
+            return selected;
+        }
+
+        if (transaction == null) {
+            logger.debug("{} No peer available for an additional stream; continuing with {} streams", this, streams.size());
+            streamCreationFailed = true;
+            return selected;
+        }
+
+        final TransactionStream stream = new TransactionStream(transaction);
+        streams.add(stream);
+        logger.debug("{} Opened an additional stream", this);
+        return stream;
+    }
+
+    private void cancelStreams(final String explanation) {
+        for (final TransactionStream stream : streams) {
+            try {
+                final TransactionState streamState = stream.transaction.getState();
+                if (streamState == TransactionState.TRANSACTION_CANCELED || streamState == TransactionState.TRANSACTION_COMPLETED || streamState == TransactionState.ERROR) {
+                    continue;
+                }
+
+                stream.transaction.cancel(explanation);
+            } catch (final Exception e) {
+                logger.warn("{} Failed to cancel stream {}", this, stream.transaction, e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[Streams=" + streams.size() + ", State=" + state + "]";
+    }
+
+    /**
+     * Factory for the Transactions that carry the additional streams of a Multi-Stream Transaction
+     */
+    interface TransactionStreamFactory {
+        /**
+         * @return a new SEND Transaction or null if no peer is available
+         * @throws IOException if unable to create the Transaction
+         */
+        Transaction createStream() throws IOException;
+    }
+
+    private static class TransactionStream {
+        private final Transaction transaction;
+        private long bytesSent;
+
+        private TransactionStream(final Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
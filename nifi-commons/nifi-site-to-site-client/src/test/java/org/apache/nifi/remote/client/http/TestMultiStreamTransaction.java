@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.client.http;
+
+import org.apache.nifi.remote.ClientTransactionCompletion;
+import org.apache.nifi.remote.Communicant;
+import org.apache.nifi.remote.Transaction;
+import org.apache.nifi.remote.Transaction.TransactionState;
+import org.apache.nifi.remote.TransactionCompletion;
+import org.apache.nifi.remote.protocol.DataPacket;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestMultiStreamTransaction {
+
+    private static final int PACKET_SIZE = 512 * 1024;
+
+    private final List<StubTransaction> createdStreams = new ArrayList<>();
+
+    @Test
+    public void testSmallTransactionUsesSingleStream() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 4, this::createStream);
+
+        for (int i = 0; i < 10; i++) {
+            transaction.send(new byte[1024], Collections.emptyMap());
+        }
+
+        assertEquals(1, transaction.getStreamCount());
+        assertEquals(10, primary.packets);
+
+        transaction.confirm();
+        final TransactionCompletion completion = transaction.complete();
+        assertEquals(10, completion.getDataPacketsTransferred());
+        assertEquals(10 * 1024, completion.getBytesTransferred());
+        assertEquals(TransactionState.TRANSACTION_COMPLETED, transaction.getState());
+    }
+
+    @Test
+    public void testStreamsOpenedUpToMaximum() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 3, this::createStream);
+
+        final int packetCount = 24;
+        for (int i = 0; i < packetCount; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+
+        assertEquals(3, transaction.getStreamCount());
+        assertEquals(2, createdStreams.size());
+        for (final StubTransaction stream : createdStreams) {
+            assertTrue(stream.packets > 0);
+        }
+
+        transaction.confirm();
+        final TransactionCompletion completion = transaction.complete();
+        assertEquals(packetCount, completion.getDataPacketsTransferred());
+        assertEquals((long) packetCount * PACKET_SIZE, completion.getBytesTransferred());
+        assertEquals(TransactionState.TRANSACTION_COMPLETED, primary.state);
+        for (final StubTransaction stream : createdStreams) {
+            assertEquals(TransactionState.TRANSACTION_COMPLETED, stream.state);
+        }
+    }
+
+    @Test
+    public void testStreamCreationFailureContinuesWithExistingStreams() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 4, () -> {
+            throw new IOException("Connection refused");
+        });
+
+        for (int i = 0; i < 8; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+
+        assertEquals(1, transaction.getStreamCount());
+        assertEquals(8, primary.packets);
+
+        transaction.confirm();
+        assertEquals(8, transaction.complete().getDataPacketsTransferred());
+    }
+
+    @Test
+    public void testConfirmFailureCancelsOtherStreams() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 2, this::createStream);
+
+        for (int i = 0; i < 4; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+        assertEquals(2, transaction.getStreamCount());
+
+        final StubTransaction secondary = createdStreams.get(0);
+        secondary.failConfirm = true;
+
+        assertThrows(IOException.class, transaction::confirm);
+        assertEquals(TransactionState.ERROR, transaction.getState());
+        assertEquals(TransactionState.TRANSACTION_CANCELED, primary.state);
+        assertEquals(TransactionState.ERROR, secondary.state);
+        assertThrows(IllegalStateException.class, transaction::complete);
+    }
+
+    @Test
+    public void testCompleteFailureAfterStreamCompletedReportsPartialDelivery() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 2, this::createStream);
+
+        for (int i = 0; i < 4; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+        final StubTransaction secondary = createdStreams.get(0);
+        secondary.failComplete = true;
+
+        transaction.confirm();
+        final IOException exception = assertThrows(IOException.class, transaction::complete);
+        assertTrue(exception.getMessage().contains(primary.packets + " Data Packets"), exception.getMessage());
+        assertEquals(TransactionState.ERROR, transaction.getState());
+        assertEquals(TransactionState.TRANSACTION_COMPLETED, primary.state);
+        assertEquals(TransactionState.ERROR, secondary.state);
+    }
+
+    @Test
+    public void testCompleteFailureCancelsStreamsNotCompleted() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 2, this::createStream);
+
+        for (int i = 0; i < 4; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+        primary.failComplete = true;
+
+        transaction.confirm();
+        final IOException exception = assertThrows(IOException.class, transaction::complete);
+        assertEquals(StubTransaction.COMPLETE_FAILED, exception.getMessage());
+        assertEquals(TransactionState.ERROR, transaction.getState());
+        assertEquals(TransactionState.TRANSACTION_CANCELED, createdStreams.get(0).state);
+    }
+
+    @Test
+    public void testCompleteAggregatesBackoff() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 2, this::createStream);
+
+        for (int i = 0; i < 4; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+        createdStreams.get(0).backoff = true;
+
+        transaction.confirm();
+        assertTrue(transaction.complete().isBackoff());
+    }
+
+    @Test
+    public void testCancelCancelsAllStreams() throws IOException {
+        final StubTransaction primary = new StubTransaction();
+        final MultiStreamTransaction transaction = new MultiStreamTransaction(primary, 2, this::createStream);
+
+        for (int i = 0; i < 4; i++) {
+            transaction.send(new byte[PACKET_SIZE], Collections.emptyMap());
+        }
+
+        transaction.cancel("Test");
+        assertEquals(TransactionState.TRANSACTION_CANCELED, transaction.getState());
+        assertEquals(TransactionState.TRANSACTION_CANCELED, primary.state);
+        assertEquals(TransactionState.TRANSACTION_CANCELED, createdStreams.get(0).state);
+    }
+
+    private Transaction createStream() {
+        final StubTransaction stream = new StubTransaction();
+        createdStreams.add(stream);
+        return stream;
+    }
+
+    private static class StubTransaction implements Transaction {
+        private static final String COMPLETE_FAILED = "Commit failed";
+
+        private TransactionState state = TransactionState.TRANSACTION_STARTED;
+        private int packets;
+        private long bytes;
+        private boolean failConfirm;
+        private boolean failComplete;
+        private boolean backoff;
+
+        @Override
+        public void send(final DataPacket dataPacket) {
+            packets++;
+            bytes += dataPacket.getSize();
+            state = TransactionState.DATA_EXCHANGED;
+        }
+
+        @Override
+        public void send(final byte[] content, final Map<String, String> attributes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DataPacket receive() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void confirm() throws IOException {
+            if (failConfirm) {
+                state = TransactionState.ERROR;
+                throw new IOException("Bad checksum");
+            }
+            state = TransactionState.TRANSACTION_CONFIRMED;
+        }
+
+        @Override
+        public TransactionCompletion complete() throws IOException {
+            if (failComplete) {
+                state = TransactionState.ERROR;
+                throw new IOException(COMPLETE_FAILED);
+            }
+            state = TransactionState.TRANSACTION_COMPLETED;
+            return new ClientTransactionCompletion(backoff, packets, bytes, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        @Override
+        public void cancel(final String explanation) {
+            state = TransactionState.TRANSACTION_CANCELED;
+        }
+
+        @Override
+        public void error() {
+            state = TransactionState.ERROR;
+        }
+
+        @Override
+        public TransactionState getState() {
+            return state;
+        }
+
+        @Override
+        public Communicant getCommunicant() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Provides "group commit" semantics for a {@link WriteAheadJournal}. Rather than each thread that requires its update to be
+ * durable calling {@link WriteAheadJournal#fsync()} itself, threads call {@link #sync(WriteAheadJournal)}, which parks the calling thread
+ * until a dedicated sync thread has forced the journal to disk. The sync thread waits up to the configured window (or until the configured
+ * number of threads are waiting) and then issues a single fsync on behalf of every thread that is waiting, releasing them all together.
+ * </p>
+ *
+ * <p>
+ * Because a thread does not return from {@link #sync(WriteAheadJournal)} until an fsync that was started after its update was written
+ * has completed, each update remains durable before the caller proceeds, but the cost of the fsync is amortized across all updates in the batch.
+ * </p>
+ */
+public class GroupCommitSynchronizer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitSynchronizer.class);
+
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final Thread syncThread;
+    private final AtomicLong syncCount = new AtomicLong(0L);
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition batchUpdated = lock.newCondition();
+    private SyncBatch pendingBatch; // guarded by lock
+    private boolean closed = false; // guarded by lock
+
+    /**
+     * Creates a new GroupCommitSynchronizer and starts its sync thread
+     *
+     * @param threadName the name to give the thread that performs the fsync
+     * @param maxWait the maximum amount of time that the sync thread will wait for additional updates to join a batch before syncing. A value of 0
+     *            indicates that the sync thread should sync as soon as any update is waiting; updates that arrive while an fsync is in progress will still
+     *            be grouped together into the next batch.
+     * @param timeUnit the unit for the maxWait argument
+     * @param maxBatchSize the maximum number of waiting updates after which the sync thread will sync without waiting for the rest of the window to elapse
+     */
+    public GroupCommitSynchronizer(final String threadName, final long maxWait, final TimeUnit timeUnit, final int maxBatchSize) {
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("Max Wait cannot be negative");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max Batch Size must be at least 1");
+        }
+
+        this.maxWaitNanos = timeUnit.toNanos(maxWait);
+        this.maxBatchSize = maxBatchSize;
+
+        syncThread = new Thread(this::syncBatches);
+        syncThread.setName(threadName);
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Waits until the given journal has been synchronized to disk by the sync thread. All data that has been written to the journal
+     * before this method is called is guaranteed to have been synchronized to disk when this method returns.
+     *
+     * @param journal the journal to sync
+     * @throws IOException if unable to sync the journal, if interrupted while waiting, or if this synchronizer has been closed
+     */
+    public void sync(final WriteAheadJournal<?> journal) throws IOException {
+        final SyncBatch batch;
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Cannot sync Write-Ahead Log journal because the Group Commit Synchronizer has been closed");
+            }
+
+            if (pendingBatch == null) {
+                pendingBatch = new SyncBatch(journal);
+            } else if (pendingBatch.getJournal() != journal) {
+                // All updates in a batch must belong to the same journal. This should not happen, as the journal is rolled over only
+                // while no updates are in progress, but if it does, sync the journal directly rather than waiting on the wrong one.
+                logger.debug("Pending group commit batch is for a different journal; syncing journal directly");
+                journal.fsync();
+                return;
+            }
+
+            batch = pendingBatch;
+            batch.incrementWaiting();
+            batchUpdated.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        batch.await();
+    }
+
+    private void syncBatches() {
+        while (true) {
+            final SyncBatch batch;
+
+            lock.lock();
+            try {
+                while (pendingBatch == null && !closed) {
+                    batchUpdated.await();
+                }
+
+                if (pendingBatch == null) {
+                    return;
+                }
+
+                long remainingNanos = maxWaitNanos;
+                while (remainingNanos > 0L && pendingBatch.getWaiting() < maxBatchSize && !closed) {
+                    remainingNanos = batchUpdated.awaitNanos(remainingNanos);
+                }
+
+                batch = pendingBatch;
+                pendingBatch = null;
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                failPendingBatch(new IOException("Interrupted while waiting to sync Write-Ahead Log journal", ie));
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            batch.sync();
+            syncCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of times that the sync thread has synced a journal on behalf of a batch of updates
+     */
+    long getSyncCount() {
+        return syncCount.get();
+    }
+
+    private void failPendingBatch(final Throwable cause) {
+        // called while holding lock
+        closed = true;
+        if (pendingBatch != null) {
+            pendingBatch.fail(cause);
+            pendingBatch = null;
+        }
+    }
+
+    /**
+     * Stops accepting new sync requests, syncs any batch that is already pending, and stops the sync thread.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            batchUpdated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            syncThread.join();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Write-Ahead Log sync thread to complete", ie);
+        }
+    }
+
+    private static class SyncBatch {
+        private final WriteAheadJournal<?> journal;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int waiting = 0; // guarded by GroupCommitSynchronizer.lock
+
+        SyncBatch(final WriteAheadJournal<?> journal) {
+            this.journal = journal;
+        }
+
+        WriteAheadJournal<?> getJournal() {
+            return journal;
+        }
+
+        void incrementWaiting() {
+            waiting++;
+        }
+
+        int getWaiting() {
+            return waiting;
+        }
+
+        void sync() {
+            final long start = System.nanoTime();
+            try {
+                journal.fsync();
+                future.complete(null);
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Synced Write-Ahead Log journal on behalf of {} updates in {} micros", waiting, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
+
+        void fail(final Throwable cause) {
+            future.completeExceptionally(cause);
+        }
+
+        void await() throws IOException {
+            try {
+                future.get();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Write-Ahead Log journal to be synced", ie);
+            } catch (final ExecutionException ee) {
+                final Throwable cause = ee.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+
+                throw new IOException("Failed to sync Write-Ahead Log journal", cause);
+            }
+        }
+    }
+}
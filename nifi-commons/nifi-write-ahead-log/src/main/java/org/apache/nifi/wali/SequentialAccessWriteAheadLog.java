@@ -65,6 +65,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     private final File journalsDirectory;
     protected final SerDeFactory<T> serdeFactory;
     private final SyncListener syncListener;
+    private final GroupCommitSynchronizer groupCommitSynchronizer;
     private final Set<String> recoveredSwapLocations = new HashSet<>();
 
     private final ReadWriteLock journalRWLock = new ReentrantReadWriteLock();
@@ -88,6 +89,21 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     }
 
     public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener) throws IOException {
+        this(storageDirectory, serdeFactory, syncListener, null);
+    }
+
+    /**
+     * Creates a Write-Ahead Log that, if a GroupCommitSynchronizer is provided, uses it to sync the journal to disk for updates that are forced to sync, rather than
+     * having each updating thread sync the journal itself. The Write-Ahead Log takes ownership of the synchronizer and closes it when the log is shutdown.
+     *
+     * @param storageDirectory the directory to store the snapshot and journals in
+     * @param serdeFactory the factory for the serializer/deserializer
+     * @param syncListener a listener to notify when the repository is synced to disk
+     * @param groupCommitSynchronizer the synchronizer to use for group commits, or <code>null</code> to have each update sync the journal directly
+     * @throws IOException if unable to create the storage directories
+     */
+    public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener,
+                                         final GroupCommitSynchronizer groupCommitSynchronizer) throws IOException {
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new IOException("Directory " + storageDirectory + " does not exist and cannot be created");
         }
@@ -109,6 +125,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         this.serdeFactory = serdeFactory;
         this.syncListener = (syncListener == null) ? SyncListener.NOP_SYNC_LISTENER : syncListener;
+        this.groupCommitSynchronizer = groupCommitSynchronizer;
     }
 
     @Override
@@ -122,7 +139,13 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
             journal.update(records, recordLookup);
 
             if (forceSync) {
-                journal.fsync();
+                if (groupCommitSynchronizer == null) {
+                    journal.fsync();
+                } else {
+                    // The journal cannot be rolled over while we hold the read lock, so the synchronizer is guaranteed to sync the same journal that we wrote to.
+                    groupCommitSynchronizer.sync(journal);
+                }
+
                 syncListener.onSync(PARTITION_INDEX);
             }
 
@@ -337,6 +360,11 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
             if (journal != null) {
                 journal.close();
             }
+
+            // No update can be waiting for a group commit while we hold the write lock, so it is safe to stop the sync thread.
+            if (groupCommitSynchronizer != null) {
+                groupCommitSynchronizer.close();
+            }
         } finally {
             journalWriteLock.unlock();
         }
@@ -24,6 +24,7 @@ import org.wali.DummyRecord;
 import org.wali.DummyRecordSerde;
 import org.wali.SerDeFactory;
 import org.wali.SingletonSerDeFactory;
+import org.wali.SyncListener;
 import org.wali.UpdateType;
 import org.wali.WriteAheadRepository;
 
@@ -40,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -182,6 +184,73 @@ public class TestSequentialAccessWriteAheadLog {
         assertEquals(expected, new HashSet<>(recovered));
     }
 
+    @Test
+    public void testConcurrentUpdatesWithGroupCommit(TestInfo testInfo) throws IOException, InterruptedException {
+        final File storageDir = new File(new File("target"), testInfo.getTestMethod().get().getName());
+        deleteRecursively(storageDir);
+        assertTrue(storageDir.mkdirs());
+
+        final AtomicInteger syncCount = new AtomicInteger(0);
+        final SyncListener syncListener = new SyncListener() {
+            @Override
+            public void onSync(final int partitionIndex) {
+                syncCount.incrementAndGet();
+            }
+
+            @Override
+            public void onGlobalSync() {
+            }
+        };
+
+        final SerDeFactory<DummyRecord> serdeFactory = new SingletonSerDeFactory<>(new DummyRecordSerde());
+        final GroupCommitSynchronizer synchronizer = new GroupCommitSynchronizer("Group Commit Test", 5, TimeUnit.MILLISECONDS, 4);
+        final SequentialAccessWriteAheadLog<DummyRecord> repo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, syncListener, synchronizer);
+        assertTrue(repo.recoverRecords().isEmpty());
+
+        final int numThreads = 4;
+        final int updatesPerThread = 100;
+        final Set<DummyRecord> expected = Collections.synchronizedSet(new HashSet<>());
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        final Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < updatesPerThread; j++) {
+                    final DummyRecord record = new DummyRecord(threadIndex + "-" + j, UpdateType.CREATE);
+                    try {
+                        repo.update(Collections.singleton(record), true);
+                        expected.add(record);
+                    } catch (final Throwable t) {
+                        failures.add(t);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final int totalUpdates = numThreads * updatesPerThread;
+        assertTrue(failures.isEmpty());
+        assertEquals(totalUpdates, syncCount.get());
+
+        // Concurrent updates must share journal syncs rather than each update syncing the journal
+        final long journalSyncs = synchronizer.getSyncCount();
+        assertTrue(journalSyncs > 0);
+        assertTrue(journalSyncs < totalUpdates, "Expected fewer than " + totalUpdates + " journal syncs but found " + journalSyncs);
+        repo.shutdown();
+
+        final SequentialAccessWriteAheadLog<DummyRecord> recoveryRepo = createRecoveryRepo(testInfo);
+        final Collection<DummyRecord> recovered = recoveryRepo.recoverRecords();
+        assertEquals(totalUpdates, expected.size());
+        assertEquals(totalUpdates, recovered.size());
+        assertEquals(expected, new HashSet<>(recovered));
+        recoveryRepo.shutdown();
+    }
+
     private SequentialAccessWriteAheadLog<DummyRecord> createRecoveryRepo(TestInfo testInfo) throws IOException {
         final File targetDir = new File("target");
         final File storageDir = new File(targetDir, testInfo.getTestMethod().get().getName());
@@ -61,6 +61,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
@@ -926,7 +927,7 @@ public class AvroTypeUtil {
     }
 
     public static Map<String, Object> convertAvroRecordToMap(final GenericRecord avroRecord, final RecordSchema recordSchema, final Charset charset) {
-        final Map<String, Object> values = new HashMap<>(recordSchema.getFieldCount());
+        final Map<String, Object> values = new IndexedFieldMap(recordSchema);
 
         for (final RecordField recordField : recordSchema.getFields()) {
             final String relevantFieldName = getMatchingFieldName(avroRecord, recordField);
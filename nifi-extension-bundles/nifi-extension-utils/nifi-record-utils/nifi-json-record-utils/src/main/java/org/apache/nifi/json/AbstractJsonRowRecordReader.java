@@ -32,6 +32,7 @@ import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordFieldType;
@@ -158,11 +159,14 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
         return Optional.ofNullable(timestampFormat);
     }
 
+    protected ComponentLog getLogger() {
+        return logger;
+    }
+
 
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
-        final JsonNode nextNode = getNextJsonNode();
-        if (nextNode == null) {
+        if (!skipToNextRecord()) {
             if (captureFieldPredicate != null) {
                 while (jsonParser.nextToken() != null) {
                     captureCurrentField(captureFieldPredicate);
@@ -172,7 +176,31 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
             return null;
         }
 
-        final RecordSchema schema = getSchema();
+        return readRecord(jsonParser, getSchema(), coerceTypes, dropUnknownFields);
+    }
+
+    /**
+     * Reads the JSON object that the given parser is positioned at and converts it into a Record. When this method returns, the parser must be
+     * positioned at the END_OBJECT token of that JSON object. The default implementation reads the object into a tree and then calls
+     * {@link #convertJsonNodeToRecord(JsonNode, RecordSchema, boolean, boolean)}.
+     *
+     * @param parser the parser, positioned at the START_OBJECT token of the record
+     * @param schema the schema to use for the record
+     * @param coerceTypes whether or not to coerce values into the types of the schema
+     * @param dropUnknownFields whether or not to drop fields that are not in the schema
+     * @return the Record
+     * @throws IOException if unable to read from the parser
+     * @throws MalformedRecordException if the JSON cannot be parsed or converted into a Record
+     */
+    protected Record readRecord(final JsonParser parser, final RecordSchema schema, final boolean coerceTypes, final boolean dropUnknownFields)
+            throws IOException, MalformedRecordException {
+        final JsonNode nextNode;
+        try {
+            nextNode = parser.readValueAsTree();
+        } catch (final JsonParseException e) {
+            throw new MalformedRecordException("Failed to parse JSON", e);
+        }
+
         try {
             return convertJsonNodeToRecord(nextNode, schema, coerceTypes, dropUnknownFields);
         } catch (final MalformedRecordException mre) {
@@ -372,7 +400,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
 
     private Record createRecordFromRawValue(final JsonNode fieldNode, final RecordSchema childSchema) throws IOException {
         final Iterator<String> fieldNames = fieldNode.fieldNames();
-        final Map<String, Object> childValues = new LinkedHashMap<>();
+        final Map<String, Object> childValues = new IndexedFieldMap(childSchema);
         while (fieldNames.hasNext()) {
             final String childFieldName = fieldNames.next();
 
@@ -386,12 +414,12 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
     }
 
 
-    private JsonNode getNextJsonNode() throws IOException, MalformedRecordException {
+    private boolean skipToNextRecord() throws IOException, MalformedRecordException {
         try {
             while (true) {
                 final JsonToken token = jsonParser.nextToken();
                 if (token == null) {
-                    return null;
+                    return false;
                 }
 
                 switch (token) {
@@ -410,7 +438,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
                             }
                         }
 
-                        return jsonParser.readValueAsTree();
+                        return true;
                     default:
                         // We got a token that isn't expected. This can happen when using the Nested Field Strategy.
                         // For example, the field given has a String as a value instead of a Record. In this case, we want to skip to the next field.
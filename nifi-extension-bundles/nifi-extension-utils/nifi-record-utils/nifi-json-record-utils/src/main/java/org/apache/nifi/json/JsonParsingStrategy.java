@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.json;
+
+import org.apache.nifi.components.DescribedValue;
+
+public enum JsonParsingStrategy implements DescribedValue {
+    TREE(
+            "Tree",
+            "Reads each JSON object into a tree of JSON nodes and then converts the tree into a Record. Each Record retains the JSON "
+                    + "that it was read from, which allows a JSON Record Writer to write out unmodified Records without serializing them again."
+    ),
+    TOKEN_STREAM(
+            "Token Stream",
+            "Builds each Record directly from the stream of JSON tokens according to the schema, without first building a tree. Fields that are not "
+                    + "in the schema are skipped without being read into memory, which requires considerably less memory and CPU for large or wide JSON objects. "
+                    + "Records do not retain the JSON that they were read from, so a JSON Record Writer must always serialize them again."
+    );
+
+    private final String displayName;
+    private final String description;
+
+    JsonParsingStrategy(final String displayName, final String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getValue() {
+        return name();
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.type.RecordDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * <p>
+ * A JSON Record Reader that builds each Record directly from the stream of JSON tokens, rather than first reading each JSON object into a tree
+ * of {@link com.fasterxml.jackson.databind.JsonNode JsonNodes}. The values that are produced are the same as those produced by
+ * {@link JsonTreeRowRecordReader}, but when unknown fields are dropped, the values of fields that are not in the schema are skipped without
+ * being read into memory, and nested objects are only read when the schema requires them.
+ * </p>
+ *
+ * <p>
+ * Values whose type is a CHOICE may require that the value be examined more than once in order to determine which of the possible types it
+ * matches. Those values, and only those values, are read into a tree and converted in the same way as by {@link JsonTreeRowRecordReader}.
+ * Unlike {@link JsonTreeRowRecordReader}, the Records that are created do not retain their serialized form.
+ * </p>
+ */
+public class JsonStreamingRowRecordReader extends JsonTreeRowRecordReader {
+
+    private final Map<RecordSchema, Map<String, FieldTarget>> fieldTargets = new IdentityHashMap<>();
+
+    public JsonStreamingRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+                                        final String dateFormat, final String timeFormat, final String timestampFormat)
+            throws IOException, MalformedRecordException {
+
+        this(in, logger, schema, dateFormat, timeFormat, timestampFormat, null, null, null, null, false, null, new JsonParserFactory());
+    }
+
+    public JsonStreamingRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+                                        final String dateFormat, final String timeFormat, final String timestampFormat,
+                                        final StartingFieldStrategy startingFieldStrategy, final String startingFieldName,
+                                        final SchemaApplicationStrategy schemaApplicationStrategy, final BiPredicate<String, String> captureFieldPredicate,
+                                        final boolean allowComments, final StreamReadConstraints streamReadConstraints, final TokenParserFactory tokenParserFactory)
+            throws IOException, MalformedRecordException {
+
+        super(in, logger, schema, dateFormat, timeFormat, timestampFormat, startingFieldStrategy, startingFieldName, schemaApplicationStrategy,
+                captureFieldPredicate, allowComments, streamReadConstraints, tokenParserFactory);
+    }
+
+    @Override
+    protected Record readRecord(final JsonParser parser, final RecordSchema schema, final boolean coerceTypes, final boolean dropUnknownFields)
+            throws IOException, MalformedRecordException {
+
+        final JsonStreamContext enclosingContext = parser.getParsingContext().getParent();
+        try {
+            return readRecord(parser, schema, null, coerceTypes, dropUnknownFields);
+        } catch (final JsonParseException e) {
+            throw new MalformedRecordException("Failed to parse JSON", e);
+        } catch (final MalformedRecordException | RuntimeException e) {
+            // Skip the remainder of the JSON object so that the next call starts at the next record, as it would if the object had been read into a tree.
+            skipRemainderOfRecord(parser, enclosingContext);
+
+            if (e instanceof MalformedRecordException mre) {
+                throw mre;
+            }
+
+            getLogger().debug("Failed to convert JSON object into a Record object using schema {}", schema, e);
+            throw new MalformedRecordException("Successfully parsed a JSON object from input but failed to convert into a Record object with the given schema", e);
+        }
+    }
+
+    private void skipRemainderOfRecord(final JsonParser parser, final JsonStreamContext enclosingContext) throws IOException {
+        JsonToken token = parser.currentToken();
+        while (token != null && !(token == JsonToken.END_OBJECT && parser.getParsingContext() == enclosingContext)) {
+            token = parser.nextToken();
+        }
+    }
+
+    private Record readRecord(final JsonParser parser, final RecordSchema schema, final String fieldNamePrefix, final boolean coerceTypes, final boolean dropUnknown)
+            throws IOException, MalformedRecordException {
+
+        final Map<String, Object> values = new IndexedFieldMap(schema);
+
+        if (dropUnknown) {
+            final List<RecordField> fields = schema.getFields();
+            final Map<String, FieldTarget> targets = getFieldTargets(schema);
+            final Object[] fieldValues = new Object[fields.size()];
+
+            // The rank of the name that each field's value was read from, so that a field's own name takes precedence over its aliases
+            final int[] ranks = new int[fields.size()];
+            Arrays.fill(ranks, Integer.MAX_VALUE);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final FieldTarget target = targets.get(parser.currentName());
+                parser.nextToken();
+
+                if (target == null || target.rank() > ranks[target.slot()]) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                final RecordField recordField = target.field();
+                final String fieldName = recordField.getFieldName();
+
+                final Object value;
+                if (coerceTypes) {
+                    final String fullFieldName = fieldNamePrefix == null ? fieldName : fieldNamePrefix + fieldName;
+                    value = convertValue(parser, fullFieldName, recordField.getDataType(), dropUnknown);
+                } else {
+                    value = readRawValue(parser, recordField.getDataType(), fieldName);
+                }
+
+                fieldValues[target.slot()] = value;
+                ranks[target.slot()] = target.rank();
+            }
+
+            for (int slot = 0; slot < fieldValues.length; slot++) {
+                if (ranks[slot] != Integer.MAX_VALUE) {
+                    values.put(fields.get(slot).getFieldName(), fieldValues[slot]);
+                }
+            }
+        } else {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+
+                final RecordField recordField = schema.getField(fieldName).orElse(null);
+
+                final Object value;
+                if (coerceTypes && recordField != null) {
+                    final String fullFieldName = fieldNamePrefix == null ? fieldName : fieldNamePrefix + fieldName;
+                    value = convertValue(parser, fullFieldName, recordField.getDataType(), dropUnknown);
+                } else {
+                    value = readRawValue(parser, recordField == null ? null : recordField.getDataType(), fieldName);
+                }
+
+                values.put(fieldName, value);
+            }
+        }
+
+        return new MapRecord(schema, values, false, dropUnknown);
+    }
+
+    private Map<String, FieldTarget> getFieldTargets(final RecordSchema schema) {
+        return fieldTargets.computeIfAbsent(schema, JsonStreamingRowRecordReader::createFieldTargets);
+    }
+
+    private static Map<String, FieldTarget> createFieldTargets(final RecordSchema schema) {
+        final List<RecordField> fields = schema.getFields();
+        final Map<String, FieldTarget> targets = new HashMap<>();
+        for (int slot = 0; slot < fields.size(); slot++) {
+            final RecordField field = fields.get(slot);
+            targets.put(field.getFieldName(), new FieldTarget(field, slot, 0));
+
+            int rank = 1;
+            for (final String alias : field.getAliases()) {
+                targets.putIfAbsent(alias, new FieldTarget(field, slot, rank++));
+            }
+        }
+
+        return targets;
+    }
+
+    /**
+     * Reads the value that the parser is positioned at, producing the same value as {@link #getRawNodeValue(com.fasterxml.jackson.databind.JsonNode, DataType, String)}
+     */
+    private Object readRawValue(final JsonParser parser, final DataType dataType, final String fieldName) throws IOException {
+        final JsonToken token = parser.currentToken();
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_STRING: {
+                final String textValue = parser.getText();
+                if (dataType == null) {
+                    return textValue;
+                }
+
+                switch (dataType.getFieldType()) {
+                    case DATE:
+                    case TIME:
+                    case TIMESTAMP:
+                        try {
+                            return DataTypeUtils.convertType(textValue, dataType, getDateFormat(), getTimeFormat(), getTimestampFormat(), fieldName);
+                        } catch (final Exception e) {
+                            return textValue;
+                        }
+                    default:
+                        return textValue;
+                }
+            }
+            case START_ARRAY: {
+                if (dataType != null && dataType.getFieldType() == RecordFieldType.CHOICE) {
+                    return getRawNodeValue(parser.readValueAsTree(), dataType, fieldName);
+                }
+
+                final DataType elementDataType;
+                if (dataType != null && dataType.getFieldType() == RecordFieldType.ARRAY) {
+                    elementDataType = ((ArrayDataType) dataType).getElementType();
+                } else {
+                    elementDataType = dataType;
+                }
+
+                final List<Object> elements = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    elements.add(readRawValue(parser, elementDataType, fieldName));
+                }
+
+                return elements.toArray();
+            }
+            case START_OBJECT: {
+                if (dataType != null && dataType.getFieldType() == RecordFieldType.MAP) {
+                    final DataType valueType = ((MapDataType) dataType).getValueType();
+                    final Map<String, Object> mapValue = new LinkedHashMap<>();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String elementName = parser.currentName();
+                        parser.nextToken();
+                        mapValue.put(elementName, readRawValue(parser, valueType, fieldName + "['" + elementName + "']"));
+                    }
+
+                    return mapValue;
+                }
+
+                if (dataType == null || dataType.getFieldType() != RecordFieldType.RECORD) {
+                    // The object is not described by the schema, so it is read into a tree in order to retain its serialized form
+                    return getRawNodeValue(parser.readValueAsTree(), dataType, fieldName);
+                }
+
+                final RecordSchema childSchema = ((RecordDataType) dataType).getChildSchema();
+                return readRawRecord(parser, childSchema == null ? new SimpleRecordSchema(Collections.emptyList()) : childSchema);
+            }
+            default:
+                return getRawNodeValue(parser.readValueAsTree(), dataType, fieldName);
+        }
+    }
+
+    private Record readRawRecord(final JsonParser parser, final RecordSchema childSchema) throws IOException {
+        final Map<String, Object> childValues = new IndexedFieldMap(childSchema);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String childFieldName = parser.currentName();
+            parser.nextToken();
+
+            final DataType childDataType = childSchema.getDataType(childFieldName).orElse(null);
+            childValues.put(childFieldName, readRawValue(parser, childDataType, childFieldName));
+        }
+
+        return new MapRecord(childSchema, childValues);
+    }
+
+    /**
+     * Converts the value that the parser is positioned at, producing the same value as {@link #convertField(com.fasterxml.jackson.databind.JsonNode, String, DataType, boolean)}
+     */
+    private Object convertValue(final JsonParser parser, final String fieldName, final DataType desiredType, final boolean dropUnknown)
+            throws IOException, MalformedRecordException {
+
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        switch (desiredType.getFieldType()) {
+            case MAP: {
+                final Map<String, Object> map = new LinkedHashMap<>();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    return map;
+                }
+
+                final DataType valueType = ((MapDataType) desiredType).getValueType();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String childName = parser.currentName();
+                    parser.nextToken();
+                    map.put(childName, convertValue(parser, fieldName, valueType, dropUnknown));
+                }
+
+                return map;
+            }
+            case ARRAY: {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new MalformedRecordException("Expected a JSON Array for field [" + fieldName + "] but encountered " + token);
+                }
+
+                final DataType elementType = ((ArrayDataType) desiredType).getElementType();
+                final List<Object> elements = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    elements.add(convertValue(parser, fieldName, elementType, dropUnknown));
+                }
+
+                return elements.toArray();
+            }
+            case RECORD: {
+                if (token != JsonToken.START_OBJECT || !(desiredType instanceof RecordDataType)) {
+                    parser.skipChildren();
+                    return null;
+                }
+
+                final RecordSchema childSchema = ((RecordDataType) desiredType).getChildSchema();
+                if (childSchema == null) {
+                    // The schema must be derived from the names of the fields, so the object must be read in full before it can be converted
+                    return convertField(parser.readValueAsTree(), fieldName, desiredType, dropUnknown);
+                }
+
+                return readRecord(parser, childSchema, fieldName + ".", true, dropUnknown);
+            }
+            case CHOICE:
+                return convertField(parser.readValueAsTree(), fieldName, desiredType, dropUnknown);
+            default: {
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    // Objects and arrays that are converted into a scalar value are converted from their serialized form
+                    return convertField(parser.readValueAsTree(), fieldName, desiredType, dropUnknown);
+                }
+
+                final Object rawValue = readRawValue(parser, null, fieldName);
+                return DataTypeUtils.convertType(rawValue, desiredType, getDateFormat(), getTimeFormat(), getTimestampFormat(), fieldName);
+            }
+        }
+    }
+
+    private record FieldTarget(RecordField field, int slot, int rank) {
+    }
+}
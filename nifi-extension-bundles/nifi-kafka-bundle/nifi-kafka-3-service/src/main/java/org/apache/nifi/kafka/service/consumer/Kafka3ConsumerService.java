@@ -17,6 +17,7 @@
 package org.apache.nifi.kafka.service.consumer;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -26,6 +27,7 @@ import org.apache.nifi.kafka.service.api.common.PartitionState;
 import org.apache.nifi.kafka.service.api.common.TopicPartitionSummary;
 import org.apache.nifi.kafka.service.api.consumer.AutoOffsetReset;
 import org.apache.nifi.kafka.service.api.consumer.KafkaConsumerService;
+import org.apache.nifi.kafka.service.api.consumer.PartitionRevocationListener;
 import org.apache.nifi.kafka.service.api.consumer.PollingContext;
 import org.apache.nifi.kafka.service.api.consumer.PollingSummary;
 import org.apache.nifi.kafka.service.api.header.RecordHeader;
@@ -35,6 +37,7 @@ import org.apache.nifi.kafka.service.consumer.pool.Subscription;
 import org.apache.nifi.logging.ComponentLog;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -43,6 +46,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -55,9 +62,31 @@ public class Kafka3ConsumerService implements KafkaConsumerService {
 
     private final ConsumerObjectPool consumerObjectPool;
 
+    private final ConcurrentMap<Subscription, Set<PartitionRevocationListener>> partitionRevocationListeners = new ConcurrentHashMap<>();
+
     public Kafka3ConsumerService(final ComponentLog componentLog, final Properties properties) {
         this.componentLog = Objects.requireNonNull(componentLog, "Component Log required");
-        this.consumerObjectPool = new ConsumerObjectPool(properties);
+        this.consumerObjectPool = new ConsumerObjectPool(properties, RevocationRebalanceListener::new);
+    }
+
+    @Override
+    public void addPartitionRevocationListener(final PollingContext pollingContext, final PartitionRevocationListener partitionRevocationListener) {
+        Objects.requireNonNull(partitionRevocationListener, "Partition Revocation Listener required");
+        final Subscription subscription = getSubscription(pollingContext);
+        partitionRevocationListeners.compute(subscription, (key, listeners) -> {
+            final Set<PartitionRevocationListener> subscriptionListeners = listeners == null ? new CopyOnWriteArraySet<>() : listeners;
+            subscriptionListeners.add(partitionRevocationListener);
+            return subscriptionListeners;
+        });
+    }
+
+    @Override
+    public void removePartitionRevocationListener(final PollingContext pollingContext, final PartitionRevocationListener partitionRevocationListener) {
+        final Subscription subscription = getSubscription(pollingContext);
+        partitionRevocationListeners.computeIfPresent(subscription, (key, listeners) -> {
+            listeners.remove(partitionRevocationListener);
+            return listeners.isEmpty() ? null : listeners;
+        });
     }
 
     @Override
@@ -76,6 +105,27 @@ public class Kafka3ConsumerService implements KafkaConsumerService {
         componentLog.debug("Committed Records in [{} ms] for {}", elapsed, pollingSummary);
     }
 
+    @Override
+    public void rollback(final PollingSummary pollingSummary) {
+        Objects.requireNonNull(pollingSummary, "Polling Summary required");
+
+        final Subscription subscription = getSubscription(pollingSummary);
+        final Map<TopicPartition, OffsetAndMetadata> offsets = getOffsets(pollingSummary);
+
+        runConsumerFunction(subscription, (consumer) -> {
+            final Set<TopicPartition> assignment = consumer.assignment();
+            offsets.forEach((topicPartition, offsetAndMetadata) -> {
+                // Partitions no longer assigned will be polled from committed offsets by the Consumer assigned
+                if (assignment.contains(topicPartition)) {
+                    consumer.seek(topicPartition, offsetAndMetadata);
+                }
+            });
+            return null;
+        });
+
+        componentLog.debug("Rolled back Records for {}", pollingSummary);
+    }
+
     @Override
     public Iterable<ByteRecord> poll(final PollingContext pollingContext) {
         Objects.requireNonNull(pollingContext, "Polling Context required");
@@ -158,6 +208,42 @@ public class Kafka3ConsumerService implements KafkaConsumerService {
         }
     }
 
+    /**
+     * Rebalance Listener for Consumers of one Subscription, notifying only the Partition Revocation Listeners registered for that Subscription
+     */
+    private class RevocationRebalanceListener implements ConsumerRebalanceListener {
+        private final Subscription subscription;
+
+        private RevocationRebalanceListener(final Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onPartitionsRevoked(final Collection<TopicPartition> partitions) {
+            final Set<PartitionRevocationListener> listeners = partitionRevocationListeners.get(subscription);
+            if (listeners == null || partitions.isEmpty()) {
+                return;
+            }
+
+            final List<TopicPartitionSummary> revokedPartitions = partitions.stream()
+                    .map(topicPartition -> new TopicPartitionSummary(topicPartition.topic(), topicPartition.partition()))
+                    .collect(Collectors.toList());
+            componentLog.debug("Partitions revoked {} for {}", revokedPartitions, subscription);
+            for (final PartitionRevocationListener listener : listeners) {
+                listener.onPartitionsRevoked(revokedPartitions);
+            }
+        }
+
+        @Override
+        public void onPartitionsAssigned(final Collection<TopicPartition> partitions) {
+        }
+
+        @Override
+        public void onPartitionsLost(final Collection<TopicPartition> partitions) {
+            onPartitionsRevoked(partitions);
+        }
+    }
+
     private static class RecordIterable implements Iterable<ByteRecord> {
         private final Iterator<ByteRecord> records;
 
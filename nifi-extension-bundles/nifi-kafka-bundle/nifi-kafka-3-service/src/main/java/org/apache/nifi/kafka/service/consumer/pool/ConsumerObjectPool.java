@@ -17,9 +17,12 @@
 package org.apache.nifi.kafka.service.consumer.pool;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 
+import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Function;
 
 /**
  * Kafka Consumer Object Pool
@@ -33,4 +36,15 @@ public class ConsumerObjectPool extends GenericKeyedObjectPool<Subscription, Con
     public ConsumerObjectPool(final Properties consumerProperties) {
         super(new ConsumerPooledObjectFactory(consumerProperties, new StandardConsumerFactory()));
     }
+
+    /**
+     * Consumer Object Pool constructor with Kafka Consumer Properties and Rebalance Listener Factory for subscriptions
+     *
+     * @param consumerProperties Kafka Consumer Properties required
+     * @param rebalanceListenerFactory Factory creating the Kafka Consumer Rebalance Listener for each Consumer Subscription required
+     */
+    public ConsumerObjectPool(final Properties consumerProperties, final Function<Subscription, ConsumerRebalanceListener> rebalanceListenerFactory) {
+        super(new ConsumerPooledObjectFactory(consumerProperties, new StandardConsumerFactory(),
+                Objects.requireNonNull(rebalanceListenerFactory, "Rebalance Listener Factory required")));
+    }
 }
@@ -21,11 +21,13 @@ import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
@@ -36,6 +38,8 @@ class ConsumerPooledObjectFactory extends BaseKeyedPooledObjectFactory<Subscript
 
     private final ConsumerFactory consumerFactory;
 
+    private final Function<Subscription, ConsumerRebalanceListener> rebalanceListenerFactory;
+
     /**
      * Consumer Pooled Object Factory constructor with Kafka Consumer Properties
      *
@@ -43,8 +47,24 @@ class ConsumerPooledObjectFactory extends BaseKeyedPooledObjectFactory<Subscript
      * @param consumerFactory Kafka Consumer Factory
      */
     ConsumerPooledObjectFactory(final Properties consumerProperties, final ConsumerFactory consumerFactory) {
+        this(consumerProperties, consumerFactory, null);
+    }
+
+    /**
+     * Consumer Pooled Object Factory constructor with Kafka Consumer Properties and Rebalance Listener Factory for subscriptions
+     *
+     * @param consumerProperties Kafka Consumer Properties
+     * @param consumerFactory Kafka Consumer Factory
+     * @param rebalanceListenerFactory Factory creating the Kafka Consumer Rebalance Listener for a Subscription or null when not required
+     */
+    ConsumerPooledObjectFactory(
+            final Properties consumerProperties,
+            final ConsumerFactory consumerFactory,
+            final Function<Subscription, ConsumerRebalanceListener> rebalanceListenerFactory
+    ) {
         this.consumerProperties = Objects.requireNonNull(consumerProperties, "Consumer Properties required");
         this.consumerFactory = Objects.requireNonNull(consumerFactory, "Consumer Factory required");
+        this.rebalanceListenerFactory = rebalanceListenerFactory;
     }
 
     @Override
@@ -58,13 +78,22 @@ class ConsumerPooledObjectFactory extends BaseKeyedPooledObjectFactory<Subscript
 
         final Consumer<byte[], byte[]> consumer = consumerFactory.newConsumer(properties);
 
+        final ConsumerRebalanceListener rebalanceListener = rebalanceListenerFactory == null ? null : rebalanceListenerFactory.apply(subscription);
         final Optional<Pattern> topicPatternFound = subscription.getTopicPattern();
         if (topicPatternFound.isPresent()) {
             final Pattern topicPattern = topicPatternFound.get();
-            consumer.subscribe(topicPattern);
+            if (rebalanceListener == null) {
+                consumer.subscribe(topicPattern);
+            } else {
+                consumer.subscribe(topicPattern, rebalanceListener);
+            }
         } else {
             final Collection<String> topics = subscription.getTopics();
-            consumer.subscribe(topics);
+            if (rebalanceListener == null) {
+                consumer.subscribe(topics);
+            } else {
+                consumer.subscribe(topics, rebalanceListener);
+            }
         }
 
         return consumer;
@@ -49,9 +49,16 @@ public abstract class KafkaProducerWrapper {
     public abstract void init();
 
     public void send(final Iterator<KafkaRecord> kafkaRecords, final PublishContext publishContext, final ProducerCallback callback) {
+        // Converters share the same headers across records from a FlowFile, so native headers are converted once for each distinct list
+        List<org.apache.nifi.kafka.service.api.header.RecordHeader> headers = null;
+        List<Header> nativeHeaders = null;
         while (kafkaRecords.hasNext()) {
             final KafkaRecord kafkaRecord = kafkaRecords.next();
-            producer.send(toProducerRecord(kafkaRecord, publishContext), callback);
+            if (nativeHeaders == null || kafkaRecord.getHeaders() != headers) {
+                headers = kafkaRecord.getHeaders();
+                nativeHeaders = toKafkaHeadersNative(kafkaRecord);
+            }
+            producer.send(toProducerRecord(kafkaRecord, publishContext, nativeHeaders), callback);
             callback.send();
         }
     }
@@ -66,11 +73,11 @@ public abstract class KafkaProducerWrapper {
      */
     public abstract void abort();
 
-    private ProducerRecord<byte[], byte[]> toProducerRecord(final KafkaRecord kafkaRecord, final PublishContext publishContext) {
+    private ProducerRecord<byte[], byte[]> toProducerRecord(final KafkaRecord kafkaRecord, final PublishContext publishContext, final List<Header> nativeHeaders) {
         final String topic = Optional.ofNullable(kafkaRecord.getTopic()).orElse(publishContext.getTopic());
         final Integer partition = Optional.ofNullable(kafkaRecord.getPartition()).orElse(publishContext.getPartition());
         final Integer moddedPartition = partition == null ? null : Math.abs(partition) % (producer.partitionsFor(topic).size());
-        return new ProducerRecord<>(topic, moddedPartition, kafkaRecord.getTimestamp(), kafkaRecord.getKey(), kafkaRecord.getValue(), toKafkaHeadersNative(kafkaRecord));
+        return new ProducerRecord<>(topic, moddedPartition, kafkaRecord.getTimestamp(), kafkaRecord.getKey(), kafkaRecord.getValue(), nativeHeaders);
     }
 
     private List<Header> toKafkaHeadersNative(final KafkaRecord kafkaRecord) {
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.kafka.service.producer.transaction;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.nifi.kafka.service.api.header.RecordHeader;
+import org.apache.nifi.kafka.service.api.producer.PublishContext;
+import org.apache.nifi.kafka.service.api.record.KafkaRecord;
+import org.apache.nifi.kafka.service.producer.ProducerCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class KafkaProducerWrapperTest {
+    private static final String TOPIC = KafkaProducerWrapperTest.class.getSimpleName();
+
+    private static final String HEADER_KEY = "id";
+
+    private MockProducer<byte[], byte[]> producer;
+
+    private KafkaProducerWrapper producerWrapper;
+
+    @BeforeEach
+    void setProducerWrapper() {
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        producerWrapper = new KafkaNonTransactionalProducerWrapper(producer);
+    }
+
+    @Test
+    void testSendSharedHeadersConvertedOnce() {
+        final List<RecordHeader> headers = List.of(new RecordHeader(HEADER_KEY, getBytes("1")));
+        final List<KafkaRecord> kafkaRecords = List.of(createRecord(headers), createRecord(headers));
+
+        final ProducerCallback callback = new ProducerCallback(null);
+        producerWrapper.send(kafkaRecords.iterator(), new PublishContext(TOPIC, null, null, null), callback);
+
+        final List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+        assertEquals(2, sent.size());
+        final Header firstHeader = sent.get(0).headers().lastHeader(HEADER_KEY);
+        final Header secondHeader = sent.get(1).headers().lastHeader(HEADER_KEY);
+        assertArrayEquals(getBytes("1"), firstHeader.value());
+        assertSame(firstHeader, secondHeader);
+    }
+
+    @Test
+    void testSendDistinctHeadersConverted() {
+        final List<RecordHeader> firstHeaders = List.of(new RecordHeader(HEADER_KEY, getBytes("1")));
+        final List<RecordHeader> secondHeaders = List.of(new RecordHeader(HEADER_KEY, getBytes("2")));
+        final List<KafkaRecord> kafkaRecords = List.of(createRecord(firstHeaders), createRecord(secondHeaders), createRecord(firstHeaders));
+
+        final ProducerCallback callback = new ProducerCallback(null);
+        producerWrapper.send(kafkaRecords.iterator(), new PublishContext(TOPIC, null, null, null), callback);
+
+        final List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+        assertEquals(3, sent.size());
+        final Header firstHeader = sent.get(0).headers().lastHeader(HEADER_KEY);
+        final Header secondHeader = sent.get(1).headers().lastHeader(HEADER_KEY);
+        final Header thirdHeader = sent.get(2).headers().lastHeader(HEADER_KEY);
+        assertArrayEquals(getBytes("1"), firstHeader.value());
+        assertArrayEquals(getBytes("2"), secondHeader.value());
+        assertArrayEquals(getBytes("1"), thirdHeader.value());
+        assertNotSame(firstHeader, thirdHeader);
+    }
+
+    private KafkaRecord createRecord(final List<RecordHeader> headers) {
+        return new KafkaRecord(null, null, null, null, getBytes(TOPIC), headers);
+    }
+
+    private byte[] getBytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
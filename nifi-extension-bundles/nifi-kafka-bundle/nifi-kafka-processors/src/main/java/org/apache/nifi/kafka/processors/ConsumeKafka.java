@@ -33,6 +33,8 @@ import org.apache.nifi.expression.ExpressionLanguageScope;
 import org.apache.nifi.kafka.processors.common.KafkaUtils;
 import org.apache.nifi.kafka.processors.consumer.OffsetTracker;
 import org.apache.nifi.kafka.processors.consumer.ProcessingStrategy;
+import org.apache.nifi.kafka.processors.consumer.RecordPrefetcher;
+import org.apache.nifi.kafka.processors.consumer.RecordPrefetcher.PrefetchedRecords;
 import org.apache.nifi.kafka.processors.consumer.bundle.ByteRecordBundler;
 import org.apache.nifi.kafka.processors.consumer.convert.FlowFileStreamKafkaMessageConverter;
 import org.apache.nifi.kafka.processors.consumer.convert.KafkaMessageConverter;
@@ -266,6 +268,19 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
             .dependsOn(MESSAGE_DEMARCATOR)
             .build();
 
+    static final PropertyDescriptor MAX_PREFETCHED_RECORDS = new PropertyDescriptor.Builder()
+            .name("Max Prefetched Records")
+            .description("The maximum number of Kafka Records that a background thread polls and buffers ahead of processing. "
+                    + "Setting a value greater than 0 enables background polling of Records for each assigned Topic Partition, "
+                    + "so that polling overlaps with processing of Records previously polled. The buffer may exceed the maximum "
+                    + "by the number of Records returned from a single poll. Setting 0 disables background polling, "
+                    + "and Records are polled when the Processor is triggered.")
+            .required(true)
+            .defaultValue("0")
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .expressionLanguageSupported(NONE)
+            .build();
+
     public static final Relationship SUCCESS = new Relationship.Builder()
             .name("success")
             .description("FlowFiles containing one or more serialized Kafka Records")
@@ -289,7 +304,8 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
             KEY_FORMAT,
             KEY_RECORD_READER,
             MESSAGE_DEMARCATOR,
-            SEPARATE_BY_KEY
+            SEPARATE_BY_KEY,
+            MAX_PREFETCHED_RECORDS
     );
 
     private static final Set<Relationship> RELATIONSHIPS = Collections.singleton(SUCCESS);
@@ -308,6 +324,8 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
 
     private boolean commitOffsets;
 
+    private volatile RecordPrefetcher recordPrefetcher;
+
     @Override
     public List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         return DESCRIPTORS;
@@ -334,10 +352,21 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
         commitOffsets = context.getProperty(COMMIT_OFFSETS).asBoolean();
         outputStrategy = context.getProperty(OUTPUT_STRATEGY).asAllowableValue(OutputStrategy.class);
         keyFormat = context.getProperty(KEY_FORMAT).asAllowableValue(KeyFormat.class);
+
+        final int maxPrefetchedRecords = context.getProperty(MAX_PREFETCHED_RECORDS).asInteger();
+        if (maxPrefetchedRecords > 0) {
+            recordPrefetcher = new RecordPrefetcher(consumerService, getPollingContext(context), maxPrefetchedRecords, getLogger());
+            recordPrefetcher.start();
+        }
     }
 
     @OnStopped
     public void onStopped() {
+        if (recordPrefetcher != null) {
+            recordPrefetcher.close();
+            recordPrefetcher = null;
+        }
+
         // discard reference; leave controller service state intact
         consumerService = null;
     }
@@ -345,13 +374,38 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) {
         final PollingContext pollingContext = getPollingContext(context);
+        final OffsetTracker offsetTracker = new OffsetTracker();
 
-        final Iterator<ByteRecord> consumerRecords = consumerService.poll(pollingContext).iterator();
-        if (consumerRecords.hasNext()) {
-            processConsumerRecords(context, session, pollingContext, consumerRecords);
+        if (recordPrefetcher == null) {
+            final Iterator<ByteRecord> consumerRecords = consumerService.poll(pollingContext).iterator();
+            if (consumerRecords.hasNext()) {
+                final Runnable onSuccess = commitOffsets
+                        ? () -> session.commitAsync(() -> consumerService.commit(offsetTracker.getPollingSummary(pollingContext)))
+                        : session::commitAsync;
+                processConsumerRecords(context, session, consumerRecords, offsetTracker, onSuccess);
+            } else {
+                getLogger().debug("No Kafka Records consumed: {}", pollingContext);
+                context.yield();
+            }
         } else {
-            getLogger().debug("No Kafka Records consumed: {}", pollingContext);
-            context.yield();
+            final PrefetchedRecords prefetchedRecords = recordPrefetcher.drain();
+            if (prefetchedRecords.isEmpty()) {
+                getLogger().debug("No Kafka Records prefetched: {}", pollingContext);
+                context.yield();
+                return;
+            }
+
+            // Offsets are committed from the Prefetcher and Records are restored for subsequent processing when the session fails
+            final Runnable onSuccess = () -> session.commitAsync(
+                    () -> prefetchedRecords.complete(commitOffsets ? offsetTracker.getPollingSummary(pollingContext) : null),
+                    (failure) -> prefetchedRecords.restore()
+            );
+            try {
+                processConsumerRecords(context, session, prefetchedRecords.iterator(), offsetTracker, onSuccess);
+            } catch (final RuntimeException e) {
+                prefetchedRecords.restore();
+                throw e;
+            }
         }
     }
 
@@ -383,16 +437,17 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
         return verificationResults;
     }
 
-    private void processConsumerRecords(final ProcessContext context, final ProcessSession session, final PollingContext pollingContext, final Iterator<ByteRecord> consumerRecords) {
+    private void processConsumerRecords(final ProcessContext context, final ProcessSession session, final Iterator<ByteRecord> consumerRecords,
+                                        final OffsetTracker offsetTracker, final Runnable onSuccess) {
         final ProcessingStrategy processingStrategy = ProcessingStrategy.valueOf(context.getProperty(PROCESSING_STRATEGY).getValue());
         // model this switch on the existing implementation at `ConsumerLease.processRecords()`
         if (ProcessingStrategy.FLOW_FILE == processingStrategy) {
-            processInputFlowFile(session, pollingContext, consumerRecords);
+            processInputFlowFile(session, consumerRecords, offsetTracker, onSuccess);
         } else if (ProcessingStrategy.DEMARCATOR == processingStrategy) {
             final Iterator<ByteRecord> iteratorDemarcator = transformDemarcator(context, consumerRecords);
-            processInputFlowFile(session, pollingContext, iteratorDemarcator);
+            processInputFlowFile(session, iteratorDemarcator, offsetTracker, onSuccess);
         } else if (ProcessingStrategy.RECORD == processingStrategy) {
-            processInputRecords(context, session, pollingContext, consumerRecords);
+            processInputRecords(context, session, consumerRecords, offsetTracker, onSuccess);
         } else {
             throw new ProcessException(String.format("Processing Strategy not supported [%s]", processingStrategy));
         }
@@ -409,46 +464,37 @@ public class ConsumeKafka extends AbstractProcessor implements VerifiableProcess
         }
     }
 
-    private void processInputRecords(final ProcessContext context, final ProcessSession session, final PollingContext pollingContext, final Iterator<ByteRecord> consumerRecords) {
+    private void processInputRecords(final ProcessContext context, final ProcessSession session, final Iterator<ByteRecord> consumerRecords,
+                                     final OffsetTracker offsetTracker, final Runnable onSuccess) {
         if (OutputStrategy.USE_VALUE.equals(outputStrategy)) {
-            processOutputStrategyUseValue(context, session, pollingContext, consumerRecords);
+            processOutputStrategyUseValue(context, session, consumerRecords, offsetTracker, onSuccess);
         } else if (OutputStrategy.USE_WRAPPER.equals(outputStrategy)) {
-            processOutputStrategyUseWrapper(context, session, pollingContext, consumerRecords);
+            processOutputStrategyUseWrapper(context, session, consumerRecords, offsetTracker, onSuccess);
         } else {
             throw new ProcessException(String.format("Output Strategy not supported [%s]", outputStrategy));
         }
     }
 
-    private void processOutputStrategyUseWrapper(final ProcessContext context, final ProcessSession session, final PollingContext pollingContext, final Iterator<ByteRecord> consumerRecords) {
+    private void processOutputStrategyUseWrapper(final ProcessContext context, final ProcessSession session, final Iterator<ByteRecord> consumerRecords,
+                                                 final OffsetTracker offsetTracker, final Runnable onSuccess) {
         final RecordReaderFactory readerFactory = context.getProperty(RECORD_READER).asControllerService(RecordReaderFactory.class);
         final RecordSetWriterFactory writerFactory = context.getProperty(RECORD_WRITER).asControllerService(RecordSetWriterFactory.class);
         final RecordReaderFactory keyReaderFactory = context.getProperty(KEY_RECORD_READER).asControllerService(RecordReaderFactory.class);
-        final OffsetTracker offsetTracker = new OffsetTracker();
-        final Runnable onSuccess = commitOffsets
-                ? () -> session.commitAsync(() -> consumerService.commit(offsetTracker.getPollingSummary(pollingContext)))
-                : session::commitAsync;
         final KafkaMessageConverter converter = new WrapperRecordStreamKafkaMessageConverter(readerFactory, writerFactory, keyReaderFactory,
                 headerEncoding, headerNamePattern, keyFormat, keyEncoding, commitOffsets, offsetTracker, onSuccess, getLogger());
         converter.toFlowFiles(session, consumerRecords);
     }
 
-    private void processOutputStrategyUseValue(final ProcessContext context, final ProcessSession session, final PollingContext pollingContext, final Iterator<ByteRecord> consumerRecords) {
+    private void processOutputStrategyUseValue(final ProcessContext context, final ProcessSession session, final Iterator<ByteRecord> consumerRecords,
+                                               final OffsetTracker offsetTracker, final Runnable onSuccess) {
         final RecordReaderFactory readerFactory = context.getProperty(RECORD_READER).asControllerService(RecordReaderFactory.class);
         final RecordSetWriterFactory writerFactory = context.getProperty(RECORD_WRITER).asControllerService(RecordSetWriterFactory.class);
-        final OffsetTracker offsetTracker = new OffsetTracker();
-        final Runnable onSuccess = commitOffsets
-                ? () -> session.commitAsync(() -> consumerService.commit(offsetTracker.getPollingSummary(pollingContext)))
-                : session::commitAsync;
         final KafkaMessageConverter converter = new RecordStreamKafkaMessageConverter(readerFactory, writerFactory,
                 headerEncoding, headerNamePattern, keyEncoding, commitOffsets, offsetTracker, onSuccess, getLogger());
         converter.toFlowFiles(session, consumerRecords);
     }
 
-    private void processInputFlowFile(final ProcessSession session, final PollingContext pollingContext, final Iterator<ByteRecord> consumerRecords) {
-        final OffsetTracker offsetTracker = new OffsetTracker();
-        final Runnable onSuccess = commitOffsets
-                ? () -> session.commitAsync(() -> consumerService.commit(offsetTracker.getPollingSummary(pollingContext)))
-                : session::commitAsync;
+    private void processInputFlowFile(final ProcessSession session, final Iterator<ByteRecord> consumerRecords, final OffsetTracker offsetTracker, final Runnable onSuccess) {
         final KafkaMessageConverter converter = new FlowFileStreamKafkaMessageConverter(
                 headerEncoding, headerNamePattern, keyEncoding, commitOffsets, offsetTracker, onSuccess);
         converter.toFlowFiles(session, consumerRecords);
@@ -189,6 +189,9 @@ public class PublishKafka extends AbstractProcessor implements KafkaPublishCompo
             .description("Specifies the string (interpreted as UTF-8) to use for demarcating multiple messages within "
                     + "a single FlowFile. If not specified, the entire content of the FlowFile will be used as a single message. If specified, the "
                     + "contents of the FlowFile will be split on this delimiter and each section sent as a separate Kafka message. "
+                    + "Messages are sent as they are read from the FlowFile, so when a message exceeds the Max Request Size or the content cannot be read, "
+                    + "the messages preceding it may already have been sent. Unless Transactions are enabled, those messages will be sent again "
+                    + "if the FlowFile routed to failure is retried. "
                     + "To enter special character such as 'new line' use CTRL+Enter or Shift+Enter, depending on your OS.")
             .build();
 
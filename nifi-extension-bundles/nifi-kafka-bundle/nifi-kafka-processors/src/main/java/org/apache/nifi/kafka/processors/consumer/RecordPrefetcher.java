@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.kafka.processors.consumer;
+
+import org.apache.nifi.kafka.service.api.common.OffsetSummary;
+import org.apache.nifi.kafka.service.api.common.TopicPartitionSummary;
+import org.apache.nifi.kafka.service.api.consumer.KafkaConsumerService;
+import org.apache.nifi.kafka.service.api.consumer.PartitionRevocationListener;
+import org.apache.nifi.kafka.service.api.consumer.PollingContext;
+import org.apache.nifi.kafka.service.api.consumer.PollingSummary;
+import org.apache.nifi.kafka.service.api.record.ByteRecord;
+import org.apache.nifi.logging.ComponentLog;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Record Prefetcher polls Kafka Records in a background thread and buffers Records for each Topic Partition, allowing polling
+ * to overlap with processing of Records previously polled. Offsets are committed from the background thread, so that polling
+ * and committing use the same Consumer from the Consumer Service.
+ * <p>
+ * Buffered Records and pending offsets for Topic Partitions revoked during rebalancing are discarded, so that the Consumer assigned
+ * the Topic Partitions resumes from the last committed offsets. Records being processed for revoked Topic Partitions are not
+ * committed and may be delivered again by the Consumer assigned.
+ */
+public class RecordPrefetcher implements AutoCloseable {
+    private static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final long POLLING_FAILURE_DELAY = 1000;
+
+    private final KafkaConsumerService consumerService;
+
+    private final PollingContext pollingContext;
+
+    private final int maxBufferedRecords;
+
+    private final ComponentLog logger;
+
+    private final long waitMillis;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Condition stateChanged = lock.newCondition();
+
+    private final Map<TopicPartitionSummary, Deque<ByteRecord>> partitionRecords = new LinkedHashMap<>();
+
+    private final Set<TopicPartitionSummary> claimedPartitions = new HashSet<>();
+
+    private final Set<TopicPartitionSummary> revokedPartitions = new HashSet<>();
+
+    private final Deque<PollingSummary> pendingCommits = new ArrayDeque<>();
+
+    private final PartitionRevocationListener partitionRevocationListener = this::revoke;
+
+    private final Thread pollingThread;
+
+    private int bufferedRecords;
+
+    private volatile boolean running;
+
+    public RecordPrefetcher(final KafkaConsumerService consumerService, final PollingContext pollingContext, final int maxBufferedRecords, final ComponentLog logger) {
+        this.consumerService = Objects.requireNonNull(consumerService, "Consumer Service required");
+        this.pollingContext = Objects.requireNonNull(pollingContext, "Polling Context required");
+        this.maxBufferedRecords = maxBufferedRecords;
+        this.logger = Objects.requireNonNull(logger, "Logger required");
+
+        final Duration pollTimeout = pollingContext.getMaxUncommittedTime() == null ? DEFAULT_POLL_TIMEOUT : pollingContext.getMaxUncommittedTime();
+        this.waitMillis = Math.max(1, pollTimeout.toMillis());
+
+        this.pollingThread = new Thread(this::run, "Kafka Record Prefetcher " + pollingContext.getGroupId());
+        this.pollingThread.setDaemon(true);
+    }
+
+    /**
+     * Start polling in the background thread
+     */
+    public void start() {
+        running = true;
+        consumerService.addPartitionRevocationListener(pollingContext, partitionRevocationListener);
+        pollingThread.start();
+    }
+
+    /**
+     * Remove buffered Records for Topic Partitions not claimed by other Prefetched Records. The returned Prefetched Records must be
+     * completed or restored to release the Topic Partitions for subsequent processing.
+     *
+     * @return Prefetched Records containing buffered Records or empty when no Records available
+     */
+    public PrefetchedRecords drain() {
+        final List<ByteRecord> records = new ArrayList<>();
+        final List<TopicPartitionSummary> partitions = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (final Map.Entry<TopicPartitionSummary, Deque<ByteRecord>> entry : partitionRecords.entrySet()) {
+                final TopicPartitionSummary partition = entry.getKey();
+                final Deque<ByteRecord> queuedRecords = entry.getValue();
+                if (queuedRecords.isEmpty() || claimedPartitions.contains(partition)) {
+                    continue;
+                }
+
+                claimedPartitions.add(partition);
+                partitions.add(partition);
+                records.addAll(queuedRecords);
+                queuedRecords.clear();
+            }
+
+            if (!records.isEmpty()) {
+                bufferedRecords -= records.size();
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return new PrefetchedRecords(records, partitions);
+    }
+
+    /**
+     * Stop polling and commit pending offsets, then rollback Consumer positions for Records buffered but not processed
+     */
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            pollingThread.join(waitMillis * 2 + POLLING_FAILURE_DELAY);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            commitPending();
+        } catch (final Exception e) {
+            logger.warn("Commit of processed Kafka Records failed: {}", pollingContext, e);
+        }
+        consumerService.removePartitionRevocationListener(pollingContext, partitionRevocationListener);
+
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        lock.lock();
+        try {
+            for (final Deque<ByteRecord> queuedRecords : partitionRecords.values()) {
+                final ByteRecord firstRecord = queuedRecords.peekFirst();
+                if (firstRecord != null) {
+                    offsetTracker.update(firstRecord);
+                }
+            }
+            partitionRecords.clear();
+            pendingCommits.clear();
+            bufferedRecords = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        final PollingSummary rollbackSummary = offsetTracker.getPollingSummary(pollingContext);
+        if (!rollbackSummary.getOffsets().isEmpty()) {
+            try {
+                consumerService.rollback(rollbackSummary);
+            } catch (final Exception e) {
+                logger.warn("Rollback of buffered Kafka Records failed: {}", rollbackSummary, e);
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                commitPending();
+                if (awaitCapacity()) {
+                    final Iterable<ByteRecord> records = consumerService.poll(pollingContext);
+                    buffer(records);
+                }
+            } catch (final Exception e) {
+                logger.error("Polling Kafka Records failed: {}", pollingContext, e);
+                try {
+                    Thread.sleep(POLLING_FAILURE_DELAY);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean awaitCapacity() throws InterruptedException {
+        lock.lock();
+        try {
+            if (bufferedRecords >= maxBufferedRecords && pendingCommits.isEmpty() && running) {
+                stateChanged.await(waitMillis, TimeUnit.MILLISECONDS);
+            }
+            return running && bufferedRecords < maxBufferedRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void buffer(final Iterable<ByteRecord> records) {
+        lock.lock();
+        try {
+            for (final ByteRecord record : records) {
+                final TopicPartitionSummary partition = new TopicPartitionSummary(record.getTopic(), record.getPartition());
+                partitionRecords.computeIfAbsent(partition, (summary) -> new ArrayDeque<>()).addLast(record);
+                bufferedRecords++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commitPending() {
+        PollingSummary pollingSummary;
+        while ((pollingSummary = peekPendingCommit()) != null) {
+            // Remove offsets from the queue after committing so that offsets are retained for retrying after failure
+            consumerService.commit(pollingSummary);
+            removePendingCommit(pollingSummary);
+        }
+    }
+
+    private PollingSummary peekPendingCommit() {
+        lock.lock();
+        try {
+            return pendingCommits.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removePendingCommit(final PollingSummary pollingSummary) {
+        lock.lock();
+        try {
+            if (pendingCommits.peekFirst() == pollingSummary) {
+                pendingCommits.removeFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(final List<TopicPartitionSummary> partitions, final PollingSummary pollingSummary) {
+        if (pollingSummary != null) {
+            final PollingSummary assignedSummary;
+            lock.lock();
+            try {
+                assignedSummary = getAssignedSummary(pollingSummary);
+                if (assignedSummary != null && running) {
+                    pendingCommits.addLast(assignedSummary);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (assignedSummary != null && !running) {
+                consumerService.commit(assignedSummary);
+            }
+        }
+        release(partitions);
+    }
+
+    private void restore(final List<ByteRecord> records, final List<TopicPartitionSummary> partitions) {
+        lock.lock();
+        try {
+            // Return Records to the head of each queue in reverse order to preserve the order of polling
+            for (int i = records.size() - 1; i >= 0; i--) {
+                final ByteRecord record = records.get(i);
+                final TopicPartitionSummary partition = new TopicPartitionSummary(record.getTopic(), record.getPartition());
+                if (revokedPartitions.contains(partition)) {
+                    continue;
+                }
+                partitionRecords.computeIfAbsent(partition, (summary) -> new ArrayDeque<>()).addFirst(record);
+                bufferedRecords++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        release(partitions);
+    }
+
+    private void release(final List<TopicPartitionSummary> partitions) {
+        lock.lock();
+        try {
+            partitions.forEach(claimedPartitions::remove);
+            partitions.forEach(revokedPartitions::remove);
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void revoke(final Collection<TopicPartitionSummary> partitions) {
+        lock.lock();
+        try {
+            int discardedRecords = 0;
+            for (final TopicPartitionSummary partition : partitions) {
+                final Deque<ByteRecord> queuedRecords = partitionRecords.remove(partition);
+                if (queuedRecords != null) {
+                    discardedRecords += queuedRecords.size();
+                }
+                if (claimedPartitions.contains(partition)) {
+                    revokedPartitions.add(partition);
+                }
+            }
+            bufferedRecords -= discardedRecords;
+
+            // Pending offsets for revoked Topic Partitions must not overwrite offsets committed by the Consumer assigned
+            final List<PollingSummary> assignedCommits = new ArrayList<>();
+            for (final PollingSummary pollingSummary : pendingCommits) {
+                final PollingSummary assignedSummary = getAssignedSummary(pollingSummary, partitions);
+                if (assignedSummary != null) {
+                    assignedCommits.add(assignedSummary);
+                }
+            }
+            pendingCommits.clear();
+            pendingCommits.addAll(assignedCommits);
+
+            logger.debug("Discarded {} buffered Records for revoked Topic Partitions {}", discardedRecords, partitions);
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PollingSummary getAssignedSummary(final PollingSummary pollingSummary) {
+        return getAssignedSummary(pollingSummary, revokedPartitions);
+    }
+
+    private PollingSummary getAssignedSummary(final PollingSummary pollingSummary, final Collection<TopicPartitionSummary> partitions) {
+        final Map<TopicPartitionSummary, OffsetSummary> offsets = pollingSummary.getOffsets();
+        if (Collections.disjoint(offsets.keySet(), partitions)) {
+            return pollingSummary;
+        }
+
+        final Map<TopicPartitionSummary, OffsetSummary> assignedOffsets = new LinkedHashMap<>(offsets);
+        assignedOffsets.keySet().removeAll(partitions);
+        if (assignedOffsets.isEmpty()) {
+            return null;
+        }
+
+        if (pollingSummary.getTopicPattern().isPresent()) {
+            return new PollingSummary(pollingSummary.getGroupId(), pollingSummary.getTopicPattern().get(),
+                    pollingSummary.getAutoOffsetReset(), pollingSummary.getMaxUncommittedTime(), assignedOffsets);
+        }
+        return new PollingSummary(pollingSummary.getGroupId(), pollingSummary.getTopics(),
+                pollingSummary.getAutoOffsetReset(), pollingSummary.getMaxUncommittedTime(), assignedOffsets);
+    }
+
+    /**
+     * Records drained from the Prefetcher with claimed Topic Partitions released on completion or restoration
+     */
+    public class PrefetchedRecords implements Iterable<ByteRecord> {
+        private final List<ByteRecord> records;
+
+        private final List<TopicPartitionSummary> partitions;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PrefetchedRecords(final List<ByteRecord> records, final List<TopicPartitionSummary> partitions) {
+            this.records = Collections.unmodifiableList(records);
+            this.partitions = partitions;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+
+        @Override
+        public Iterator<ByteRecord> iterator() {
+            return records.iterator();
+        }
+
+        /**
+         * Complete processing and queue offsets for committing
+         *
+         * @param pollingSummary Polling Summary containing offsets to be committed or null when offsets should not be committed
+         */
+        public void complete(final PollingSummary pollingSummary) {
+            if (released.compareAndSet(false, true)) {
+                RecordPrefetcher.this.complete(partitions, pollingSummary);
+            }
+        }
+
+        /**
+         * Restore Records to the Prefetcher for subsequent processing after failure
+         */
+        public void restore() {
+            if (released.compareAndSet(false, true)) {
+                RecordPrefetcher.this.restore(records, partitions);
+            }
+        }
+    }
+}
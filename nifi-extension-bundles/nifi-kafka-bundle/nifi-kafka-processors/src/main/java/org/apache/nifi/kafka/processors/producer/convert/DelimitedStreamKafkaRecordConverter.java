@@ -18,19 +18,22 @@ package org.apache.nifi.kafka.processors.producer.convert;
 
 import org.apache.nifi.kafka.processors.producer.common.ProducerUtils;
 import org.apache.nifi.kafka.processors.producer.header.HeadersFactory;
+import org.apache.nifi.kafka.service.api.header.RecordHeader;
 import org.apache.nifi.kafka.service.api.record.KafkaRecord;
 import org.apache.nifi.stream.io.util.StreamDemarcator;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * {@link KafkaRecordConverter} implementation for transforming NiFi FlowFiles delimited via a specified delimiter to
- * {@link KafkaRecord} for publish to Kafka.
+ * {@link KafkaRecord} for publish to Kafka. Messages are read from the stream as the returned iterator is consumed,
+ * so that only the current message is held in memory, and the same headers are shared across all messages.
  */
 public class DelimitedStreamKafkaRecordConverter implements KafkaRecordConverter {
     private final byte[] demarcatorBytes;
@@ -46,14 +49,41 @@ public class DelimitedStreamKafkaRecordConverter implements KafkaRecordConverter
     @Override
     public Iterator<KafkaRecord> convert(
             final Map<String, String> attributes, final InputStream in, final long inputLength) throws IOException {
-        final List<KafkaRecord> kafkaRecords = new ArrayList<>();
-        try (final StreamDemarcator demarcator = new StreamDemarcator(in, demarcatorBytes, maxMessageSize)) {
-            byte[] messageContent;
-            while ((messageContent = demarcator.nextToken()) != null) {
-                ProducerUtils.checkMessageSize(maxMessageSize, messageContent.length);
-                kafkaRecords.add(new KafkaRecord(null, null, null, null, messageContent, headersFactory.getHeaders(attributes)));
+        final StreamDemarcator demarcator = new StreamDemarcator(in, demarcatorBytes, maxMessageSize);
+        final List<RecordHeader> headers = headersFactory.getHeaders(attributes);
+
+        return new Iterator<>() {
+            private byte[] messageContent = nextMessage();
+
+            @Override
+            public boolean hasNext() {
+                return messageContent != null;
+            }
+
+            @Override
+            public KafkaRecord next() {
+                if (messageContent == null) {
+                    throw new NoSuchElementException();
+                }
+
+                final KafkaRecord kafkaRecord = new KafkaRecord(null, null, null, null, messageContent, headers);
+                messageContent = nextMessage();
+                return kafkaRecord;
+            }
+
+            private byte[] nextMessage() {
+                try {
+                    final byte[] nextMessageContent = demarcator.nextToken();
+                    if (nextMessageContent == null) {
+                        demarcator.close();
+                    } else {
+                        ProducerUtils.checkMessageSize(maxMessageSize, nextMessageContent.length);
+                    }
+                    return nextMessageContent;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException("Demarcated message conversion failed", e);
+                }
             }
-        }
-        return kafkaRecords.iterator();
+        };
     }
 }
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.kafka.processors.consumer;
+
+import org.apache.nifi.kafka.processors.consumer.RecordPrefetcher.PrefetchedRecords;
+import org.apache.nifi.kafka.service.api.common.PartitionState;
+import org.apache.nifi.kafka.service.api.common.TopicPartitionSummary;
+import org.apache.nifi.kafka.service.api.consumer.AutoOffsetReset;
+import org.apache.nifi.kafka.service.api.consumer.KafkaConsumerService;
+import org.apache.nifi.kafka.service.api.consumer.PartitionRevocationListener;
+import org.apache.nifi.kafka.service.api.consumer.PollingContext;
+import org.apache.nifi.kafka.service.api.consumer.PollingSummary;
+import org.apache.nifi.kafka.service.api.record.ByteRecord;
+import org.apache.nifi.logging.ComponentLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RecordPrefetcherTest {
+
+    private static final String TOPIC = "NiFi-Kafka-Events";
+
+    private static final String GROUP_ID = RecordPrefetcherTest.class.getSimpleName();
+
+    private static final String SECOND_GROUP_ID = GROUP_ID + "-Second";
+
+    private static final int FIRST_PARTITION = 0;
+
+    private static final int SECOND_PARTITION = 1;
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(15);
+
+    private final PollingContext pollingContext = new PollingContext(
+            GROUP_ID, Collections.singletonList(TOPIC), AutoOffsetReset.EARLIEST, Duration.ofMillis(10));
+
+    @Test
+    void testDrainClaimsPartitionsUntilComplete() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0), createRecord(FIRST_PARTITION, 1), createRecord(SECOND_PARTITION, 0)));
+
+        try (final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class))) {
+            recordPrefetcher.start();
+
+            final PrefetchedRecords firstRecords = awaitRecords(recordPrefetcher, 3);
+            assertEquals(List.of(0L, 1L, 0L), getOffsets(firstRecords));
+
+            consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 2)));
+            awaitPolled(consumerService);
+            assertTrue(recordPrefetcher.drain().isEmpty(), "Records for claimed partitions should not be drained");
+
+            final OffsetTracker offsetTracker = new OffsetTracker();
+            firstRecords.forEach(offsetTracker::update);
+            firstRecords.complete(offsetTracker.getPollingSummary(pollingContext));
+
+            final PrefetchedRecords secondRecords = awaitRecords(recordPrefetcher, 1);
+            assertEquals(List.of(2L), getOffsets(secondRecords));
+            awaitCommitted(consumerService);
+            assertEquals(1L, consumerService.committed.get(0).getOffsets().get(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)).getOffset());
+            secondRecords.complete(null);
+        }
+    }
+
+    @Test
+    void testRestoreAndRollback() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0), createRecord(FIRST_PARTITION, 1)));
+
+        final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class));
+        recordPrefetcher.start();
+
+        final PrefetchedRecords firstRecords = awaitRecords(recordPrefetcher, 2);
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 2)));
+        awaitPolled(consumerService);
+        firstRecords.restore();
+
+        final PrefetchedRecords restoredRecords = recordPrefetcher.drain();
+        assertEquals(List.of(0L, 1L, 2L), getOffsets(restoredRecords));
+        restoredRecords.restore();
+
+        recordPrefetcher.close();
+        assertTrue(consumerService.committed.isEmpty());
+        assertEquals(1, consumerService.rolledBack.size());
+        assertEquals(0L, consumerService.rolledBack.get(0).getOffsets().get(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)).getOffset());
+    }
+
+    @Test
+    void testRevokedPartitionRecordsDiscarded() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0), createRecord(SECOND_PARTITION, 0)));
+
+        final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class));
+        recordPrefetcher.start();
+
+        final PrefetchedRecords firstRecords = awaitRecords(recordPrefetcher, 2);
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 1), createRecord(SECOND_PARTITION, 1)));
+        awaitPolled(consumerService);
+
+        consumerService.getRevoked(GROUP_ID).add(List.of(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)));
+        awaitPolled(consumerService);
+
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        firstRecords.forEach(offsetTracker::update);
+        firstRecords.complete(offsetTracker.getPollingSummary(pollingContext));
+
+        final PrefetchedRecords secondRecords = awaitRecords(recordPrefetcher, 1);
+        assertEquals(SECOND_PARTITION, secondRecords.iterator().next().getPartition());
+        secondRecords.restore();
+
+        recordPrefetcher.close();
+        assertTrue(consumerService.getPartitionRevocationListeners(GROUP_ID).isEmpty());
+        assertEquals(1, consumerService.committed.size());
+        final PollingSummary committed = consumerService.committed.get(0);
+        assertEquals(List.of(new TopicPartitionSummary(TOPIC, SECOND_PARTITION)), new ArrayList<>(committed.getOffsets().keySet()));
+        assertEquals(1, consumerService.rolledBack.size());
+        assertEquals(List.of(new TopicPartitionSummary(TOPIC, SECOND_PARTITION)), new ArrayList<>(consumerService.rolledBack.get(0).getOffsets().keySet()));
+    }
+
+    @Test
+    void testRevokedClaimedPartitionRecordsNotRestored() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0), createRecord(FIRST_PARTITION, 1)));
+
+        final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class));
+        recordPrefetcher.start();
+
+        final PrefetchedRecords firstRecords = awaitRecords(recordPrefetcher, 2);
+        consumerService.getRevoked(GROUP_ID).add(List.of(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)));
+        awaitPolled(consumerService);
+        firstRecords.restore();
+
+        assertTrue(recordPrefetcher.drain().isEmpty(), "Records for revoked partitions should not be restored");
+
+        recordPrefetcher.close();
+        assertTrue(consumerService.committed.isEmpty());
+        assertTrue(consumerService.rolledBack.isEmpty());
+    }
+
+    @Test
+    void testRevocationDispatchedToSubscribedPrefetcher() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        final PollingContext secondPollingContext = new PollingContext(
+                SECOND_GROUP_ID, Collections.singletonList(TOPIC), AutoOffsetReset.EARLIEST, Duration.ofMillis(10));
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0)));
+        consumerService.getRecords(SECOND_GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0)));
+
+        final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class));
+        final RecordPrefetcher secondRecordPrefetcher = new RecordPrefetcher(consumerService, secondPollingContext, 100, mock(ComponentLog.class));
+        recordPrefetcher.start();
+        secondRecordPrefetcher.start();
+        awaitPolled(consumerService, GROUP_ID);
+        awaitPolled(consumerService, SECOND_GROUP_ID);
+
+        consumerService.getRevoked(GROUP_ID).add(List.of(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)));
+        awaitPolled(consumerService, GROUP_ID);
+
+        assertTrue(recordPrefetcher.drain().isEmpty(), "Records for revoked partitions should be discarded");
+        final PrefetchedRecords secondRecords = awaitRecords(secondRecordPrefetcher, 1);
+        assertEquals(List.of(0L), getOffsets(secondRecords));
+
+        recordPrefetcher.close();
+        assertTrue(consumerService.getPartitionRevocationListeners(GROUP_ID).isEmpty());
+        assertEquals(1, consumerService.getPartitionRevocationListeners(SECOND_GROUP_ID).size());
+
+        secondRecords.restore();
+        secondRecordPrefetcher.close();
+        assertTrue(consumerService.getPartitionRevocationListeners(SECOND_GROUP_ID).isEmpty());
+        assertTrue(consumerService.committed.isEmpty());
+        assertEquals(1, consumerService.rolledBack.size());
+        assertEquals(List.of(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)), new ArrayList<>(consumerService.rolledBack.get(0).getOffsets().keySet()));
+    }
+
+    @Test
+    void testFailedCommitRetried() throws InterruptedException {
+        final BufferedConsumerService consumerService = new BufferedConsumerService();
+        consumerService.failedCommits.set(1);
+        consumerService.getRecords(GROUP_ID).add(List.of(createRecord(FIRST_PARTITION, 0)));
+
+        try (final RecordPrefetcher recordPrefetcher = new RecordPrefetcher(consumerService, pollingContext, 100, mock(ComponentLog.class))) {
+            recordPrefetcher.start();
+
+            final PrefetchedRecords records = awaitRecords(recordPrefetcher, 1);
+            final OffsetTracker offsetTracker = new OffsetTracker();
+            records.forEach(offsetTracker::update);
+            records.complete(offsetTracker.getPollingSummary(pollingContext));
+
+            awaitCommitted(consumerService);
+            assertEquals(0, consumerService.failedCommits.get());
+            assertEquals(1, consumerService.committed.size());
+            assertEquals(0L, consumerService.committed.get(0).getOffsets().get(new TopicPartitionSummary(TOPIC, FIRST_PARTITION)).getOffset());
+        }
+    }
+
+    private PrefetchedRecords awaitRecords(final RecordPrefetcher recordPrefetcher, final int expected) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + TIMEOUT;
+        while (System.currentTimeMillis() < timeout) {
+            final PrefetchedRecords prefetchedRecords = recordPrefetcher.drain();
+            if (!prefetchedRecords.isEmpty()) {
+                assertEquals(expected, getOffsets(prefetchedRecords).size());
+                return prefetchedRecords;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Prefetched Records not found");
+    }
+
+    private void awaitPolled(final BufferedConsumerService consumerService) throws InterruptedException {
+        awaitPolled(consumerService, GROUP_ID);
+    }
+
+    private void awaitPolled(final BufferedConsumerService consumerService, final String groupId) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + TIMEOUT;
+        while ((!consumerService.getRecords(groupId).isEmpty() || !consumerService.getRevoked(groupId).isEmpty()) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        // Wait for a subsequent poll to ensure that Records returned have been buffered
+        final AtomicInteger groupPolls = consumerService.getPolls(groupId);
+        final int polls = groupPolls.get() + 2;
+        while (groupPolls.get() < polls && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitCommitted(final BufferedConsumerService consumerService) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + TIMEOUT;
+        while (consumerService.committed.isEmpty() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Long> getOffsets(final PrefetchedRecords prefetchedRecords) {
+        final List<Long> offsets = new ArrayList<>();
+        prefetchedRecords.forEach(record -> offsets.add(record.getOffset()));
+        return offsets;
+    }
+
+    private ByteRecord createRecord(final int partition, final long offset) {
+        return new ByteRecord(TOPIC, partition, offset, System.currentTimeMillis(), Collections.emptyList(), null, new byte[0]);
+    }
+
+    private static class BufferedConsumerService implements KafkaConsumerService {
+        private final Map<String, Queue<List<ByteRecord>>> records = new ConcurrentHashMap<>();
+
+        private final List<PollingSummary> committed = new CopyOnWriteArrayList<>();
+
+        private final List<PollingSummary> rolledBack = new CopyOnWriteArrayList<>();
+
+        private final Map<String, Queue<List<TopicPartitionSummary>>> revoked = new ConcurrentHashMap<>();
+
+        private final AtomicInteger failedCommits = new AtomicInteger();
+
+        private final Map<String, Set<PartitionRevocationListener>> partitionRevocationListeners = new ConcurrentHashMap<>();
+
+        private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+
+        private Queue<List<ByteRecord>> getRecords(final String groupId) {
+            return records.computeIfAbsent(groupId, key -> new ConcurrentLinkedQueue<>());
+        }
+
+        private Queue<List<TopicPartitionSummary>> getRevoked(final String groupId) {
+            return revoked.computeIfAbsent(groupId, key -> new ConcurrentLinkedQueue<>());
+        }
+
+        private Set<PartitionRevocationListener> getPartitionRevocationListeners(final String groupId) {
+            return partitionRevocationListeners.computeIfAbsent(groupId, key -> new CopyOnWriteArraySet<>());
+        }
+
+        private AtomicInteger getPolls(final String groupId) {
+            return polls.computeIfAbsent(groupId, key -> new AtomicInteger());
+        }
+
+        @Override
+        public void commit(final PollingSummary pollingSummary) {
+            if (failedCommits.getAndUpdate(failures -> Math.max(0, failures - 1)) > 0) {
+                throw new IllegalStateException("Commit failed");
+            }
+            committed.add(pollingSummary);
+        }
+
+        @Override
+        public void addPartitionRevocationListener(final PollingContext pollingContext, final PartitionRevocationListener partitionRevocationListener) {
+            getPartitionRevocationListeners(pollingContext.getGroupId()).add(partitionRevocationListener);
+        }
+
+        @Override
+        public void removePartitionRevocationListener(final PollingContext pollingContext, final PartitionRevocationListener partitionRevocationListener) {
+            getPartitionRevocationListeners(pollingContext.getGroupId()).remove(partitionRevocationListener);
+        }
+
+        @Override
+        public void rollback(final PollingSummary pollingSummary) {
+            rolledBack.add(pollingSummary);
+        }
+
+        @Override
+        public Iterable<ByteRecord> poll(final PollingContext pollingContext) {
+            final String groupId = pollingContext.getGroupId();
+            final List<TopicPartitionSummary> revokedPartitions = getRevoked(groupId).poll();
+            if (revokedPartitions != null) {
+                for (final PartitionRevocationListener partitionRevocationListener : getPartitionRevocationListeners(groupId)) {
+                    partitionRevocationListener.onPartitionsRevoked(revokedPartitions);
+                }
+            }
+            final List<ByteRecord> polled = getRecords(groupId).poll();
+            try {
+                Thread.sleep(pollingContext.getMaxUncommittedTime().toMillis());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            getPolls(groupId).incrementAndGet();
+            return polled == null ? Collections.emptyList() : polled;
+        }
+
+        @Override
+        public List<PartitionState> getPartitionStates(final PollingContext pollingContext) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
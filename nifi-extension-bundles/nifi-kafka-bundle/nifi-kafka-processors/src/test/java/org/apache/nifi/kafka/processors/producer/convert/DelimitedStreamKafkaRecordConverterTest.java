@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.kafka.processors.producer.convert;
+
+import org.apache.nifi.kafka.service.api.header.RecordHeader;
+import org.apache.nifi.kafka.service.api.record.KafkaRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DelimitedStreamKafkaRecordConverterTest {
+
+    private static final byte[] DEMARCATOR = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final int MAX_MESSAGE_SIZE = 8;
+
+    private final List<RecordHeader> headers = List.of(new RecordHeader("id", "1".getBytes(StandardCharsets.UTF_8)));
+
+    private final DelimitedStreamKafkaRecordConverter converter = new DelimitedStreamKafkaRecordConverter(DEMARCATOR, MAX_MESSAGE_SIZE, (attributes) -> headers);
+
+    @Test
+    void testConvertSharesHeaders() throws IOException {
+        final Iterator<KafkaRecord> kafkaRecords = convert("first\nsecond");
+
+        final List<KafkaRecord> converted = new ArrayList<>();
+        kafkaRecords.forEachRemaining(converted::add);
+
+        assertEquals(List.of("first", "second"), getValues(converted));
+        for (final KafkaRecord kafkaRecord : converted) {
+            assertSame(headers, kafkaRecord.getHeaders());
+        }
+        assertThrows(NoSuchElementException.class, kafkaRecords::next);
+    }
+
+    @Test
+    void testConvertDemarcatorAtEnd() throws IOException {
+        final Iterator<KafkaRecord> kafkaRecords = convert("first\nsecond\n");
+
+        assertEquals(List.of("first", "second"), getValues(kafkaRecords));
+    }
+
+    @Test
+    void testConvertEmptySegmentsSkipped() throws IOException {
+        final Iterator<KafkaRecord> kafkaRecords = convert("first\n\nsecond\n\n");
+
+        assertEquals(List.of("first", "second"), getValues(kafkaRecords));
+    }
+
+    @Test
+    void testConvertEmpty() throws IOException {
+        final Iterator<KafkaRecord> kafkaRecords = convert("");
+
+        assertFalse(kafkaRecords.hasNext());
+    }
+
+    @Test
+    void testConvertMessageSizeExceeded() throws IOException {
+        final Iterator<KafkaRecord> kafkaRecords = convert("first\nmessage-size-exceeded\nthird");
+
+        assertTrue(kafkaRecords.hasNext());
+        final UncheckedIOException exception = assertThrows(UncheckedIOException.class, kafkaRecords::next);
+        assertTrue(exception.getCause().getMessage().contains(Integer.toString(MAX_MESSAGE_SIZE)), exception.getCause().getMessage());
+    }
+
+    @Test
+    void testConvertFirstMessageSizeExceeded() {
+        assertThrows(UncheckedIOException.class, () -> convert("message-size-exceeded"));
+    }
+
+    private Iterator<KafkaRecord> convert(final String content) throws IOException {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return converter.convert(Collections.emptyMap(), new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private List<String> getValues(final Iterator<KafkaRecord> kafkaRecords) {
+        final List<KafkaRecord> converted = new ArrayList<>();
+        kafkaRecords.forEachRemaining(converted::add);
+        return getValues(converted);
+    }
+
+    private List<String> getValues(final List<KafkaRecord> kafkaRecords) {
+        final List<String> values = new ArrayList<>();
+        for (final KafkaRecord kafkaRecord : kafkaRecords) {
+            values.add(new String(kafkaRecord.getValue(), StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
@@ -32,6 +32,35 @@ public interface KafkaConsumerService extends AutoCloseable {
      */
     void commit(PollingSummary pollingSummary);
 
+    /**
+     * Rollback Subscription positions so that subsequent polling returns Records starting from the offsets provided.
+     * The default implementation does not change Subscription positions, such that Records after the offsets provided are
+     * not returned again until the Consumer resumes from committed offsets after rebalancing or restarting.
+     *
+     * @param pollingSummary Polling Summary containing offsets of the first Records to be returned from subsequent polling
+     */
+    default void rollback(PollingSummary pollingSummary) {
+    }
+
+    /**
+     * Add Listener to be notified when Topic Partitions are revoked during rebalancing from Consumers subscribed with the
+     * group and topics of the Polling Context provided. The default implementation does not notify the Listener.
+     *
+     * @param pollingContext Polling Context containing the group and topics of the Consumers
+     * @param partitionRevocationListener Listener to be notified
+     */
+    default void addPartitionRevocationListener(PollingContext pollingContext, PartitionRevocationListener partitionRevocationListener) {
+    }
+
+    /**
+     * Remove Listener previously added for the group and topics of the Polling Context provided
+     *
+     * @param pollingContext Polling Context containing the group and topics of the Consumers
+     * @param partitionRevocationListener Listener to be removed
+     */
+    default void removePartitionRevocationListener(PollingContext pollingContext, PartitionRevocationListener partitionRevocationListener) {
+    }
+
     /**
      * Poll Subscriptions for Records
      *
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.kafka.service.api.consumer;
+
+import org.apache.nifi.kafka.service.api.common.TopicPartitionSummary;
+
+import java.util.Collection;
+
+/**
+ * Listener notified when Topic Partitions are revoked from a Consumer during rebalancing of the Consumer Group
+ */
+public interface PartitionRevocationListener {
+    /**
+     * Handle revocation of Topic Partitions, which is invoked from the thread polling the Consumer before the partitions are reassigned
+     *
+     * @param partitions Topic Partitions revoked from the Consumer
+     */
+    void onPartitionsRevoked(Collection<TopicPartitionSummary> partitions);
+}
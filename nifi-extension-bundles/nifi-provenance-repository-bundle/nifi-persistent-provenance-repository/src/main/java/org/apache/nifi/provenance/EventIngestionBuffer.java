@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance;
+
+import org.apache.nifi.provenance.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A bounded buffer that decouples the threads that register Provenance Events from the threads that store and index them. Threads that
+ * register events add them to the buffer without waiting on the Event Store, and a fixed number of writer threads drain the buffer in batches,
+ * so that many small registrations are written to the Event Store as a single, larger batch.
+ * </p>
+ *
+ * <p>
+ * The events that are provided to a single call to {@link #offer(Iterable)} are buffered as a unit and are never split across batches, so the
+ * events of a single session commit are always written together and in order. If the buffer does not have room for all of the events, none of
+ * them are buffered and they are returned to the caller, which is expected to store them itself. This applies back pressure to the threads
+ * that are producing events, and the number of times that this occurs is tracked so that it can be reported.
+ * </p>
+ *
+ * <p>
+ * The buffer does not drop events. Events count against the capacity of the buffer until they have been written, and if the batch writer
+ * fails, the batch is returned to the front of the buffer and written again after a short delay.
+ * </p>
+ */
+public class EventIngestionBuffer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(EventIngestionBuffer.class);
+    private static final long POLL_MILLIS = 100L;
+    private static final long RETRY_MILLIS = 1000L;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition eventsAvailable = lock.newCondition();
+    private final Deque<List<ProvenanceEventRecord>> commits = new ArrayDeque<>(); // guarded by lock
+    private int bufferedEventCount = 0; // guarded by lock; includes events that have been taken by a writer but not yet written
+
+    private final int capacity;
+    private final int writerThreads;
+    private final int maxBatchSize;
+    private final Consumer<List<ProvenanceEventRecord>> batchWriter;
+    private final AtomicLong backPressureCount = new AtomicLong(0L);
+    private final AtomicLong eventsWritten = new AtomicLong(0L);
+
+    private volatile boolean stopped = false;
+    private ExecutorService writerExecutor;
+
+    /**
+     * @param capacity the maximum number of events that can be held in the buffer
+     * @param writerThreads the number of threads that write events from the buffer
+     * @param maxBatchSize the maximum number of events to provide to the batch writer at once, unless a single call to {@link #offer(Iterable)}
+     * provided more events than this, in which case those events are provided to the batch writer together
+     * @param batchWriter stores and indexes a batch of events
+     */
+    public EventIngestionBuffer(final int capacity, final int writerThreads, final int maxBatchSize, final Consumer<List<ProvenanceEventRecord>> batchWriter) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("Number of writer threads must be at least 1");
+        }
+
+        this.capacity = capacity;
+        this.writerThreads = writerThreads;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchWriter = batchWriter;
+    }
+
+    public synchronized void start() {
+        if (writerExecutor != null) {
+            return;
+        }
+
+        writerExecutor = Executors.newFixedThreadPool(writerThreads, new NamedThreadFactory("Provenance Event Writer", true));
+        for (int i = 0; i < writerThreads; i++) {
+            writerExecutor.submit(this::writeEvents);
+        }
+    }
+
+    /**
+     * Adds the given events to the buffer. Either all of the events are added or none of them are. This method does not block
+     * waiting for room in the buffer.
+     *
+     * @param events the events to add
+     * @return an empty list if the events were added, or all of the events if the buffer does not have room for them or has been closed.
+     * The caller is responsible for storing these events.
+     */
+    public List<ProvenanceEventRecord> offer(final Iterable<ProvenanceEventRecord> events) {
+        final List<ProvenanceEventRecord> commit = new ArrayList<>();
+        events.forEach(commit::add);
+        if (commit.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.lock();
+        try {
+            if (!stopped && bufferedEventCount + commit.size() <= capacity) {
+                commits.addLast(commit);
+                bufferedEventCount += commit.size();
+                eventsAvailable.signal();
+                return Collections.emptyList();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        backPressureCount.incrementAndGet();
+        return commit;
+    }
+
+    private void writeEvents() {
+        while (true) {
+            final List<List<ProvenanceEventRecord>> taken;
+            try {
+                taken = takeCommits();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for Provenance Events; {} events remain in the buffer", getQueuedEventCount());
+                return;
+            }
+
+            if (taken == null) {
+                return;
+            }
+            if (taken.isEmpty()) {
+                continue;
+            }
+
+            final List<ProvenanceEventRecord> batch = new ArrayList<>();
+            taken.forEach(batch::addAll);
+
+            try {
+                batchWriter.accept(batch);
+            } catch (final Exception e) {
+                logger.error("Failed to write batch of {} Provenance Events; will retry in {} millis", batch.size(), RETRY_MILLIS, e);
+                requeue(taken);
+
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted while waiting to retry; {} events remain in the buffer", getQueuedEventCount());
+                    return;
+                }
+                continue;
+            }
+
+            eventsWritten.addAndGet(batch.size());
+            release(batch.size());
+        }
+    }
+
+    /**
+     * @return the commits to write, which contain at most maxBatchSize events unless the first commit alone is larger; an empty list
+     * if no events became available before the poll timeout; or null if the buffer has been closed and no events remain
+     */
+    private List<List<ProvenanceEventRecord>> takeCommits() throws InterruptedException {
+        lock.lock();
+        try {
+            if (commits.isEmpty()) {
+                if (stopped) {
+                    return null;
+                }
+
+                eventsAvailable.await(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (commits.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            final List<List<ProvenanceEventRecord>> taken = new ArrayList<>();
+            int eventCount = 0;
+            while (!commits.isEmpty() && (taken.isEmpty() || eventCount + commits.peekFirst().size() <= maxBatchSize)) {
+                final List<ProvenanceEventRecord> commit = commits.pollFirst();
+                taken.add(commit);
+                eventCount += commit.size();
+            }
+
+            return taken;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requeue(final List<List<ProvenanceEventRecord>> taken) {
+        lock.lock();
+        try {
+            for (int i = taken.size() - 1; i >= 0; i--) {
+                commits.addFirst(taken.get(i));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final int eventCount) {
+        lock.lock();
+        try {
+            bufferedEventCount -= eventCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of events that have been added to the buffer and not yet written
+     */
+    public int getQueuedEventCount() {
+        lock.lock();
+        try {
+            return bufferedEventCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of events that can be held in the buffer
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of times that events were handed back to the caller because the buffer was full
+     */
+    public long getBackPressureCount() {
+        return backPressureCount.get();
+    }
+
+    /**
+     * @return the number of events that have been written from the buffer
+     */
+    public long getEventsWritten() {
+        return eventsWritten.get();
+    }
+
+    /**
+     * Stops accepting new events and waits for the writer threads to write all events that are already in the buffer.
+     */
+    @Override
+    public synchronized void close() {
+        lock.lock();
+        try {
+            stopped = true;
+            eventsAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (writerExecutor != null) {
+            writerExecutor.shutdown();
+            try {
+                if (!writerExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.warn("Timed out waiting for Provenance Event Writer threads to complete; {} events were not written", getQueuedEventCount());
+                    writerExecutor.shutdownNow();
+                }
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                writerExecutor.shutdownNow();
+            }
+        }
+
+        // If the writer threads were not started or did not complete, make a final attempt to write the events that remain.
+        final List<ProvenanceEventRecord> remaining = new ArrayList<>();
+        lock.lock();
+        try {
+            commits.forEach(remaining::addAll);
+            commits.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!remaining.isEmpty()) {
+            try {
+                batchWriter.accept(remaining);
+                eventsWritten.addAndGet(remaining.size());
+                release(remaining.size());
+            } catch (final Exception e) {
+                logger.error("Failed to write {} Provenance Events while closing the ingestion buffer; these events will not be available", remaining.size(), e);
+            }
+        }
+    }
+}
@@ -39,6 +39,12 @@ public class RepositoryConfiguration {
     public static final String CONCURRENT_MERGE_THREADS = "nifi.provenance.repository.concurrent.merge.threads";
     public static final String WARM_CACHE_FREQUENCY = "nifi.provenance.repository.warm.cache.frequency";
     public static final String MAINTENACE_FREQUENCY = "nifi.provenance.repository.maintenance.frequency";
+    public static final String INGESTION_BUFFER_SIZE = "nifi.provenance.repository.ingestion.buffer.size";
+    public static final String INGESTION_WRITER_THREADS = "nifi.provenance.repository.ingestion.writer.threads";
+    public static final String INDEX_TYPE = "nifi.provenance.repository.index.type";
+
+    public static final String LUCENE_INDEX_TYPE = "lucene";
+    public static final String COLUMNAR_INDEX_TYPE = "columnar";
 
     private final Map<String, File> storageDirectories = new LinkedHashMap<>();
     private long recordLifeMillis = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
@@ -62,6 +68,9 @@ public class RepositoryConfiguration {
     private boolean allowRollover = true;
     private int concurrentMergeThreads = 4;
     private Integer warmCacheFrequencyMinutes = null;
+    private int ingestionBufferSize = 0;
+    private int ingestionWriterThreads = 1;
+    private String indexType = LUCENE_INDEX_TYPE;
 
     public void setAllowRollover(final boolean allow) {
         this.allowRollover = allow;
@@ -362,6 +371,50 @@ public class RepositoryConfiguration {
         return Optional.ofNullable(warmCacheFrequencyMinutes);
     }
 
+    /**
+     * @return the maximum number of Provenance Events that may be buffered before they are written to the Event Store. A value of 0
+     * indicates that events are written to the Event Store by the thread that registers them. Events that are buffered when NiFi is
+     * killed or crashes are lost, whereas events written by the thread that registers them are on disk once registration returns.
+     */
+    public int getIngestionBufferSize() {
+        return ingestionBufferSize;
+    }
+
+    public void setIngestionBufferSize(final int ingestionBufferSize) {
+        if (ingestionBufferSize < 0) {
+            throw new IllegalArgumentException("Ingestion Buffer Size cannot be negative");
+        }
+        this.ingestionBufferSize = ingestionBufferSize;
+    }
+
+    /**
+     * @return the number of threads that write buffered Provenance Events to the Event Store
+     */
+    public int getIngestionWriterThreads() {
+        return ingestionWriterThreads;
+    }
+
+    public void setIngestionWriterThreads(final int ingestionWriterThreads) {
+        if (ingestionWriterThreads < 1) {
+            throw new IllegalArgumentException("Number of Ingestion Writer Threads must be at least 1");
+        }
+        this.ingestionWriterThreads = ingestionWriterThreads;
+    }
+
+    /**
+     * @return the type of Event Index to use, either {@link #LUCENE_INDEX_TYPE} or {@link #COLUMNAR_INDEX_TYPE}
+     */
+    public String getIndexType() {
+        return indexType;
+    }
+
+    public void setIndexType(final String indexType) {
+        if (!LUCENE_INDEX_TYPE.equalsIgnoreCase(indexType) && !COLUMNAR_INDEX_TYPE.equalsIgnoreCase(indexType)) {
+            throw new IllegalArgumentException("Invalid Index Type '" + indexType + "'; must be one of '" + LUCENE_INDEX_TYPE + "' or '" + COLUMNAR_INDEX_TYPE + "'");
+        }
+        this.indexType = indexType.toLowerCase();
+    }
+
     public int getDebugFrequency() {
         return debugFrequency;
     }
@@ -447,6 +500,9 @@ public class RepositoryConfiguration {
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
         config.setConcurrentMergeThreads(concurrentMergeThreads);
+        config.setIngestionBufferSize(nifiProperties.getIntegerProperty(INGESTION_BUFFER_SIZE, 0));
+        config.setIngestionWriterThreads(nifiProperties.getIntegerProperty(INGESTION_WRITER_THREADS, storageDirectories.size()));
+        config.setIndexType(nifiProperties.getProperty(INDEX_TYPE, LUCENE_INDEX_TYPE).trim());
 
         if (warmCacheFrequency != null && !warmCacheFrequency.trim().equals("")) {
             config.setWarmCacheFrequencyMinutes((int) FormatUtils.getTimeDuration(warmCacheFrequency, TimeUnit.MINUTES));
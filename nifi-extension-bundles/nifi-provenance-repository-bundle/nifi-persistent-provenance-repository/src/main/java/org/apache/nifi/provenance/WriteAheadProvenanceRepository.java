@@ -25,6 +25,7 @@ import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
 import org.apache.nifi.provenance.authorization.UserEventAuthorizer;
 import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.index.columnar.ColumnarEventIndex;
 import org.apache.nifi.provenance.index.lucene.LuceneEventIndex;
 import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lucene.IndexManager;
@@ -52,12 +53,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -82,6 +86,20 @@ import java.util.Set;
  * </p>
  *
  * <p>
+ * Alternatively, the repository may be configured to use the {@link ColumnarEventIndex}, which stores the indexed fields as compressed columns
+ * in time-ordered buckets. This index requires far less disk I/O and CPU to index events, at the cost of scanning each candidate bucket when searching.
+ * </p>
+ *
+ * <p>
+ * If an ingestion buffer size is configured, events that are registered are instead added to a bounded {@link EventIngestionBuffer}, and
+ * dedicated writer threads store and index them in batches. In this mode, the thread that registers the events does not wait for them to be written,
+ * unless the buffer does not have room for all of the events, in which case that thread writes the events itself. The events of a single call to
+ * {@link #registerEvents(Iterable)} are never split between the buffer and the registering thread, so they are stored together and in order.
+ * Buffered events are written when the repository is closed, but events that are still buffered when NiFi is killed or crashes are lost,
+ * because the session that registered them has already been committed.
+ * </p>
+ *
+ * <p>
  * This Repositories supports the notion of 'partitions'. The repository can be configured to store data to one or more partitions. Each partition is typically
  * stored on a separate physical partition on disk. As a result, this allows striping of data across multiple partitions in order to achieve linear scalability
  * across disks for far greater performance.
@@ -91,6 +109,8 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
     private static final Logger logger = LoggerFactory.getLogger(WriteAheadProvenanceRepository.class);
     static final int BLOCK_SIZE = 1024 * 32;
     public static final String EVENT_CATEGORY = "Provenance Repository";
+    static final int INGESTION_BATCH_SIZE = 1000;
+    private static final long BACK_PRESSURE_WARNING_MILLIS = TimeUnit.MINUTES.toMillis(1L);
 
     private final RepositoryConfiguration config;
 
@@ -100,6 +120,8 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
     private EventReporter eventReporter;
     private Authorizer authorizer;
     private ProvenanceAuthorizableFactory resourceFactory;
+    private volatile EventIngestionBuffer ingestionBuffer;
+    private final AtomicLong lastBackPressureWarning = new AtomicLong(0L);
 
     /**
      * This constructor exists solely for the use of the Java Service Loader mechanism and should not be used.
@@ -145,8 +167,12 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
 
         eventStore = new PartitionedWriteAheadEventStore(config, recordWriterFactory, recordReaderFactory, eventReporter, fileManager);
 
-        final IndexManager indexManager = new StandardIndexManager(config);
-        eventIndex = new LuceneEventIndex(config, indexManager, eventReporter);
+        if (RepositoryConfiguration.COLUMNAR_INDEX_TYPE.equals(config.getIndexType())) {
+            eventIndex = new ColumnarEventIndex(config, eventReporter);
+        } else {
+            final IndexManager indexManager = new StandardIndexManager(config);
+            eventIndex = new LuceneEventIndex(config, indexManager, eventReporter);
+        }
 
         this.eventReporter = eventReporter;
         this.authorizer = authorizer;
@@ -165,6 +191,13 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
         } else {
             logger.info("Provenance Event Index indicates that no events should be re-indexed upon startup. Will not wait for re-indexing to occur.");
         }
+
+        if (config.getIngestionBufferSize() > 0) {
+            ingestionBuffer = new EventIngestionBuffer(config.getIngestionBufferSize(), config.getIngestionWriterThreads(), INGESTION_BATCH_SIZE, this::storeBufferedEvents);
+            ingestionBuffer.start();
+            logger.info("Provenance Events will be buffered with a capacity of {} events and written by {} threads",
+                config.getIngestionBufferSize(), config.getIngestionWriterThreads());
+        }
     }
 
     @Override
@@ -179,6 +212,34 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public void registerEvents(final Iterable<ProvenanceEventRecord> events) {
+        final EventIngestionBuffer buffer = ingestionBuffer;
+        if (buffer == null) {
+            storeEvents(events);
+            return;
+        }
+
+        final List<ProvenanceEventRecord> rejected = buffer.offer(events);
+        if (!rejected.isEmpty()) {
+            warnBackPressure(buffer);
+            storeEvents(rejected);
+        }
+    }
+
+    private void warnBackPressure(final EventIngestionBuffer buffer) {
+        final long now = System.currentTimeMillis();
+        final long lastWarning = lastBackPressureWarning.get();
+        if (now - lastWarning < BACK_PRESSURE_WARNING_MILLIS || !lastBackPressureWarning.compareAndSet(lastWarning, now)) {
+            return;
+        }
+
+        logger.warn("Provenance Event ingestion buffer is full with {} events; events are being written by the threads that register them. "
+            + "Back pressure has been applied {} times. Consider increasing the value of the {} or {} property.",
+            buffer.getQueuedEventCount(), buffer.getBackPressureCount(), RepositoryConfiguration.INGESTION_BUFFER_SIZE, RepositoryConfiguration.INGESTION_WRITER_THREADS);
+        eventReporter.reportEvent(Severity.WARNING, EVENT_CATEGORY, "Provenance Event ingestion buffer is full, which is slowing the rate at which "
+            + "Processors can commit their sessions. See logs for more details.");
+    }
+
+    private void storeEvents(final Iterable<ProvenanceEventRecord> events) {
         final StorageResult storageResult;
 
         try {
@@ -189,6 +250,27 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
             return;
         }
 
+        indexEvents(storageResult);
+    }
+
+    /**
+     * Stores a batch of events from the ingestion buffer. Unlike {@link #storeEvents(Iterable)}, a failure to write the events is thrown
+     * so that the buffer retains the events and writes them again.
+     */
+    private void storeBufferedEvents(final List<ProvenanceEventRecord> events) {
+        final StorageResult storageResult;
+
+        try {
+            storageResult = eventStore.addEvents(events);
+        } catch (final IOException e) {
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to write Provenance Events to the repository. See logs for more details.");
+            throw new UncheckedIOException("Failed to write events to the Event Store", e);
+        }
+
+        indexEvents(storageResult);
+    }
+
+    private void indexEvents(final StorageResult storageResult) {
         final Map<ProvenanceEventRecord, StorageSummary> locationMap = storageResult.getStorageLocations();
         if (!locationMap.isEmpty()) {
             eventIndex.addEvents(locationMap);
@@ -212,7 +294,8 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public void close() {
-        CloseableUtil.closeQuietly(eventStore, eventIndex);
+        // Write any buffered events before closing the Event Store and Event Index
+        CloseableUtil.closeQuietly(ingestionBuffer, eventStore, eventIndex);
     }
 
     @Override
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A simple Bloom Filter over Strings, used to determine whether or not an index bucket could possibly contain a given FlowFile UUID
+ * without reading the bucket's columns. The filter is sized for a false positive rate of roughly 1%.
+ */
+public class BloomFilter {
+    private static final int BITS_PER_VALUE = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final long[] bits;
+    private final int hashCount;
+
+    public BloomFilter(final int expectedValues) {
+        this(new long[Math.max(1, (int) Math.min(Integer.MAX_VALUE / 64, ((long) Math.max(1, expectedValues) * BITS_PER_VALUE + 63) / 64))], HASH_COUNT);
+    }
+
+    private BloomFilter(final long[] bits, final int hashCount) {
+        this.bits = bits;
+        this.hashCount = hashCount;
+    }
+
+    public void add(final String value) {
+        final long hash = hash(value);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+        final long bitCount = (long) bits.length * 64;
+
+        for (int i = 0; i < hashCount; i++) {
+            final long bitIndex = ((hash1 + (long) i * hash2) & Long.MAX_VALUE) % bitCount;
+            bits[(int) (bitIndex >>> 6)] |= 1L << bitIndex;
+        }
+    }
+
+    public boolean mightContain(final String value) {
+        final long hash = hash(value);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+        final long bitCount = (long) bits.length * 64;
+
+        for (int i = 0; i < hashCount; i++) {
+            final long bitIndex = ((hash1 + (long) i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (bitIndex >>> 6)] & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long hash(final String value) {
+        // 64-bit FNV-1a over the characters, followed by a final mix so that both halves of the hash are well distributed
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        out.writeInt(hashCount);
+        out.writeInt(bits.length);
+        for (final long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BloomFilter readFrom(final DataInputStream in) throws IOException {
+        final int hashCount = in.readInt();
+        final int length = in.readInt();
+        if (hashCount < 1 || length < 1) {
+            throw new IOException("Invalid Bloom Filter with " + hashCount + " hash functions and " + length + " words");
+        }
+
+        final long[] bits = new long[length];
+        for (int i = 0; i < length; i++) {
+            bits[i] = in.readLong();
+        }
+
+        return new BloomFilter(bits, hashCount);
+    }
+}
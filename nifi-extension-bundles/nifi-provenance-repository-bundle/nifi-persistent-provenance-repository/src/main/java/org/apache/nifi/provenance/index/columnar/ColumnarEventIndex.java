@@ -0,0 +1,740 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.authorization.AccessDeniedException;
+import org.apache.nifi.authorization.user.NiFiUser;
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.provenance.AsyncLineageSubmission;
+import org.apache.nifi.provenance.AsyncQuerySubmission;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.StandardLineageResult;
+import org.apache.nifi.provenance.StandardQueryResult;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.index.lucene.CachedQuery;
+import org.apache.nifi.provenance.index.lucene.LatestEventsPerProcessorQuery;
+import org.apache.nifi.provenance.index.lucene.LatestEventsQuery;
+import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
+import org.apache.nifi.provenance.lineage.LineageComputationType;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QuerySubmission;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.EventStore;
+import org.apache.nifi.provenance.util.NamedThreadFactory;
+import org.apache.nifi.reporting.Severity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * An {@link EventIndex} that stores the indexed fields of Provenance Events as compressed, dictionary-encoded columns, rather than as one
+ * Lucene Document per event. Events are accumulated in memory, per partition, in a {@link ColumnarIndexBucketBuilder}. When the builder holds
+ * {@link #MAX_EVENTS_PER_BUCKET} events, or has been open for longer than the configured event file rollover time, it is sealed into a
+ * {@link ColumnarIndexBucket} and written to the <code>columnar-index</code> directory of the partition's storage directory.
+ * </p>
+ *
+ * <p>
+ * Indexing an event requires only appending its values to the in-memory columns, so there are no indexing threads and no index merges. A search
+ * uses the time range and FlowFile UUID Bloom Filter of each bucket to skip the buckets that cannot contain a match, and then scans the columns of
+ * the remaining buckets, comparing each search term against each distinct value of a column only once.
+ * </p>
+ *
+ * <p>
+ * Because the events in the open buckets are held only in memory, they are re-indexed from the Event Store on restart if NiFi is not shut down
+ * gracefully. All events after the last persisted bucket of each partition are re-indexed.
+ * </p>
+ */
+public class ColumnarEventIndex implements EventIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarEventIndex.class);
+    private static final String EVENT_CATEGORY = "Provenance Repository";
+
+    public static final String INDEX_DIRECTORY_NAME = "columnar-index";
+    public static final int MAX_EVENTS_PER_BUCKET = 100_000;
+    public static final int MAX_UNDELETED_QUERY_RESULTS = 10;
+    public static final int MAX_LINEAGE_NODES = 1000;
+    public static final int MAX_LINEAGE_UUIDS = 100;
+
+    private final ConcurrentMap<String, AsyncQuerySubmission> querySubmissionMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AsyncLineageSubmission> lineageSubmissionMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ActiveBucket> activeBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> maxPersistedEventIds = new ConcurrentHashMap<>();
+    private final List<ColumnarIndexBucket> sealedBuckets = new CopyOnWriteArrayList<>();
+    private final ExecutorService queryExecutor;
+    private final RepositoryConfiguration config;
+    private final EventReporter eventReporter;
+    private final int maxEventsPerBucket;
+    private volatile boolean closed = false;
+
+    private final List<CachedQuery> cachedQueries = new ArrayList<>();
+    private LatestEventsPerProcessorQuery latestEventsPerProcessorQuery; // effectively final
+
+    private ScheduledExecutorService maintenanceExecutor; // effectively final
+    private EventStore eventStore;
+
+    public ColumnarEventIndex(final RepositoryConfiguration config, final EventReporter eventReporter) {
+        this(config, MAX_EVENTS_PER_BUCKET, eventReporter);
+    }
+
+    public ColumnarEventIndex(final RepositoryConfiguration config, final int maxEventsPerBucket, final EventReporter eventReporter) {
+        this.config = config;
+        this.eventReporter = eventReporter;
+        this.maxEventsPerBucket = maxEventsPerBucket;
+        queryExecutor = Executors.newFixedThreadPool(config.getQueryThreadPoolSize(), new NamedThreadFactory("Provenance Query"));
+    }
+
+    @Override
+    public void initialize(final EventStore eventStore) {
+        this.eventStore = eventStore;
+        loadBuckets();
+
+        maintenanceExecutor = Executors.newScheduledThreadPool(1, new NamedThreadFactory("Provenance Repository Maintenance"));
+        maintenanceExecutor.scheduleWithFixedDelay(this::performMaintenance, 1, 1, TimeUnit.MINUTES);
+        maintenanceExecutor.scheduleWithFixedDelay(this::purgeObsoleteQueries, 30, 30, TimeUnit.SECONDS);
+
+        cachedQueries.add(new LatestEventsQuery());
+        latestEventsPerProcessorQuery = new LatestEventsPerProcessorQuery();
+        cachedQueries.add(latestEventsPerProcessorQuery);
+    }
+
+    private void loadBuckets() {
+        for (final File storageDirectory : config.getStorageDirectories().values()) {
+            final File indexDirectory = new File(storageDirectory, INDEX_DIRECTORY_NAME);
+            final File[] files = indexDirectory.listFiles();
+            if (files == null) {
+                continue;
+            }
+
+            for (final File file : files) {
+                if (file.getName().endsWith(ColumnarIndexBucket.FILE_EXTENSION + ".tmp")) {
+                    logger.debug("Deleting incomplete Index Bucket {}", file);
+                    if (!file.delete()) {
+                        logger.warn("Failed to delete incomplete Index Bucket {}", file);
+                    }
+                    continue;
+                }
+
+                if (!file.getName().endsWith(ColumnarIndexBucket.FILE_EXTENSION)) {
+                    continue;
+                }
+
+                try {
+                    final ColumnarIndexBucket bucket = ColumnarIndexBucket.readHeader(file);
+                    sealedBuckets.add(bucket);
+                    maxPersistedEventIds.merge(bucket.getPartitionName(), bucket.getMaxEventId(), Math::max);
+                } catch (final IOException ioe) {
+                    logger.warn("Unable to read Index Bucket {}. The Provenance Events in this bucket will not be searchable.", file, ioe);
+                }
+            }
+        }
+
+        logger.info("Loaded {} Provenance Index Buckets; maximum Event ID indexed for each partition is {}", sealedBuckets.size(), maxPersistedEventIds);
+    }
+
+    @Override
+    public long getMinimumEventIdToReindex(final String partitionName) {
+        return maxPersistedEventIds.getOrDefault(partitionName, -1L) + 1;
+    }
+
+    @Override
+    public boolean isReindexNecessary() {
+        return true;
+    }
+
+    @Override
+    public void addEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            cachedQuery.update(events);
+        }
+
+        indexEvents(events, false);
+    }
+
+    @Override
+    public void reindexEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            cachedQuery.update(events);
+        }
+
+        indexEvents(events, true);
+    }
+
+    private void indexEvents(final Map<ProvenanceEventRecord, StorageSummary> events, final boolean skipPersisted) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        final Map<String, List<Map.Entry<ProvenanceEventRecord, StorageSummary>>> eventsByPartition = new HashMap<>();
+        for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events.entrySet()) {
+            final String partitionName = getPartitionName(entry.getValue());
+            if (skipPersisted && entry.getValue().getEventId() < getMinimumEventIdToReindex(partitionName)) {
+                continue;
+            }
+
+            eventsByPartition.computeIfAbsent(partitionName, key -> new ArrayList<>()).add(entry);
+        }
+
+        for (final Map.Entry<String, List<Map.Entry<ProvenanceEventRecord, StorageSummary>>> entry : eventsByPartition.entrySet()) {
+            final ActiveBucket activeBucket = activeBuckets.computeIfAbsent(entry.getKey(), ActiveBucket::new);
+            final ColumnarIndexBucket sealed = activeBucket.add(entry.getValue());
+            if (sealed != null) {
+                persist(sealed);
+            }
+        }
+    }
+
+    private String getPartitionName(final StorageSummary summary) {
+        return summary.getPartitionName().orElse(config.getStorageDirectories().keySet().iterator().next());
+    }
+
+    @Override
+    public void commitChanges(final String partitionName) {
+        final ActiveBucket activeBucket = activeBuckets.get(partitionName);
+        if (activeBucket == null) {
+            return;
+        }
+
+        final ColumnarIndexBucket sealed = activeBucket.seal();
+        if (sealed != null) {
+            persist(sealed);
+        }
+    }
+
+    private void persist(final ColumnarIndexBucket bucket) {
+        final File storageDirectory = Optional.ofNullable(config.getStorageDirectories().get(bucket.getPartitionName()))
+            .orElse(config.getStorageDirectories().values().iterator().next());
+        final File indexDirectory = new File(storageDirectory, INDEX_DIRECTORY_NAME);
+        final File bucketFile = new File(indexDirectory, bucket.getMinEventId() + "-" + bucket.getMaxEventId() + ColumnarIndexBucket.FILE_EXTENSION);
+
+        try {
+            if (!indexDirectory.exists() && !indexDirectory.mkdirs() && !indexDirectory.exists()) {
+                throw new IOException("Could not create directory " + indexDirectory);
+            }
+
+            final long start = System.nanoTime();
+            bucket.persist(bucketFile);
+            maxPersistedEventIds.merge(bucket.getPartitionName(), bucket.getMaxEventId(), Math::max);
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.debug("Wrote {} events to Index Bucket {} ({} bytes) in {} millis", bucket.getEventCount(), bucketFile, bucketFile.length(), millis);
+        } catch (final IOException ioe) {
+            logger.error("Failed to write Index Bucket {}; the bucket will be held in memory and written during a subsequent maintenance cycle", bucketFile, ioe);
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to write Provenance Index Bucket " + bucketFile + ". See logs for more information.");
+        }
+    }
+
+    /**
+     * @return all buckets that may be searched, including a snapshot of each bucket that has not yet been sealed, ordered such that the most recent events come first
+     */
+    private List<ColumnarIndexBucket> getSearchableBuckets() {
+        final List<ColumnarIndexBucket> buckets = new ArrayList<>(sealedBuckets);
+        for (final ActiveBucket activeBucket : activeBuckets.values()) {
+            activeBucket.snapshot().ifPresent(buckets::add);
+        }
+
+        buckets.sort(Comparator.comparingLong(ColumnarIndexBucket::getMaxEventId).reversed());
+        return buckets;
+    }
+
+    @Override
+    public ComputeLineageSubmission submitLineageComputation(final long eventId, final NiFiUser user, final EventAuthorizer eventAuthorizer) {
+        final Optional<ProvenanceEventRecord> eventOption;
+        try {
+            eventOption = eventStore.getEvent(eventId);
+        } catch (final Exception e) {
+            logger.error("Failed to retrieve Provenance Event with ID {} to calculate data lineage", eventId, e);
+            final AsyncLineageSubmission result = new AsyncLineageSubmission(LineageComputationType.FLOWFILE_LINEAGE, eventId, Collections.emptySet(), 1, user == null ? null : user.getIdentity());
+            result.getResult().setError("Failed to retrieve Provenance Event with ID " + eventId + ". See logs for more information.");
+            return result;
+        }
+
+        if (!eventOption.isPresent()) {
+            final AsyncLineageSubmission result = new AsyncLineageSubmission(LineageComputationType.FLOWFILE_LINEAGE, eventId, Collections.emptySet(), 1, user == null ? null : user.getIdentity());
+            result.getResult().setError("Could not find Provenance Event with ID " + eventId);
+            lineageSubmissionMap.put(result.getLineageIdentifier(), result);
+            return result;
+        }
+
+        final ProvenanceEventRecord event = eventOption.get();
+        return submitLineageComputation(Collections.singleton(event.getFlowFileUuid()), user, eventAuthorizer, LineageComputationType.FLOWFILE_LINEAGE,
+            eventId, event.getLineageStartDate(), Long.MAX_VALUE);
+    }
+
+    private ComputeLineageSubmission submitLineageComputation(final Collection<String> flowFileUuids, final NiFiUser user, final EventAuthorizer eventAuthorizer,
+        final LineageComputationType computationType, final Long eventId, final long startTimestamp, final long endTimestamp) {
+
+        if (flowFileUuids.size() > MAX_LINEAGE_UUIDS) {
+            throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.", MAX_LINEAGE_UUIDS, flowFileUuids.size()));
+        }
+
+        final ColumnarSearch search = ColumnarSearch.forFlowFileUuids(flowFileUuids);
+        final List<ColumnarIndexBucket> buckets = getSearchableBuckets().stream()
+            .filter(bucket -> bucket.getMaxEventTime() >= startTimestamp && bucket.getMinEventTime() <= endTimestamp)
+            .filter(search::isPossibleMatch)
+            .collect(Collectors.toList());
+
+        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, buckets.size(), user == null ? null : user.getIdentity());
+        lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+
+        if (buckets.isEmpty()) {
+            submission.getResult().update(Collections.emptyList(), 0L);
+        } else {
+            for (final ColumnarIndexBucket bucket : buckets) {
+                queryExecutor.submit(new ColumnarQueryTask(search, submission.getResult(), MAX_LINEAGE_NODES, bucket, eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            }
+        }
+
+        // Some computations will complete very quickly. In this case, we don't want to wait
+        // for the client to submit a second query to obtain the result. Instead, we want to just
+        // wait some short period of time for the computation to complete before returning the submission.
+        try {
+            submission.getResult().awaitCompletion(500, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        return submission;
+    }
+
+    @Override
+    public QuerySubmission submitQuery(final Query query, final EventAuthorizer authorizer, final String userId) {
+        validate(query);
+
+        // Check if we have any cached queries first that can give us the answer
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            final Optional<List<Long>> eventIdListOption = cachedQuery.evaluate(query);
+            if (eventIdListOption.isPresent()) {
+                final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, 1, userId);
+                querySubmissionMap.put(query.getIdentifier(), submission);
+
+                final List<Long> eventIds = eventIdListOption.get();
+                logger.debug("Cached Query {} produced {} Event IDs for {}: {}", cachedQuery, eventIds.size(), query, eventIds);
+
+                queryExecutor.submit(() -> {
+                    try {
+                        final List<ProvenanceEventRecord> events = eventStore.getEvents(eventIds, authorizer, EventTransformer.EMPTY_TRANSFORMER);
+                        submission.getResult().update(events, eventIds.size());
+                    } catch (final Exception e) {
+                        submission.getResult().setError("Failed to retrieve Provenance Events from store; see logs for more details");
+                        logger.error("Failed to retrieve Provenance Events from store", e);
+                    }
+                });
+
+                try {
+                    submission.getResult().awaitCompletion(500, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return submission;
+            }
+        }
+
+        final ColumnarSearch search = ColumnarSearch.fromQuery(query);
+        final List<ColumnarIndexBucket> buckets = getSearchableBuckets().stream()
+            .filter(search::isPossibleMatch)
+            .collect(Collectors.toList());
+
+        final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, buckets.size(), userId);
+        querySubmissionMap.put(query.getIdentifier(), submission);
+        logger.debug("Submitting query {} with identifier {} against {} index buckets", search, query.getIdentifier(), buckets.size());
+
+        if (buckets.isEmpty()) {
+            submission.getResult().update(Collections.emptyList(), 0L);
+        } else {
+            for (final ColumnarIndexBucket bucket : buckets) {
+                queryExecutor.submit(new ColumnarQueryTask(search, submission.getResult(), query.getMaxResults(), bucket, eventStore, authorizer, EventTransformer.EMPTY_TRANSFORMER));
+            }
+        }
+
+        // There are some queries that are optimized and will complete very quickly. As a result,
+        // we don't want to wait for the client to issue a second request, so we will give the query
+        // up to 500 milliseconds to complete before running.
+        try {
+            submission.getResult().awaitCompletion(500, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return submission;
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getLatestCachedEvents(final String componentId) throws IOException {
+        final List<Long> eventIds = latestEventsPerProcessorQuery.getLatestEventIds(componentId);
+        if (eventIds.isEmpty()) {
+            logger.info("There are no recent Provenance Events cached for Component with ID {}", componentId);
+            return List.of();
+        }
+
+        final List<ProvenanceEventRecord> latestEvents = new ArrayList<>(eventIds.size());
+        for (final Long eventId : eventIds) {
+            eventStore.getEvent(eventId).ifPresent(latestEvents::add);
+        }
+
+        return latestEvents;
+    }
+
+    @Override
+    public ComputeLineageSubmission submitLineageComputation(final String flowFileUuid, final NiFiUser user, final EventAuthorizer eventAuthorizer) {
+        return submitLineageComputation(Collections.singleton(flowFileUuid), user, eventAuthorizer, LineageComputationType.FLOWFILE_LINEAGE, null, 0L, Long.MAX_VALUE);
+    }
+
+    @Override
+    public ComputeLineageSubmission submitExpandChildren(final long eventId, final NiFiUser user, final EventAuthorizer authorizer) {
+        final String userId = user == null ? null : user.getIdentity();
+
+        try {
+            final Optional<ProvenanceEventRecord> eventOption = eventStore.getEvent(eventId);
+            if (!eventOption.isPresent()) {
+                final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN, eventId, Collections.emptyList(), 1, userId);
+                lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                submission.getResult().update(Collections.emptyList(), 0L);
+                return submission;
+            }
+
+            final ProvenanceEventRecord event = eventOption.get();
+            switch (event.getEventType()) {
+                case CLONE:
+                case FORK:
+                case JOIN:
+                case REPLAY: {
+                    return submitLineageComputation(event.getChildUuids(), user, authorizer, LineageComputationType.EXPAND_CHILDREN,
+                        eventId, event.getEventTime(), Long.MAX_VALUE);
+                }
+                default: {
+                    final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN,
+                        eventId, Collections.emptyList(), 1, userId);
+
+                    lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                    submission.getResult().setError("Event ID " + eventId + " indicates an event of type " + event.getEventType() + " so its children cannot be expanded");
+                    return submission;
+                }
+            }
+        } catch (final Exception e) {
+            final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN,
+                eventId, Collections.emptyList(), 1, userId);
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+            submission.getResult().setError("Failed to expand children for lineage of event with ID " + eventId + " due to: " + e);
+            return submission;
+        }
+    }
+
+    @Override
+    public ComputeLineageSubmission submitExpandParents(final long eventId, final NiFiUser user, final EventAuthorizer authorizer) {
+        final String userId = user == null ? null : user.getIdentity();
+
+        try {
+            final Optional<ProvenanceEventRecord> eventOption = eventStore.getEvent(eventId);
+            if (!eventOption.isPresent()) {
+                final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS, eventId, Collections.emptyList(), 1, userId);
+                lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                submission.getResult().update(Collections.emptyList(), 0L);
+                return submission;
+            }
+
+            final ProvenanceEventRecord event = eventOption.get();
+            switch (event.getEventType()) {
+                case JOIN:
+                case FORK:
+                case CLONE:
+                case REPLAY: {
+                    return submitLineageComputation(event.getParentUuids(), user, authorizer, LineageComputationType.EXPAND_PARENTS,
+                        eventId, event.getLineageStartDate(), event.getEventTime());
+                }
+                default: {
+                    final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS,
+                        eventId, Collections.emptyList(), 1, userId);
+
+                    lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                    submission.getResult().setError("Event ID " + eventId + " indicates an event of type " + event.getEventType() + " so its parents cannot be expanded");
+                    return submission;
+                }
+            }
+        } catch (final Exception e) {
+            final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS,
+                eventId, Collections.emptyList(), 1, userId);
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+
+            submission.getResult().setError("Failed to expand parents for lineage of event with ID " + eventId + " due to: " + e);
+            return submission;
+        }
+    }
+
+    @Override
+    public AsyncLineageSubmission retrieveLineageSubmission(final String lineageIdentifier, final NiFiUser user) {
+        final AsyncLineageSubmission submission = lineageSubmissionMap.get(lineageIdentifier);
+        final String userId = submission.getSubmitterIdentity();
+
+        if (user == null && userId == null) {
+            return submission;
+        }
+
+        if (user == null) {
+            throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission because no user id was provided");
+        }
+
+        if (userId == null || userId.equals(user.getIdentity())) {
+            return submission;
+        }
+
+        throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission because " + user.getIdentity() + " is not the user who submitted the request");
+    }
+
+    @Override
+    public QuerySubmission retrieveQuerySubmission(final String queryIdentifier, final NiFiUser user) {
+        final QuerySubmission submission = querySubmissionMap.get(queryIdentifier);
+
+        final String userId = submission.getSubmitterIdentity();
+
+        if (user == null && userId == null) {
+            return submission;
+        }
+
+        if (user == null) {
+            throw new AccessDeniedException("Cannot retrieve Provenance Query Submission because no user id was provided");
+        }
+
+        if (userId == null || userId.equals(user.getIdentity())) {
+            return submission;
+        }
+
+        throw new AccessDeniedException("Cannot retrieve Provenance Query Submission because " + user.getIdentity() + " is not the user who submitted the request");
+    }
+
+    @Override
+    public long getSize() {
+        long total = 0;
+        for (final ColumnarIndexBucket bucket : sealedBuckets) {
+            final File file = bucket.getFile();
+            if (file != null) {
+                total += file.length();
+            }
+        }
+        return total;
+    }
+
+    private void validate(final Query query) {
+        final int numQueries = querySubmissionMap.size();
+        if (numQueries > MAX_UNDELETED_QUERY_RESULTS) {
+            purgeObsoleteQueries();
+            if (querySubmissionMap.size() > MAX_UNDELETED_QUERY_RESULTS) {
+                throw new IllegalStateException("Cannot process query because there are currently " + numQueries + " queries whose results have not "
+                    + "been deleted due to poorly behaving clients not issuing DELETE requests. Please try again later.");
+            }
+        }
+
+        if (query.getEndDate() != null && query.getStartDate() != null && query.getStartDate().getTime() > query.getEndDate().getTime()) {
+            throw new IllegalArgumentException("Query End Time cannot be before Query Start Time");
+        }
+    }
+
+    void performMaintenance() {
+        try {
+            // Seal any bucket that has been open for longer than an event file is, so that the index is not far behind the Event Store on restart
+            final long maxBucketAge = config.getMaxEventFileLife(TimeUnit.MILLISECONDS);
+            for (final ActiveBucket activeBucket : activeBuckets.values()) {
+                final ColumnarIndexBucket sealed = activeBucket.sealIfOlderThan(maxBucketAge);
+                if (sealed != null) {
+                    persist(sealed);
+                }
+            }
+
+            // Retry writing any bucket that previously failed to be written
+            for (final ColumnarIndexBucket bucket : sealedBuckets) {
+                if (bucket.getFile() == null) {
+                    persist(bucket);
+                }
+            }
+
+            final List<ProvenanceEventRecord> firstEvents = eventStore.getEvents(0, 1);
+            final long earliestEventTime;
+            if (firstEvents.isEmpty()) {
+                earliestEventTime = System.currentTimeMillis();
+                logger.debug("Found no events in the Provenance Repository. In order to perform maintenace of the index, "
+                    + "will assume that the first event time is now ({})", System.currentTimeMillis());
+            } else {
+                final ProvenanceEventRecord firstEvent = firstEvents.get(0);
+                earliestEventTime = firstEvent.getEventTime();
+                logger.debug("First Event Time is {} ({}) with Event ID {}; will delete any Index Bucket that is older than this",
+                    earliestEventTime, new Date(earliestEventTime), firstEvent.getEventId());
+            }
+
+            for (final ColumnarIndexBucket bucket : sealedBuckets) {
+                if (bucket.getMaxEventTime() < earliestEventTime) {
+                    deleteBucket(bucket);
+                }
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to perform background maintenance procedures", e);
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to perform maintenance of Provenance Repository. See logs for more information.");
+        }
+    }
+
+    private void deleteBucket(final ColumnarIndexBucket bucket) {
+        sealedBuckets.remove(bucket);
+
+        final File file = bucket.getFile();
+        if (file != null && file.exists() && !file.delete()) {
+            logger.warn("The Index Bucket {} has expired and contains no Provenance Events that still exist in the repository. However, the file could not be deleted.", file);
+            return;
+        }
+
+        logger.debug("Successfully removed expired Index Bucket {}", bucket);
+    }
+
+    private void purgeObsoleteQueries() {
+        try {
+            final Date now = new Date();
+
+            final Iterator<Map.Entry<String, AsyncQuerySubmission>> queryIterator = querySubmissionMap.entrySet().iterator();
+            while (queryIterator.hasNext()) {
+                final Map.Entry<String, AsyncQuerySubmission> entry = queryIterator.next();
+
+                final StandardQueryResult result = entry.getValue().getResult();
+                if (entry.getValue().isCanceled() || result.isFinished() && result.getExpiration().before(now)) {
+                    queryIterator.remove();
+                }
+            }
+
+            final Iterator<Map.Entry<String, AsyncLineageSubmission>> lineageIterator = lineageSubmissionMap.entrySet().iterator();
+            while (lineageIterator.hasNext()) {
+                final Map.Entry<String, AsyncLineageSubmission> entry = lineageIterator.next();
+
+                final StandardLineageResult result = entry.getValue().getResult();
+                if (entry.getValue().isCanceled() || result.isFinished() && result.getExpiration().before(now)) {
+                    lineageIterator.remove();
+                }
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to expire Provenance Query Results", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        queryExecutor.shutdownNow();
+
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdown();
+        }
+
+        // Write out all open buckets so that their events do not need to be re-indexed on restart
+        for (final String partitionName : activeBuckets.keySet()) {
+            commitChanges(partitionName);
+        }
+    }
+
+
+    /**
+     * The bucket that is currently accepting events for a partition
+     */
+    private class ActiveBucket {
+        private final String partitionName;
+        private ColumnarIndexBucketBuilder builder;
+
+        ActiveBucket(final String partitionName) {
+            this.partitionName = partitionName;
+            this.builder = createBuilder();
+        }
+
+        private ColumnarIndexBucketBuilder createBuilder() {
+            return new ColumnarIndexBucketBuilder(partitionName, config.getSearchableFields(), config.getSearchableAttributes());
+        }
+
+        /**
+         * Adds the given events, sealing the bucket if it becomes full
+         *
+         * @return the sealed bucket, which must be persisted by the caller, or <code>null</code> if the bucket was not sealed
+         */
+        synchronized ColumnarIndexBucket add(final List<Map.Entry<ProvenanceEventRecord, StorageSummary>> events) {
+            for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events) {
+                builder.addEvent(entry.getKey(), entry.getValue().getEventId());
+            }
+
+            if (builder.getEventCount() >= maxEventsPerBucket || closed) {
+                return seal();
+            }
+
+            return null;
+        }
+
+        synchronized ColumnarIndexBucket sealIfOlderThan(final long maxAgeMillis) {
+            if (System.currentTimeMillis() - builder.getCreationTime() < maxAgeMillis) {
+                return null;
+            }
+
+            if (builder.getEventCount() == 0) {
+                // Start a new builder so that the age of the bucket reflects when it started receiving events
+                builder = createBuilder();
+                return null;
+            }
+
+            return seal();
+        }
+
+        /**
+         * Seals the bucket, making it available for search as a sealed bucket before it has been written to disk, so that there is
+         * no point in time at which its events cannot be found
+         *
+         * @return the sealed bucket, or <code>null</code> if the bucket contains no events
+         */
+        synchronized ColumnarIndexBucket seal() {
+            if (builder.getEventCount() == 0) {
+                return null;
+            }
+
+            final ColumnarIndexBucket bucket = ColumnarIndexBucket.fromData(partitionName, builder.build());
+            sealedBuckets.add(bucket);
+            builder = createBuilder();
+            return bucket;
+        }
+
+        synchronized Optional<ColumnarIndexBucket> snapshot() {
+            if (builder.getEventCount() == 0) {
+                return Optional.empty();
+            }
+
+            return Optional.of(ColumnarIndexBucket.fromData(partitionName, builder.build()));
+        }
+    }
+}
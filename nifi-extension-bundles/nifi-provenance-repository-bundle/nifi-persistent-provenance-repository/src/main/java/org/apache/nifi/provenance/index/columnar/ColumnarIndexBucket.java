@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.provenance.SearchableFields;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * <p>
+ * A bucket of indexed Provenance Events for a single partition. A bucket is first created from the columns that were accumulated in memory and
+ * is then persisted to disk, after which its columns are read from disk each time that the bucket is searched.
+ * </p>
+ *
+ * <p>
+ * The bucket's file begins with an uncompressed header that holds the number of events, the range of Event IDs and Event Times, and a
+ * {@link BloomFilter} of the FlowFile UUIDs in the bucket. The header is held in memory so that a search can skip any bucket that cannot
+ * contain a match without reading it. The header is followed by the deflate-compressed {@link ColumnarIndexData columns}.
+ * </p>
+ */
+public class ColumnarIndexBucket {
+    public static final String FILE_EXTENSION = ".colidx";
+    private static final int ENCODING_VERSION = 1;
+
+    private final String partitionName;
+    private final int eventCount;
+    private final long minEventId;
+    private final long maxEventId;
+    private final long minEventTime;
+    private final long maxEventTime;
+    private final BloomFilter uuidFilter;
+
+    private volatile File file;
+    private volatile ColumnarIndexData data;
+
+    private ColumnarIndexBucket(final String partitionName, final int eventCount, final long minEventId, final long maxEventId, final long minEventTime,
+                                final long maxEventTime, final BloomFilter uuidFilter, final File file, final ColumnarIndexData data) {
+        this.partitionName = partitionName;
+        this.eventCount = eventCount;
+        this.minEventId = minEventId;
+        this.maxEventId = maxEventId;
+        this.minEventTime = minEventTime;
+        this.maxEventTime = maxEventTime;
+        this.uuidFilter = uuidFilter;
+        this.file = file;
+        this.data = data;
+    }
+
+    /**
+     * Creates an in-memory bucket from the given columns
+     *
+     * @param partitionName the name of the partition that the events belong to
+     * @param data the columns of the bucket, which must contain at least one event
+     * @return the bucket
+     */
+    public static ColumnarIndexBucket fromData(final String partitionName, final ColumnarIndexData data) {
+        final int eventCount = data.getEventCount();
+        if (eventCount == 0) {
+            throw new IllegalArgumentException("Cannot create an Index Bucket that contains no events");
+        }
+
+        long minEventTime = Long.MAX_VALUE;
+        long maxEventTime = Long.MIN_VALUE;
+        for (int row = 0; row < eventCount; row++) {
+            final long eventTime = data.getEventTime(row);
+            minEventTime = Math.min(minEventTime, eventTime);
+            maxEventTime = Math.max(maxEventTime, eventTime);
+        }
+
+        final StringColumn uuidColumn = data.getColumn(SearchableFields.FlowFileUUID.getSearchableFieldName());
+        final int uuidCount = uuidColumn == null ? 0 : uuidColumn.getDictionarySize();
+        final BloomFilter uuidFilter = new BloomFilter(uuidCount);
+        for (int i = 0; i < uuidCount; i++) {
+            uuidFilter.add(uuidColumn.getDictionaryValue(i));
+        }
+
+        return new ColumnarIndexBucket(partitionName, eventCount, data.getEventId(0), data.getEventId(eventCount - 1), minEventTime, maxEventTime, uuidFilter, null, data);
+    }
+
+    /**
+     * Reads the header of the given bucket file. The columns are not read until they are needed.
+     *
+     * @param file the bucket file
+     * @return the bucket
+     * @throws IOException if unable to read the file
+     */
+    public static ColumnarIndexBucket readHeader(final File file) throws IOException {
+        try (final InputStream fis = new FileInputStream(file);
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(fis))) {
+            return readHeader(in, file);
+        }
+    }
+
+    private static ColumnarIndexBucket readHeader(final DataInputStream in, final File file) throws IOException {
+        final int version = in.readInt();
+        if (version != ENCODING_VERSION) {
+            throw new IOException("Cannot read Index Bucket " + file + " because it was written using encoding version " + version
+                + " but this version of NiFi supports only encoding version " + ENCODING_VERSION);
+        }
+
+        final String partitionName = in.readUTF();
+        final int eventCount = in.readInt();
+        final long minEventId = in.readLong();
+        final long maxEventId = in.readLong();
+        final long minEventTime = in.readLong();
+        final long maxEventTime = in.readLong();
+        final BloomFilter uuidFilter = BloomFilter.readFrom(in);
+
+        return new ColumnarIndexBucket(partitionName, eventCount, minEventId, maxEventId, minEventTime, maxEventTime, uuidFilter, file, null);
+    }
+
+    /**
+     * Writes the bucket to the given file, after which the columns are no longer held in memory
+     *
+     * @param destination the file to write to
+     * @throws IOException if unable to write the file
+     */
+    public synchronized void persist(final File destination) throws IOException {
+        final ColumnarIndexData toWrite = data;
+        if (toWrite == null) {
+            return;
+        }
+
+        final File tempFile = new File(destination.getParentFile(), destination.getName() + ".tmp");
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (final FileOutputStream fos = new FileOutputStream(tempFile);
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+
+            out.writeInt(ENCODING_VERSION);
+            out.writeUTF(partitionName);
+            out.writeInt(eventCount);
+            out.writeLong(minEventId);
+            out.writeLong(maxEventId);
+            out.writeLong(minEventTime);
+            out.writeLong(maxEventTime);
+            uuidFilter.writeTo(out);
+            out.flush();
+
+            // Finish the deflater rather than closing the compressed stream so that the underlying file can be synced before it is closed
+            final DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater);
+            final DataOutputStream compressedOut = new DataOutputStream(new BufferedOutputStream(deflaterOut));
+            toWrite.writeTo(compressedOut);
+            compressedOut.flush();
+            deflaterOut.finish();
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+
+        Files.move(tempFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        file = destination;
+        data = null;
+    }
+
+    /**
+     * @return the columns of the bucket, reading them from disk if the bucket has been persisted
+     * @throws IOException if unable to read the bucket file
+     */
+    public ColumnarIndexData getData() throws IOException {
+        final ColumnarIndexData inMemory = data;
+        if (inMemory != null) {
+            return inMemory;
+        }
+
+        try (final InputStream fis = new FileInputStream(file);
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(fis))) {
+            readHeader(in, file);
+
+            final DataInputStream compressedIn = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in)));
+            return ColumnarIndexData.readFrom(compressedIn);
+        }
+    }
+
+    public boolean mightContainFlowFileUuid(final String flowFileUuid) {
+        return uuidFilter.mightContain(flowFileUuid.toLowerCase());
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public long getMinEventId() {
+        return minEventId;
+    }
+
+    public long getMaxEventId() {
+        return maxEventId;
+    }
+
+    public long getMinEventTime() {
+        return minEventTime;
+    }
+
+    public long getMaxEventTime() {
+        return maxEventTime;
+    }
+
+    /**
+     * @return the file that the bucket has been persisted to, or <code>null</code> if the bucket is held only in memory
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarIndexBucket[partition=" + partitionName + ", events=" + eventCount + ", eventIds=[" + minEventId + ", " + maxEventId
+            + "], eventTimes=[" + minEventTime + ", " + maxEventTime + "], file=" + file + "]";
+    }
+}
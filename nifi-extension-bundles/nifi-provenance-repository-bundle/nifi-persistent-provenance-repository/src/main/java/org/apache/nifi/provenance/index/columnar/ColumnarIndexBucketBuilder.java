@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.SearchableField;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Accumulates the indexed fields of Provenance Events for a single partition until the bucket is sealed. The fields that are indexed
+ * are the configured searchable fields and attributes; the FlowFile UUID, Component ID and Event Type are always indexed because they
+ * are needed for lineage and are the most commonly searched fields. As with the Lucene-based index, values are lower-cased, and the
+ * FlowFile UUID column also holds the UUIDs of an event's children (for FORK, CLONE and REPLAY events), of its parents (for JOIN events),
+ * and the UUID that the source system used (for RECEIVE events).
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class ColumnarIndexBucketBuilder {
+    private static final Map<SearchableField, Function<ProvenanceEventRecord, String>> EVENT_FIELD_ACCESSORS = new HashMap<>();
+
+    static {
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.Filename, event -> event.getAttribute(CoreAttributes.FILENAME.key()));
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.ComponentID, ProvenanceEventRecord::getComponentId);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.AlternateIdentifierURI, ProvenanceEventRecord::getAlternateIdentifierUri);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.EventType, event -> event.getEventType().name());
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.Relationship, ProvenanceEventRecord::getRelationship);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.Details, ProvenanceEventRecord::getDetails);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.ContentClaimSection, ProvenanceEventRecord::getContentClaimSection);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.ContentClaimContainer, ProvenanceEventRecord::getContentClaimContainer);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.ContentClaimIdentifier, ProvenanceEventRecord::getContentClaimIdentifier);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.SourceQueueIdentifier, ProvenanceEventRecord::getSourceQueueIdentifier);
+        EVENT_FIELD_ACCESSORS.put(SearchableFields.TransitURI, ProvenanceEventRecord::getTransitUri);
+    }
+
+    private final String partitionName;
+    private final long creationTime = System.currentTimeMillis();
+    private final Map<SearchableField, StringColumn.Builder> eventFieldColumns = new LinkedHashMap<>();
+    private final Map<String, StringColumn.Builder> attributeColumns = new LinkedHashMap<>();
+    private final StringColumn.Builder uuidColumn = new StringColumn.Builder();
+
+    private long[] eventIds = new long[1024];
+    private long[] eventTimes = new long[1024];
+    private long[] fileSizes = new long[1024];
+    private int eventCount = 0;
+    private boolean ordered = true;
+
+    public ColumnarIndexBucketBuilder(final String partitionName, final Collection<SearchableField> searchableFields, final Collection<SearchableField> searchableAttributes) {
+        this.partitionName = partitionName;
+
+        final Set<SearchableField> eventFields = new LinkedHashSet<>();
+        eventFields.add(SearchableFields.ComponentID);
+        eventFields.add(SearchableFields.EventType);
+        eventFields.addAll(searchableFields);
+
+        for (final SearchableField field : eventFields) {
+            if (EVENT_FIELD_ACCESSORS.containsKey(field)) {
+                eventFieldColumns.put(field, new StringColumn.Builder());
+            }
+        }
+
+        final String uuidFieldName = SearchableFields.FlowFileUUID.getSearchableFieldName();
+        for (final SearchableField attribute : searchableAttributes) {
+            final String fieldName = attribute.getSearchableFieldName();
+            final boolean eventFieldName = fieldName.equals(uuidFieldName) || eventFieldColumns.keySet().stream().anyMatch(field -> field.getSearchableFieldName().equals(fieldName));
+            if (!eventFieldName) {
+                attributeColumns.putIfAbsent(fieldName, new StringColumn.Builder());
+            }
+        }
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void addEvent(final ProvenanceEventRecord event, final long eventId) {
+        if (eventCount == eventIds.length) {
+            final int newLength = eventIds.length * 2;
+            eventIds = Arrays.copyOf(eventIds, newLength);
+            eventTimes = Arrays.copyOf(eventTimes, newLength);
+            fileSizes = Arrays.copyOf(fileSizes, newLength);
+        }
+
+        if (eventCount > 0 && eventId < eventIds[eventCount - 1]) {
+            ordered = false;
+        }
+
+        eventIds[eventCount] = eventId;
+        eventTimes[eventCount] = event.getEventTime();
+        fileSizes[eventCount] = event.getFileSize();
+        eventCount++;
+
+        for (final Map.Entry<SearchableField, StringColumn.Builder> entry : eventFieldColumns.entrySet()) {
+            addValue(entry.getValue(), EVENT_FIELD_ACCESSORS.get(entry.getKey()).apply(event));
+            entry.getValue().endRow();
+        }
+
+        for (final Map.Entry<String, StringColumn.Builder> entry : attributeColumns.entrySet()) {
+            addValue(entry.getValue(), event.getAttribute(entry.getKey()));
+            entry.getValue().endRow();
+        }
+
+        addFlowFileUuids(event);
+        uuidColumn.endRow();
+    }
+
+    private void addFlowFileUuids(final ProvenanceEventRecord event) {
+        addValue(uuidColumn, event.getFlowFileUuid());
+
+        final ProvenanceEventType eventType = event.getEventType();
+        if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+            for (final String uuid : event.getChildUuids()) {
+                if (!uuid.equals(event.getFlowFileUuid())) {
+                    addValue(uuidColumn, uuid);
+                }
+            }
+        } else if (eventType == ProvenanceEventType.JOIN) {
+            for (final String uuid : event.getParentUuids()) {
+                if (!uuid.equals(event.getFlowFileUuid())) {
+                    addValue(uuidColumn, uuid);
+                }
+            }
+        } else if (eventType == ProvenanceEventType.RECEIVE && event.getSourceSystemFlowFileIdentifier() != null) {
+            final String sourceIdentifier = event.getSourceSystemFlowFileIdentifier();
+            final int lastColon = sourceIdentifier.lastIndexOf(":");
+            if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                addValue(uuidColumn, sourceIdentifier.substring(lastColon + 1));
+            }
+        }
+    }
+
+    private void addValue(final StringColumn.Builder column, final String value) {
+        if (value != null) {
+            column.addValue(value.toLowerCase());
+        }
+    }
+
+    /**
+     * Builds the columns for all events that have been added so far. The builder may continue to be used afterward.
+     *
+     * @return the columns for the events that have been added, ordered by Event ID
+     */
+    public ColumnarIndexData build() {
+        final int[] rowOrder = ordered ? null : createRowOrder();
+
+        final long[] builtIds = new long[eventCount];
+        final long[] builtTimes = new long[eventCount];
+        final long[] builtSizes = new long[eventCount];
+        for (int row = 0; row < eventCount; row++) {
+            final int sourceRow = rowOrder == null ? row : rowOrder[row];
+            builtIds[row] = eventIds[sourceRow];
+            builtTimes[row] = eventTimes[sourceRow];
+            builtSizes[row] = fileSizes[sourceRow];
+        }
+
+        final Map<String, StringColumn> columns = new LinkedHashMap<>();
+        columns.put(SearchableFields.FlowFileUUID.getSearchableFieldName(), uuidColumn.build(rowOrder));
+        for (final Map.Entry<SearchableField, StringColumn.Builder> entry : eventFieldColumns.entrySet()) {
+            columns.put(entry.getKey().getSearchableFieldName(), entry.getValue().build(rowOrder));
+        }
+        for (final Map.Entry<String, StringColumn.Builder> entry : attributeColumns.entrySet()) {
+            columns.put(entry.getKey(), entry.getValue().build(rowOrder));
+        }
+
+        return new ColumnarIndexData(builtIds, builtTimes, builtSizes, columns);
+    }
+
+    private int[] createRowOrder() {
+        final Integer[] boxed = new Integer[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> Long.compare(eventIds[a], eventIds[b]));
+
+        final int[] rowOrder = new int[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            rowOrder[i] = boxed[i];
+        }
+        return rowOrder;
+    }
+}
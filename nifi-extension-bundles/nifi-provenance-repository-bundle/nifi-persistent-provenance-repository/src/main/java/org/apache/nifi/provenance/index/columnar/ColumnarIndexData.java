@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.util.Tuple;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The columns of a single index bucket. Rows are ordered by Event ID, so the most recent events are found by scanning from the end of the columns.
+ * Event IDs, Event Times, and File Sizes are held as arrays of primitives; every other indexed field is held as a dictionary-encoded {@link StringColumn}.
+ * </p>
+ *
+ * <p>
+ * When written to disk, the Event IDs and Event Times are delta-encoded and all integers are written using a variable-length encoding, so that
+ * a bucket is typically a small fraction of the size of the equivalent Lucene index, even before it is compressed.
+ * </p>
+ */
+public class ColumnarIndexData {
+    private final long[] eventIds;
+    private final long[] eventTimes;
+    private final long[] fileSizes;
+    private final Map<String, StringColumn> columns;
+
+    public ColumnarIndexData(final long[] eventIds, final long[] eventTimes, final long[] fileSizes, final Map<String, StringColumn> columns) {
+        this.eventIds = eventIds;
+        this.eventTimes = eventTimes;
+        this.fileSizes = fileSizes;
+        this.columns = columns;
+    }
+
+    public int getEventCount() {
+        return eventIds.length;
+    }
+
+    public long getEventId(final int row) {
+        return eventIds[row];
+    }
+
+    public long getEventTime(final int row) {
+        return eventTimes[row];
+    }
+
+    public StringColumn getColumn(final String fieldName) {
+        return columns.get(fieldName);
+    }
+
+    /**
+     * Finds the events that match the given search
+     *
+     * @param search the search to perform
+     * @param maxResults the maximum number of Event IDs to return
+     * @return a Tuple whose key is the IDs of the most recent matching events, newest first, and whose value is the total number of matching events
+     */
+    public Tuple<List<Long>, Long> search(final ColumnarSearch search, final int maxResults) {
+        final Tuple<List<Long>, Long> noMatches = new Tuple<>(Collections.emptyList(), 0L);
+
+        final List<StringColumn> termColumns = new ArrayList<>(search.getTerms().size());
+        final List<BitSet> termCodes = new ArrayList<>(search.getTerms().size());
+        final List<Boolean> termInverted = new ArrayList<>(search.getTerms().size());
+
+        for (final ColumnarSearch.Term term : search.getTerms()) {
+            final StringColumn column = columns.get(term.getFieldName());
+            final BitSet matchingCodes = column == null ? new BitSet() : column.findMatchingCodes(term.getValue());
+
+            if (matchingCodes.isEmpty()) {
+                if (term.isInverted()) {
+                    // No event holds this value, so every event satisfies the term
+                    continue;
+                }
+
+                return noMatches;
+            }
+
+            termColumns.add(column);
+            termCodes.add(matchingCodes);
+            termInverted.add(term.isInverted());
+        }
+
+        StringColumn uuidColumn = null;
+        BitSet uuidCodes = null;
+        if (search.getAnyFlowFileUuids() != null) {
+            uuidColumn = columns.get(SearchableFields.FlowFileUUID.getSearchableFieldName());
+            if (uuidColumn == null) {
+                return noMatches;
+            }
+
+            uuidCodes = new BitSet(uuidColumn.getDictionarySize());
+            for (final String uuid : search.getAnyFlowFileUuids()) {
+                uuidCodes.or(uuidColumn.findMatchingCodes(uuid));
+            }
+
+            if (uuidCodes.isEmpty()) {
+                return noMatches;
+            }
+        }
+
+        final List<Long> matchingIds = new ArrayList<>(Math.min(maxResults, 1000));
+        long totalHits = 0L;
+
+        rows: for (int row = eventIds.length - 1; row >= 0; row--) {
+            if (!search.isEventTimeMatch(eventTimes[row]) || !search.isFileSizeMatch(fileSizes[row])) {
+                continue;
+            }
+
+            for (int i = 0; i < termColumns.size(); i++) {
+                if (termColumns.get(i).rowMatches(row, termCodes.get(i)) == termInverted.get(i)) {
+                    continue rows;
+                }
+            }
+
+            if (uuidColumn != null && !uuidColumn.rowMatches(row, uuidCodes)) {
+                continue;
+            }
+
+            totalHits++;
+            if (matchingIds.size() < maxResults) {
+                matchingIds.add(eventIds[row]);
+            }
+        }
+
+        return new Tuple<>(matchingIds, totalHits);
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        writeVarInt(out, eventIds.length);
+
+        long previousId = 0L;
+        long previousTime = 0L;
+        for (int i = 0; i < eventIds.length; i++) {
+            writeVarLong(out, eventIds[i] - previousId);
+            writeVarLong(out, zigZag(eventTimes[i] - previousTime));
+            writeVarLong(out, zigZag(fileSizes[i]));
+            previousId = eventIds[i];
+            previousTime = eventTimes[i];
+        }
+
+        writeVarInt(out, columns.size());
+        for (final Map.Entry<String, StringColumn> entry : columns.entrySet()) {
+            final byte[] nameBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, nameBytes.length);
+            out.write(nameBytes);
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    public static ColumnarIndexData readFrom(final DataInputStream in) throws IOException {
+        final int rows = readVarInt(in);
+        final long[] eventIds = new long[rows];
+        final long[] eventTimes = new long[rows];
+        final long[] fileSizes = new long[rows];
+
+        long previousId = 0L;
+        long previousTime = 0L;
+        for (int i = 0; i < rows; i++) {
+            eventIds[i] = previousId + readVarLong(in);
+            eventTimes[i] = previousTime + unZigZag(readVarLong(in));
+            fileSizes[i] = unZigZag(readVarLong(in));
+            previousId = eventIds[i];
+            previousTime = eventTimes[i];
+        }
+
+        final int columnCount = readVarInt(in);
+        final Map<String, StringColumn> columns = new LinkedHashMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            final byte[] nameBytes = new byte[readVarInt(in)];
+            in.readFully(nameBytes);
+            columns.put(new String(nameBytes, StandardCharsets.UTF_8), StringColumn.readFrom(in, rows));
+        }
+
+        return new ColumnarIndexData(eventIds, eventTimes, fileSizes, columns);
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(final DataInputStream in) throws IOException {
+        final long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Expected a non-negative integer value but found " + value);
+        }
+
+        return (int) value;
+    }
+
+    static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        out.write((int) remaining);
+    }
+
+    static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Variable-length integer is too long");
+    }
+}
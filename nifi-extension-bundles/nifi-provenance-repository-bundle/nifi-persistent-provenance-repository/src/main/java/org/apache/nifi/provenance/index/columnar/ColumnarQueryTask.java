@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.provenance.ProgressiveResult;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.store.EventStore;
+import org.apache.nifi.util.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches a single {@link ColumnarIndexBucket} and adds the matching events to the result of a query or lineage computation
+ */
+public class ColumnarQueryTask implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarQueryTask.class);
+
+    private final ColumnarSearch search;
+    private final ProgressiveResult queryResult;
+    private final int maxResults;
+    private final ColumnarIndexBucket bucket;
+    private final EventStore eventStore;
+    private final EventAuthorizer authorizer;
+    private final EventTransformer transformer;
+
+    public ColumnarQueryTask(final ColumnarSearch search, final ProgressiveResult result, final int maxResults, final ColumnarIndexBucket bucket,
+                             final EventStore eventStore, final EventAuthorizer authorizer, final EventTransformer unauthorizedTransformer) {
+        this.search = search;
+        this.queryResult = result;
+        this.maxResults = maxResults;
+        this.bucket = bucket;
+        this.eventStore = eventStore;
+        this.authorizer = authorizer;
+        this.transformer = unauthorizedTransformer;
+    }
+
+    @Override
+    public void run() {
+        if (queryResult.getTotalHitCount() >= maxResults) {
+            logger.debug("Will not search {} because maximum results have already been obtained", bucket);
+            queryResult.update(Collections.emptyList(), 0L);
+            return;
+        }
+
+        if (queryResult.isFinished()) {
+            logger.debug("Will not search {} because the query is already finished", bucket);
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        try {
+            final ColumnarIndexData data;
+            try {
+                data = bucket.getData();
+            } catch (final FileNotFoundException fnfe) {
+                // The bucket was aged off after the query was submitted. This is not an error; there are simply no events to return from it.
+                queryResult.update(Collections.emptyList(), 0L);
+                logger.info("Attempted to search {} but the bucket file no longer exists. This usually indicates that the bucket was recently aged off.", bucket);
+                return;
+            }
+
+            final Tuple<List<Long>, Long> idsAndTotalHits = data.search(search, maxResults);
+            final List<Long> eventIds = idsAndTotalHits.getKey();
+
+            if (queryResult.isFinished()) {
+                logger.debug("Will not read events from store for {} because the query has already finished", bucket);
+                return;
+            }
+
+            final List<ProvenanceEventRecord> events = eventIds.isEmpty() ? Collections.emptyList() : eventStore.getEvents(eventIds, authorizer, transformer);
+            queryResult.update(events, idsAndTotalHits.getValue());
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            logger.debug("Successfully searched {} for {}; retrieved {} events with a total of {} hits in {} millis",
+                bucket, search, events.size(), idsAndTotalHits.getValue(), millis);
+        } catch (final Exception e) {
+            logger.error("Failed to search {}", bucket, e);
+            queryResult.setError("Failed to complete query due to " + e);
+        }
+    }
+}
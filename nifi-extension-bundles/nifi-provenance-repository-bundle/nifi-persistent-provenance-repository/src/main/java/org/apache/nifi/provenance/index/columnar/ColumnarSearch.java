@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.processor.DataUnit;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The criteria that an event must satisfy in order to be returned from a search of the {@link ColumnarEventIndex}. The semantics match those of the
+ * Lucene-based index: search values are case-insensitive, may contain the wildcards <code>*</code> and <code>?</code>, and an inverted term
+ * matches only those events that do not match the value.
+ */
+public class ColumnarSearch {
+    private final List<Term> terms;
+    private final Set<String> anyFlowFileUuids;
+    private final long minEventTime;
+    private final long maxEventTime;
+    private final long minFileSize;
+    private final long maxFileSize;
+
+    private ColumnarSearch(final List<Term> terms, final Set<String> anyFlowFileUuids, final long minEventTime, final long maxEventTime,
+                           final long minFileSize, final long maxFileSize) {
+        this.terms = terms;
+        this.anyFlowFileUuids = anyFlowFileUuids;
+        this.minEventTime = minEventTime;
+        this.maxEventTime = maxEventTime;
+        this.minFileSize = minFileSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    public static ColumnarSearch fromQuery(final Query query) {
+        final List<Term> terms = new ArrayList<>(query.getSearchTerms().size());
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            final String searchValue = searchTerm.getValue();
+            if (searchValue == null) {
+                throw new IllegalArgumentException("Empty search value not allowed (for term '" + searchTerm.getSearchableField().getFriendlyName() + "')");
+            }
+
+            terms.add(new Term(searchTerm.getSearchableField().getSearchableFieldName(), searchValue.toLowerCase(), Boolean.TRUE.equals(searchTerm.isInverted())));
+        }
+
+        final long minFileSize = query.getMinFileSize() == null ? 0L : DataUnit.parseDataSize(query.getMinFileSize(), DataUnit.B).longValue();
+        final long maxFileSize = query.getMaxFileSize() == null ? Long.MAX_VALUE : DataUnit.parseDataSize(query.getMaxFileSize(), DataUnit.B).longValue();
+        final long minEventTime = query.getStartDate() == null ? 0L : query.getStartDate().getTime();
+        final long maxEventTime = query.getEndDate() == null ? Long.MAX_VALUE : query.getEndDate().getTime();
+
+        return new ColumnarSearch(terms, null, minEventTime, maxEventTime, minFileSize, maxFileSize);
+    }
+
+    /**
+     * Creates a search for all events that reference any of the given FlowFile UUIDs, as is necessary in order to compute lineage
+     *
+     * @param flowFileUuids the UUIDs of the FlowFiles of interest
+     * @return the search
+     */
+    public static ColumnarSearch forFlowFileUuids(final Collection<String> flowFileUuids) {
+        final Set<String> uuids = flowFileUuids.stream()
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet());
+
+        return new ColumnarSearch(Collections.emptyList(), uuids, 0L, Long.MAX_VALUE, 0L, Long.MAX_VALUE);
+    }
+
+    public List<Term> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @return the set of FlowFile UUIDs of which an event must reference at least one, or <code>null</code> if there is no such restriction
+     */
+    public Set<String> getAnyFlowFileUuids() {
+        return anyFlowFileUuids;
+    }
+
+    public boolean isEventTimeMatch(final long eventTime) {
+        return eventTime >= minEventTime && eventTime <= maxEventTime;
+    }
+
+    public boolean isFileSizeMatch(final long fileSize) {
+        return fileSize >= minFileSize && fileSize <= maxFileSize;
+    }
+
+    /**
+     * Determines, using only the information that is held in memory for an index bucket, whether or not the bucket may contain matching events
+     *
+     * @param bucket the bucket
+     * @return <code>false</code> if the bucket cannot contain any matching events, <code>true</code> if it may
+     */
+    public boolean isPossibleMatch(final ColumnarIndexBucket bucket) {
+        if (bucket.getMaxEventTime() < minEventTime || bucket.getMinEventTime() > maxEventTime) {
+            return false;
+        }
+
+        final String uuidFieldName = SearchableFields.FlowFileUUID.getSearchableFieldName();
+        for (final Term term : terms) {
+            if (!term.isInverted() && !term.isWildcard() && term.getFieldName().equals(uuidFieldName) && !bucket.mightContainFlowFileUuid(term.getValue())) {
+                return false;
+            }
+        }
+
+        if (anyFlowFileUuids != null) {
+            return anyFlowFileUuids.stream().anyMatch(bucket::mightContainFlowFileUuid);
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarSearch[terms=" + terms + ", flowFileUuids=" + anyFlowFileUuids + ", eventTime=[" + minEventTime + ", " + maxEventTime
+            + "], fileSize=[" + minFileSize + ", " + maxFileSize + "]]";
+    }
+
+
+    public static class Term {
+        private final String fieldName;
+        private final String value;
+        private final boolean inverted;
+
+        public Term(final String fieldName, final String value, final boolean inverted) {
+            this.fieldName = fieldName;
+            this.value = value;
+            this.inverted = inverted;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isInverted() {
+            return inverted;
+        }
+
+        public boolean isWildcard() {
+            return value.contains("*") || value.contains("?");
+        }
+
+        @Override
+        public String toString() {
+            return (inverted ? "NOT " : "") + fieldName + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * A dictionary-encoded column of String values. Each distinct value is stored once, in a sorted dictionary, and each row refers to its
+ * values by their position in the dictionary. A row may have any number of values, which allows the same structure to be used both for
+ * single-valued fields, whose value may be missing, and for the FlowFile UUID field, which also holds the UUIDs of an event's parents or children.
+ * </p>
+ *
+ * <p>
+ * Because the dictionary is sorted, an exact match is found using a binary search, and a search term is only ever compared against each
+ * distinct value once, regardless of how many rows hold that value.
+ * </p>
+ */
+public class StringColumn {
+    private final String[] dictionary;
+    private final int[] offsets;
+    private final int[] codes;
+
+    private StringColumn(final String[] dictionary, final int[] offsets, final int[] codes) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.codes = codes;
+    }
+
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    public String getDictionaryValue(final int code) {
+        return dictionary[code];
+    }
+
+    /**
+     * Determines which dictionary entries match the given (lower-cased) search value. The value may contain the wildcards <code>*</code>,
+     * which matches any number of characters, and <code>?</code>, which matches exactly one character.
+     *
+     * @param value the value to search for
+     * @return the codes of the dictionary entries that match
+     */
+    public BitSet findMatchingCodes(final String value) {
+        final BitSet matching = new BitSet(dictionary.length);
+
+        if (value.contains("*") || value.contains("?")) {
+            final Pattern pattern = toPattern(value);
+            for (int i = 0; i < dictionary.length; i++) {
+                if (pattern.matcher(dictionary[i]).matches()) {
+                    matching.set(i);
+                }
+            }
+        } else {
+            final int code = Arrays.binarySearch(dictionary, value);
+            if (code >= 0) {
+                matching.set(code);
+            }
+        }
+
+        return matching;
+    }
+
+    private static Pattern toPattern(final String wildcardValue) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < wildcardValue.length(); i++) {
+            final char c = wildcardValue.charAt(i);
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * @param row the row to check
+     * @param matchingCodes the codes that are considered a match
+     * @return <code>true</code> if any of the values in the given row is one of the matching codes
+     */
+    public boolean rowMatches(final int row, final BitSet matchingCodes) {
+        for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+            if (matchingCodes.get(codes[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        ColumnarIndexData.writeVarInt(out, dictionary.length);
+        for (final String value : dictionary) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ColumnarIndexData.writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        final int rows = offsets.length - 1;
+        for (int row = 0; row < rows; row++) {
+            ColumnarIndexData.writeVarInt(out, offsets[row + 1] - offsets[row]);
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                ColumnarIndexData.writeVarInt(out, codes[i]);
+            }
+        }
+    }
+
+    public static StringColumn readFrom(final DataInputStream in, final int rows) throws IOException {
+        final int dictionarySize = ColumnarIndexData.readVarInt(in);
+        final String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            final byte[] bytes = new byte[ColumnarIndexData.readVarInt(in)];
+            in.readFully(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final int[] offsets = new int[rows + 1];
+        int[] codes = new int[rows];
+        int codeCount = 0;
+        for (int row = 0; row < rows; row++) {
+            final int valueCount = ColumnarIndexData.readVarInt(in);
+            if (codeCount + valueCount > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(codes.length * 2, codeCount + valueCount));
+            }
+
+            for (int i = 0; i < valueCount; i++) {
+                final int code = ColumnarIndexData.readVarInt(in);
+                if (code >= dictionarySize) {
+                    throw new IOException("Column refers to dictionary entry " + code + " but dictionary contains only " + dictionarySize + " entries");
+                }
+                codes[codeCount++] = code;
+            }
+
+            offsets[row + 1] = codeCount;
+        }
+
+        return new StringColumn(dictionary, offsets, codes);
+    }
+
+
+    /**
+     * Accumulates the values of a column, one row at a time. Values are assigned provisional codes in the order that they are first seen;
+     * the dictionary is sorted and the codes are re-mapped when the column is built.
+     */
+    public static class Builder {
+        private final Map<String, Integer> provisionalCodes = new HashMap<>();
+        private int[] offsets = new int[1025];
+        private int[] codes = new int[1024];
+        private int rows = 0;
+        private int codeCount = 0;
+
+        public void addValue(final String value) {
+            if (value == null) {
+                return;
+            }
+
+            Integer code = provisionalCodes.get(value);
+            if (code == null) {
+                code = provisionalCodes.size();
+                provisionalCodes.put(value, code);
+            }
+
+            if (codeCount == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            codes[codeCount++] = code;
+        }
+
+        /**
+         * Completes the current row. Any values added after this call belong to the next row.
+         */
+        public void endRow() {
+            if (rows + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+
+            offsets[++rows] = codeCount;
+        }
+
+        public int getRowCount() {
+            return rows;
+        }
+
+        /**
+         * Builds the column, re-ordering the rows according to the given order
+         *
+         * @param rowOrder the original index of each row in the column to build, or <code>null</code> to keep the rows in the order that they were added
+         * @return the column
+         */
+        public StringColumn build(final int[] rowOrder) {
+            final String[] dictionary = provisionalCodes.keySet().toArray(new String[0]);
+            Arrays.sort(dictionary);
+
+            final int[] remapped = new int[dictionary.length];
+            for (int i = 0; i < dictionary.length; i++) {
+                remapped[provisionalCodes.get(dictionary[i])] = i;
+            }
+
+            final int[] builtOffsets = new int[rows + 1];
+            final int[] builtCodes = new int[codeCount];
+            int builtCount = 0;
+            for (int row = 0; row < rows; row++) {
+                final int sourceRow = rowOrder == null ? row : rowOrder[row];
+                for (int i = offsets[sourceRow]; i < offsets[sourceRow + 1]; i++) {
+                    builtCodes[builtCount++] = remapped[codes[i]];
+                }
+                builtOffsets[row + 1] = builtCount;
+            }
+
+            return new StringColumn(dictionary, builtOffsets, builtCodes);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestEventIngestionBuffer {
+
+    @Test
+    @Timeout(30)
+    public void testEventsWrittenInBatches() {
+        final List<ProvenanceEventRecord> written = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(1000, 2, 100, batch -> {
+            batchSizes.add(batch.size());
+            written.addAll(batch);
+        });
+
+        buffer.start();
+        for (int i = 0; i < 50; i++) {
+            final List<ProvenanceEventRecord> rejected = buffer.offer(createEvents(10));
+            assertTrue(rejected.isEmpty());
+        }
+        buffer.close();
+
+        assertEquals(500, written.size());
+        assertEquals(500, buffer.getEventsWritten());
+        assertEquals(0, buffer.getQueuedEventCount());
+        assertEquals(0L, buffer.getBackPressureCount());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+    }
+
+    @Test
+    @Timeout(30)
+    public void testEventsRejectedWhenFull() throws InterruptedException {
+        final CountDownLatch writerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseWriter = new CountDownLatch(1);
+        final List<ProvenanceEventRecord> written = Collections.synchronizedList(new ArrayList<>());
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(10, 1, 1, batch -> {
+            writerStarted.countDown();
+            try {
+                releaseWriter.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(batch);
+        });
+
+        buffer.start();
+
+        // Wait until the writer thread has taken the first event and is blocked, so that the buffer's contents are predictable
+        assertTrue(buffer.offer(createEvents(1)).isEmpty());
+        assertTrue(writerStarted.await(10, TimeUnit.SECONDS));
+
+        // The event being written still counts against the capacity, so there is room for 9 more events
+        assertTrue(buffer.offer(createEvents(5)).isEmpty());
+        assertEquals(6, buffer.getQueuedEventCount());
+
+        // Events of a single offer are never split, so none of them are buffered if they do not all fit
+        final List<ProvenanceEventRecord> events = createEvents(5);
+        final List<ProvenanceEventRecord> rejected = buffer.offer(events);
+        assertEquals(events, rejected);
+        assertEquals(6, buffer.getQueuedEventCount());
+        assertEquals(1L, buffer.getBackPressureCount());
+
+        assertTrue(buffer.offer(createEvents(4)).isEmpty());
+        assertEquals(10, buffer.getQueuedEventCount());
+
+        releaseWriter.countDown();
+        buffer.close();
+
+        assertEquals(10, written.size());
+        assertEquals(0, buffer.getQueuedEventCount());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testOfferedEventsWrittenInSameBatch() {
+        final List<List<ProvenanceEventRecord>> batches = Collections.synchronizedList(new ArrayList<>());
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(1000, 1, 10, batch -> batches.add(new ArrayList<>(batch)));
+
+        final List<ProvenanceEventRecord> first = createEvents(7);
+        final List<ProvenanceEventRecord> second = createEvents(7);
+        final List<ProvenanceEventRecord> large = createEvents(25);
+        assertTrue(buffer.offer(first).isEmpty());
+        assertTrue(buffer.offer(second).isEmpty());
+        assertTrue(buffer.offer(large).isEmpty());
+
+        buffer.start();
+        buffer.close();
+
+        assertEquals(List.of(first, second, large), batches);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailedBatchIsRetried() {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final List<ProvenanceEventRecord> written = Collections.synchronizedList(new ArrayList<>());
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(100, 1, 100, batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new UncheckedIOException(new IOException("Intentional Unit Test Exception"));
+            }
+            written.addAll(batch);
+        });
+
+        final List<ProvenanceEventRecord> events = createEvents(3);
+        assertTrue(buffer.offer(events).isEmpty());
+        buffer.start();
+        buffer.close();
+
+        assertEquals(2, attempts.get());
+        assertEquals(events, written);
+        assertEquals(3, buffer.getEventsWritten());
+        assertEquals(0, buffer.getQueuedEventCount());
+    }
+
+    @Test
+    public void testEventsRejectedAfterClose() {
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(10, 1, 10, batch -> { });
+        buffer.start();
+        buffer.close();
+
+        assertEquals(3, buffer.offer(createEvents(3)).size());
+    }
+
+    private List<ProvenanceEventRecord> createEvents(final int count) {
+        final List<ProvenanceEventRecord> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String uuid = UUID.randomUUID().toString();
+            events.add(new StandardProvenanceEventRecord.Builder()
+                .setEventType(ProvenanceEventType.CREATE)
+                .setAttributes(Collections.emptyMap(), Collections.singletonMap("uuid", uuid))
+                .setComponentId("component-1")
+                .setComponentType("unit test")
+                .setCurrentContentClaim(null, null, null, 0L, 0L)
+                .setEventTime(System.currentTimeMillis())
+                .setFlowFileEntryDate(System.currentTimeMillis())
+                .setFlowFileUUID(uuid)
+                .setLineageStartDate(System.currentTimeMillis())
+                .build());
+        }
+
+        return events;
+    }
+}
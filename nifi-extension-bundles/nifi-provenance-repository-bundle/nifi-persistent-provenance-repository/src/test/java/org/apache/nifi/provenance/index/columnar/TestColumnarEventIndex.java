@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
+import org.apache.nifi.provenance.lineage.LineageNode;
+import org.apache.nifi.provenance.lineage.LineageNodeType;
+import org.apache.nifi.provenance.lineage.ProvenanceEventLineageNode;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryResult;
+import org.apache.nifi.provenance.search.SearchTerms;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.ArrayListEventStore;
+import org.apache.nifi.provenance.store.StorageResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.WINDOWS)
+@Timeout(value = 60)
+public class TestColumnarEventIndex {
+
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+
+    @BeforeEach
+    public void setup() {
+        idGenerator.set(0L);
+    }
+
+    @Test
+    public void testQueryByComponentId() throws InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP);
+        index.initialize(eventStore);
+
+        for (int i = 0; i < 10; i++) {
+            addEvent(index, eventStore, createEvent(System.currentTimeMillis(), UUID.randomUUID().toString(), i % 2 == 0 ? "component-1" : "component-2"));
+        }
+
+        final Query exactQuery = createQuery();
+        exactQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "COMPONENT-1", null));
+        final List<ProvenanceEventRecord> exactMatches = query(index, exactQuery);
+        assertEquals(5, exactMatches.size());
+        assertTrue(exactMatches.stream().allMatch(event -> event.getComponentId().equals("component-1")));
+
+        final Query wildcardQuery = createQuery();
+        wildcardQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "comp*-?", null));
+        assertEquals(10, query(index, wildcardQuery).size());
+
+        final Query invertedQuery = createQuery();
+        invertedQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", Boolean.TRUE));
+        final List<ProvenanceEventRecord> invertedMatches = query(index, invertedQuery);
+        assertEquals(5, invertedMatches.size());
+        assertTrue(invertedMatches.stream().allMatch(event -> event.getComponentId().equals("component-2")));
+
+        final Query noMatchQuery = createQuery();
+        noMatchQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-3", null));
+        assertTrue(query(index, noMatchQuery).isEmpty());
+    }
+
+    @Test
+    public void testQueryByFlowFileUuidAndTimeRange() throws InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, 4, EventReporter.NO_OP);
+        index.initialize(eventStore);
+
+        final String uuid = UUID.randomUUID().toString();
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            addEvent(index, eventStore, createEvent(now - TimeUnit.MINUTES.toMillis(10 - i), i < 5 ? uuid : UUID.randomUUID().toString(), "component-1"));
+        }
+
+        final Query uuidQuery = createQuery();
+        uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, uuid.toUpperCase(), null));
+        assertEquals(5, query(index, uuidQuery).size());
+
+        final Query timeRangeQuery = createQuery();
+        timeRangeQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, uuid, null));
+        timeRangeQuery.setStartDate(new Date(now - TimeUnit.MINUTES.toMillis(7)));
+        timeRangeQuery.setEndDate(new Date(now));
+        final List<ProvenanceEventRecord> matches = query(index, timeRangeQuery);
+        assertEquals(2, matches.size());
+        assertTrue(matches.stream().allMatch(event -> event.getEventTime() >= now - TimeUnit.MINUTES.toMillis(7)));
+    }
+
+    @Test
+    public void testBucketsPersistedAndReloaded() throws IOException, InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, 10, EventReporter.NO_OP);
+        index.initialize(eventStore);
+
+        for (int i = 0; i < 25; i++) {
+            addEvent(index, eventStore, createEvent(System.currentTimeMillis(), UUID.randomUUID().toString(), "component-1"));
+        }
+
+        assertEquals(20L, index.getMinimumEventIdToReindex("1"));
+        assertEquals(2, getBucketFiles(repoConfig).length);
+        assertTrue(index.getSize() > 0L);
+
+        index.close();
+        assertEquals(25L, index.getMinimumEventIdToReindex("1"));
+        assertEquals(3, getBucketFiles(repoConfig).length);
+
+        final ColumnarEventIndex reloaded = new ColumnarEventIndex(repoConfig, 10, EventReporter.NO_OP);
+        reloaded.initialize(eventStore);
+        assertEquals(25L, reloaded.getMinimumEventIdToReindex("1"));
+
+        final Query query = createQuery();
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", null));
+        assertEquals(25, query(reloaded, query).size());
+
+        // Events that are already in a persisted bucket should not be indexed a second time
+        final Map<ProvenanceEventRecord, StorageSummary> persistedEvents = new HashMap<>();
+        final List<ProvenanceEventRecord> storedEvents = eventStore.getEvents(0L, 25);
+        for (int i = 0; i < storedEvents.size(); i++) {
+            persistedEvents.put(storedEvents.get(i), new StorageSummary(i, "location", "1", 1, 0L, 0L));
+        }
+        reloaded.reindexEvents(persistedEvents);
+        assertEquals(25, query(reloaded, query).size());
+        reloaded.close();
+    }
+
+    @Test
+    public void testUnauthorizedEventsGetPlaceholdersForLineage() throws InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, 2, EventReporter.NO_OP);
+        index.initialize(eventStore);
+
+        for (int i = 0; i < 3; i++) {
+            addEvent(index, eventStore, createEvent(System.currentTimeMillis(), "1234", "component-1"));
+        }
+
+        final ComputeLineageSubmission submission = index.submitLineageComputation(1L, null, EventAuthorizer.DENY_ALL);
+        assertTrue(submission.getResult().awaitCompletion(15, TimeUnit.SECONDS));
+
+        final List<LineageNode> nodes = submission.getResult().getNodes();
+        assertEquals(3, nodes.size());
+
+        for (final LineageNode node : nodes) {
+            assertEquals(LineageNodeType.PROVENANCE_EVENT_NODE, node.getNodeType());
+            final ProvenanceEventLineageNode eventNode = (ProvenanceEventLineageNode) node;
+            assertEquals(ProvenanceEventType.UNKNOWN, eventNode.getEventType());
+        }
+    }
+
+    private void addEvent(final ColumnarEventIndex index, final ArrayListEventStore eventStore, final ProvenanceEventRecord event) {
+        final StorageResult storageResult = eventStore.addEvent(event);
+        index.addEvents(storageResult.getStorageLocations());
+    }
+
+    private List<ProvenanceEventRecord> query(final ColumnarEventIndex index, final Query query) throws InterruptedException {
+        final QueryResult result = index.submitQuery(query, EventAuthorizer.GRANT_ALL, "unit test user").getResult();
+        assertTrue(result.awaitCompletion(15, TimeUnit.SECONDS));
+        assertNull(result.getError());
+        return result.getMatchingEvents();
+    }
+
+    private Query createQuery() {
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.setMaxResults(100);
+        return query;
+    }
+
+    private File[] getBucketFiles(final RepositoryConfiguration repoConfig) {
+        final File indexDirectory = new File(repoConfig.getStorageDirectories().get("1"), ColumnarEventIndex.INDEX_DIRECTORY_NAME);
+        final File[] files = indexDirectory.listFiles(file -> file.getName().endsWith(ColumnarIndexBucket.FILE_EXTENSION));
+        return files == null ? new File[0] : files;
+    }
+
+    private RepositoryConfiguration createConfig() {
+        final RepositoryConfiguration config = new RepositoryConfiguration();
+        final File storageDir = new File("target/storage/" + getClass().getSimpleName() + "/" + UUID.randomUUID());
+        config.addStorageDirectory("1", storageDir);
+        config.setSearchableFields(Arrays.asList(SearchableFields.FlowFileUUID, SearchableFields.ComponentID));
+        config.setSearchableAttributes(Collections.singletonList(SearchableFields.newSearchableAttribute("updated")));
+
+        assertTrue(storageDir.exists() || storageDir.mkdirs());
+        return config;
+    }
+
+    private ProvenanceEventRecord createEvent(final long timestamp, final String uuid, final String componentId) {
+        final Map<String, String> previousAttributes = new HashMap<>();
+        previousAttributes.put("uuid", uuid);
+        final Map<String, String> updatedAttributes = new HashMap<>();
+        updatedAttributes.put("updated", "true");
+
+        return new StandardProvenanceEventRecord.Builder()
+                .setEventType(ProvenanceEventType.CONTENT_MODIFIED)
+                .setAttributes(previousAttributes, updatedAttributes)
+                .setComponentId(componentId)
+                .setComponentType("unit test")
+                .setEventId(idGenerator.getAndIncrement())
+                .setEventTime(timestamp)
+                .setFlowFileEntryDate(timestamp)
+                .setFlowFileUUID(uuid)
+                .setLineageStartDate(timestamp)
+                .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L)
+                .build();
+    }
+}
@@ -17,7 +17,10 @@
 
 package org.apache.nifi.processors.standard;
 
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.PropertyValue;
 import org.apache.nifi.expression.ExpressionLanguageScope;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
@@ -28,6 +31,7 @@ import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.StreamCallback;
+import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
@@ -41,10 +45,16 @@ import org.apache.nifi.serialization.record.RecordSchema;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractRecordProcessor extends AbstractProcessor {
@@ -72,6 +82,28 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
         .required(true)
         .build();
 
+    static final PropertyDescriptor PARALLEL_PROCESSING_THREADS = new PropertyDescriptor.Builder()
+        .name("Parallel Processing Threads")
+        .description("The number of threads to use for processing the records of a single FlowFile. When set to 1, each record is read, processed and written "
+            + "by the thread that is processing the FlowFile. When greater than 1, records are read in batches that are processed concurrently and then written "
+            + "in their original order, so that a large FlowFile is able to make use of multiple cores. Records are still read and written by a single thread. "
+            + "These threads are in addition to the threads used for the Processor's Concurrent Tasks.")
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .defaultValue("1")
+        .required(true)
+        .build();
+
+    static final PropertyDescriptor PARALLEL_BATCH_SIZE = new PropertyDescriptor.Builder()
+        .name("Parallel Batch Size")
+        .description("When Parallel Processing Threads is greater than 1, the number of records in each batch that is processed by a single thread. "
+            + "At most two batches per thread are held in memory for a FlowFile at any one time, in addition to the batch that is being read.")
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .defaultValue("1000")
+        .required(true)
+        .build();
+
     static final Relationship REL_SUCCESS = new Relationship.Builder()
         .name("success")
         .description("FlowFiles that are successfully transformed will be routed to this relationship")
@@ -85,6 +117,9 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
     private static final List<PropertyDescriptor> properties = List.of(RECORD_READER, RECORD_WRITER);
     private static final Set<Relationship> relationships = Set.of(REL_SUCCESS, REL_FAILURE);
 
+    private volatile ForkJoinPool parallelProcessingPool;
+    private volatile int parallelBatchSize;
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         return properties;
@@ -102,6 +137,26 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
         config.renameProperty("include-zero-record-flowfiles", INCLUDE_ZERO_RECORD_FLOWFILES.getName());
     }
 
+    @OnScheduled
+    public void createParallelProcessingPool(final ProcessContext context) {
+        // Processors that do not support parallel processing will not have the property set and always process records sequentially
+        final PropertyValue threadsValue = context.getProperty(PARALLEL_PROCESSING_THREADS);
+        final int threads = threadsValue.isSet() ? threadsValue.asInteger() : 1;
+        if (threads > 1) {
+            parallelBatchSize = context.getProperty(PARALLEL_BATCH_SIZE).asInteger();
+            parallelProcessingPool = new ForkJoinPool(threads);
+        }
+    }
+
+    @OnStopped
+    public void shutdownParallelProcessingPool() {
+        final ForkJoinPool pool = parallelProcessingPool;
+        if (pool != null) {
+            pool.shutdownNow();
+            parallelProcessingPool = null;
+        }
+    }
+
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
         FlowFile flowFile = session.get();
@@ -152,11 +207,16 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
                             writer.write(firstRecord);
 
-                            Record record;
-                            long count = 1L;
-                            while ((record = reader.nextRecord()) != null) {
-                                final Record processed = AbstractRecordProcessor.this.process(record, original, context, ++count);
-                                writer.write(processed);
+                            final ForkJoinPool pool = parallelProcessingPool;
+                            if (pool == null) {
+                                Record record;
+                                long count = 1L;
+                                while ((record = reader.nextRecord()) != null) {
+                                    final Record processed = AbstractRecordProcessor.this.process(record, original, context, ++count);
+                                    writer.write(processed);
+                                }
+                            } else {
+                                processInParallel(pool, reader, writer, original, context);
                             }
 
                             final WriteResult writeResult = writer.finishRecordSet();
@@ -199,5 +259,80 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
         getLogger().info("Successfully converted {} records for {}", count, flowFile);
     }
 
+    /**
+     * Reads the remaining records in batches, processes the batches using the given pool and writes the processed records in the order that they were read.
+     * The number of batches that have been read but not yet written is limited to twice the parallelism of the pool so that memory use is bounded.
+     */
+    private void processInParallel(final ForkJoinPool pool, final RecordReader reader, final RecordSetWriter writer, final FlowFile flowFile, final ProcessContext context)
+            throws IOException, MalformedRecordException {
+        final int batchSize = parallelBatchSize;
+        final int maxPendingBatches = pool.getParallelism() * 2;
+        final Deque<Future<List<Record>>> pendingBatches = new ArrayDeque<>(maxPendingBatches);
+
+        try {
+            long count = 1L;
+            List<Record> batch = new ArrayList<>(batchSize);
+            Record record;
+            while ((record = reader.nextRecord()) != null) {
+                batch.add(record);
+
+                if (batch.size() == batchSize) {
+                    pendingBatches.add(submitBatch(pool, batch, count + 1, flowFile, context));
+                    count += batch.size();
+                    batch = new ArrayList<>(batchSize);
+
+                    while (pendingBatches.size() >= maxPendingBatches) {
+                        writeBatch(pendingBatches.poll(), writer);
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                pendingBatches.add(submitBatch(pool, batch, count + 1, flowFile, context));
+            }
+
+            while (!pendingBatches.isEmpty()) {
+                writeBatch(pendingBatches.poll(), writer);
+            }
+        } finally {
+            pendingBatches.forEach(pendingBatch -> pendingBatch.cancel(true));
+        }
+    }
+
+    private Future<List<Record>> submitBatch(final ForkJoinPool pool, final List<Record> batch, final long firstCount, final FlowFile flowFile, final ProcessContext context) {
+        return pool.submit(() -> {
+            final List<Record> processed = new ArrayList<>(batch.size());
+            long count = firstCount;
+            for (final Record record : batch) {
+                processed.add(process(record, flowFile, context, count++));
+            }
+            return processed;
+        });
+    }
+
+    private void writeBatch(final Future<List<Record>> pendingBatch, final RecordSetWriter writer) throws IOException {
+        final List<Record> processed;
+        try {
+            processed = pendingBatch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessException("Interrupted while waiting for records to be processed", e);
+        } catch (final ExecutionException e) {
+            // Surface the failure in the same way as when the records are processed sequentially
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ProcessException("Failed to process records", cause);
+        }
+
+        for (final Record record : processed) {
+            writer.write(record);
+        }
+    }
+
     protected abstract Record process(Record record, FlowFile flowFile, ProcessContext context, long count);
 }
@@ -76,6 +76,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -222,6 +223,16 @@ public class LookupRecord extends AbstractProcessor {
         .required(true)
         .build();
 
+    static final PropertyDescriptor LOOKUP_BATCH_SIZE = new PropertyDescriptor.Builder()
+        .name("Lookup Batch Size")
+        .description("The maximum number of Records whose lookup coordinates are resolved together with a single request to the Lookup Service. "
+                + "Coordinates that occur more than once within a batch are looked up only once. Lookup Services that are not able to resolve many "
+                + "coordinates at once look up each distinct set of coordinates individually. A value of 1 looks up each Record as it is read.")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .defaultValue("1")
+        .required(true)
+        .build();
+
     static final Relationship REL_MATCHED = new Relationship.Builder()
         .name("matched")
         .description("All records for which the lookup returns a value will be routed to this relationship")
@@ -268,6 +279,7 @@ public class LookupRecord extends AbstractProcessor {
         properties.add(REPLACEMENT_STRATEGY);
         properties.add(RESULT_RECORD_PATH);
         properties.add(CACHE_SIZE);
+        properties.add(LOOKUP_BATCH_SIZE);
         return properties;
     }
 
@@ -378,6 +390,8 @@ public class LookupRecord extends AbstractProcessor {
         final String rootPath = context.getProperty(ROOT_RECORD_PATH).evaluateAttributeExpressions(flowFile).getValue();
         final RecordPath rootRecordPath = rootPath == null ? null : recordPathCache.getCompiled(rootPath);
 
+        final int lookupBatchSize = context.getProperty(LOOKUP_BATCH_SIZE).asInteger();
+
         final RecordSchema enrichedSchema;
         try {
             enrichedSchema = replacementStrategy.determineResultSchema(readerFactory, rootRecordPath, context, session, flowFile, lookupContext);
@@ -394,34 +408,57 @@ public class LookupRecord extends AbstractProcessor {
                     try (final RecordReader reader = readerFactory.createRecordReader(originalAttributes, in, original.getSize(), getLogger())) {
 
                         final Map<Relationship, RecordSchema> writeSchemas = new HashMap<>();
+                        final List<Record> records = new ArrayList<>(lookupBatchSize);
 
                         Record record;
                         while ((record = reader.nextRecord()) != null) {
-                            final List<Record> subRecords = getSubRecords(record, rootRecordPath);
-                            final Set<MatchResult> matchResults = new HashSet<>();
-                            for (final Record subRecord : subRecords) {
-                                final MatchResult matchResult = replacementStrategy.lookup(subRecord, context, lookupContext);
-                                matchResults.add(matchResult);
+                            records.add(record);
+                            if (records.size() >= lookupBatchSize) {
+                                processRecords(records, writeSchemas);
+                                records.clear();
                             }
-                            record.incorporateInactiveFields();
+                        }
+
+                        processRecords(records, writeSchemas);
+                    } catch (final SchemaNotFoundException | MalformedRecordException e) {
+                        throw new ProcessException("Could not parse incoming data", e);
+                    }
+                }
 
-                            final Set<Relationship> relationships = getRelationships(matchResults);
+                private void processRecords(final List<Record> records, final Map<Relationship, RecordSchema> writeSchemas) throws IOException, SchemaNotFoundException {
+                    final List<List<Record>> subRecordsPerRecord = new ArrayList<>(records.size());
+                    for (final Record record : records) {
+                        subRecordsPerRecord.add(getSubRecords(record, rootRecordPath));
+                    }
 
-                            for (final Relationship relationship : relationships) {
-                                // Determine the Write Schema to use for each relationship
-                                RecordSchema writeSchema = writeSchemas.get(relationship);
-                                if (writeSchema == null) {
-                                    final RecordSchema outputSchema = enrichedSchema == null ? record.getSchema() : enrichedSchema;
-                                    writeSchema = writerFactory.getSchema(originalAttributes, outputSchema);
-                                    writeSchemas.put(relationship, writeSchema);
-                                }
+                    if (lookupBatchSize > 1) {
+                        final List<Record> batchSubRecords = subRecordsPerRecord.stream().flatMap(List::stream).toList();
+                        replacementStrategy.lookupBatch(batchSubRecords, lookupContext);
+                    }
+
+                    for (int i = 0; i < records.size(); i++) {
+                        final Record record = records.get(i);
+                        final Set<MatchResult> matchResults = new HashSet<>();
+                        for (final Record subRecord : subRecordsPerRecord.get(i)) {
+                            final MatchResult matchResult = replacementStrategy.lookup(subRecord, context, lookupContext);
+                            matchResults.add(matchResult);
+                        }
+                        record.incorporateInactiveFields();
+
+                        final Set<Relationship> relationships = getRelationships(matchResults);
 
-                                final RecordSetWriter writer = lookupContext.getRecordWriterForRelationship(relationship, writeSchema);
-                                writer.write(record);
+                        for (final Relationship relationship : relationships) {
+                            // Determine the Write Schema to use for each relationship
+                            RecordSchema writeSchema = writeSchemas.get(relationship);
+                            if (writeSchema == null) {
+                                final RecordSchema outputSchema = enrichedSchema == null ? record.getSchema() : enrichedSchema;
+                                writeSchema = writerFactory.getSchema(originalAttributes, outputSchema);
+                                writeSchemas.put(relationship, writeSchema);
                             }
+
+                            final RecordSetWriter writer = lookupContext.getRecordWriterForRelationship(relationship, writeSchema);
+                            writer.write(record);
                         }
-                    } catch (final SchemaNotFoundException | MalformedRecordException e) {
-                        throw new ProcessException("Could not parse incoming data", e);
                     }
                 }
             });
@@ -526,7 +563,41 @@ public class LookupRecord extends AbstractProcessor {
     }
 
 
-    private class InPlaceReplacementStrategy implements ReplacementStrategy {
+    private abstract class AbstractReplacementStrategy implements ReplacementStrategy {
+        private Map<Map<String, Object>, ? extends Optional<?>> batchResults = Collections.emptyMap();
+
+        @Override
+        public void lookupBatch(final List<Record> records, final LookupContext lookupContext) {
+            final Set<Map<String, Object>> batchCoordinates = new LinkedHashSet<>();
+            for (final Record record : records) {
+                addLookupCoordinates(record, lookupContext, batchCoordinates);
+            }
+
+            if (batchCoordinates.isEmpty()) {
+                batchResults = Collections.emptyMap();
+                return;
+            }
+
+            try {
+                batchResults = lookupService.lookupAll(batchCoordinates, lookupContext.getOriginalFlowFile().getAttributes());
+            } catch (final Exception e) {
+                throw new ProcessException("Failed to lookup " + batchCoordinates.size() + " coordinates in Lookup Service", e);
+            }
+        }
+
+        /**
+         * Adds the coordinates that will be looked up for the given Record to the given Set so that they can be resolved as part of a batch
+         */
+        protected abstract void addLookupCoordinates(Record record, LookupContext lookupContext, Set<Map<String, Object>> batchCoordinates);
+
+        protected Optional<?> lookupValue(final Map<String, Object> lookupCoordinates, final Map<String, String> attributes) throws LookupFailureException {
+            final Optional<?> batchResult = batchResults.get(lookupCoordinates);
+            return batchResult == null ? lookupService.lookup(lookupCoordinates, attributes) : batchResult;
+        }
+    }
+
+
+    private class InPlaceReplacementStrategy extends AbstractReplacementStrategy {
         private int lookupCount = 0;
 
         @Override
@@ -573,7 +644,7 @@ public class LookupRecord extends AbstractProcessor {
 
                     final Optional<?> lookupValueOption;
                     try {
-                        lookupValueOption = lookupService.lookup(lookupCoordinates, flowFile.getAttributes());
+                        lookupValueOption = lookupValue(lookupCoordinates, flowFile.getAttributes());
                     } catch (final Exception e) {
                         throw new ProcessException("Failed to lookup coordinates " + lookupCoordinates + " in Lookup Service", e);
                     }
@@ -612,6 +683,21 @@ public class LookupRecord extends AbstractProcessor {
             }
         }
 
+        @Override
+        protected void addLookupCoordinates(final Record record, final LookupContext lookupContext, final Set<Map<String, Object>> batchCoordinates) {
+            final String coordinateKey = lookupService.getRequiredKeys().iterator().next();
+
+            for (final RecordPath recordPath : lookupContext.getRecordPathsByCoordinateKey().values()) {
+                recordPath.evaluate(record).getSelectedFields()
+                        .filter(fieldValue -> fieldValue.getValue() != null)
+                        .forEach(fieldValue -> {
+                            final Object coordinateValue = DataTypeUtils.convertType(fieldValue.getValue(), fieldValue.getField().getDataType(),
+                                Optional.empty(), Optional.empty(), Optional.empty(), fieldValue.getField().getFieldName());
+                            batchCoordinates.add(Collections.singletonMap(coordinateKey, coordinateValue));
+                        });
+            }
+        }
+
         @Override
         public int getLookupCount() {
             return lookupCount;
@@ -619,7 +705,7 @@ public class LookupRecord extends AbstractProcessor {
     }
 
 
-    private class RecordPathReplacementStrategy implements ReplacementStrategy {
+    private class RecordPathReplacementStrategy extends AbstractReplacementStrategy {
         private int lookupCount = 0;
 
         private volatile Cache<Map<String, Object>, Optional<?>> cache;
@@ -650,7 +736,7 @@ public class LookupRecord extends AbstractProcessor {
             try {
                 lookupValueCacheOption = (Optional<?>) cache.get(lookupCoordinates, k -> null);
                 if (lookupValueCacheOption == null) {
-                    lookupValueOption = lookupService.lookup(lookupCoordinates, flowFile.getAttributes());
+                    lookupValueOption = lookupValue(lookupCoordinates, flowFile.getAttributes());
                 } else {
                     lookupValueOption = lookupValueCacheOption;
                 }
@@ -755,6 +841,14 @@ public class LookupRecord extends AbstractProcessor {
             }
         }
 
+        @Override
+        protected void addLookupCoordinates(final Record record, final LookupContext lookupContext, final Set<Map<String, Object>> batchCoordinates) {
+            final Map<String, Object> lookupCoordinates = createLookupCoordinates(record, lookupContext, false);
+            if (!lookupCoordinates.isEmpty() && cache.getIfPresent(lookupCoordinates) == null) {
+                batchCoordinates.add(lookupCoordinates);
+            }
+        }
+
         private Map<String, Object> createLookupCoordinates(final Record record, final LookupContext lookupContext, final boolean logIfNotMatched) {
             final Map<String, RecordPath> recordPaths = lookupContext.getRecordPathsByCoordinateKey();
             final Map<String, Object> lookupCoordinates = new HashMap<>(recordPaths.size());
@@ -841,6 +935,8 @@ public class LookupRecord extends AbstractProcessor {
     private interface ReplacementStrategy {
         MatchResult lookup(Record record, ProcessContext context, LookupContext lookupContext);
 
+        void lookupBatch(List<Record> records, LookupContext lookupContext);
+
         RecordSchema determineResultSchema(RecordReaderFactory readerFactory, RecordPath rootRecordPath, ProcessContext context, ProcessSession session, FlowFile flowFile,
                                            LookupContext lookupContext) throws IOException, SchemaNotFoundException, MalformedRecordException, LookupFailureException;
 
@@ -39,7 +39,6 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
-import org.apache.nifi.record.path.FieldValue;
 import org.apache.nifi.record.path.RecordPath;
 import org.apache.nifi.record.path.util.RecordPathCache;
 import org.apache.nifi.record.path.validation.RecordPathValidator;
@@ -66,7 +65,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @SupportsBatching
 @InputRequirement(Requirement.INPUT_REQUIRED)
@@ -241,10 +239,11 @@ public class PartitionRecord extends AbstractProcessor {
                     final String propName = entry.getKey();
                     final RecordPath recordPath = entry.getValue();
 
-                    final Stream<FieldValue> fieldValueStream = recordPath.evaluate(record).getSelectedFields();
-                    final List<ValueWrapper> fieldValues = fieldValueStream
-                        .map(fieldVal -> new ValueWrapper(fieldVal.getValue()))
-                        .collect(Collectors.toList());
+                    final List<Object> selectedValues = recordPath.evaluateValues(record);
+                    final List<ValueWrapper> fieldValues = new ArrayList<>(selectedValues.size());
+                    for (final Object selectedValue : selectedValues) {
+                        fieldValues.add(new ValueWrapper(selectedValue));
+                    }
                     recordMap.put(propName, fieldValues);
                 }
 
@@ -43,11 +43,13 @@ import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processors.standard.calcite.RecordPathFunctions;
 import org.apache.nifi.processors.standard.calcite.RecordResultSetOutputStreamCallback;
 import org.apache.nifi.queryrecord.RecordDataSource;
@@ -57,8 +59,10 @@ import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.sql.CalciteDatabase;
+import org.apache.nifi.sql.ColumnarDataSource;
 import org.apache.nifi.sql.NiFiTable;
 import org.apache.nifi.sql.NiFiTableSchema;
+import org.apache.nifi.sql.ResettableDataSource;
 import org.apache.nifi.util.StopWatch;
 import org.apache.nifi.util.StringUtils;
 import org.apache.nifi.util.Tuple;
@@ -227,6 +231,17 @@ public class QueryRecord extends AbstractProcessor {
         .defaultValue("true")
         .required(true)
         .build();
+    static final PropertyDescriptor MAX_BUFFERED_SIZE = new PropertyDescriptor.Builder()
+        .name("max-buffered-flowfile-size")
+        .displayName("Max Buffered FlowFile Size")
+        .description("When more than one SQL query is configured, an incoming FlowFile whose size does not exceed this value is parsed only once, and its records are held "
+            + "in memory, column by column, while all of the queries are run against them. Larger FlowFiles are parsed once for each query. Note that the records may require "
+            + "considerably more heap than the size of the FlowFile. A value of 0 B disables buffering.")
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .addValidator(StandardValidators.DATA_SIZE_VALIDATOR)
+        .defaultValue("1 MB")
+        .required(true)
+        .build();
 
     public static final Relationship REL_ORIGINAL = new Relationship.Builder()
         .name("original")
@@ -254,6 +269,7 @@ public class QueryRecord extends AbstractProcessor {
             RECORD_WRITER_FACTORY,
             INCLUDE_ZERO_RECORD_FLOWFILES,
             CACHE_SCHEMA,
+            MAX_BUFFERED_SIZE,
             DEFAULT_PRECISION,
             DEFAULT_SCALE);
 
@@ -360,6 +376,20 @@ public class QueryRecord extends AbstractProcessor {
         int recordsRead = 0;
 
         try {
+            // When there are multiple queries, parse the FlowFile only once and run each of the queries against the buffered records,
+            // unless the FlowFile is too large to hold in memory.
+            final long queryCount = context.getProperties().keySet().stream().filter(PropertyDescriptor::isDynamic).count();
+            final double maxBufferedBytes = context.getProperty(MAX_BUFFERED_SIZE).asDataSize(DataUnit.B);
+            final RecordDataSource recordDataSource = new RecordDataSource(readerSchema, session, original, recordReaderFactory, getLogger());
+            final ResettableDataSource dataSource;
+            if (queryCount > 1 && original.getSize() <= maxBufferedBytes) {
+                final ColumnarDataSource bufferedDataSource = ColumnarDataSource.load(recordDataSource);
+                getLogger().debug("Buffered {} records from {} for {} queries", bufferedDataSource.getRowCount(), original, queryCount);
+                dataSource = bufferedDataSource;
+            } else {
+                dataSource = recordDataSource;
+            }
+
             for (final PropertyDescriptor descriptor : context.getProperties().keySet()) {
                 if (!descriptor.isDynamic()) {
                     continue;
@@ -375,7 +405,7 @@ public class QueryRecord extends AbstractProcessor {
 
                 try {
                     final String sql = context.getProperty(descriptor).evaluateAttributeExpressions(original).getValue();
-                    final QueryResult queryResult = query(session, original, readerSchema, sql, recordReaderFactory);
+                    final QueryResult queryResult = query(dataSource, readerSchema, sql);
 
                     final ResultSet rs = queryResult.getResultSet();
                     final RecordResultSetOutputStreamCallback writer = new RecordResultSetOutputStreamCallback(getLogger(),
@@ -477,15 +507,14 @@ public class QueryRecord extends AbstractProcessor {
     }
 
 
-    private QueryResult query(final ProcessSession session, final FlowFile flowFile, final RecordSchema schema, final String sql, final RecordReaderFactory recordReaderFactory)
-                throws SQLException {
+    private QueryResult query(final ResettableDataSource dataSource, final RecordSchema schema, final String sql) throws SQLException {
 
         final Supplier<CachedStatement> statementBuilder = () -> buildCachedStatement(sql, schema);
 
         final CachedStatement cachedStatement = getStatement(sql, schema, statementBuilder);
         final PreparedStatement stmt = cachedStatement.statement();
         final NiFiTable table = cachedStatement.table();
-        table.setDataSource(new RecordDataSource(schema, session, flowFile, recordReaderFactory, getLogger()));
+        table.setDataSource(dataSource);
 
         final ResultSet rs;
         try {
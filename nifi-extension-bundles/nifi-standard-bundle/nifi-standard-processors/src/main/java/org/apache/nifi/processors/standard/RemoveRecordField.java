@@ -85,6 +85,14 @@ public class RemoveRecordField extends AbstractRecordProcessor {
 
     private static final String ROOT_PATH = "/";
 
+    @Override
+    protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
+        properties.add(PARALLEL_PROCESSING_THREADS);
+        properties.add(PARALLEL_BATCH_SIZE);
+        return properties;
+    }
+
     @Override
     protected PropertyDescriptor getSupportedDynamicPropertyDescriptor(final String propertyDescriptorName) {
         return new PropertyDescriptor.Builder()
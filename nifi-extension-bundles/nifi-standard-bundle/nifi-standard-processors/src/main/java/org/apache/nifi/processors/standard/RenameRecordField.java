@@ -126,6 +126,14 @@ public class RenameRecordField extends AbstractRecordProcessor {
     private volatile List<String> recordPaths;
 
 
+    @Override
+    protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
+        properties.add(PARALLEL_PROCESSING_THREADS);
+        properties.add(PARALLEL_BATCH_SIZE);
+        return properties;
+    }
+
     @Override
     protected PropertyDescriptor getSupportedDynamicPropertyDescriptor(final String propertyDescriptorName) {
         return new PropertyDescriptor.Builder()
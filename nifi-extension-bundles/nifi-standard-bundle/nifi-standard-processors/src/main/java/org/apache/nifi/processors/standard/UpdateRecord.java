@@ -167,6 +167,8 @@ public class UpdateRecord extends AbstractRecordProcessor {
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
         properties.add(REPLACEMENT_VALUE_STRATEGY);
+        properties.add(PARALLEL_PROCESSING_THREADS);
+        properties.add(PARALLEL_BATCH_SIZE);
         return properties;
     }
 
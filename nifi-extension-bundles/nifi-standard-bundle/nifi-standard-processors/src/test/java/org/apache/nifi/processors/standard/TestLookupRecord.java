@@ -21,6 +21,7 @@ import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.json.JsonRecordSetWriter;
 import org.apache.nifi.json.JsonTreeReader;
+import org.apache.nifi.lookup.LookupFailureException;
 import org.apache.nifi.lookup.RecordLookupService;
 import org.apache.nifi.lookup.StringLookupService;
 import org.apache.nifi.reporting.InitializationException;
@@ -44,6 +45,7 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -491,6 +493,38 @@ public class TestLookupRecord {
         unmatched.assertContentEquals("Jane Doe,47,\n");
     }
 
+    @Test
+    public void testBatchedLookupMixtureOfMatch() throws InitializationException {
+        final BatchCountingMapLookup batchLookupService = new BatchCountingMapLookup();
+        batchLookupService.addValue("John Doe", "Soccer");
+        batchLookupService.addValue("Jimmy Doe", "Football");
+        runner.addControllerService("batch-lookup", batchLookupService);
+        runner.enableControllerService(batchLookupService);
+        runner.setProperty(LookupRecord.LOOKUP_SERVICE, "batch-lookup");
+        runner.setProperty(LookupRecord.REPLACEMENT_STRATEGY, LookupRecord.REPLACE_EXISTING_VALUES);
+        runner.setProperty(LookupRecord.LOOKUP_BATCH_SIZE, "10");
+
+        recordReader.addRecord("John Doe", 21, null, null);
+
+        runner.enqueue("");
+        runner.run();
+
+        runner.assertTransferCount(LookupRecord.REL_FAILURE, 0);
+        runner.assertTransferCount(LookupRecord.REL_MATCHED, 1);
+        runner.assertTransferCount(LookupRecord.REL_UNMATCHED, 1);
+
+        final MockFlowFile matched = runner.getFlowFilesForRelationship(LookupRecord.REL_MATCHED).get(0);
+        matched.assertAttributeEquals("record.count", "3");
+        matched.assertContentEquals("Soccer,48,\nFootball,14,\nSoccer,21,\n");
+
+        final MockFlowFile unmatched = runner.getFlowFilesForRelationship(LookupRecord.REL_UNMATCHED).get(0);
+        unmatched.assertAttributeEquals("record.count", "1");
+        unmatched.assertContentEquals("Jane Doe,47,\n");
+
+        // All four records should be resolved by a single batch containing only the three distinct coordinates
+        assertEquals(List.of(3), batchLookupService.batchSizes);
+    }
+
     @Test
     public void testAllMatchButFirstRouteToSuccess() {
         lookupService.addValue("Jane Doe", "Soccer");
@@ -1026,6 +1060,17 @@ public class TestLookupRecord {
         }
     }
 
+    private static class BatchCountingMapLookup extends MapLookup {
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public Map<Map<String, Object>, Optional<String>> lookupAll(final Collection<Map<String, Object>> coordinates, final Map<String, String> context)
+                throws LookupFailureException {
+            batchSizes.add(coordinates.size());
+            return super.lookupAll(coordinates, context);
+        }
+    }
+
     private static class RecordLookup extends AbstractControllerService implements RecordLookupService {
         private final Map<String, Record> values = new HashMap<>();
 
@@ -55,6 +55,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -1144,6 +1145,47 @@ public class TestQueryRecord {
         countFlowFile.assertContentEquals("2\n");
     }
 
+    @Test
+    public void testMultipleQueriesWithBufferedRecords() throws InitializationException {
+        final List<String> bufferedOutput = runMultipleQueries("1 MB");
+        final List<String> unbufferedOutput = runMultipleQueries("0 B");
+
+        assertEquals(List.of("Tom,1\nTom,99\n", "Jerry,2\n", "2\n"), bufferedOutput);
+        assertEquals(unbufferedOutput, bufferedOutput);
+    }
+
+    private List<String> runMultipleQueries(final String maxBufferedSize) throws InitializationException {
+        final MockRecordParser parser = new MockRecordParser();
+        parser.addSchemaField("name", RecordFieldType.STRING);
+        parser.addSchemaField("points", RecordFieldType.INT);
+        parser.addRecord("Tom", 1);
+        parser.addRecord("Jerry", 2);
+        parser.addRecord("Tom", 99);
+
+        final MockRecordWriter writer = new MockRecordWriter(null, false);
+
+        final TestRunner runner = getRunner();
+        runner.addControllerService("parser", parser);
+        runner.enableControllerService(parser);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+
+        runner.setProperty(QueryRecord.MAX_BUFFERED_SIZE, maxBufferedSize);
+        runner.setProperty("tom", "select name, points from FLOWFILE where name = 'Tom'");
+        runner.setProperty("jerry", "select * from FLOWFILE where points = 2");
+        runner.setProperty("names", "select count(distinct name) as c from FLOWFILE");
+        runner.setProperty(QueryRecord.RECORD_READER_FACTORY, "parser");
+        runner.setProperty(QueryRecord.RECORD_WRITER_FACTORY, "writer");
+
+        runner.enqueue("");
+        runner.run();
+
+        runner.assertTransferCount(QueryRecord.REL_ORIGINAL, 1);
+        return Stream.of("tom", "jerry", "names")
+            .map(relationship -> runner.getFlowFilesForRelationship(relationship).get(0).getContent())
+            .toList();
+    }
+
     @Test
     public void testColumnNames() throws InitializationException {
         final MockRecordParser parser = new MockRecordParser();
@@ -162,6 +162,27 @@ public class TestUpdateRecord {
         out.assertContentEquals("header\n1,John Doe,35\n2,Jane Doe,36\n3,John Smith,37\n4,Jane Smith,38\n");
     }
 
+    @Test
+    public void testParallelProcessingRetainsRecordOrder() {
+        runner.setProperty(UpdateRecord.PARALLEL_PROCESSING_THREADS, "4");
+        runner.setProperty(UpdateRecord.PARALLEL_BATCH_SIZE, "3");
+        runner.setProperty("/name", "${field.value}-${record.index}");
+
+        runner.enqueue("");
+
+        final StringBuilder expected = new StringBuilder("header\n");
+        for (int i = 0; i < 50; i++) {
+            readerService.addRecord("Person " + i, i);
+            expected.append("Person ").append(i).append('-').append(i + 1).append(',').append(i).append('\n');
+        }
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(UpdateRecord.REL_SUCCESS, 1);
+        final MockFlowFile out = runner.getFlowFilesForRelationship(UpdateRecord.REL_SUCCESS).get(0);
+        out.assertContentEquals(expected.toString());
+        out.assertAttributeEquals("record.count", "50");
+    }
+
     @Test
     public void testReplaceWithMissingRecordPath() throws InitializationException {
         readerService = new MockRecordParser();
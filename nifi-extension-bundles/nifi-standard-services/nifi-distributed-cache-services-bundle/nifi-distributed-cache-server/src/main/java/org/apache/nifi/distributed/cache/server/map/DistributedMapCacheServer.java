@@ -18,10 +18,14 @@ package org.apache.nifi.distributed.cache.server.map;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.net.ssl.SSLContext;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.components.AllowableValue;
+import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.ConfigurationContext;
 import org.apache.nifi.distributed.cache.server.CacheServer;
 import org.apache.nifi.distributed.cache.server.DistributedCacheServer;
@@ -35,6 +39,31 @@ import org.apache.nifi.ssl.SSLContextService;
 @SeeAlso(classNames = {"org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService", "org.apache.nifi.ssl.StandardSSLContextService"})
 public class DistributedMapCacheServer extends DistributedCacheServer {
 
+    public static final AllowableValue CACHE_STORAGE_HEAP = new AllowableValue("Heap", "Heap",
+            "Cache entries are held as objects on the Java heap");
+    public static final AllowableValue CACHE_STORAGE_OFF_HEAP = new AllowableValue("Off-Heap", "Off-Heap",
+            "The keys and values of cache entries are held in direct memory outside of the Java heap, which avoids garbage collection overhead for large caches. "
+            + "The total size of the cache is limited by the maximum direct memory of the JVM, which can be configured using the -XX:MaxDirectMemorySize argument");
+
+    public static final PropertyDescriptor CACHE_STORAGE = new PropertyDescriptor.Builder()
+            .name("Cache Storage")
+            .description("Determines where the keys and values of cache entries are stored. When stored Off-Heap, the memory used by the cache is not limited "
+                    + "by the Maximum Cache Entries alone but also by the maximum direct memory of the JVM, which defaults to the maximum heap size and can be "
+                    + "configured using the -XX:MaxDirectMemorySize argument in bootstrap.conf. Off-Heap memory is allocated in pages of 4 MB, and memory that "
+                    + "is freed by removing or evicting entries is reused by the cache but is not returned to the JVM until the service is disabled. "
+                    + "If the maximum direct memory is exhausted, adding an entry fails with an OutOfMemoryError.")
+            .required(true)
+            .allowableValues(CACHE_STORAGE_HEAP, CACHE_STORAGE_OFF_HEAP)
+            .defaultValue(CACHE_STORAGE_HEAP.getValue())
+            .build();
+
+    @Override
+    protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
+        properties.add(CACHE_STORAGE);
+        return properties;
+    }
+
     @Override
     protected CacheServer createCacheServer(final ConfigurationContext context) {
         final int port = context.getProperty(PORT).asInteger();
@@ -43,6 +72,7 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         final int maxSize = context.getProperty(MAX_CACHE_ENTRIES).asInteger();
         final String evictionPolicyName = context.getProperty(EVICTION_POLICY).getValue();
         final int maxReadSize = context.getProperty(MAX_READ_SIZE).asDataSize(DataUnit.B).intValue();
+        final boolean offHeap = CACHE_STORAGE_OFF_HEAP.getValue().equals(context.getProperty(CACHE_STORAGE).getValue());
 
         final SSLContext sslContext;
         if (sslContextService == null) {
@@ -69,6 +99,11 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         try {
             final File persistenceDir = persistencePath == null ? null : new File(persistencePath);
 
+            if (offHeap) {
+                final MapCache offHeapCache = new OffHeapMapCache(getIdentifier(), maxSize, evictionPolicy);
+                return new StandardMapCacheServer(getLogger(), getIdentifier(), sslContext, port, offHeapCache, persistenceDir, maxReadSize);
+            }
+
             return createMapCacheServer(port, maxSize, sslContext, evictionPolicy, persistenceDir, maxReadSize);
         } catch (final Exception e) {
             throw new RuntimeException(e);
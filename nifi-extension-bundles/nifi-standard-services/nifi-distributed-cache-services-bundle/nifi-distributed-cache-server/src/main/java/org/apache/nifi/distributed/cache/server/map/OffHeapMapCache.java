@@ -0,0 +1,740 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link MapCache} that keeps the keys and values of its entries outside of the Java heap so that the number of entries is not limited by garbage collection.
+ * </p>
+ *
+ * <p>
+ * Each entry is written to a block of a direct ByteBuffer page. Blocks are grouped into size classes so that the block of a removed entry can be reused by a
+ * later entry of a similar size. Entries are located using an open-addressing hash index, and the entry to evict is tracked using a binary heap that orders
+ * entries in the same way as the comparator of the configured {@link EvictionPolicy}. The index, the heap, and the metadata of each entry are held in
+ * primitive arrays, so the cache creates no objects per entry other than the copies of keys and values that are returned to callers.
+ * </p>
+ *
+ * <p>
+ * Each page holds the blocks of a single size class. A page is allocated when a size class has no free block and its current page is full, so the cache
+ * may hold one partially used page for each size class that is in use. When every block of a page has been freed, the page is returned to a pool of
+ * free pages that can be reused by any size class. Pages are not compacted, so a page that holds even one live entry remains assigned to its size class,
+ * and the pages in the pool are retained until the cache is shut down. The total size of the pages is limited by the JVM's maximum direct memory, which
+ * is configured using the -XX:MaxDirectMemorySize argument.
+ * </p>
+ */
+public class OffHeapMapCache implements MapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapMapCache.class);
+
+    static final int PAGE_SIZE = 4 * 1024 * 1024;
+    private static final ByteBuffer RELEASED_PAGE = ByteBuffer.allocate(0);
+
+    private static final int BLOCK_HEADER_LENGTH = 8;
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final int SIZE_CLASSES_PER_POWER_OF_TWO = 4;
+    private static final int MAX_SIZE_CLASSES = Integer.SIZE * SIZE_CLASSES_PER_POWER_OF_TWO;
+
+    private static final int INITIAL_ENTRY_CAPACITY = 1024;
+    private static final int INITIAL_INDEX_CAPACITY = 2048;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final String serviceIdentifier;
+    private final int maxSize;
+    private final EvictionPolicy evictionPolicy;
+
+    // Metadata of each entry, indexed by entry number
+    private long[] addresses;
+    private int[] hashes;
+    private long[] ids;
+    private long[] entryDates;
+    private long[] lastHitDates;
+    private int[] hitCounts;
+    private long[] revisions;
+    private int[] heapPositions;
+
+    private int highestEntry = 0;
+    private int[] freeEntries = new int[16];
+    private int freeEntryCount = 0;
+    private long nextId = 0L;
+
+    // Open-addressing index with linear probing, where each slot holds an entry number plus one, or zero if the slot is empty
+    private int[] index = new int[INITIAL_INDEX_CAPACITY];
+
+    // Binary heap of entry numbers, ordered such that the first element is the next entry to evict
+    private int[] heap;
+    private int size = 0;
+
+    // Direct ByteBuffer pages, the number of allocated blocks of each page, and the blocks of each size class. Free pages can be reused
+    // by any size class, and released page numbers are those of large pages whose memory has been released and can be given to a new page.
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private int[] pageBlockCounts = new int[16];
+    private int[] freePages = new int[16];
+    private int freePageCount = 0;
+    private int[] releasedPages = new int[16];
+    private int releasedPageCount = 0;
+    private final BlockStack[] freeBlocks = new BlockStack[MAX_SIZE_CLASSES];
+    private final int[] currentPages = new int[MAX_SIZE_CLASSES];
+    private final int[] currentPageOffsets = new int[MAX_SIZE_CLASSES];
+
+    public OffHeapMapCache(final String serviceIdentifier, final int maxSize, final EvictionPolicy evictionPolicy) {
+        this.serviceIdentifier = serviceIdentifier;
+        this.maxSize = maxSize;
+        this.evictionPolicy = evictionPolicy;
+
+        final int entryCapacity = Math.min(maxSize, INITIAL_ENTRY_CAPACITY);
+        addresses = new long[entryCapacity];
+        hashes = new int[entryCapacity];
+        ids = new long[entryCapacity];
+        entryDates = new long[entryCapacity];
+        lastHitDates = new long[entryCapacity];
+        hitCounts = new int[entryCapacity];
+        revisions = new long[entryCapacity];
+        heapPositions = new int[entryCapacity];
+        heap = new int[entryCapacity];
+
+        Arrays.fill(currentPages, -1);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapMapCache[service id=" + serviceIdentifier + "]";
+    }
+
+    @Override
+    public MapPutResult putIfAbsent(final ByteBuffer key, final ByteBuffer value) {
+        lock.lock();
+        try {
+            final int hash = hash(key);
+            final int entry = findEntry(key, hash);
+            if (entry < 0) {
+                // Record is null. We will add.
+                return put(key, value, hash, entry);
+            }
+
+            // Record is not null. Increment hit count and return result indicating that record was not added.
+            hit(entry);
+            final MapCacheRecord record = toRecord(entry);
+            return new MapPutResult(false, record, record, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public MapPutResult put(final ByteBuffer key, final ByteBuffer value) {
+        lock.lock();
+        try {
+            final int hash = hash(key);
+            return put(key, value, hash, findEntry(key, hash));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private MapPutResult put(final ByteBuffer key, final ByteBuffer value, final int hash, final int existingEntry) {
+        final MapCacheRecord existing = existingEntry < 0 ? null : toRecord(existingEntry);
+
+        // evict if we need to in order to make room for a new entry.
+        final int entryToEvict = size < maxSize ? -1 : heap[0];
+        final MapCacheRecord evicted = entryToEvict < 0 ? null : toRecord(entryToEvict);
+        if (entryToEvict >= 0) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Evicting value {} from cache", new String(evicted.getValue().array(), StandardCharsets.UTF_8));
+            }
+
+            removeEntry(entryToEvict);
+        }
+
+        final long revision;
+        if (existing == null || entryToEvict == existingEntry) {
+            revision = existing == null ? 0 : existing.getRevision() + 1;
+            addEntry(key, value, hash, revision);
+        } else {
+            revision = existing.getRevision() + 1;
+            freeBlock(addresses[existingEntry]);
+            addresses[existingEntry] = writeBlock(key, value);
+            initializeEntry(existingEntry, hash, revision);
+            reposition(existingEntry);
+        }
+
+        final MapCacheRecord record = new MapCacheRecord(copy(key), copy(value), revision);
+        return new MapPutResult(true, record, existing, evicted);
+    }
+
+    @Override
+    public boolean containsKey(final ByteBuffer key) {
+        lock.lock();
+        try {
+            final int entry = findEntry(key, hash(key));
+            if (entry < 0) {
+                return false;
+            }
+
+            hit(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ByteBuffer get(final ByteBuffer key) {
+        lock.lock();
+        try {
+            final int entry = findEntry(key, hash(key));
+            if (entry < 0) {
+                return null;
+            }
+
+            hit(entry);
+            return readValue(addresses[entry]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<ByteBuffer, ByteBuffer> subMap(final List<ByteBuffer> keys) {
+        if (keys == null) {
+            return null;
+        }
+        final Map<ByteBuffer, ByteBuffer> results = new HashMap<>(keys.size());
+        lock.lock();
+        try {
+            for (final ByteBuffer key : keys) {
+                final int entry = findEntry(key, hash(key));
+                if (entry < 0) {
+                    results.put(key, null);
+                } else {
+                    hit(entry);
+                    results.put(key, readValue(addresses[entry]));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return results;
+    }
+
+    @Override
+    public ByteBuffer remove(final ByteBuffer key) {
+        lock.lock();
+        try {
+            final int entry = findEntry(key, hash(key));
+            if (entry < 0) {
+                return null;
+            }
+
+            final ByteBuffer value = readValue(addresses[entry]);
+            removeEntry(entry);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public MapCacheRecord fetch(final ByteBuffer key) {
+        lock.lock();
+        try {
+            final int entry = findEntry(key, hash(key));
+            if (entry < 0) {
+                return null;
+            }
+
+            hit(entry);
+            return toRecord(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public MapPutResult replace(final MapCacheRecord inputRecord) {
+        lock.lock();
+        try {
+            final ByteBuffer key = inputRecord.getKey();
+            final ByteBuffer value = inputRecord.getValue();
+            final int hash = hash(key);
+            final int existingEntry = findEntry(key, hash);
+            if (existingEntry >= 0) {
+                hit(existingEntry);
+                if (inputRecord.getRevision() != revisions[existingEntry]) {
+                    // The key has been updated by other operation.
+                    return new MapPutResult(false, inputRecord, toRecord(existingEntry), null);
+                }
+            }
+
+            return put(key, value, hash, existingEntry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<ByteBuffer> keySet() {
+        lock.lock();
+        try {
+            final Set<ByteBuffer> keys = new HashSet<>(size);
+            for (int i = 0; i < size; i++) {
+                keys.add(readKey(addresses[heap[i]]));
+            }
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            // Releasing the references allows the direct memory of the pages to be reclaimed
+            pages.clear();
+            freePageCount = 0;
+            releasedPageCount = 0;
+            Arrays.fill(freeBlocks, null);
+            Arrays.fill(currentPages, -1);
+            Arrays.fill(index, 0);
+            size = 0;
+            highestEntry = 0;
+            freeEntryCount = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getPageCount() {
+        lock.lock();
+        try {
+            return pages.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addEntry(final ByteBuffer key, final ByteBuffer value, final int hash, final long revision) {
+        final int entry = allocateEntry();
+        addresses[entry] = writeBlock(key, value);
+        initializeEntry(entry, hash, revision);
+
+        if ((size + 1) * 2L > index.length && index.length < MAX_INDEX_CAPACITY) {
+            resizeIndex(index.length * 2);
+        }
+        insertIndex(entry);
+
+        heap[size] = entry;
+        heapPositions[entry] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    private void initializeEntry(final int entry, final int hash, final long revision) {
+        final long now = System.currentTimeMillis();
+        hashes[entry] = hash;
+        ids[entry] = nextId++;
+        entryDates[entry] = now;
+        lastHitDates[entry] = now;
+        hitCounts[entry] = 0;
+        revisions[entry] = revision;
+    }
+
+    private void removeEntry(final int entry) {
+        removeIndex(entry);
+
+        final int position = heapPositions[entry];
+        final int last = heap[--size];
+        if (position != size) {
+            heap[position] = last;
+            heapPositions[last] = position;
+            reposition(last);
+        }
+
+        freeBlock(addresses[entry]);
+        if (freeEntryCount == freeEntries.length) {
+            freeEntries = Arrays.copyOf(freeEntries, freeEntries.length * 2);
+        }
+        freeEntries[freeEntryCount++] = entry;
+    }
+
+    private int allocateEntry() {
+        if (freeEntryCount > 0) {
+            return freeEntries[--freeEntryCount];
+        }
+
+        if (highestEntry == addresses.length) {
+            final int capacity = (int) Math.min(maxSize, addresses.length * 2L);
+            addresses = Arrays.copyOf(addresses, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            entryDates = Arrays.copyOf(entryDates, capacity);
+            lastHitDates = Arrays.copyOf(lastHitDates, capacity);
+            hitCounts = Arrays.copyOf(hitCounts, capacity);
+            revisions = Arrays.copyOf(revisions, capacity);
+            heapPositions = Arrays.copyOf(heapPositions, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+
+        return highestEntry++;
+    }
+
+    private void hit(final int entry) {
+        hitCounts[entry]++;
+        lastHitDates[entry] = System.currentTimeMillis();
+        siftDown(heapPositions[entry]);
+    }
+
+    private MapCacheRecord toRecord(final int entry) {
+        final long address = addresses[entry];
+        return new MapCacheRecord(readKey(address), readValue(address), revisions[entry]);
+    }
+
+    private static int hash(final ByteBuffer key) {
+        final int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ByteBuffer copy(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    // Index
+
+    private int findEntry(final ByteBuffer key, final int hash) {
+        final int mask = index.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int entry = index[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (hashes[entry] == hash && keyEquals(addresses[entry], key)) {
+                return entry;
+            }
+        }
+    }
+
+    private void insertIndex(final int entry) {
+        final int mask = index.length - 1;
+        int slot = hashes[entry] & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry + 1;
+    }
+
+    private void removeIndex(final int entry) {
+        final int mask = index.length - 1;
+        int slot = hashes[entry] & mask;
+        while (index[slot] != entry + 1) {
+            slot = (slot + 1) & mask;
+        }
+
+        // Shift back any following entries that would no longer be reachable from their preferred slot
+        index[slot] = 0;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            final int nextEntry = index[next] - 1;
+            if (nextEntry < 0) {
+                return;
+            }
+
+            final int preferred = hashes[nextEntry] & mask;
+            final boolean reachable = slot <= next ? (slot < preferred && preferred <= next) : (slot < preferred || preferred <= next);
+            if (!reachable) {
+                index[slot] = nextEntry + 1;
+                index[next] = 0;
+                slot = next;
+            }
+        }
+    }
+
+    private void resizeIndex(final int capacity) {
+        index = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            insertIndex(heap[i]);
+        }
+    }
+
+    // Eviction heap
+
+    private void reposition(final int entry) {
+        siftUp(heapPositions[entry]);
+        siftDown(heapPositions[entry]);
+    }
+
+    private void siftUp(int position) {
+        final int entry = heap[position];
+        while (position > 0) {
+            final int parentPosition = (position - 1) >>> 1;
+            final int parent = heap[parentPosition];
+            if (compare(entry, parent) >= 0) {
+                break;
+            }
+            heap[position] = parent;
+            heapPositions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = entry;
+        heapPositions[entry] = position;
+    }
+
+    private void siftDown(int position) {
+        final int entry = heap[position];
+        final int half = size >>> 1;
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            int child = heap[childPosition];
+            final int rightPosition = childPosition + 1;
+            if (rightPosition < size && compare(heap[rightPosition], child) < 0) {
+                childPosition = rightPosition;
+                child = heap[childPosition];
+            }
+            if (compare(entry, child) <= 0) {
+                break;
+            }
+            heap[position] = child;
+            heapPositions[child] = position;
+            position = childPosition;
+        }
+        heap[position] = entry;
+        heapPositions[entry] = position;
+    }
+
+    /**
+     * Orders entries in the same way as the comparator of the configured {@link EvictionPolicy}, such that the entry to evict first is the lowest
+     */
+    private int compare(final int entry1, final int entry2) {
+        int comparison = switch (evictionPolicy) {
+            case LFU -> {
+                final int hitCountComparison = Integer.compare(hitCounts[entry1], hitCounts[entry2]);
+                yield hitCountComparison == 0 ? Long.compare(entryDates[entry1], entryDates[entry2]) : hitCountComparison;
+            }
+            case LRU -> Long.compare(lastHitDates[entry1], lastHitDates[entry2]);
+            case FIFO -> Long.compare(entryDates[entry1], entryDates[entry2]);
+        };
+        return comparison == 0 ? Long.compare(ids[entry1], ids[entry2]) : comparison;
+    }
+
+    // Off-heap blocks, each of which holds the key length, the value length, the key, and then the value of an entry
+
+    private long writeBlock(final ByteBuffer key, final ByteBuffer value) {
+        final int keyLength = key.remaining();
+        final int valueLength = value.remaining();
+        final long address = allocateBlock(BLOCK_HEADER_LENGTH + keyLength + valueLength);
+
+        final ByteBuffer page = pages.get(getPage(address));
+        final int offset = getOffset(address);
+        page.putInt(offset, keyLength);
+        page.putInt(offset + 4, valueLength);
+        page.put(offset + BLOCK_HEADER_LENGTH, key, key.position(), keyLength);
+        page.put(offset + BLOCK_HEADER_LENGTH + keyLength, value, value.position(), valueLength);
+        return address;
+    }
+
+    private boolean keyEquals(final long address, final ByteBuffer key) {
+        final ByteBuffer page = pages.get(getPage(address));
+        final int offset = getOffset(address);
+        final int keyLength = page.getInt(offset);
+        return keyLength == key.remaining() && page.slice(offset + BLOCK_HEADER_LENGTH, keyLength).equals(key);
+    }
+
+    private ByteBuffer readKey(final long address) {
+        final ByteBuffer page = pages.get(getPage(address));
+        final int offset = getOffset(address);
+        final byte[] key = new byte[page.getInt(offset)];
+        page.get(offset + BLOCK_HEADER_LENGTH, key);
+        return ByteBuffer.wrap(key);
+    }
+
+    private ByteBuffer readValue(final long address) {
+        final ByteBuffer page = pages.get(getPage(address));
+        final int offset = getOffset(address);
+        final int keyLength = page.getInt(offset);
+        final byte[] value = new byte[page.getInt(offset + 4)];
+        page.get(offset + BLOCK_HEADER_LENGTH + keyLength, value);
+        return ByteBuffer.wrap(value);
+    }
+
+    private long allocateBlock(final int length) {
+        final int sizeClass = getSizeClass(length);
+        final BlockStack blocks = freeBlocks[sizeClass];
+        if (blocks != null && !blocks.isEmpty()) {
+            final long address = blocks.pop();
+            pageBlockCounts[getPage(address)]++;
+            return address;
+        }
+
+        final int blockSize = getBlockSize(sizeClass);
+        int page = currentPages[sizeClass];
+        if (page < 0 || currentPageOffsets[sizeClass] + blockSize > pages.get(page).capacity()) {
+            page = allocatePage(blockSize);
+            currentPages[sizeClass] = page;
+            currentPageOffsets[sizeClass] = 0;
+        }
+
+        final int offset = currentPageOffsets[sizeClass];
+        currentPageOffsets[sizeClass] = offset + blockSize;
+        pageBlockCounts[page]++;
+        return ((long) page << 32) | offset;
+    }
+
+    private int allocatePage(final int blockSize) {
+        // Pages in the pool are PAGE_SIZE bytes less the remainder of the block size of their previous size class
+        if (freePageCount > 0 && blockSize <= PAGE_SIZE / 2) {
+            return freePages[--freePageCount];
+        }
+
+        final int pageSize = Math.max(blockSize, PAGE_SIZE - PAGE_SIZE % blockSize);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(pageSize);
+        final int page;
+        if (releasedPageCount > 0) {
+            page = releasedPages[--releasedPageCount];
+            pages.set(page, buffer);
+        } else {
+            pages.add(buffer);
+            page = pages.size() - 1;
+            if (page == pageBlockCounts.length) {
+                pageBlockCounts = Arrays.copyOf(pageBlockCounts, page * 2);
+            }
+        }
+
+        pageBlockCounts[page] = 0;
+        return page;
+    }
+
+    private void freeBlock(final long address) {
+        final ByteBuffer page = pages.get(getPage(address));
+        final int offset = getOffset(address);
+        final int length = BLOCK_HEADER_LENGTH + page.getInt(offset) + page.getInt(offset + 4);
+        final int sizeClass = getSizeClass(length);
+
+        BlockStack blocks = freeBlocks[sizeClass];
+        if (blocks == null) {
+            blocks = new BlockStack();
+            freeBlocks[sizeClass] = blocks;
+        }
+
+        final int pageNumber = getPage(address);
+        if (--pageBlockCounts[pageNumber] > 0 || pageNumber == currentPages[sizeClass]) {
+            blocks.push(address);
+            return;
+        }
+
+        // Every block of the page is free, so make the page available to all size classes. Pages that are larger than PAGE_SIZE
+        // hold a single large block and are not pooled, so that the pool holds only pages that can serve any small size class.
+        blocks.removePage(pageNumber);
+        if (page.capacity() > PAGE_SIZE) {
+            pages.set(pageNumber, RELEASED_PAGE);
+            if (releasedPageCount == releasedPages.length) {
+                releasedPages = Arrays.copyOf(releasedPages, releasedPageCount * 2);
+            }
+            releasedPages[releasedPageCount++] = pageNumber;
+            return;
+        }
+
+        if (freePageCount == freePages.length) {
+            freePages = Arrays.copyOf(freePages, freePageCount * 2);
+        }
+        freePages[freePageCount++] = pageNumber;
+    }
+
+    private static int getPage(final long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int getOffset(final long address) {
+        return (int) address;
+    }
+
+    /**
+     * Size classes divide each power of two into four equal steps, so that no more than a quarter of a block is unused
+     */
+    static int getSizeClass(final int length) {
+        final int size = Math.max(length, MIN_BLOCK_SIZE);
+        final int exponent = 31 - Integer.numberOfLeadingZeros(size - 1);
+        final int step = 1 << (exponent - 2);
+        final int steps = (size - (1 << exponent) + step - 1) / step;
+        return exponent * SIZE_CLASSES_PER_POWER_OF_TWO + steps - 1;
+    }
+
+    static int getBlockSize(final int sizeClass) {
+        final int exponent = sizeClass / SIZE_CLASSES_PER_POWER_OF_TWO;
+        final int steps = sizeClass % SIZE_CLASSES_PER_POWER_OF_TWO + 1;
+        return (1 << exponent) + steps * (1 << (exponent - 2));
+    }
+
+    private static class BlockStack {
+        private long[] addresses = new long[16];
+        private int count = 0;
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void push(final long address) {
+            if (count == addresses.length) {
+                addresses = Arrays.copyOf(addresses, count * 2);
+            }
+            addresses[count++] = address;
+        }
+
+        long pop() {
+            return addresses[--count];
+        }
+
+        void removePage(final int page) {
+            int retained = 0;
+            for (int i = 0; i < count; i++) {
+                if (getPage(addresses[i]) != page) {
+                    addresses[retained++] = addresses[i];
+                }
+            }
+            count = retained;
+        }
+    }
+}
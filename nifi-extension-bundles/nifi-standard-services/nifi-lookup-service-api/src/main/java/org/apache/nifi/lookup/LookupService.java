@@ -17,6 +17,8 @@
 
 package org.apache.nifi.lookup;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -48,6 +50,28 @@ public interface LookupService<T> extends ControllerService {
         return lookup(coordinates);
     }
 
+    /**
+     * Looks up the values that correspond to each of the given coordinates. The default implementation calls
+     * {@link #lookup(Map, Map)} once for each distinct set of coordinates. Implementations that are able to resolve many
+     * coordinates with a single request, such as a database query with an <code>IN</code> clause or a multi-key cache fetch,
+     * should override this method in order to avoid a round trip for each set of coordinates.
+     *
+     * @param coordinates the coordinates that indicate the information that should be looked up
+     * @param context a Map of additional information
+     * @return a Map whose keys are the distinct coordinates that were provided and whose values are the results of looking up those coordinates
+     * @throws LookupFailureException if unable to lookup a value for any of the given coordinates
+     */
+    default Map<Map<String, Object>, Optional<T>> lookupAll(final Collection<Map<String, Object>> coordinates, final Map<String, String> context)
+            throws LookupFailureException {
+        final Map<Map<String, Object>, Optional<T>> results = new LinkedHashMap<>();
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            if (!results.containsKey(lookupCoordinates)) {
+                results.put(lookupCoordinates, lookup(lookupCoordinates, context));
+            }
+        }
+        return results;
+    }
+
     /**
      * @return the Class that represents the type of value that will be returned by {@link #lookup(Map)}
      */
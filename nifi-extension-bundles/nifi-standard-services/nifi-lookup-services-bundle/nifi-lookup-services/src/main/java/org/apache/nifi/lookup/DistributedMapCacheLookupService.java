@@ -23,6 +23,9 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -117,6 +120,31 @@ public class DistributedMapCacheLookupService extends AbstractControllerService
         }
     }
 
+    @Override
+    public Map<Map<String, Object>, Optional<String>> lookupAll(final Collection<Map<String, Object>> coordinates, final Map<String, String> context) {
+        final Set<String> keys = new LinkedHashSet<>();
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            if (lookupCoordinates != null && lookupCoordinates.get(KEY) != null) {
+                keys.add(lookupCoordinates.get(KEY).toString());
+            }
+        }
+
+        Map<String, String> values;
+        try {
+            values = keys.isEmpty() ? Map.of() : cache.subMap(keys, keySerializer, valueDeserializer);
+        } catch (IOException e) {
+            getLogger().error("Error while trying to get the values from distributed map cache for {} keys", keys.size(), e);
+            values = Map.of();
+        }
+
+        final Map<Map<String, Object>, Optional<String>> results = new LinkedHashMap<>();
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            final Object key = lookupCoordinates == null ? null : lookupCoordinates.get(KEY);
+            results.put(lookupCoordinates, key == null ? Optional.empty() : Optional.ofNullable(values.get(key.toString())));
+        }
+        return results;
+    }
+
     @Override
     public Set<String> getRequiredKeys() {
         return REQUIRED_KEYS;
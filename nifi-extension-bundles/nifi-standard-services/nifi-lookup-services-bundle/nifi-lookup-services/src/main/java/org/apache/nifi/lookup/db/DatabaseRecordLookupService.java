@@ -36,13 +36,18 @@ import org.apache.nifi.serialization.record.ResultSetRecordSet;
 import org.apache.nifi.util.Tuple;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +65,8 @@ import static org.apache.nifi.util.db.JdbcProperties.DEFAULT_SCALE;
         + "will be returned for each lookup, duplicate database entries are ignored.")
 public class DatabaseRecordLookupService extends AbstractDatabaseLookupService implements RecordLookupService {
 
+    private static final int MAX_IN_CLAUSE_KEYS = 1000;
+
     private volatile Cache<Tuple<String, Object>, Record> cache;
 
     static final PropertyDescriptor LOOKUP_VALUE_COLUMNS = new PropertyDescriptor.Builder()
@@ -139,21 +146,10 @@ public class DatabaseRecordLookupService extends AbstractDatabaseLookupService i
         }
 
         final String tableName = getProperty(TABLE_NAME).evaluateAttributeExpressions(context).getValue();
-        final String lookupValueColumnsList = getProperty(LOOKUP_VALUE_COLUMNS).evaluateAttributeExpressions(context).getValue();
+        final String lookupValueColumns = getLookupValueColumns(context);
         final Integer defaultPrecision = getProperty(DEFAULT_PRECISION).evaluateAttributeExpressions(context).asInteger();
         final Integer defaultScale = getProperty(DEFAULT_SCALE).evaluateAttributeExpressions(context).asInteger();
 
-        Set<String> lookupValueColumnsSet = new LinkedHashSet<>();
-        if (lookupValueColumnsList != null) {
-            Stream.of(lookupValueColumnsList)
-                    .flatMap(path -> Arrays.stream(path.split(",")))
-                    .filter(DatabaseRecordLookupService::isNotBlank)
-                    .map(String::trim)
-                    .forEach(lookupValueColumnsSet::add);
-        }
-
-        final String lookupValueColumns = lookupValueColumnsSet.isEmpty() ? "*" : String.join(",", lookupValueColumnsSet);
-
         Tuple<String, Object> cacheLookupKey = new Tuple<>(tableName, key);
 
         // Not using the function param of cache.get so we can catch and handle the checked exceptions
@@ -186,6 +182,147 @@ public class DatabaseRecordLookupService extends AbstractDatabaseLookupService i
         return Optional.ofNullable(foundRecord);
     }
 
+    /**
+     * Looks up the records for all of the given coordinates. When the selected columns include the Lookup Key Column, the keys that are not already
+     * cached are queried using a single statement with an <code>IN</code> clause for every {@link #MAX_IN_CLAUSE_KEYS} keys, and each returned row is
+     * matched back to its key by comparing String representations. A key for which no row is returned is considered absent without another query,
+     * provided that every returned row was matched to a requested key and that the key is of a type whose String representation is compared reliably.
+     * Any other key that is not matched, as well as every key when the Lookup Key Column is not selected, is looked up individually so that the
+     * results are always the same as those of {@link #lookup(Map, Map)}.
+     */
+    @Override
+    public Map<Map<String, Object>, Optional<Record>> lookupAll(final Collection<Map<String, Object>> coordinates, final Map<String, String> context)
+            throws LookupFailureException {
+        final String tableName = getProperty(TABLE_NAME).evaluateAttributeExpressions(context).getValue();
+        final String lookupValueColumns = getLookupValueColumns(context);
+        final boolean keyColumnSelected = "*".equals(lookupValueColumns)
+                || Arrays.stream(lookupValueColumns.split(",")).anyMatch(column -> column.equalsIgnoreCase(lookupKeyColumn));
+
+        final Map<String, Record> foundRecords = new HashMap<>();
+        final Set<String> absentKeys = new HashSet<>();
+        if (keyColumnSelected) {
+            final Map<String, Object> uncachedKeys = new LinkedHashMap<>();
+            for (final Map<String, Object> lookupCoordinates : coordinates) {
+                final Object key = lookupCoordinates == null ? null : lookupCoordinates.get(KEY);
+                if (key != null && !StringUtils.isBlank(key.toString()) && cache.getIfPresent(new Tuple<>(tableName, key)) == null) {
+                    uncachedKeys.putIfAbsent(key.toString(), key);
+                }
+            }
+
+            final List<Object> keys = new ArrayList<>(uncachedKeys.values());
+            for (int i = 0; i < keys.size(); i += MAX_IN_CLAUSE_KEYS) {
+                final List<Object> keyBatch = keys.subList(i, Math.min(keys.size(), i + MAX_IN_CLAUSE_KEYS));
+                final boolean allRowsMatched = findRecords(keyBatch, tableName, lookupValueColumns, context, foundRecords);
+
+                // If a returned row could not be matched to a requested key, the database compares keys differently than their String
+                // representations do, such as with a case-insensitive collation, so a key without a matching row may still have one.
+                if (allRowsMatched) {
+                    for (final Object key : keyBatch) {
+                        if (!foundRecords.containsKey(key.toString()) && isStringComparable(key)) {
+                            absentKeys.add(key.toString());
+                        }
+                    }
+                }
+            }
+        }
+
+        final Map<Map<String, Object>, Optional<Record>> results = new LinkedHashMap<>();
+        for (final Map<String, Object> lookupCoordinates : coordinates) {
+            if (results.containsKey(lookupCoordinates)) {
+                continue;
+            }
+
+            final Object key = lookupCoordinates == null ? null : lookupCoordinates.get(KEY);
+            final Record foundRecord = key == null ? null : foundRecords.get(key.toString());
+            if (foundRecord == null && key != null && isStringComparable(key) && absentKeys.contains(key.toString())) {
+                results.put(lookupCoordinates, Optional.empty());
+            } else if (foundRecord == null) {
+                results.put(lookupCoordinates, lookup(lookupCoordinates, context));
+            } else {
+                cache.put(new Tuple<>(tableName, key), foundRecord);
+                results.put(lookupCoordinates, Optional.of(foundRecord));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @return <code>true</code> if every returned row was matched to one of the given keys, <code>false</code> otherwise
+     */
+    private boolean findRecords(final List<Object> keys, final String tableName, final String lookupValueColumns, final Map<String, String> context,
+                                final Map<String, Record> foundRecords) throws LookupFailureException {
+        final Integer defaultPrecision = getProperty(DEFAULT_PRECISION).evaluateAttributeExpressions(context).asInteger();
+        final Integer defaultScale = getProperty(DEFAULT_SCALE).evaluateAttributeExpressions(context).asInteger();
+        final String placeholders = String.join(",", Collections.nCopies(keys.size(), "?"));
+        final String selectQuery = "SELECT " + lookupValueColumns + " FROM " + tableName + " WHERE " + lookupKeyColumn + " IN (" + placeholders + ")";
+
+        try (final Connection con = dbcpService.getConnection(context);
+             final PreparedStatement st = con.prepareStatement(selectQuery)) {
+
+            for (int i = 0; i < keys.size(); i++) {
+                st.setObject(i + 1, keys.get(i));
+            }
+
+            final ResultSet resultSet = st.executeQuery();
+            final ResultSetRecordSet resultSetRecordSet = new ResultSetRecordSet(resultSet, null, defaultPrecision, defaultScale);
+            final String keyFieldName = resultSetRecordSet.getSchema().getFieldNames().stream()
+                    .filter(fieldName -> fieldName.equalsIgnoreCase(lookupKeyColumn))
+                    .findFirst()
+                    .orElse(null);
+            if (keyFieldName == null) {
+                return false;
+            }
+
+            final Set<String> requestedKeys = new HashSet<>();
+            keys.forEach(key -> requestedKeys.add(key.toString()));
+
+            boolean allRowsMatched = true;
+            Record foundRecord;
+            while ((foundRecord = resultSetRecordSet.next()) != null) {
+                final String foundKey = foundRecord.getAsString(keyFieldName);
+                if (foundKey == null || !requestedKeys.contains(foundKey)) {
+                    allRowsMatched = false;
+                    continue;
+                }
+
+                // Only one row is returned for each lookup, so any duplicate database entries are ignored
+                foundRecords.putIfAbsent(foundKey, foundRecord);
+            }
+
+            return allRowsMatched;
+        } catch (SQLException se) {
+            throw new LookupFailureException("Error executing SQL statement: " + selectQuery + " for " + keys.size() + " values"
+                    + " : " + (se.getCause() == null ? se.getMessage() : se.getCause().getMessage()), se);
+        } catch (IOException ioe) {
+            throw new LookupFailureException("Error retrieving result set for SQL statement: " + selectQuery + " for " + keys.size() + " values"
+                    + " : " + (ioe.getCause() == null ? ioe.getMessage() : ioe.getCause().getMessage()), ioe);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the String representation of the given key is the same as that of the column value that it matches,
+     * so that the absence of a row with that String representation means that no row matches the key
+     */
+    private static boolean isStringComparable(final Object key) {
+        return key instanceof String || key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte || key instanceof BigInteger;
+    }
+
+    private String getLookupValueColumns(final Map<String, String> context) {
+        final String lookupValueColumnsList = getProperty(LOOKUP_VALUE_COLUMNS).evaluateAttributeExpressions(context).getValue();
+
+        Set<String> lookupValueColumnsSet = new LinkedHashSet<>();
+        if (lookupValueColumnsList != null) {
+            Stream.of(lookupValueColumnsList)
+                    .flatMap(path -> Arrays.stream(path.split(",")))
+                    .filter(DatabaseRecordLookupService::isNotBlank)
+                    .map(String::trim)
+                    .forEach(lookupValueColumnsSet::add);
+        }
+
+        return lookupValueColumnsSet.isEmpty() ? "*" : String.join(",", lookupValueColumnsSet);
+    }
+
     private static boolean isNotBlank(final String value) {
         return value != null && !value.trim().isEmpty();
     }
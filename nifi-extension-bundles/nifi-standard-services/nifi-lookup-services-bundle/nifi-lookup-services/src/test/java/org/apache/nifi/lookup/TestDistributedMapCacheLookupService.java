@@ -28,11 +28,14 @@ import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -62,9 +65,33 @@ public class TestDistributedMapCacheLookupService {
         assertEquals(EMPTY_STRING, absent);
     }
 
+    @Test
+    public void testDistributedMapCacheLookupServiceLookupAll() throws InitializationException, LookupFailureException {
+        final TestRunner runner = TestRunners.newTestRunner(TestProcessor.class);
+        final DistributedMapCacheLookupService service = new DistributedMapCacheLookupService();
+        final DistributedMapCacheClientImpl client = new DistributedMapCacheClientImpl();
+
+        runner.addControllerService("client", client);
+        runner.addControllerService("lookup-service", service);
+        runner.setProperty(service, DistributedMapCacheLookupService.PROP_DISTRIBUTED_CACHE_SERVICE, "client");
+
+        runner.enableControllerService(client);
+        runner.enableControllerService(service);
+
+        final Map<String, Object> presentCoordinates = Collections.singletonMap("key", "myKey");
+        final Map<String, Object> absentCoordinates = Collections.singletonMap("key", "absentKey");
+        final Map<Map<String, Object>, Optional<String>> results = service.lookupAll(List.of(presentCoordinates, absentCoordinates, presentCoordinates), Collections.emptyMap());
+
+        assertEquals(2, results.size());
+        assertEquals(Optional.of("myValue"), results.get(presentCoordinates));
+        assertEquals(EMPTY_STRING, results.get(absentCoordinates));
+        assertEquals(1, client.subMapInvocations);
+    }
+
     static final class DistributedMapCacheClientImpl extends AbstractControllerService implements DistributedMapCacheClient {
 
         private Map<String, String> map = new HashMap<String, String>();
+        private int subMapInvocations = 0;
 
         @OnEnabled
         public void onEnabled(final ConfigurationContext context) {
@@ -106,6 +133,12 @@ public class TestDistributedMapCacheLookupService {
             return (V) map.get(key);
         }
 
+        @Override
+        public <K, V> Map<K, V> subMap(final Set<K> keys, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+            subMapInvocations++;
+            return DistributedMapCacheClient.super.subMap(keys, keySerializer, valueDeserializer);
+        }
+
         @Override
         public <K> boolean remove(final K key, final Serializer<K> serializer) {
             throw new UnsupportedOperationException("not implemented");
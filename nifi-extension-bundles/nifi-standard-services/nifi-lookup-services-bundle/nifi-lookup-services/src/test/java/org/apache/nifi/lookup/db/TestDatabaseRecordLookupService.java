@@ -38,6 +38,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -69,6 +70,10 @@ class TestDatabaseRecordLookupService {
 
     private static final String LOOKUP_KEY = "First";
 
+    private static final String SECOND_LOOKUP_KEY = "Second";
+
+    private static final String SECOND_LOOKUP_VALUE = "67890";
+
     private static final String EXPECTED_STATEMENT = String.format("SELECT %s FROM %s WHERE %s = ?", LOOKUP_VALUE_COLUMN, TABLE_NAME, LOOKUP_KEY_COLUMN);
 
     private TestRunner runner;
@@ -138,6 +143,57 @@ class TestDatabaseRecordLookupService {
         assertTrue(lookupFound.isPresent());
     }
 
+    @Test
+    void testLookupAllFoundWithSingleStatement() throws LookupFailureException, SQLException {
+        runner.setProperty(lookupService, DatabaseRecordLookupService.LOOKUP_VALUE_COLUMNS, LOOKUP_KEY_COLUMN + "," + LOOKUP_VALUE_COLUMN);
+        runner.enableControllerService(lookupService);
+
+        setConnection();
+        setResultSetMetaData(LOOKUP_KEY_COLUMN, LOOKUP_VALUE_COLUMN);
+
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getObject(eq(LOOKUP_KEY_COLUMN))).thenReturn(LOOKUP_KEY, SECOND_LOOKUP_KEY);
+        when(resultSet.getObject(eq(LOOKUP_VALUE_COLUMN))).thenReturn(LOOKUP_VALUE, SECOND_LOOKUP_VALUE);
+
+        final Map<String, Object> firstCoordinates = Collections.singletonMap(LOOKUP_KEY_PROPERTY, LOOKUP_KEY);
+        final Map<String, Object> secondCoordinates = Collections.singletonMap(LOOKUP_KEY_PROPERTY, SECOND_LOOKUP_KEY);
+        final Map<Map<String, Object>, Optional<Record>> lookupResults = lookupService.lookupAll(List.of(firstCoordinates, secondCoordinates, firstCoordinates), Collections.emptyMap());
+
+        assertEquals(2, lookupResults.size());
+        assertEquals(LOOKUP_VALUE, lookupResults.get(firstCoordinates).orElseThrow().getAsString(LOOKUP_VALUE_COLUMN));
+        assertEquals(SECOND_LOOKUP_VALUE, lookupResults.get(secondCoordinates).orElseThrow().getAsString(LOOKUP_VALUE_COLUMN));
+
+        verify(connection).prepareStatement(statementCaptor.capture());
+        final String expectedStatement = String.format("SELECT %s,%s FROM %s WHERE %s IN (?,?)", LOOKUP_KEY_COLUMN, LOOKUP_VALUE_COLUMN, TABLE_NAME, LOOKUP_KEY_COLUMN);
+        assertEquals(expectedStatement, statementCaptor.getValue());
+    }
+
+    @Test
+    void testLookupAllAbsentWithSingleStatement() throws LookupFailureException, SQLException {
+        runner.setProperty(lookupService, DatabaseRecordLookupService.LOOKUP_VALUE_COLUMNS, LOOKUP_KEY_COLUMN + "," + LOOKUP_VALUE_COLUMN);
+        runner.enableControllerService(lookupService);
+
+        setConnection();
+        setResultSetMetaData(LOOKUP_KEY_COLUMN, LOOKUP_VALUE_COLUMN);
+
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject(eq(LOOKUP_KEY_COLUMN))).thenReturn(LOOKUP_KEY);
+        when(resultSet.getObject(eq(LOOKUP_VALUE_COLUMN))).thenReturn(LOOKUP_VALUE);
+
+        final Map<String, Object> firstCoordinates = Collections.singletonMap(LOOKUP_KEY_PROPERTY, LOOKUP_KEY);
+        final Map<String, Object> secondCoordinates = Collections.singletonMap(LOOKUP_KEY_PROPERTY, SECOND_LOOKUP_KEY);
+        final Map<Map<String, Object>, Optional<Record>> lookupResults = lookupService.lookupAll(List.of(firstCoordinates, secondCoordinates), Collections.emptyMap());
+
+        assertEquals(2, lookupResults.size());
+        assertEquals(LOOKUP_VALUE, lookupResults.get(firstCoordinates).orElseThrow().getAsString(LOOKUP_VALUE_COLUMN));
+        assertFalse(lookupResults.get(secondCoordinates).isPresent());
+
+        // The absent key is not looked up again with a separate statement
+        verify(connection).prepareStatement(statementCaptor.capture());
+        final String expectedStatement = String.format("SELECT %s,%s FROM %s WHERE %s IN (?,?)", LOOKUP_KEY_COLUMN, LOOKUP_VALUE_COLUMN, TABLE_NAME, LOOKUP_KEY_COLUMN);
+        assertEquals(expectedStatement, statementCaptor.getValue());
+    }
+
     private void setConnection() throws SQLException {
         when(dbcpService.getConnection(any())).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
@@ -146,11 +202,16 @@ class TestDatabaseRecordLookupService {
     }
 
     private void setResultSetMetaData() throws SQLException {
-        final int columnIndex = 1;
-        when(resultSetMetaData.getColumnCount()).thenReturn(1);
-        when(resultSetMetaData.getColumnType(eq(columnIndex))).thenReturn(JDBCType.VARCHAR.getVendorTypeNumber());
-        when(resultSetMetaData.getColumnLabel(eq(columnIndex))).thenReturn(LOOKUP_VALUE_COLUMN);
-        when(resultSetMetaData.isNullable(eq(columnIndex))).thenReturn(ResultSetMetaData.columnNoNulls);
+        setResultSetMetaData(LOOKUP_VALUE_COLUMN);
+    }
+
+    private void setResultSetMetaData(final String... columnLabels) throws SQLException {
+        when(resultSetMetaData.getColumnCount()).thenReturn(columnLabels.length);
+        for (int columnIndex = 1; columnIndex <= columnLabels.length; columnIndex++) {
+            when(resultSetMetaData.getColumnType(eq(columnIndex))).thenReturn(JDBCType.VARCHAR.getVendorTypeNumber());
+            when(resultSetMetaData.getColumnLabel(eq(columnIndex))).thenReturn(columnLabels[columnIndex - 1]);
+            when(resultSetMetaData.isNullable(eq(columnIndex))).thenReturn(ResultSetMetaData.columnNoNulls);
+        }
     }
 
     private void assertPreparedStatementExpected() throws SQLException {
@@ -75,13 +75,19 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
                     + "may cause errors if FastCSV doesn't handle the property settings correctly (such as 'Ignore Header'), but otherwise may process the input as expected even "
                     + "if the data is not fully RFC-4180 compliant.");
 
+    public static final AllowableValue DIRECT_CSV = new AllowableValue("direct-csv", "Direct CSV",
+            "A CSV parser that reads each row into a reusable character buffer and converts numbers, booleans, dates and timestamps directly from "
+                    + "the characters into the types given by the schema, creating Strings only for String fields. This avoids most of the objects that "
+                    + "the other parsers create for each value, which makes it well suited to large data sets with many numeric columns. Only single-character "
+                    + "Value Separators are supported.");
+
     public static final PropertyDescriptor CSV_PARSER = new PropertyDescriptor.Builder()
             .name("csv-reader-csv-parser")
             .displayName("CSV Parser")
             .description("Specifies which parser to use to read CSV records. NOTE: Different parsers may support different subsets of functionality "
                     + "and may also exhibit different levels of performance.")
             .expressionLanguageSupported(ExpressionLanguageScope.NONE)
-            .allowableValues(APACHE_COMMONS_CSV, JACKSON_CSV, FAST_CSV)
+            .allowableValues(APACHE_COMMONS_CSV, JACKSON_CSV, FAST_CSV, DIRECT_CSV)
             .defaultValue(APACHE_COMMONS_CSV.getValue())
             .required(true)
             .build();
@@ -183,6 +189,8 @@ public class CSVReader extends SchemaRegistryService implements RecordReaderFact
             return new JacksonCSVRecordReader(in, logger, schema, format, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet, trimDoubleQuote);
         } else if (FAST_CSV.getValue().equals(csvParser)) {
             return new FastCSVRecordReader(in, logger, schema, format, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet, trimDoubleQuote);
+        } else if (DIRECT_CSV.getValue().equals(csvParser)) {
+            return new DirectCSVRecordReader(in, logger, schema, format, firstLineIsHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, charSet, trimDoubleQuote);
         } else {
             throw new IOException("Parser not supported");
         }
@@ -22,7 +22,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,6 +34,7 @@ import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
@@ -83,7 +83,7 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
             final List<RecordField> recordFields = getRecordFields();
             final int numFieldNames = recordFields.size();
             for (final CSVRecord csvRecord : csvParser) {
-                final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
+                final Map<String, Object> values = new IndexedFieldMap(schema);
                 for (int i = 0; i < csvRecord.size(); i++) {
                     final String rawValue = csvRecord.get(i);
 
@@ -0,0 +1,475 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.DuplicateHeaderMode;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+
+/**
+ * <p>
+ * A CSV Record Reader that splits the data into fields using a {@link DirectCSVTokenizer} and then converts the characters of each field
+ * directly into the type that the schema specifies for it. Strings are created only for fields whose type is String and for values that
+ * cannot be converted directly, which are converted by {@link AbstractCSVRecordReader} in the same way as by the other CSV Record Readers.
+ * </p>
+ *
+ * <p>
+ * Integers, Longs, Booleans and Decimals are parsed directly. Doubles and Floats are parsed directly when the value has no exponent and has
+ * few enough digits that the result of the division of its digits by a power of ten is exact, which yields the same value as parsing
+ * the value as a String. Dates and Timestamps are parsed directly when a format is configured.
+ * </p>
+ */
+public class DirectCSVRecordReader extends AbstractCSVRecordReader {
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+
+    private final DirectCSVTokenizer tokenizer;
+    private final boolean trimDoubleQuote;
+    private final DateTimeFormatter dateFormatter;
+    private final DateTimeFormatter timestampFormatter;
+    private final CharRange charRange = new CharRange();
+
+    private RecordField[] columnFields;
+
+    public DirectCSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
+                                 final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding, final boolean trimDoubleQuote) throws IOException {
+        super(logger, schema, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, trimDoubleQuote);
+        this.trimDoubleQuote = trimDoubleQuote;
+        this.dateFormatter = createFormatter(this.dateFormat);
+        this.timestampFormatter = createFormatter(this.timestampFormat);
+
+        final InputStream bomInputStream = BOMInputStream.builder().setInputStream(in).get();
+        tokenizer = new DirectCSVTokenizer(new InputStreamReader(bomInputStream, encoding), csvFormat);
+
+        if (hasHeader && tokenizer.nextRow() && !ignoreHeader) {
+            columnFields = createColumnFields(csvFormat);
+        } else {
+            columnFields = schema.getFields().toArray(new RecordField[0]);
+        }
+    }
+
+    private static DateTimeFormatter createFormatter(final String format) {
+        if (format == null) {
+            return null;
+        }
+
+        try {
+            return DateTimeFormatter.ofPattern(format);
+        } catch (final IllegalArgumentException e) {
+            // Values will be converted from Strings, which reports the invalid format for each value as the other readers do
+            return null;
+        }
+    }
+
+    private RecordField[] createColumnFields(final CSVFormat csvFormat) {
+        final DuplicateHeaderMode duplicateHeaderMode = csvFormat.getDuplicateHeaderMode();
+        final List<String> headerNames = new ArrayList<>(tokenizer.getFieldCount());
+        for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+            final String headerName = tokenizer.getString(i);
+            headerNames.add(headerName == null ? "" : headerName);
+        }
+
+        final Set<String> seen = new HashSet<>();
+        final RecordField[] fields = new RecordField[headerNames.size()];
+        for (int i = 0; i < fields.length; i++) {
+            final String headerName = headerNames.get(i);
+            final boolean blank = headerName.isBlank();
+            if (blank && !csvFormat.getAllowMissingColumnNames()) {
+                throw new IllegalArgumentException("A header name is missing in " + headerNames);
+            }
+
+            if (!seen.add(headerName)) {
+                final boolean duplicateAllowed = duplicateHeaderMode == DuplicateHeaderMode.ALLOW_ALL || (duplicateHeaderMode == DuplicateHeaderMode.ALLOW_EMPTY && blank);
+                if (!duplicateAllowed) {
+                    throw new IllegalArgumentException(String.format(
+                            "The header contains a duplicate name: \"%s\" in %s. If this is valid then use CSVFormat.Builder.setDuplicateHeaderMode().", headerName, headerNames));
+                }
+
+                // The first column with a given name holds the value of the field. Any other columns with the same name are unknown fields.
+                continue;
+            }
+
+            if (!blank) {
+                fields[i] = schema.getField(headerName).orElseGet(() -> new RecordField(headerName, RecordFieldType.STRING.getDataType()));
+            }
+        }
+
+        return fields;
+    }
+
+    @Override
+    public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        try {
+            if (!tokenizer.nextRow()) {
+                return null;
+            }
+
+            final RecordSchema schema = getSchema();
+            final Map<String, Object> values = new IndexedFieldMap(schema);
+            final int fieldCount = tokenizer.getFieldCount();
+            for (int i = 0; i < fieldCount; i++) {
+                final RecordField recordField = i < columnFields.length ? columnFields[i] : null;
+                if (recordField == null) {
+                    if (!dropUnknownFields) {
+                        values.put("unknown_field_index_" + i, tokenizer.getString(i));
+                    }
+                    continue;
+                }
+
+                values.put(recordField.getFieldName(), readValue(i, recordField, coerceTypes));
+            }
+
+            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+        } catch (final Exception e) {
+            throw new MalformedRecordException("Error while getting next record", e);
+        }
+    }
+
+    private Object readValue(final int field, final RecordField recordField, final boolean coerceTypes) {
+        if (tokenizer.isNull(field)) {
+            return null;
+        }
+
+        final char[] buffer = tokenizer.getBuffer();
+        final int start = tokenizer.getStart(field);
+        final int end = tokenizer.getEnd(field);
+        final DataType dataType = recordField.getDataType();
+        final RecordFieldType fieldType = dataType.getFieldType();
+
+        switch (fieldType) {
+            case STRING: {
+                final boolean quoted = trimDoubleQuote && isDoubleQuoted(buffer, start, end);
+                if (quoted && end - start == 2 || start == end) {
+                    return null;
+                }
+
+                // Values that are not coerced keep their double quotes, as with the other CSV Record Readers
+                if (quoted && coerceTypes) {
+                    return new String(buffer, start + 1, end - start - 2);
+                }
+                return new String(buffer, start, end - start);
+            }
+            case BOOLEAN:
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case FLOAT:
+            case DECIMAL:
+            case DATE:
+            case TIMESTAMP: {
+                final boolean quoted = isDoubleQuoted(buffer, start, end);
+                final int valueStart = quoted ? start + 1 : start;
+                final int valueEnd = quoted ? end - 1 : end;
+                if (valueStart == valueEnd) {
+                    return null;
+                }
+
+                final Object value = parse(fieldType, buffer, valueStart, valueEnd);
+                if (value != null) {
+                    return value;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+
+        final String rawValue = new String(buffer, start, end - start);
+        if (coerceTypes) {
+            return convert(rawValue, dataType, recordField.getFieldName());
+        } else {
+            // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
+            // dictate a field type. As a result, we will use the schema that we have to attempt to convert
+            // the value into the desired type if it's a simple type.
+            return convertSimpleIfPossible(rawValue, dataType, recordField.getFieldName());
+        }
+    }
+
+    private static boolean isDoubleQuoted(final char[] buffer, final int start, final int end) {
+        return end - start > 1 && buffer[start] == '"' && buffer[end - 1] == '"';
+    }
+
+    /**
+     * Parses the given characters as the given type
+     *
+     * @return the parsed value, or <code>null</code> if the value could not be parsed directly and must instead be converted from a String
+     */
+    private Object parse(final RecordFieldType fieldType, final char[] buffer, final int start, final int end) {
+        switch (fieldType) {
+            case BOOLEAN:
+                return parseBoolean(buffer, start, end);
+            case INT: {
+                final long value = parseLong(buffer, start, end, 10);
+                return value == Long.MIN_VALUE || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : Integer.valueOf((int) value);
+            }
+            case LONG: {
+                final long value = parseLong(buffer, start, end, 18);
+                return value == Long.MIN_VALUE ? null : Long.valueOf(value);
+            }
+            case DOUBLE:
+                return parseDouble(buffer, start, end);
+            case FLOAT:
+                return parseFloat(buffer, start, end);
+            case DECIMAL:
+                return isPlainDecimal(buffer, start, end) ? new BigDecimal(buffer, start, end - start) : null;
+            case DATE:
+                return parseDate(buffer, start, end);
+            case TIMESTAMP:
+                return parseTimestamp(buffer, start, end);
+            default:
+                return null;
+        }
+    }
+
+    private static Boolean parseBoolean(final char[] buffer, final int start, final int end) {
+        if (regionMatchesIgnoreCase(buffer, start, end, "true")) {
+            return Boolean.TRUE;
+        }
+        if (regionMatchesIgnoreCase(buffer, start, end, "false")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static boolean regionMatchesIgnoreCase(final char[] buffer, final int start, final int end, final String lowerCaseValue) {
+        if (end - start != lowerCaseValue.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < lowerCaseValue.length(); i++) {
+            final char c = buffer[start + i];
+            final char lowerCase = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            if (lowerCase != lowerCaseValue.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses an optionally signed sequence of up to the given number of ASCII digits, which is small enough that it cannot overflow
+     *
+     * @return the value, or {@link Long#MIN_VALUE} if the characters are not such a sequence
+     */
+    private static long parseLong(final char[] buffer, final int start, final int end, final int maxDigits) {
+        final boolean negative = buffer[start] == '-';
+        final int digitsStart = negative || buffer[start] == '+' ? start + 1 : start;
+        final int digits = end - digitsStart;
+        if (digits < 1 || digits > maxDigits) {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (int i = digitsStart; i < end; i++) {
+            final int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+
+        return negative ? -value : value;
+    }
+
+    private static Double parseDouble(final char[] buffer, final int start, final int end) {
+        final long mantissa = parseMantissa(buffer, start, end, MAX_EXACT_DOUBLE_MANTISSA);
+        if (mantissa < 0) {
+            return null;
+        }
+
+        final int fractionDigits = countFractionDigits(buffer, start, end);
+        if (fractionDigits >= DOUBLE_POWERS_OF_TEN.length) {
+            return null;
+        }
+
+        final double value = mantissa / DOUBLE_POWERS_OF_TEN[fractionDigits];
+        return buffer[start] == '-' ? -value : value;
+    }
+
+    private static Float parseFloat(final char[] buffer, final int start, final int end) {
+        final long mantissa = parseMantissa(buffer, start, end, MAX_EXACT_FLOAT_MANTISSA);
+        if (mantissa < 0) {
+            return null;
+        }
+
+        final int fractionDigits = countFractionDigits(buffer, start, end);
+        if (fractionDigits >= FLOAT_POWERS_OF_TEN.length) {
+            return null;
+        }
+
+        final float value = mantissa / FLOAT_POWERS_OF_TEN[fractionDigits];
+        return buffer[start] == '-' ? -value : value;
+    }
+
+    /**
+     * Parses the digits of an optionally signed decimal number with at least one digit before the optional decimal point and no exponent,
+     * ignoring the decimal point and sign
+     *
+     * @return the digits as an integer, or -1 if the characters are not such a number or if the digits are not less than the given maximum
+     */
+    private static long parseMantissa(final char[] buffer, final int start, final int end, final long maxMantissa) {
+        int position = buffer[start] == '-' || buffer[start] == '+' ? start + 1 : start;
+        if (position == end || buffer[position] == '.') {
+            return -1;
+        }
+
+        long mantissa = 0;
+        boolean decimalPoint = false;
+        for (; position < end; position++) {
+            final char c = buffer[position];
+            if (c == '.' && !decimalPoint) {
+                decimalPoint = true;
+                continue;
+            }
+
+            final int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            mantissa = mantissa * 10 + digit;
+            if (mantissa >= maxMantissa) {
+                return -1;
+            }
+        }
+
+        return mantissa;
+    }
+
+    private static int countFractionDigits(final char[] buffer, final int start, final int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer[i] == '.') {
+                return end - i - 1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isPlainDecimal(final char[] buffer, final int start, final int end) {
+        int position = buffer[start] == '-' || buffer[start] == '+' ? start + 1 : start;
+        if (position == end || buffer[position] == '.') {
+            return false;
+        }
+
+        boolean decimalPoint = false;
+        for (; position < end; position++) {
+            final char c = buffer[position];
+            if (c == '.' && !decimalPoint) {
+                decimalPoint = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Date parseDate(final char[] buffer, final int start, final int end) {
+        if (dateFormatter == null) {
+            return null;
+        }
+
+        try {
+            return Date.valueOf(LocalDate.parse(charRange.set(buffer, start, end), dateFormatter));
+        } catch (final DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Timestamp parseTimestamp(final char[] buffer, final int start, final int end) {
+        if (timestampFormatter == null) {
+            return null;
+        }
+
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(charRange.set(buffer, start, end), timestampFormatter));
+        } catch (final DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tokenizer.close();
+    }
+
+    /**
+     * A reusable view of a range of characters in the buffer of the tokenizer, used to parse values without first creating a String
+     */
+    private static class CharRange implements CharSequence {
+        private char[] buffer;
+        private int start;
+        private int length;
+
+        CharRange set(final char[] buffer, final int start, final int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = end - start;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return buffer[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int subStart, final int subEnd) {
+            return new String(buffer, start + subStart, subEnd - subStart);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, start, length);
+        }
+    }
+}
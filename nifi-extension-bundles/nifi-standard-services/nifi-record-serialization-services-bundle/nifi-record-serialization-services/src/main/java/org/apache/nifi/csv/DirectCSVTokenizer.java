@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.QuoteMode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Splits CSV data into rows and fields in the same way as the Apache Commons CSV parser does for a given {@link CSVFormat}, but without
+ * creating any objects for each row. The characters of the fields of the current row are copied into a single character buffer that is reused
+ * for every row, and the position of each field within that buffer is tracked so that callers can convert the characters of a field directly,
+ * creating a String only when one is needed.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+class DirectCSVTokenizer implements Closeable {
+    private static final int END_OF_STREAM = -1;
+    private static final int UNDEFINED = -2;
+    private static final int CR = '\r';
+    private static final int LF = '\n';
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private final Reader reader;
+    private final int delimiter;
+    private final int quote;
+    private final int escape;
+    private final int commentMarker;
+    private final String nullString;
+    private final boolean strictQuoteMode;
+    private final boolean trim;
+    private final boolean ignoreSurroundingSpaces;
+    private final boolean ignoreEmptyLines;
+    private final boolean trailingDelimiter;
+
+    private final char[] input;
+    private int inputPosition = 0;
+    private int inputLimit = 0;
+
+    private char[] values = new char[1024];
+    private int valuesLength = 0;
+
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private boolean[] nulls = new boolean[64];
+    private int fieldCount = 0;
+    private long rowCount = 0;
+
+    DirectCSVTokenizer(final Reader reader, final CSVFormat csvFormat) {
+        this(reader, csvFormat, DEFAULT_BUFFER_SIZE);
+    }
+
+    DirectCSVTokenizer(final Reader reader, final CSVFormat csvFormat, final int bufferSize) {
+        this.reader = reader;
+        this.input = new char[bufferSize];
+
+        final String delimiterString = csvFormat.getDelimiterString();
+        if (delimiterString.length() != 1) {
+            throw new IllegalArgumentException("Only single-character value separators are supported but the configured value separator is [" + delimiterString + "]");
+        }
+
+        this.delimiter = delimiterString.charAt(0);
+        this.quote = csvFormat.getQuoteCharacter() == null ? UNDEFINED : csvFormat.getQuoteCharacter();
+        this.escape = csvFormat.getEscapeCharacter() == null ? UNDEFINED : csvFormat.getEscapeCharacter();
+        this.commentMarker = csvFormat.getCommentMarker() == null ? UNDEFINED : csvFormat.getCommentMarker();
+        this.nullString = csvFormat.getNullString();
+        this.strictQuoteMode = csvFormat.getQuoteMode() == QuoteMode.ALL_NON_NULL || csvFormat.getQuoteMode() == QuoteMode.NON_NUMERIC;
+        this.trim = csvFormat.getTrim();
+        this.ignoreSurroundingSpaces = csvFormat.getIgnoreSurroundingSpaces();
+        this.ignoreEmptyLines = csvFormat.getIgnoreEmptyLines();
+        this.trailingDelimiter = csvFormat.getTrailingDelimiter();
+    }
+
+    /**
+     * Advances to the next row, skipping any comments and, if so configured, any empty lines
+     *
+     * @return <code>true</code> if a row was read, <code>false</code> if the end of the data was reached
+     * @throws IOException if unable to read the data or if the data is not valid CSV
+     */
+    boolean nextRow() throws IOException {
+        fieldCount = 0;
+        valuesLength = 0;
+
+        int c = read();
+        while (true) {
+            if (c == END_OF_STREAM) {
+                return false;
+            }
+
+            if (ignoreEmptyLines && isEndOfLine(c)) {
+                skipLineFeed(c);
+                c = read();
+                continue;
+            }
+
+            if (c == commentMarker) {
+                while (c != END_OF_STREAM && !isEndOfLine(c)) {
+                    c = read();
+                }
+                skipLineFeed(c);
+                c = read();
+                continue;
+            }
+
+            break;
+        }
+
+        rowCount++;
+        while (true) {
+            c = readField(c);
+            if (c == delimiter) {
+                c = read();
+            } else {
+                skipLineFeed(c);
+                break;
+            }
+        }
+
+        if (trailingDelimiter && fieldCount > 0 && !nulls[fieldCount - 1] && starts[fieldCount - 1] == ends[fieldCount - 1]) {
+            fieldCount--;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a single field, beginning with the given character
+     *
+     * @return the character that ended the field: the value separator, a line ending or {@link #END_OF_STREAM}
+     */
+    private int readField(int c) throws IOException {
+        final int start = valuesLength;
+
+        if (ignoreSurroundingSpaces) {
+            while (isWhitespace(c)) {
+                c = read();
+            }
+        }
+
+        final boolean quoted = c == quote;
+        if (quoted) {
+            c = readQuotedField();
+        } else {
+            while (c != delimiter && c != END_OF_STREAM && !isEndOfLine(c)) {
+                if (c == escape) {
+                    appendEscaped();
+                } else {
+                    append((char) c);
+                }
+                c = read();
+            }
+
+            if (ignoreSurroundingSpaces) {
+                while (valuesLength > start && Character.isWhitespace(values[valuesLength - 1]) && values[valuesLength - 1] != delimiter) {
+                    valuesLength--;
+                }
+            }
+        }
+
+        int fieldStart = start;
+        int fieldEnd = valuesLength;
+        if (trim) {
+            while (fieldStart < fieldEnd && values[fieldStart] <= ' ') {
+                fieldStart++;
+            }
+            while (fieldEnd > fieldStart && values[fieldEnd - 1] <= ' ') {
+                fieldEnd--;
+            }
+        }
+
+        addField(fieldStart, fieldEnd, isNull(fieldStart, fieldEnd, quoted));
+        return c;
+    }
+
+    private int readQuotedField() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == END_OF_STREAM) {
+                throw new IOException("EOF reached before encapsulated token finished in row " + rowCount);
+            }
+
+            if (c == quote) {
+                c = read();
+                if (c == quote) {
+                    append((char) c);
+                    continue;
+                }
+
+                // The closing quote has been reached, so anything other than whitespace before the end of the field is invalid
+                while (c != delimiter && c != END_OF_STREAM && !isEndOfLine(c)) {
+                    if (!Character.isWhitespace((char) c)) {
+                        throw new IOException("Invalid character between encapsulated token and delimiter in row " + rowCount);
+                    }
+                    c = read();
+                }
+                return c;
+            }
+
+            if (c == escape) {
+                appendEscaped();
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    private void appendEscaped() throws IOException {
+        final int c = read();
+        switch (c) {
+            case 'r':
+                append('\r');
+                break;
+            case 'n':
+                append('\n');
+                break;
+            case 't':
+                append('\t');
+                break;
+            case 'b':
+                append('\b');
+                break;
+            case 'f':
+                append('\f');
+                break;
+            case '\r':
+            case '\n':
+            case '\t':
+            case '\b':
+            case '\f':
+                append((char) c);
+                break;
+            case END_OF_STREAM:
+                throw new IOException("EOF whilst processing escape sequence in row " + rowCount);
+            default:
+                if (c != delimiter && c != escape && c != quote && c != commentMarker) {
+                    append((char) escape);
+                }
+                append((char) c);
+                break;
+        }
+    }
+
+    private boolean isNull(final int start, final int end, final boolean quoted) {
+        final int length = end - start;
+        if (nullString != null && nullString.length() == length && matchesNullString(start)) {
+            return !(strictQuoteMode && quoted);
+        }
+
+        return strictQuoteMode && nullString == null && length == 0 && !quoted;
+    }
+
+    private boolean matchesNullString(final int start) {
+        for (int i = 0; i < nullString.length(); i++) {
+            if (values[start + i] != nullString.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addField(final int start, final int end, final boolean isNull) {
+        if (fieldCount == starts.length) {
+            final int newLength = starts.length * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            nulls = Arrays.copyOf(nulls, newLength);
+        }
+
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        nulls[fieldCount] = isNull;
+        fieldCount++;
+    }
+
+    private void append(final char c) {
+        if (valuesLength == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[valuesLength++] = c;
+    }
+
+    private boolean isWhitespace(final int c) {
+        return c != delimiter && c != END_OF_STREAM && !isEndOfLine(c) && Character.isWhitespace((char) c);
+    }
+
+    private static boolean isEndOfLine(final int c) {
+        return c == LF || c == CR;
+    }
+
+    private void skipLineFeed(final int c) throws IOException {
+        if (c == CR) {
+            final int next = read();
+            if (next != LF && next != END_OF_STREAM) {
+                // The character was read from the buffer, so it is still there to be read again
+                inputPosition--;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (inputPosition == inputLimit) {
+            final int charsRead = reader.read(input, 0, input.length);
+            if (charsRead < 1) {
+                return END_OF_STREAM;
+            }
+
+            inputPosition = 0;
+            inputLimit = charsRead;
+        }
+
+        return input[inputPosition++];
+    }
+
+    /**
+     * @return the number of fields in the current row
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the buffer that holds the characters of the fields of the current row, which is overwritten when the next row is read
+     */
+    char[] getBuffer() {
+        return values;
+    }
+
+    /**
+     * @param field the index of the field in the current row
+     * @return the offset in the {@link #getBuffer() buffer} of the first character of the field
+     */
+    int getStart(final int field) {
+        return starts[field];
+    }
+
+    /**
+     * @param field the index of the field in the current row
+     * @return the offset in the {@link #getBuffer() buffer} just past the last character of the field
+     */
+    int getEnd(final int field) {
+        return ends[field];
+    }
+
+    /**
+     * @param field the index of the field in the current row
+     * @return <code>true</code> if the value of the field matched the configured null String
+     */
+    boolean isNull(final int field) {
+        return nulls[field];
+    }
+
+    /**
+     * @param field the index of the field in the current row
+     * @return the value of the field as a String, or <code>null</code> if the value of the field matched the configured null String
+     */
+    String getString(final int field) {
+        return nulls[field] ? null : new String(values, starts[field], ends[field] - starts[field]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +36,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.IndexedFieldMap;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
@@ -98,7 +98,7 @@ public class FastCSVRecordReader extends AbstractCSVRecordReader {
                 return null;
             }
             final CsvRow csvRecord = csvRowIterator.next();
-            final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
+            final Map<String, Object> values = new IndexedFieldMap(schema);
             for (int i = 0; i < csvRecord.getFieldCount(); i++) {
                 String rawValue = csvRecord.getField(i);
                 if (csvFormat.getTrim()) {
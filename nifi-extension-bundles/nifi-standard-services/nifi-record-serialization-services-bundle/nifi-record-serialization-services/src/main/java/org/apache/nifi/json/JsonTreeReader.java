@@ -76,6 +76,7 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
     protected volatile SchemaApplicationStrategy schemaApplicationStrategy;
     protected volatile StreamReadConstraints streamReadConstraints;
     private volatile boolean allowComments;
+    private volatile JsonParsingStrategy parsingStrategy;
 
     public static final PropertyDescriptor STARTING_FIELD_STRATEGY = new PropertyDescriptor.Builder()
             .name("starting-field-strategy")
@@ -109,6 +110,15 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
             .allowableValues(SchemaApplicationStrategy.class)
             .build();
 
+    public static final PropertyDescriptor PARSING_STRATEGY = new PropertyDescriptor.Builder()
+            .name("Parsing Strategy")
+            .displayName("Parsing Strategy")
+            .description("Specifies how each JSON object is converted into a Record.")
+            .required(true)
+            .defaultValue(JsonParsingStrategy.TREE.getValue())
+            .allowableValues(JsonParsingStrategy.class)
+            .build();
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
@@ -119,6 +129,7 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
         properties.add(STARTING_FIELD_STRATEGY);
         properties.add(STARTING_FIELD_NAME);
         properties.add(SCHEMA_APPLICATION_STRATEGY);
+        properties.add(PARSING_STRATEGY);
         properties.add(AbstractJsonRowRecordReader.MAX_STRING_LENGTH);
         properties.add(AbstractJsonRowRecordReader.ALLOW_COMMENTS);
         properties.add(DateTimeUtils.DATE_FORMAT);
@@ -137,6 +148,18 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
         this.schemaApplicationStrategy = SchemaApplicationStrategy.valueOf(context.getProperty(SCHEMA_APPLICATION_STRATEGY).getValue());
         this.streamReadConstraints = buildStreamReadConstraints(context);
         this.allowComments = isAllowCommentsEnabled(context);
+        this.parsingStrategy = getParsingStrategy(context);
+    }
+
+    /**
+     * Determine the strategy for converting JSON objects into Records based on available properties
+     *
+     * @param context Configuration Context with property values
+     * @return JSON Parsing Strategy
+     */
+    protected JsonParsingStrategy getParsingStrategy(final ConfigurationContext context) {
+        final String parsingStrategy = context.getProperty(PARSING_STRATEGY).getValue();
+        return parsingStrategy == null ? JsonParsingStrategy.TREE : JsonParsingStrategy.valueOf(parsingStrategy);
     }
 
     /**
@@ -194,6 +217,11 @@ public class JsonTreeReader extends SchemaRegistryService implements RecordReade
     }
 
     protected JsonTreeRowRecordReader createJsonTreeRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema) throws IOException, MalformedRecordException {
+        if (parsingStrategy == JsonParsingStrategy.TOKEN_STREAM) {
+            return new JsonStreamingRowRecordReader(in, logger, schema, dateFormat, timeFormat, timestampFormat, startingFieldStrategy, startingFieldName,
+                    schemaApplicationStrategy, null, allowComments, streamReadConstraints, new JsonParserFactory());
+        }
+
         return new JsonTreeRowRecordReader(in, logger, schema, dateFormat, timeFormat, timestampFormat, startingFieldStrategy, startingFieldName,
                 schemaApplicationStrategy, null, allowComments, streamReadConstraints, new JsonParserFactory());
     }
@@ -22,6 +22,7 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.json.JsonParsingStrategy;
 import org.apache.nifi.json.JsonTreeReader;
 import org.apache.nifi.json.JsonTreeRowRecordReader;
 import org.apache.nifi.logging.ComponentLog;
@@ -49,7 +50,9 @@ public class YamlTreeReader extends JsonTreeReader {
 
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
-        return new ArrayList<>(super.getSupportedPropertyDescriptors());
+        final List<PropertyDescriptor> properties = new ArrayList<>(super.getSupportedPropertyDescriptors());
+        properties.remove(PARSING_STRATEGY);
+        return properties;
     }
 
     @Override
@@ -67,4 +70,9 @@ public class YamlTreeReader extends JsonTreeReader {
     protected boolean isAllowCommentsEnabled(final ConfigurationContext context) {
         return ALLOW_COMMENTS_DISABLED;
     }
+
+    @Override
+    protected JsonParsingStrategy getParsingStrategy(final ConfigurationContext context) {
+        return JsonParsingStrategy.TREE;
+    }
 }
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.DuplicateHeaderMode;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestDirectCSVRecordReader {
+    private final DataType doubleDataType = RecordFieldType.DOUBLE.getDataType();
+    private final CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setTrim(true).setQuote('"').build();
+
+    private List<RecordField> getDefaultFields() {
+        final List<RecordField> fields = new ArrayList<>();
+        for (final String fieldName : new String[] {"id", "name", "balance", "address", "city", "state", "zipCode", "country"}) {
+            final DataType dataType = fieldName.equals("balance") ? doubleDataType : RecordFieldType.STRING.getDataType();
+            fields.add(new RecordField(fieldName, dataType));
+        }
+        return fields;
+    }
+
+    private DirectCSVRecordReader createReader(final InputStream in, final RecordSchema schema, final CSVFormat format) throws IOException {
+        return createReader(in, schema, format, true);
+    }
+
+    private DirectCSVRecordReader createReader(final InputStream in, final RecordSchema schema, final CSVFormat format, final boolean trimDoubleQuote) throws IOException {
+        return new DirectCSVRecordReader(in, Mockito.mock(ComponentLog.class), schema, format, true, false,
+            "yyyy-MM-dd", RecordFieldType.TIME.getDefaultFormat(), "yyyy-MM-dd HH:mm:ss", "UTF-8", trimDoubleQuote);
+    }
+
+    private DirectCSVRecordReader createReader(final String csvData, final RecordSchema schema, final CSVFormat format) throws IOException {
+        return createReader(new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8)), schema, format);
+    }
+
+    @Test
+    public void testMultipleRecords() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream fis = new FileInputStream("src/test/resources/csv/multi-bank-account.csv");
+             final DirectCSVRecordReader reader = createReader(fis, schema, format)) {
+
+            final Object[] firstRecord = reader.nextRecord().getValues();
+            final Object[] firstExpectedValues = new Object[] {"1", "John Doe", 4750.89D, "123 My Street", "My City", "MS", "11111", "USA"};
+            assertArrayEquals(firstExpectedValues, firstRecord);
+
+            final Object[] secondRecord = reader.nextRecord().getValues();
+            final Object[] secondExpectedValues = new Object[] {"2", "Jane Doe", 4820.09D, "321 Your Street", "Your City", "NY", "33333", "USA"};
+            assertArrayEquals(secondExpectedValues, secondRecord);
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testMultipleRecords_withoutDoubleQuoteTrimming() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream fis = new FileInputStream("src/test/resources/csv/multi-bank-account.csv");
+             final DirectCSVRecordReader reader = createReader(fis, schema, CSVFormat.RFC4180.builder().setTrim(true).build(), false)) {
+
+            final Object[] firstRecord = reader.nextRecord().getValues();
+            final Object[] firstExpectedValues = new Object[] {"1", "John Doe", 4750.89D, "\"123 My Street\"", "My City", "MS", "11111", "USA"};
+            assertArrayEquals(firstExpectedValues, firstRecord);
+
+            final Object[] secondRecord = reader.nextRecord().getValues();
+            final Object[] secondExpectedValues = new Object[] {"2", "Jane Doe", 4820.09D, "321 Your Street", "Your City", "NY", "33333", "USA"};
+            assertArrayEquals(secondExpectedValues, secondRecord);
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testExtraWhiteSpace() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream fis = new FileInputStream("src/test/resources/csv/extra-white-space.csv");
+             final DirectCSVRecordReader reader = createReader(fis, schema, format)) {
+
+            final Object[] firstRecord = reader.nextRecord().getValues();
+            final Object[] firstExpectedValues = new Object[] {"1", "John Doe", 4750.89D, "123 My Street", "My City", "MS", "11111", "USA"};
+            assertArrayEquals(firstExpectedValues, firstRecord);
+
+            final Object[] secondRecord = reader.nextRecord().getValues();
+            final Object[] secondExpectedValues = new Object[] {"2", "Jane Doe", 4820.09D, "321 Your Street", "Your City", "NY", "33333", "USA"};
+            assertArrayEquals(secondExpectedValues, secondRecord);
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testConvertTypes() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("int", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("long", RecordFieldType.LONG.getDataType()));
+        fields.add(new RecordField("double", RecordFieldType.DOUBLE.getDataType()));
+        fields.add(new RecordField("float", RecordFieldType.FLOAT.getDataType()));
+        fields.add(new RecordField("decimal", RecordFieldType.DECIMAL.getDecimalDataType(10, 3)));
+        fields.add(new RecordField("boolean", RecordFieldType.BOOLEAN.getDataType()));
+        fields.add(new RecordField("date", RecordFieldType.DATE.getDataType()));
+        fields.add(new RecordField("timestamp", RecordFieldType.TIMESTAMP.getDataType()));
+        fields.add(new RecordField("string", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String csvData = """
+            int,long,double,float,decimal,boolean,date,timestamp,string
+            -42,9007199254740993,-0.1,3.25,"12.500",TRUE,2024-02-29,2024-02-29 12:34:56,hello
+            +7,-12,1e3,1.5E-2,-1.25e2,false,2024-03-01,2024-03-01 00:00:00,"a, ""quoted"" value"
+            ,,,,,,,,
+            """;
+
+        for (final boolean coerceTypes : new boolean[] {true, false}) {
+            try (final DirectCSVRecordReader reader = createReader(csvData, schema, format)) {
+                final Object[] firstRecord = reader.nextRecord(coerceTypes, false).getValues();
+                final Object[] firstExpectedValues = new Object[] {-42, 9007199254740993L, -0.1D, 3.25F, new BigDecimal("12.500"), true,
+                    Date.valueOf("2024-02-29"), Timestamp.valueOf("2024-02-29 12:34:56"), "hello"};
+                assertArrayEquals(firstExpectedValues, firstRecord);
+
+                // Values that cannot be parsed directly are converted from Strings in the same way as by the other CSV Record Readers
+                final Record secondRecord = reader.nextRecord(coerceTypes, false);
+                assertEquals(7, secondRecord.getValue("int"));
+                assertEquals(-12L, secondRecord.getValue("long"));
+                assertEquals(1000D, secondRecord.getValue("double"));
+                assertEquals(0.015F, secondRecord.getValue("float"));
+                assertEquals(coerceTypes ? new BigDecimal("-1.25e2") : "-1.25e2", secondRecord.getValue("decimal"));
+                assertEquals(false, secondRecord.getValue("boolean"));
+                assertEquals(Date.valueOf("2024-03-01"), secondRecord.getValue("date"));
+                assertEquals(Timestamp.valueOf("2024-03-01 00:00:00"), secondRecord.getValue("timestamp"));
+                assertEquals("a, \"quoted\" value", secondRecord.getValue("string"));
+
+                final Object[] thirdRecord = reader.nextRecord(coerceTypes, false).getValues();
+                assertArrayEquals(new Object[fields.size()], thirdRecord);
+
+                assertNull(reader.nextRecord(coerceTypes, false));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidValue() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(new RecordField("int", RecordFieldType.INT.getDataType())));
+
+        try (final DirectCSVRecordReader reader = createReader("int\nabc\n12\n", schema, format)) {
+            assertThrows(MalformedRecordException.class, reader::nextRecord);
+            assertEquals(12, reader.nextRecord().getValue("int"));
+        }
+
+        // Without coercion, values that are not of the expected type are returned as Strings
+        try (final DirectCSVRecordReader reader = createReader("int\nabc\n", schema, format)) {
+            assertEquals("abc", reader.nextRecord(false, false).getValue("int"));
+        }
+    }
+
+    @Test
+    public void testEscapeCharacterAndNullString() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(
+            new RecordField("id", RecordFieldType.INT.getDataType()),
+            new RecordField("name", RecordFieldType.STRING.getDataType())));
+
+        final CSVFormat escapeFormat = CSVFormat.DEFAULT.builder().setEscape('\\').setNullString("NULL").setCommentMarker('#').build();
+        try (final DirectCSVRecordReader reader = createReader("id,name\n# comment\n1,a\\,b\nNULL,NULL\n", schema, escapeFormat)) {
+            final Record firstRecord = reader.nextRecord();
+            assertEquals(1, firstRecord.getValue("id"));
+            assertEquals("a,b", firstRecord.getValue("name"));
+
+            final Record secondRecord = reader.nextRecord();
+            assertNull(secondRecord.getValue("id"));
+            assertNull(secondRecord.getValue("name"));
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testFieldNotInSchema() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(new RecordField("id", RecordFieldType.INT.getDataType())));
+
+        try (final DirectCSVRecordReader reader = createReader("id,name\n1,John,extra\n", schema, format)) {
+            final Record record = reader.nextRecord(true, false);
+            assertEquals(1, record.getValue("id"));
+            assertEquals("John", record.getValue("name"));
+            assertEquals("extra", record.getValue("unknown_field_index_2"));
+        }
+
+        try (final DirectCSVRecordReader reader = createReader("id,name\n1,John,extra\n", schema, format)) {
+            final Record record = reader.nextRecord(true, true);
+            assertEquals(1, record.getValue("id"));
+            assertNull(record.getValue("unknown_field_index_2"));
+        }
+    }
+
+    @Test
+    public void testIgnoreHeader() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(
+            new RecordField("id", RecordFieldType.INT.getDataType()),
+            new RecordField("name", RecordFieldType.STRING.getDataType())));
+
+        final byte[] csvData = "identifier,full name\n1,John\n".getBytes(StandardCharsets.UTF_8);
+        try (final DirectCSVRecordReader reader = new DirectCSVRecordReader(new ByteArrayInputStream(csvData), Mockito.mock(ComponentLog.class), schema, format, true, true,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), "UTF-8", true)) {
+
+            final Object[] record = reader.nextRecord().getValues();
+            assertArrayEquals(new Object[] {1, "John"}, record);
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testDuplicateHeaderNames() throws IOException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+        final String csvData = "id, id, name\n1, 2, John";
+
+        final CSVFormat disallowDuplicateHeadersFormat = format.builder().setDuplicateHeaderMode(DuplicateHeaderMode.DISALLOW).build();
+        final IllegalArgumentException iae = assertThrows(IllegalArgumentException.class, () -> createReader(csvData, schema, disallowDuplicateHeadersFormat));
+        assertTrue(iae.getMessage().startsWith("The header contains a duplicate name"));
+    }
+
+    @Test
+    @Disabled("Intended only for manual testing to determine performance before/after modifications")
+    public void testPerformanceComparedToOtherParsers() throws IOException, MalformedRecordException {
+        final int columns = 100;
+        final int rows = 100_000;
+
+        final List<RecordField> fields = new ArrayList<>();
+        final StringBuilder csv = new StringBuilder();
+        for (int column = 0; column < columns; column++) {
+            final RecordFieldType fieldType = column % 2 == 0 ? RecordFieldType.LONG : RecordFieldType.DOUBLE;
+            fields.add(new RecordField("column" + column, fieldType.getDataType()));
+            csv.append(column == 0 ? "" : ",").append("column").append(column);
+        }
+        csv.append('\n');
+
+        final Random random = new Random(0L);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                csv.append(column == 0 ? "" : ",");
+                if (column % 2 == 0) {
+                    csv.append(random.nextInt(1_000_000));
+                } else {
+                    csv.append(random.nextInt(1_000_000) / 100D);
+                }
+            }
+            csv.append('\n');
+        }
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+        final byte[] data = csv.toString().getBytes(StandardCharsets.UTF_8);
+        final ComponentLog logger = Mockito.mock(ComponentLog.class);
+        final CSVFormat csvFormat = CSVFormat.RFC4180;
+
+        for (int iteration = 0; iteration < 5; iteration++) {
+            for (final String parser : new String[] {"Apache Commons CSV", "Jackson CSV", "FastCSV", "Direct CSV"}) {
+                final long start = System.nanoTime();
+                int recordCount = 0;
+                try (final InputStream in = new ByteArrayInputStream(data);
+                     final RecordReader reader = switch (parser) {
+                         case "Apache Commons CSV" -> new CSVRecordReader(in, logger, schema, csvFormat, true, false, null, null, null, "UTF-8", true);
+                         case "Jackson CSV" -> new JacksonCSVRecordReader(in, logger, schema, csvFormat, true, false, null, null, null, "UTF-8", true);
+                         case "FastCSV" -> new FastCSVRecordReader(in, logger, schema, csvFormat, true, false, null, null, null, "UTF-8", true);
+                         default -> new DirectCSVRecordReader(in, logger, schema, csvFormat, true, false, null, null, null, "UTF-8", true);
+                     }) {
+
+                    while (reader.nextRecord() != null) {
+                        recordCount++;
+                    }
+                }
+
+                final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.println(parser + " took " + millis + " millis to read " + recordCount + " records");
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.json;
+
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.util.MockComponentLog;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TestJsonStreamingRowRecordReader {
+    private final String dateFormat = RecordFieldType.DATE.getDefaultFormat();
+    private final String timeFormat = RecordFieldType.TIME.getDefaultFormat();
+    private final String timestampFormat = RecordFieldType.TIMESTAMP.getDefaultFormat();
+
+    private RecordSchema getAccountSchema() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType()));
+        fields.add(new RecordField("address", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("city", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("state", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("zipCode", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("country", RecordFieldType.STRING.getDataType()));
+        return new SimpleRecordSchema(fields);
+    }
+
+    @Test
+    void testRecordsMatchTreeReader() throws IOException, MalformedRecordException {
+        final List<String> filenames = List.of(
+            "bank-account-array.json",
+            "bank-account-oneline.json",
+            "bank-account-multiline.json",
+            "bank-account-mixed.json",
+            "bank-account-multiarray.json",
+            "single-element-nested.json",
+            "single-element-nested-array.json");
+
+        for (final String filename : filenames) {
+            assertRecordsMatchTreeReader(filename);
+        }
+    }
+
+    private void assertRecordsMatchTreeReader(final String filename) throws IOException, MalformedRecordException {
+        final RecordSchema schema = getAccountSchema();
+
+        for (final boolean coerceTypes : new boolean[] {true, false}) {
+            for (final boolean dropUnknownFields : new boolean[] {true, false}) {
+                final List<Record> expected = new ArrayList<>();
+                try (final InputStream in = new FileInputStream("src/test/resources/json/" + filename);
+                     final JsonTreeRowRecordReader reader = new JsonTreeRowRecordReader(in, new MockComponentLog("id", "id"), schema, dateFormat, timeFormat, timestampFormat)) {
+                    Record record;
+                    while ((record = reader.nextRecord(coerceTypes, dropUnknownFields)) != null) {
+                        expected.add(record);
+                    }
+                }
+
+                final List<Record> actual = new ArrayList<>();
+                try (final InputStream in = new FileInputStream("src/test/resources/json/" + filename);
+                     final JsonStreamingRowRecordReader reader = new JsonStreamingRowRecordReader(in, new MockComponentLog("id", "id"), schema, dateFormat, timeFormat, timestampFormat)) {
+                    Record record;
+                    while ((record = reader.nextRecord(coerceTypes, dropUnknownFields)) != null) {
+                        actual.add(record);
+                    }
+                }
+
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void testUnknownFieldsSkipped() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String json = """
+            [{"unknown": {"a": [1, 2, {"b": null}]}, "id": 1, "other": [[]], "name": "John"},
+             {"name": "Jane", "id": "2"}]""";
+
+        try (final JsonStreamingRowRecordReader reader = createReader(json, schema)) {
+            final Record first = reader.nextRecord(true, true);
+            assertEquals(1, first.getValue("id"));
+            assertEquals("John", first.getValue("name"));
+            assertEquals(Set.of("id", "name"), first.getRawFieldNames());
+
+            final Record second = reader.nextRecord(true, true);
+            assertEquals(2, second.getValue("id"));
+            assertEquals("Jane", second.getValue("name"));
+
+            assertNull(reader.nextRecord(true, true));
+        }
+    }
+
+    @Test
+    void testUnknownFieldsRetainedWhenNotDropped() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(new RecordField("id", RecordFieldType.INT.getDataType())));
+
+        try (final JsonStreamingRowRecordReader reader = createReader("{\"extra\": \"value\", \"id\": 1}", schema)) {
+            final Record record = reader.nextRecord(true, false);
+            assertEquals(1, record.getValue("id"));
+            assertEquals("value", record.getValue("extra"));
+        }
+    }
+
+    @Test
+    void testFieldNamePreferredOverAlias() throws IOException, MalformedRecordException {
+        final RecordField nameField = new RecordField("name", RecordFieldType.STRING.getDataType(), null, Set.of("fullName"));
+        final RecordSchema schema = new SimpleRecordSchema(List.of(nameField));
+
+        try (final JsonStreamingRowRecordReader reader = createReader("[{\"name\": \"John\", \"fullName\": \"John Doe\"}, {\"fullName\": \"Jane Doe\"}]", schema)) {
+            assertEquals("John", reader.nextRecord().getValue("name"));
+            assertEquals("Jane Doe", reader.nextRecord().getValue("name"));
+        }
+    }
+
+    @Test
+    void testNestedRecordAndArray() throws IOException, MalformedRecordException {
+        final RecordSchema addressSchema = new SimpleRecordSchema(List.of(
+            new RecordField("city", RecordFieldType.STRING.getDataType()),
+            new RecordField("zip", RecordFieldType.INT.getDataType())));
+        final RecordSchema schema = new SimpleRecordSchema(List.of(
+            new RecordField("address", RecordFieldType.RECORD.getRecordDataType(addressSchema)),
+            new RecordField("scores", RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.LONG.getDataType())),
+            new RecordField("tags", RecordFieldType.MAP.getMapDataType(RecordFieldType.STRING.getDataType()))));
+
+        final String json = "{\"address\": {\"street\": \"Main\", \"city\": \"Springfield\", \"zip\": \"12345\"}, \"scores\": [1, 2, 3], \"tags\": {\"a\": \"b\"}}";
+        try (final JsonStreamingRowRecordReader reader = createReader(json, schema)) {
+            final Record record = reader.nextRecord(true, true);
+
+            final Record address = assertInstanceOf(Record.class, record.getValue("address"));
+            assertEquals("Springfield", address.getValue("city"));
+            assertEquals(12345, address.getValue("zip"));
+            assertEquals(Set.of("city", "zip"), address.getRawFieldNames());
+
+            assertArrayEquals(new Object[] {1L, 2L, 3L}, (Object[]) record.getValue("scores"));
+            assertEquals(Map.of("a", "b"), record.getValue("tags"));
+        }
+    }
+
+    @Test
+    void testMalformedRecordDoesNotAffectNextRecord() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(
+            new RecordField("id", RecordFieldType.INT.getDataType()),
+            new RecordField("name", RecordFieldType.STRING.getDataType())));
+
+        final String json = "[{\"id\": \"abc\", \"name\": {\"first\": \"John\"}}, {\"id\": 2, \"name\": \"Jane\"}]";
+        try (final JsonStreamingRowRecordReader reader = createReader(json, schema)) {
+            assertThrows(MalformedRecordException.class, reader::nextRecord);
+
+            final Record record = reader.nextRecord();
+            assertEquals(2, record.getValue("id"));
+            assertEquals("Jane", record.getValue("name"));
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    void testStartFromNestedArray() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(List.of(new RecordField("id", RecordFieldType.INT.getDataType())));
+
+        final String json = "{\"skipped\": {\"id\": 0}, \"accounts\": [{\"id\": 1}, {\"id\": 2}]}";
+        final InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        try (final JsonStreamingRowRecordReader reader = new JsonStreamingRowRecordReader(in, new MockComponentLog("id", "id"), schema, dateFormat, timeFormat,
+                timestampFormat, StartingFieldStrategy.NESTED_FIELD, "accounts", SchemaApplicationStrategy.SELECTED_PART, null, false, null, new JsonParserFactory())) {
+
+            assertEquals(1, reader.nextRecord().getValue("id"));
+            assertEquals(2, reader.nextRecord().getValue("id"));
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    private JsonStreamingRowRecordReader createReader(final String json, final RecordSchema schema) throws IOException, MalformedRecordException {
+        final InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        return new JsonStreamingRowRecordReader(in, new MockComponentLog("id", "id"), schema, dateFormat, timeFormat, timestampFormat);
+    }
+}
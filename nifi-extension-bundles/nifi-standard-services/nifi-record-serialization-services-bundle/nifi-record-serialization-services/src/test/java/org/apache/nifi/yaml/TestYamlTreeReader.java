@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.yaml;
+
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.util.NoOpProcessor;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TestYamlTreeReader {
+    private static final String SERVICE_ID = YamlTreeReader.class.getSimpleName();
+
+    private TestRunner runner;
+
+    @BeforeEach
+    void setRunner() {
+        runner = TestRunners.newTestRunner(NoOpProcessor.class);
+    }
+
+    @Test
+    void testEnableAndReadRecord() throws Exception {
+        final YamlTreeReader yamlTreeReader = new YamlTreeReader();
+        runner.addControllerService(SERVICE_ID, yamlTreeReader);
+        runner.enableControllerService(yamlTreeReader);
+
+        final byte[] content = "id: 1\nname: John Doe\n".getBytes(StandardCharsets.UTF_8);
+        try (final RecordReader recordReader = yamlTreeReader.createRecordReader(Collections.emptyMap(), new ByteArrayInputStream(content), content.length, runner.getLogger())) {
+            final Record record = recordReader.nextRecord();
+            assertNotNull(record);
+            assertEquals(1, record.getAsInt("id"));
+            assertEquals("John Doe", record.getAsString("name"));
+            assertNull(recordReader.nextRecord());
+        }
+    }
+}
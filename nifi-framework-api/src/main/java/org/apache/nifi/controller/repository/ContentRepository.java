@@ -16,9 +16,11 @@
  */
 package org.apache.nifi.controller.repository;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.Set;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
@@ -238,6 +240,36 @@ public interface ContentRepository {
      */
     InputStream read(ContentClaim claim) throws IOException;
 
+    /**
+     * Provides a read-only ByteBuffer over a range of the content of the given claim. Implementations that are capable of doing so
+     * may return a view of memory-mapped content rather than copying the content onto the heap. The default implementation reads the
+     * requested range into a heap buffer.
+     *
+     * @param claim the claim to read from
+     * @param offset the offset into the claim at which the buffer should begin
+     * @param length the number of bytes to include in the buffer
+     * @return a read-only ByteBuffer whose position is 0 and whose limit is equal to the given length
+     * @throws IOException if unable to read, or if the length is larger than can be held by a ByteBuffer
+     */
+    default ByteBuffer readAsByteBuffer(final ContentClaim claim, final long offset, final long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Cannot read " + length + " bytes of " + claim + " into a ByteBuffer because the length exceeds the maximum size of a ByteBuffer");
+        }
+        if (claim == null || length == 0) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+
+        try (final InputStream in = read(claim)) {
+            in.skipNBytes(offset);
+            final byte[] content = in.readNBytes((int) length);
+            if (content.length < length) {
+                throw new EOFException("Expected to read " + length + " bytes from " + claim + " starting at offset " + offset + " but only " + content.length + " bytes were available");
+            }
+
+            return ByteBuffer.wrap(content).asReadOnlyBuffer();
+        }
+    }
+
     /**
      * Provides access ot the input stream for the entire Resource Claim
      * @param claim the resource claim to read from
@@ -19,6 +19,8 @@ package org.apache.nifi.controller.repository;
 
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.schema.AttributeDictionary;
+import org.apache.nifi.controller.repository.schema.AttributeFrequencyTracker;
 import org.apache.nifi.controller.repository.schema.ContentClaimFieldMap;
 import org.apache.nifi.controller.repository.schema.ContentClaimSchema;
 import org.apache.nifi.controller.repository.schema.FlowFileSchema;
@@ -28,6 +30,7 @@ import org.apache.nifi.controller.repository.schema.RepositoryRecordUpdate;
 import org.apache.nifi.repository.schema.FieldCache;
 import org.apache.nifi.repository.schema.FieldType;
 import org.apache.nifi.repository.schema.Record;
+import org.apache.nifi.repository.schema.RecordField;
 import org.apache.nifi.repository.schema.RecordIterator;
 import org.apache.nifi.repository.schema.RecordSchema;
 import org.apache.nifi.repository.schema.Repetition;
@@ -41,27 +44,59 @@ import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implements SerDe<SerializedRepositoryRecord> {
-    private static final int MAX_ENCODING_VERSION = 2;
+    private static final int MAX_ENCODING_VERSION = 3;
+    private static final int DEFAULT_ENCODING_VERSION = 2;
 
-    private final RecordSchema writeSchema = RepositoryRecordSchema.REPOSITORY_RECORD_SCHEMA_V2;
+    private final RecordSchema writeSchema;
     private final RecordSchema contentClaimSchema = ContentClaimSchema.CONTENT_CLAIM_SCHEMA_V1;
 
     private final ResourceClaimManager resourceClaimManager;
     private final FieldCache fieldCache;
+    private final AttributeFrequencyTracker attributeFrequencyTracker;
+    private final boolean attributeDictionaryEnabled;
     private volatile SchemaRecordReader reader;
+    private volatile AttributeDictionary attributeDictionary = AttributeDictionary.EMPTY;
     private RecordIterator recordIterator = null;
 
     public SchemaRepositoryRecordSerde(final ResourceClaimManager resourceClaimManager, final FieldCache fieldCache) {
+        this(resourceClaimManager, fieldCache, new AttributeFrequencyTracker(), false);
+    }
+
+    /**
+     * @param resourceClaimManager the Resource Claim Manager to use when deserializing Content Claims
+     * @param fieldCache the cache to use for Strings that are deserialized
+     * @param attributeFrequencyTracker tracks the most common attribute names and values. The tracker is typically shared by all SerDe's
+     * that are created for a repository so that each new journal or snapshot begins with a dictionary of the attributes that were common
+     * in the journals before it.
+     * @param attributeDictionaryEnabled whether records are written using encoding version 3, which refers to common attributes by index into
+     * an Attribute Dictionary. Versions of NiFi that do not support version 3 cannot read journals or snapshots that are written with it, so
+     * when disabled, records are written using version 2. Records of any supported version can be read regardless of this setting.
+     */
+    public SchemaRepositoryRecordSerde(final ResourceClaimManager resourceClaimManager, final FieldCache fieldCache, final AttributeFrequencyTracker attributeFrequencyTracker,
+                                       final boolean attributeDictionaryEnabled) {
         this.resourceClaimManager = resourceClaimManager;
         this.fieldCache = fieldCache;
+        this.attributeFrequencyTracker = attributeFrequencyTracker;
+        this.attributeDictionaryEnabled = attributeDictionaryEnabled;
+        this.writeSchema = attributeDictionaryEnabled ? RepositoryRecordSchema.REPOSITORY_RECORD_SCHEMA_V3 : RepositoryRecordSchema.REPOSITORY_RECORD_SCHEMA_V2;
     }
 
     @Override
     public void writeHeader(final DataOutputStream out) throws IOException {
         writeSchema.writeTo(out);
+        if (!attributeDictionaryEnabled) {
+            return;
+        }
+
+        // Records may be serialized concurrently and written to the journal in a different order than they were serialized,
+        // so the dictionary is fixed for the life of the journal rather than being built up as records are written.
+        final AttributeDictionary dictionary = attributeFrequencyTracker.createDictionary();
+        dictionary.writeTo(out);
+        attributeDictionary = dictionary;
     }
 
     @Override
@@ -75,28 +110,33 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
         switch (record.getType()) {
             case CREATE:
             case UPDATE:
-                schema = RepositoryRecordSchema.CREATE_OR_UPDATE_SCHEMA_V2;
+                schema = attributeDictionaryEnabled ? RepositoryRecordSchema.CREATE_OR_UPDATE_SCHEMA_V3 : RepositoryRecordSchema.CREATE_OR_UPDATE_SCHEMA_V2;
                 break;
             case CONTENTMISSING:
             case DELETE:
-                schema = RepositoryRecordSchema.DELETE_SCHEMA_V2;
+                schema = attributeDictionaryEnabled ? RepositoryRecordSchema.DELETE_SCHEMA_V3 : RepositoryRecordSchema.DELETE_SCHEMA_V2;
                 break;
             case SWAP_IN:
-                schema = RepositoryRecordSchema.SWAP_IN_SCHEMA_V2;
+                schema = attributeDictionaryEnabled ? RepositoryRecordSchema.SWAP_IN_SCHEMA_V3 : RepositoryRecordSchema.SWAP_IN_SCHEMA_V2;
                 break;
             case SWAP_OUT:
-                schema = RepositoryRecordSchema.SWAP_OUT_SCHEMA_V2;
+                schema = attributeDictionaryEnabled ? RepositoryRecordSchema.SWAP_OUT_SCHEMA_V3 : RepositoryRecordSchema.SWAP_OUT_SCHEMA_V2;
                 break;
             default:
                 throw new IllegalArgumentException("Received Repository Record with unknown Update Type: " + record.getType()); // won't happen.
         }
 
-        serializeRecord(record, out, schema, RepositoryRecordSchema.REPOSITORY_RECORD_SCHEMA_V2);
+        serializeRecord(record, out, schema, writeSchema);
     }
 
 
     protected void serializeRecord(final SerializedRepositoryRecord record, final DataOutputStream out, RecordSchema schema, RecordSchema repositoryRecordSchema) throws IOException {
-        final RepositoryRecordFieldMap fieldMap = new RepositoryRecordFieldMap(record, schema, contentClaimSchema);
+        final FlowFileRecord flowFile = record.getFlowFileRecord();
+        if (flowFile != null && attributeDictionaryEnabled) {
+            attributeFrequencyTracker.sample(flowFile.getAttributes());
+        }
+
+        final RepositoryRecordFieldMap fieldMap = new RepositoryRecordFieldMap(record, schema, contentClaimSchema, attributeDictionary);
         final RepositoryRecordUpdate update = new RepositoryRecordUpdate(fieldMap, repositoryRecordSchema);
         new SchemaRecordWriter().writeRecord(update, out);
     }
@@ -105,6 +145,23 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
     public void readHeader(final DataInputStream in) throws IOException {
         final RecordSchema recoverySchema = RecordSchema.readFrom(in);
         reader = SchemaRecordReader.fromSchema(recoverySchema, fieldCache);
+
+        // Only schemas that encode attributes as dictionary references are followed by an Attribute Dictionary
+        if (containsField(recoverySchema.getFields(), FlowFileSchema.ATTRIBUTE_REFERENCES)) {
+            attributeDictionary = AttributeDictionary.readFrom(in);
+        } else {
+            attributeDictionary = AttributeDictionary.EMPTY;
+        }
+    }
+
+    private boolean containsField(final List<RecordField> fields, final String fieldName) {
+        for (final RecordField field : fields) {
+            if (fieldName.equals(field.getFieldName()) || containsField(field.getSubFields(), fieldName)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @Override
@@ -165,7 +222,7 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
 
         // Top level is always going to be a "Repository Record Update" record because we need a 'Union' type record at the
         // top level that indicates which type of record we have.
-        final Record record = (Record) updateRecord.getFieldValue(RepositoryRecordSchema.REPOSITORY_RECORD_UPDATE_V2);
+        final Record record = (Record) updateRecord.getFieldValue(RepositoryRecordSchema.REPOSITORY_RECORD_UPDATE_V3);
 
         final String actionType = (String) record.getFieldValue(RepositoryRecordSchema.ACTION_TYPE_FIELD);
         final RepositoryRecordType recordType = RepositoryRecordType.valueOf(actionType);
@@ -188,7 +245,7 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
 
 
     @SuppressWarnings("unchecked")
-    private SerializedRepositoryRecord createRecord(final Record record, final RepositoryRecordType type, final String swapLocation) {
+    private SerializedRepositoryRecord createRecord(final Record record, final RepositoryRecordType type, final String swapLocation) throws IOException {
         final StandardFlowFileRecord.Builder ffBuilder = new StandardFlowFileRecord.Builder();
         ffBuilder.id((Long) record.getFieldValue(RepositoryRecordSchema.RECORD_ID));
         ffBuilder.entryDate((Long) record.getFieldValue(FlowFileSchema.ENTRY_DATE));
@@ -204,7 +261,17 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
         populateContentClaim(ffBuilder, record);
         ffBuilder.size((Long) record.getFieldValue(FlowFileSchema.FLOWFILE_SIZE));
 
-        ffBuilder.addAttributes((Map<String, String>) record.getFieldValue(FlowFileSchema.ATTRIBUTES));
+        final Map<String, String> attributes;
+        final Object attributeReferences = record.getFieldValue(FlowFileSchema.ATTRIBUTE_REFERENCES);
+        if (attributeReferences == null) {
+            attributes = (Map<String, String>) record.getFieldValue(FlowFileSchema.ATTRIBUTES);
+        } else {
+            attributes = attributeDictionary.decode((List<?>) attributeReferences, (List<?>) record.getFieldValue(FlowFileSchema.ATTRIBUTE_LITERALS));
+        }
+
+        // Track the attributes that are recovered so that the journal that is created after recovery also benefits from the dictionary
+        attributeFrequencyTracker.sample(attributes);
+        ffBuilder.addAttributes(attributes);
 
         final FlowFileRecord flowFileRecord = ffBuilder.build();
 
@@ -233,7 +300,7 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
         ffBuilder.contentClaimOffset(offset);
     }
 
-    private SerializedRepositoryRecord updateRecord(final Record record) {
+    private SerializedRepositoryRecord updateRecord(final Record record) throws IOException {
         return createRecord(record, RepositoryRecordType.UPDATE, null);
     }
 
@@ -250,7 +317,7 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
         return repoRecord;
     }
 
-    private SerializedRepositoryRecord swapInRecord(final Record record) {
+    private SerializedRepositoryRecord swapInRecord(final Record record) throws IOException {
         final String swapLocation = (String) record.getFieldValue(new SimpleRecordField(RepositoryRecordSchema.SWAP_LOCATION, FieldType.STRING, Repetition.EXACTLY_ONE));
         final SerializedRepositoryRecord repoRecord = createRecord(record, RepositoryRecordType.SWAP_IN, swapLocation);
         return repoRecord;
@@ -275,7 +342,7 @@ public class SchemaRepositoryRecordSerde extends RepositoryRecordSerde implement
 
     @Override
     public int getVersion() {
-        return MAX_ENCODING_VERSION;
+        return attributeDictionaryEnabled ? MAX_ENCODING_VERSION : DEFAULT_ENCODING_VERSION;
     }
 
     @Override
@@ -18,6 +18,7 @@
 package org.apache.nifi.controller.repository;
 
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.schema.AttributeFrequencyTracker;
 import org.apache.nifi.repository.schema.FieldCache;
 import org.apache.nifi.repository.schema.NoOpFieldCache;
 import org.wali.SerDe;
@@ -27,21 +28,40 @@ public class StandardRepositoryRecordSerdeFactory implements RepositoryRecordSer
     private static final String LEGACY_SERDE_ENCODING_NAME = "org.apache.nifi.controller.repository.WriteAheadFlowFileRepository$WriteAheadRecordSerde";
     private final ResourceClaimManager resourceClaimManager;
     private final FieldCache fieldCache;
+    private final AttributeFrequencyTracker attributeFrequencyTracker = new AttributeFrequencyTracker();
+    private final boolean attributeDictionaryEnabled;
 
     public StandardRepositoryRecordSerdeFactory(final ResourceClaimManager claimManager) {
         this(claimManager, new NoOpFieldCache());
     }
 
     public StandardRepositoryRecordSerdeFactory(final ResourceClaimManager claimManager, final FieldCache fieldCache) {
+        this(claimManager, fieldCache, false);
+    }
+
+    /**
+     * @param claimManager the Resource Claim Manager to use when deserializing Content Claims
+     * @param fieldCache the cache to use for Strings that are deserialized
+     * @param attributeDictionaryEnabled whether new journals and snapshots are written using encoding version 3 with an Attribute Dictionary.
+     * Journals and snapshots that were written with version 3 can be read whether or not this is enabled.
+     */
+    public StandardRepositoryRecordSerdeFactory(final ResourceClaimManager claimManager, final FieldCache fieldCache, final boolean attributeDictionaryEnabled) {
         this.resourceClaimManager = claimManager;
         this.fieldCache = fieldCache;
+        this.attributeDictionaryEnabled = attributeDictionaryEnabled;
     }
 
     @Override
     public SerDe<SerializedRepositoryRecord> createSerDe(final String encodingName) {
-        if (encodingName == null || SchemaRepositoryRecordSerde.class.getName().equals(encodingName)) {
-            final SchemaRepositoryRecordSerde serde = new SchemaRepositoryRecordSerde(resourceClaimManager, fieldCache);
-            return serde;
+        // A null encoding name indicates that the SerDe will be used to write a new journal or snapshot. When reading, the SerDe is
+        // created with the dictionary enabled so that it reports the highest encoding version, allowing version 3 journals to be
+        // recovered after the dictionary has been disabled.
+        if (encodingName == null) {
+            return new SchemaRepositoryRecordSerde(resourceClaimManager, fieldCache, attributeFrequencyTracker, attributeDictionaryEnabled);
+        }
+
+        if (SchemaRepositoryRecordSerde.class.getName().equals(encodingName)) {
+            return new SchemaRepositoryRecordSerde(resourceClaimManager, fieldCache, attributeFrequencyTracker, true);
         }
 
         if (WriteAheadRepositoryRecordSerde.class.getName().equals(encodingName)
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository.schema;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * An immutable dictionary of attribute names and values that is written to the header of a Write-Ahead Log journal or snapshot.
+ * Records that are written with {@link FlowFileSchema#FLOWFILE_SCHEMA_V3} refer to the attribute names and values in the dictionary
+ * by index rather than writing out the Strings themselves. Any name or value that is not in the dictionary is written as a literal.
+ * </p>
+ *
+ * <p>
+ * Each attribute is encoded as two references, one for the name and one for the value. A reference that is zero or greater is the index
+ * of a dictionary entry. A negative reference <code>r</code> is the index <code>-r - 1</code> into the list of literals for that record.
+ * </p>
+ */
+public class AttributeDictionary {
+    public static final AttributeDictionary EMPTY = new AttributeDictionary(Collections.emptyList());
+
+    private final List<String> entries;
+    private final Map<String, Integer> indices;
+
+    public AttributeDictionary(final List<String> entries) {
+        this.entries = new ArrayList<>(entries);
+        this.indices = new HashMap<>(entries.size() * 2);
+        for (int i = 0; i < entries.size(); i++) {
+            indices.putIfAbsent(entries.get(i), i);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Encodes the given attributes as a list of references, adding to the given list of literals any name or value that is not in the dictionary
+     *
+     * @param attributes the attributes to encode
+     * @param literals the list to add literals to
+     * @return the references for the attributes
+     */
+    public List<Integer> encode(final Map<String, String> attributes, final List<String> literals) {
+        final List<Integer> references = new ArrayList<>(attributes.size() * 2);
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+
+            references.add(getReference(entry.getKey(), literals));
+            references.add(getReference(entry.getValue(), literals));
+        }
+
+        return references;
+    }
+
+    private int getReference(final String value, final List<String> literals) {
+        final Integer index = indices.get(value);
+        if (index != null) {
+            return index;
+        }
+
+        literals.add(value);
+        return -literals.size();
+    }
+
+    /**
+     * Decodes attributes that were encoded using {@link #encode(Map, List)}. Any name or value that refers to the dictionary
+     * is the same String instance as the dictionary entry.
+     *
+     * @param references the references for the attributes
+     * @param literals the literals for the attributes
+     * @return the decoded attributes
+     * @throws IOException if a reference does not point to a valid dictionary entry or literal
+     */
+    public Map<String, String> decode(final List<?> references, final List<?> literals) throws IOException {
+        final Map<String, String> attributes = new HashMap<>(references.size());
+        for (int i = 0; i + 1 < references.size(); i += 2) {
+            final String name = resolve((Integer) references.get(i), literals);
+            final String value = resolve((Integer) references.get(i + 1), literals);
+            attributes.put(name, value);
+        }
+
+        return attributes;
+    }
+
+    private String resolve(final int reference, final List<?> literals) throws IOException {
+        if (reference >= 0) {
+            if (reference >= entries.size()) {
+                throw new IOException("Attribute reference " + reference + " is not valid because the Attribute Dictionary contains only " + entries.size() + " entries");
+            }
+
+            return entries.get(reference);
+        }
+
+        final int literalIndex = -reference - 1;
+        if (literals == null || literalIndex >= literals.size()) {
+            throw new IOException("Attribute reference " + reference + " is not valid because the record does not contain a literal at index " + literalIndex);
+        }
+
+        return (String) literals.get(literalIndex);
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        out.writeInt(entries.size());
+        for (final String entry : entries) {
+            final byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public static AttributeDictionary readFrom(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        final List<String> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            entries.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        return new AttributeDictionary(entries);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository.schema;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps an approximate count of how often attribute names and values are seen, so that each new journal can be started with an
+ * {@link AttributeDictionary} containing the Strings that are most likely to be repeated. Only a sample of the FlowFiles are counted,
+ * and the counts are halved each time that a dictionary is created so that the dictionary follows changes in the flow over time.
+ * This class is thread-safe.
+ */
+public class AttributeFrequencyTracker {
+    static final int SAMPLE_RATE = 8;
+    static final int MAX_TRACKED_ENTRIES = 65_536;
+    static final int MAX_DICTIONARY_ENTRIES = 4_096;
+    static final int MAX_ENTRY_LENGTH = 256;
+    private static final int MIN_OCCURRENCES = 2;
+
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final int sampleRate;
+
+    public AttributeFrequencyTracker() {
+        this(SAMPLE_RATE);
+    }
+
+    AttributeFrequencyTracker(final int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Records the names and values of the given attributes, if the attributes are chosen as part of the sample
+     *
+     * @param attributes the attributes of a FlowFile
+     */
+    public void sample(final Map<String, String> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return;
+        }
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            increment(entry.getKey());
+            increment(entry.getValue());
+        }
+    }
+
+    private void increment(final String value) {
+        if (value == null || value.length() > MAX_ENTRY_LENGTH) {
+            return;
+        }
+
+        LongAdder count = counts.get(value);
+        if (count == null) {
+            if (counts.size() >= MAX_TRACKED_ENTRIES) {
+                return;
+            }
+
+            count = counts.computeIfAbsent(value, key -> new LongAdder());
+        }
+
+        count.increment();
+    }
+
+    /**
+     * Creates a dictionary of the most frequently seen attribute names and values, then decays the counts that have been recorded
+     *
+     * @return an AttributeDictionary containing the most frequently seen attribute names and values
+     */
+    public AttributeDictionary createDictionary() {
+        final List<String> entries = counts.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+            .filter(entry -> entry.getValue() >= MIN_OCCURRENCES)
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(MAX_DICTIONARY_ENTRIES)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+
+        decay();
+
+        if (entries.isEmpty()) {
+            return AttributeDictionary.EMPTY;
+        }
+
+        return new AttributeDictionary(entries);
+    }
+
+    private void decay() {
+        counts.entrySet().removeIf(entry -> {
+            final LongAdder count = entry.getValue();
+            final long halved = count.sumThenReset() / 2;
+            if (halved == 0) {
+                return true;
+            }
+
+            count.add(halved);
+            return false;
+        });
+    }
+}
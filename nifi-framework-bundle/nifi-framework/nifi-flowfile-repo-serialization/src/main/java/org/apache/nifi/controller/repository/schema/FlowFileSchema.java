@@ -39,6 +39,8 @@ public class FlowFileSchema {
     public static final String FLOWFILE_SIZE = "FlowFile Size";
     public static final String CONTENT_CLAIM = "Content Claim";
     public static final String ATTRIBUTES = "Attributes";
+    public static final String ATTRIBUTE_REFERENCES = "Attribute References";
+    public static final String ATTRIBUTE_LITERALS = "Attribute Literals";
 
     // attribute fields
     public static final String ATTRIBUTE_NAME = "Attribute Name";
@@ -46,6 +48,7 @@ public class FlowFileSchema {
 
     public static final RecordSchema FLOWFILE_SCHEMA_V1;
     public static final RecordSchema FLOWFILE_SCHEMA_V2;
+    public static final RecordSchema FLOWFILE_SCHEMA_V3;
 
     static {
         final List<RecordField> flowFileFields = new ArrayList<>();
@@ -84,4 +87,23 @@ public class FlowFileSchema {
 
         FLOWFILE_SCHEMA_V2 = new RecordSchema(flowFileFields);
     }
+
+    static {
+        // Version 3 writes attributes as references into the AttributeDictionary that is written in the header,
+        // along with any attribute names or values that are not in the dictionary.
+        final List<RecordField> flowFileFields = new ArrayList<>();
+
+        flowFileFields.add(new SimpleRecordField(RECORD_ID, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(ENTRY_DATE, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(LINEAGE_START_DATE, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(LINEAGE_START_INDEX, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(QUEUE_DATE, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(QUEUE_DATE_INDEX, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new SimpleRecordField(FLOWFILE_SIZE, FieldType.LONG, Repetition.EXACTLY_ONE));
+        flowFileFields.add(new ComplexRecordField(CONTENT_CLAIM, Repetition.ZERO_OR_ONE, ContentClaimSchema.CONTENT_CLAIM_SCHEMA_V1.getFields()));
+        flowFileFields.add(new SimpleRecordField(ATTRIBUTE_REFERENCES, FieldType.INT, Repetition.ZERO_OR_MORE));
+        flowFileFields.add(new SimpleRecordField(ATTRIBUTE_LITERALS, FieldType.LONG_STRING, Repetition.ZERO_OR_MORE));
+
+        FLOWFILE_SCHEMA_V3 = new RecordSchema(flowFileFields);
+    }
 }
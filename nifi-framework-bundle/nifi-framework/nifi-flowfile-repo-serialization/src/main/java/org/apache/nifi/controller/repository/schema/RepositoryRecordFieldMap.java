@@ -22,17 +22,38 @@ import org.apache.nifi.controller.repository.SerializedRepositoryRecord;
 import org.apache.nifi.repository.schema.Record;
 import org.apache.nifi.repository.schema.RecordSchema;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class RepositoryRecordFieldMap implements Record {
     private final SerializedRepositoryRecord record;
     private final FlowFileRecord flowFile;
     private final RecordSchema schema;
     private final RecordSchema contentClaimSchema;
+    private final AttributeDictionary attributeDictionary;
+    private List<Integer> attributeReferences;
+    private List<String> attributeLiterals;
 
     public RepositoryRecordFieldMap(final SerializedRepositoryRecord record, final RecordSchema repoRecordSchema, final RecordSchema contentClaimSchema) {
+        this(record, repoRecordSchema, contentClaimSchema, AttributeDictionary.EMPTY);
+    }
+
+    public RepositoryRecordFieldMap(final SerializedRepositoryRecord record, final RecordSchema repoRecordSchema, final RecordSchema contentClaimSchema,
+                                    final AttributeDictionary attributeDictionary) {
         this.schema = repoRecordSchema;
         this.contentClaimSchema = contentClaimSchema;
         this.record = record;
         this.flowFile = record.getFlowFileRecord();
+        this.attributeDictionary = attributeDictionary;
+    }
+
+    private void encodeAttributes() {
+        if (attributeReferences != null) {
+            return;
+        }
+
+        attributeLiterals = new ArrayList<>();
+        attributeReferences = attributeDictionary.encode(flowFile.getAttributes(), attributeLiterals);
     }
 
     @Override
@@ -46,6 +67,12 @@ public class RepositoryRecordFieldMap implements Record {
                 return record.getSwapLocation();
             case FlowFileSchema.ATTRIBUTES:
                 return flowFile.getAttributes();
+            case FlowFileSchema.ATTRIBUTE_REFERENCES:
+                encodeAttributes();
+                return attributeReferences;
+            case FlowFileSchema.ATTRIBUTE_LITERALS:
+                encodeAttributes();
+                return attributeLiterals;
             case FlowFileSchema.ENTRY_DATE:
                 return flowFile.getEntryDate();
             case FlowFileSchema.FLOWFILE_SIZE:
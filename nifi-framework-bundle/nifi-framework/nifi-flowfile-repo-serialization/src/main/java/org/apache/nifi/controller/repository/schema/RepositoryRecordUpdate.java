@@ -39,7 +39,7 @@ public class RepositoryRecordUpdate implements Record {
 
     @Override
     public Object getFieldValue(final String fieldName) {
-        if (RepositoryRecordSchema.REPOSITORY_RECORD_UPDATE_V2.equals(fieldName)) {
+        if (RepositoryRecordSchema.REPOSITORY_RECORD_UPDATE_V3.equals(fieldName)) {
             String actionType = (String) fieldMap.getFieldValue(RepositoryRecordSchema.ACTION_TYPE);
             if (RepositoryRecordType.CONTENTMISSING.name().equals(actionType)) {
                 actionType = RepositoryRecordType.DELETE.name();
@@ -52,6 +52,7 @@ import org.apache.nifi.processor.exception.FlowFileHandlingException;
 import org.apache.nifi.processor.exception.MissingFlowFileException;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.exception.TerminatedTaskException;
+import org.apache.nifi.processor.io.ByteBufferCallback;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.io.StreamCallback;
@@ -78,6 +79,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -2704,6 +2706,48 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         }
     }
 
+    @Override
+    public void readAsByteBuffer(FlowFile source, final ByteBufferCallback reader) {
+        verifyTaskActive();
+
+        source = validateRecordState(source, true);
+        final StandardRepositoryRecord record = getRecord(source);
+
+        if (source.getSize() > Integer.MAX_VALUE) {
+            throw new FlowFileAccessException("Cannot read content of " + source + " as a ByteBuffer because its size of " + source.getSize()
+                + " bytes exceeds the maximum size of a ByteBuffer");
+        }
+
+        final ByteBuffer content;
+        try {
+            final ContentClaim currentClaim = record.getCurrentClaim();
+            ensureNotAppending(currentClaim);
+            claimCache.flush(currentClaim);
+
+            performanceTracker.beginContentRead();
+            try {
+                content = context.getContentRepository().readAsByteBuffer(currentClaim, record.getCurrentClaimOffset(), source.getSize());
+            } finally {
+                performanceTracker.endContentRead();
+            }
+        } catch (final ContentNotFoundException nfe) {
+            handleContentNotFound(nfe, record);
+            return;
+        } catch (final IOException e) {
+            throw new FlowFileAccessException("Failed to read content of " + source, e);
+        }
+
+        try {
+            incrementReadCount(source);
+            reader.process(content);
+        } catch (final IOException ex) {
+            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ex.toString(), ex);
+        } finally {
+            decrementReadCount(source);
+            bytesRead += source.getSize();
+        }
+    }
+
     @Override
     public InputStream read(FlowFile source) {
         verifyTaskActive();
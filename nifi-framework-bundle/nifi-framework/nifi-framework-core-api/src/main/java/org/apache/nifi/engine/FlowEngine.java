@@ -52,8 +52,25 @@ public final class FlowEngine extends ScheduledThreadPoolExecutor {
      * @param daemon if true, the thread pool will be populated with daemon threads, otherwise the threads will not be marked as daemon.
      */
     public FlowEngine(int corePoolSize, final String threadNamePrefix, final boolean daemon) {
+        this(corePoolSize, threadNamePrefix, daemon, false);
+    }
+
+    /**
+     * Creates a new instance of FlowEngine
+     *
+     * @param corePoolSize the maximum number of threads available to tasks running in the engine.
+     * @param threadNamePrefix for thread naming
+     * @param daemon if true, the thread pool will be populated with daemon threads, otherwise the threads will not be marked as daemon.
+     * @param virtualThreads if true, the thread pool will be populated with virtual threads, which are always daemon threads.
+     */
+    public FlowEngine(int corePoolSize, final String threadNamePrefix, final boolean daemon, final boolean virtualThreads) {
         super(corePoolSize);
 
+        if (virtualThreads) {
+            setThreadFactory(Thread.ofVirtual().name(threadNamePrefix + " Thread-", 1L).factory());
+            return;
+        }
+
         final AtomicInteger threadIndex = new AtomicInteger(0);
         final ThreadFactory defaultThreadFactory = getThreadFactory();
         setThreadFactory(new ThreadFactory() {
@@ -27,6 +27,8 @@ import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.swap.ColumnarSwapDeserializer;
+import org.apache.nifi.controller.swap.ColumnarSwapSerializer;
 import org.apache.nifi.controller.swap.SchemaSwapDeserializer;
 import org.apache.nifi.controller.swap.SchemaSwapSerializer;
 import org.apache.nifi.controller.swap.SimpleSwapDeserializer;
@@ -75,6 +77,11 @@ import java.util.stream.Stream;
  * An implementation of the {@link FlowFileSwapManager} that swaps FlowFiles
  * to/from local disk
  * </p>
+ *
+ * <p>
+ * Swap files are written using the Schema encoding unless the columnar swap format is enabled in nifi.properties.
+ * Swap files written with either encoding can be read regardless of this setting.
+ * </p>
  */
 public class FileSystemSwapManager implements FlowFileSwapManager {
 
@@ -83,9 +90,11 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
     private static final Pattern UUID_PATTERN = Pattern.compile("([a-f0-9]{8}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{12})");
 
     public static final String EVENT_CATEGORY = "Swap FlowFiles";
+    static final String COLUMNAR_FORMAT_ENABLED = "nifi.swap.columnar.format.enabled";
     private static final Logger logger = LoggerFactory.getLogger(FileSystemSwapManager.class);
 
     private final File storageDirectory;
+    private final boolean columnarFormatEnabled;
     private final FieldCache fieldCache = new CaffeineFieldCache(10_000_000);
 
     // effectively final
@@ -100,13 +109,23 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
      */
     public FileSystemSwapManager() {
         storageDirectory = null;
+        columnarFormatEnabled = false;
     }
 
     public FileSystemSwapManager(final NiFiProperties nifiProperties) {
-        this(nifiProperties.getFlowFileRepositoryPath());
+        this(nifiProperties.getFlowFileRepositoryPath(), Boolean.parseBoolean(nifiProperties.getProperty(COLUMNAR_FORMAT_ENABLED, "false")));
     }
 
     public FileSystemSwapManager(final Path flowFileRepoPath) {
+        this(flowFileRepoPath, false);
+    }
+
+    /**
+     * @param flowFileRepoPath the path of the FlowFile Repository, within which swap files are stored
+     * @param columnarFormatEnabled whether swap files are written using the columnar, compressed encoding rather than the Schema encoding
+     */
+    public FileSystemSwapManager(final Path flowFileRepoPath, final boolean columnarFormatEnabled) {
+        this.columnarFormatEnabled = columnarFormatEnabled;
         this.storageDirectory = flowFileRepoPath.resolve("swap").toFile();
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new RuntimeException("Cannot create Swap Storage directory " + storageDirectory.getAbsolutePath());
@@ -143,7 +162,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         final File swapTempFile = new File(swapFile.getParentFile(), swapFile.getName() + ".part");
         final String swapLocation = swapFile.getAbsolutePath();
 
-        final SwapSerializer serializer = new SchemaSwapSerializer();
+        final SwapSerializer serializer = columnarFormatEnabled ? new ColumnarSwapSerializer() : new SchemaSwapSerializer();
         try (final OutputStream os = getOutputStream(swapTempFile);
             final OutputStream out = new BufferedOutputStream(os)) {
             out.write(MAGIC_HEADER);
@@ -382,6 +401,9 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
         if (Arrays.equals(magicHeader, MAGIC_HEADER)) {
             final String serializationName = dis.readUTF();
+            if (serializationName.equals(ColumnarSwapDeserializer.getSerializationName())) {
+                return new ColumnarSwapDeserializer();
+            }
             if (serializationName.equals(SchemaSwapDeserializer.getSerializationName())) {
                 return new SchemaSwapDeserializer(fieldCache);
             }
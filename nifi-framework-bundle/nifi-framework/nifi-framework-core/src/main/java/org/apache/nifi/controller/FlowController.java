@@ -75,6 +75,7 @@ import org.apache.nifi.controller.queue.clustered.client.StandardLoadBalanceFlow
 import org.apache.nifi.controller.queue.clustered.client.async.nio.NioAsyncLoadBalanceClientFactory;
 import org.apache.nifi.controller.queue.clustered.client.async.nio.NioAsyncLoadBalanceClientRegistry;
 import org.apache.nifi.controller.queue.clustered.client.async.nio.NioAsyncLoadBalanceClientTask;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.queue.clustered.server.ClusterLoadBalanceAuthorizer;
 import org.apache.nifi.controller.queue.clustered.server.ConnectionLoadBalanceServer;
 import org.apache.nifi.controller.queue.clustered.server.LoadBalanceAuthorizer;
@@ -220,6 +221,7 @@ import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -259,6 +261,10 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
     public static final String GRACEFUL_SHUTDOWN_PERIOD = "nifi.flowcontroller.graceful.shutdown.seconds";
     public static final long DEFAULT_GRACEFUL_SHUTDOWN_SECONDS = 10;
 
+    public static final String VIRTUAL_THREAD_EXECUTION_ENABLED = "nifi.processor.virtual.threads.enabled";
+    public static final String VIRTUAL_THREAD_MAX_CONCURRENT_TASKS = "nifi.processor.virtual.threads.max.concurrent.tasks";
+    public static final int DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENT_TASKS = 1000;
+
 
     private final AtomicInteger maxTimerDrivenThreads;
     private final AtomicReference<FlowEngine> timerDrivenEngineRef;
@@ -587,6 +593,14 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
         processScheduler.setSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN, timerDrivenAgent);
         processScheduler.setSchedulingAgent(SchedulingStrategy.CRON_DRIVEN, cronSchedulingAgent);
 
+        if (Boolean.parseBoolean(nifiProperties.getProperty(VIRTUAL_THREAD_EXECUTION_ENABLED, "false"))) {
+            final int maxVirtualThreadTasks = Integer.parseInt(nifiProperties.getProperty(VIRTUAL_THREAD_MAX_CONCURRENT_TASKS,
+                String.valueOf(DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENT_TASKS)).trim());
+            final FlowEngine virtualThreadEngine = new FlowEngine(maxVirtualThreadTasks, "Virtual Timer-Driven Process", true, true);
+            processScheduler.setVirtualThreadSchedulingAgent(new TimerDrivenSchedulingAgent(this, virtualThreadEngine, repositoryContextFactory, this.nifiProperties));
+            LOG.info("Processors that support virtual threads will be run on up to {} concurrent virtual threads", maxVirtualThreadTasks);
+        }
+
         startConnectablesAfterInitialization = new HashSet<>();
         startRemoteGroupPortsAfterInitialization = new HashSet<>();
         startGroupsAfterInitialization = new HashSet<>();
@@ -794,8 +808,9 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
 
 
             final int connectionsPerNode = nifiProperties.getIntegerProperty(NiFiProperties.LOAD_BALANCE_CONNECTIONS_PER_NODE, NiFiProperties.DEFAULT_LOAD_BALANCE_CONNECTIONS_PER_NODE);
+            final LoadBalanceCompressionCodec compressionCodec = getLoadBalanceCompressionCodec(nifiProperties);
             final NioAsyncLoadBalanceClientFactory asyncClientFactory = new NioAsyncLoadBalanceClientFactory(sslContext, timeoutMillis, new ContentRepositoryFlowFileAccess(contentRepository),
-                    eventReporter, new StandardLoadBalanceFlowFileCodec(), clusterCoordinator);
+                    eventReporter, new StandardLoadBalanceFlowFileCodec(), compressionCodec, clusterCoordinator);
             loadBalanceClientRegistry = new NioAsyncLoadBalanceClientRegistry(asyncClientFactory, connectionsPerNode);
 
             final int loadBalanceClientThreadCount = nifiProperties.getIntegerProperty(NiFiProperties.LOAD_BALANCE_MAX_THREAD_COUNT, NiFiProperties.DEFAULT_LOAD_BALANCE_MAX_THREAD_COUNT);
@@ -828,6 +843,16 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
         return ResourceFactory.getControllerResource();
     }
 
+    private static LoadBalanceCompressionCodec getLoadBalanceCompressionCodec(final NiFiProperties properties) {
+        final String codecName = properties.getProperty(NiFiProperties.LOAD_BALANCE_COMPRESSION_CODEC, NiFiProperties.DEFAULT_LOAD_BALANCE_COMPRESSION_CODEC);
+        try {
+            return LoadBalanceCompressionCodec.valueOf(codecName.trim().toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for property " + NiFiProperties.LOAD_BALANCE_COMPRESSION_CODEC + ": '" + codecName + "'. Valid values are "
+                + Arrays.toString(LoadBalanceCompressionCodec.values()));
+        }
+    }
+
     private static FlowFileRepository createFlowFileRepository(final NiFiProperties properties, final ExtensionManager extensionManager, final ResourceClaimManager contentClaimManager) {
         final String implementationClassName = properties.getProperty(NiFiProperties.FLOWFILE_REPOSITORY_IMPLEMENTATION, DEFAULT_FLOWFILE_REPO_IMPLEMENTATION);
         if (implementationClassName == null) {
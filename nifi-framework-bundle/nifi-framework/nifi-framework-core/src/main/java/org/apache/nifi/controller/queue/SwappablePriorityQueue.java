@@ -49,7 +49,9 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -58,6 +60,7 @@ public class SwappablePriorityQueue {
     private static final Logger logger = LoggerFactory.getLogger(SwappablePriorityQueue.class);
     private static final int SWAP_RECORD_POLL_SIZE = 10_000;
     private static final int MAX_EXPIRED_RECORDS_PER_ITERATION = 10_000;
+    private static final int MAX_INCOMING_BATCH_SIZE = 1_000;
 
     private final int swapThreshold;
     private final FlowFileSwapManager swapManager;
@@ -87,6 +90,15 @@ public class SwappablePriorityQueue {
     private boolean swapMode = false;
     private volatile long topPenaltyExpiration = -1L;
 
+    // When no prioritizers are configured, the queue is FIFO (aside from penalization), so there is no need to determine the position of
+    // a FlowFile at the time that it is enqueued. In that case, FlowFiles that are added while the active queue is below the swap threshold
+    // are placed onto this lock-free 'incoming queue' instead of obtaining the write lock. They are accounted for in the active queue size as
+    // soon as they are added, and they are moved into the active queue (or the swap queue) in a single batch the next time that the write lock
+    // is obtained, or whenever MAX_INCOMING_BATCH_SIZE FlowFiles have accumulated. This prevents many concurrent producers from contending
+    // with one another, and with consumers, for the write lock.
+    private final Queue<FlowFileRecord> incomingQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger incomingCount = new AtomicInteger(0);
+
     // The following members are used to keep metrics in memory for reporting purposes so that we don't have to constantly
     // read these values from swap files on disk.
     private final Map<String, Long> minQueueDateInSwapLocation = new HashMap<>();
@@ -120,6 +132,7 @@ public class SwappablePriorityQueue {
     public void setPriorities(final List<FlowFilePrioritizer> newPriorities) {
         writeLock.lock();
         try {
+            drainIncomingQueue();
             this.priorities = new ArrayList<>(newPriorities);
 
             final PriorityQueue<FlowFileRecord> newQueue = new PriorityQueue<>(Math.max(20, activeQueue.size()), new QueuePrioritizer(newPriorities));
@@ -146,7 +159,9 @@ public class SwappablePriorityQueue {
     public List<FlowFileRecord> getActiveFlowFiles() {
         readLock.lock();
         try {
-            return new ArrayList<>(activeQueue);
+            final List<FlowFileRecord> activeFlowFiles = new ArrayList<>(activeQueue);
+            activeFlowFiles.addAll(incomingQueue);
+            return activeFlowFiles;
         } finally {
             readLock.unlock("getActiveFlowFiles");
         }
@@ -469,8 +484,15 @@ public class SwappablePriorityQueue {
 
 
     public void put(final FlowFileRecord flowFile) {
+        if (offerIncoming(Collections.singletonList(flowFile), flowFile.getSize())) {
+            logger.trace("{} put to incoming queue of {}", flowFile, this);
+            return;
+        }
+
         writeLock.lock();
         try {
+            drainIncomingQueue();
+
             if (swapMode || activeQueue.size() >= swapThreshold) {
                 swapQueue.add(flowFile);
                 incrementSwapQueueSize(1, flowFile.getSize(), 0);
@@ -495,8 +517,15 @@ public class SwappablePriorityQueue {
             bytes += flowFile.getSize();
         }
 
+        if (offerIncoming(flowFiles, bytes)) {
+            logger.trace("{} put to incoming queue of {}", flowFiles, this);
+            return;
+        }
+
         writeLock.lock();
         try {
+            drainIncomingQueue();
+
             if (swapMode || activeQueue.size() >= swapThreshold - numFiles) {
                 swapQueue.addAll(flowFiles);
                 incrementSwapQueueSize(numFiles, bytes, 0);
@@ -514,6 +543,87 @@ public class SwappablePriorityQueue {
         }
     }
 
+    /**
+     * Adds the given FlowFiles to the incoming queue without obtaining the write lock, if doing so cannot change the order in which
+     * FlowFiles are processed. This is the case only if there are no prioritizers and the FlowFiles would otherwise be added directly
+     * to the active queue rather than the swap queue. Penalized FlowFiles are always added while holding the write lock so that the penalty
+     * expiration of the FlowFile at the head of the queue is accurately reflected.
+     *
+     * @param flowFiles the FlowFiles to add
+     * @param bytes the total size of the FlowFiles
+     * @return <code>true</code> if the FlowFiles were added to the incoming queue, <code>false</code> if they must instead be added while holding the write lock
+     */
+    private boolean offerIncoming(final Collection<FlowFileRecord> flowFiles, final long bytes) {
+        if (!priorities.isEmpty()) {
+            return false;
+        }
+
+        final FlowFileQueueSize queueSize = getFlowFileQueueSize();
+        if (queueSize.getSwappedCount() > 0 || queueSize.getActiveCount() > swapThreshold - flowFiles.size()) {
+            return false;
+        }
+
+        for (final FlowFileRecord flowFile : flowFiles) {
+            if (flowFile.isPenalized()) {
+                return false;
+            }
+        }
+
+        // Increment the active queue size before making the FlowFiles available so that a consumer never polls a FlowFile that is not
+        // yet accounted for, which would cause the active queue size to temporarily become negative.
+        incrementActiveQueueSize(flowFiles.size(), bytes);
+
+        incomingQueue.addAll(flowFiles);
+
+        // Must be done after adding to the incoming queue; see updateTopPenaltyExpiration()
+        topPenaltyExpiration = -1L;
+
+        if (incomingCount.addAndGet(flowFiles.size()) >= MAX_INCOMING_BATCH_SIZE && writeLock.tryLock()) {
+            try {
+                drainIncomingQueue();
+                updateTopPenaltyExpiration();
+            } finally {
+                writeLock.unlock("drainIncomingQueue");
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves all FlowFiles from the incoming queue into the active queue, or into the swap queue if the active queue has reached the swap threshold.
+     * The FlowFiles on the incoming queue are already accounted for in the active queue size.
+     *
+     * This method MUST be called with the write lock held.
+     */
+    private void drainIncomingQueue() {
+        int flowFilesToSwapQueue = 0;
+        long bytesToSwapQueue = 0L;
+
+        // Only drain the FlowFiles that are already queued so that producers cannot keep this thread here indefinitely.
+        int remaining = incomingCount.get();
+        FlowFileRecord flowFile;
+        while (remaining-- > 0 && (flowFile = incomingQueue.poll()) != null) {
+            incomingCount.decrementAndGet();
+
+            if (swapMode || activeQueue.size() >= swapThreshold) {
+                swapQueue.add(flowFile);
+                flowFilesToSwapQueue++;
+                bytesToSwapQueue += flowFile.getSize();
+                swapMode = true;
+            } else {
+                activeQueue.add(flowFile);
+            }
+        }
+
+        if (flowFilesToSwapQueue > 0) {
+            // Increment the swap queue size before decrementing the active queue size so that the queue never appears to be empty.
+            incrementSwapQueueSize(flowFilesToSwapQueue, bytesToSwapQueue, 0);
+            incrementActiveQueueSize(-flowFilesToSwapQueue, -bytesToSwapQueue);
+            writeSwapFilesIfNecessary();
+        }
+    }
+
     public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         return poll(expiredRecords, expirationMillis, PollStrategy.UNPENALIZED_FLOWFILES);
     }
@@ -544,6 +654,7 @@ public class SwappablePriorityQueue {
         FlowFileRecord flowFile;
         boolean isExpired;
 
+        drainIncomingQueue();
         migrateSwapToActive();
 
         long expiredBytes = 0L;
@@ -610,6 +721,7 @@ public class SwappablePriorityQueue {
 
         writeLock.lock();
         try {
+            drainIncomingQueue();
             migrateSwapToActive();
 
             final List<FlowFileRecord> selectedFlowFiles = new ArrayList<>();
@@ -682,9 +794,16 @@ public class SwappablePriorityQueue {
         }
 
         topPenaltyExpiration = top.getPenaltyExpirationMillis();
+
+        // A FlowFile may have been added to the incoming queue concurrently, without the lock. If so, we cannot report that the head of the
+        // queue is penalized, or the FlowFile would not be polled until the penalty of the FlowFile at the head of the active queue expires.
+        if (!incomingQueue.isEmpty()) {
+            topPenaltyExpiration = -1L;
+        }
     }
 
     private void doPoll(final List<FlowFileRecord> records, int maxResults, final Set<FlowFileRecord> expiredRecords, final long expirationMillis, final PollStrategy pollStrategy) {
+        drainIncomingQueue();
         migrateSwapToActive();
 
         final long bytesDrained = drainQueue(activeQueue, records, maxResults, expiredRecords, expirationMillis, pollStrategy);
@@ -765,6 +884,12 @@ public class SwappablePriorityQueue {
                     return flowFile;
                 }
             }
+
+            for (final FlowFileRecord flowFile : incomingQueue) {
+                if (flowFileUuid.equals(flowFile.getAttribute(CoreAttributes.UUID.key()))) {
+                    return flowFile;
+                }
+            }
         } finally {
             readLock.unlock("getFlowFile");
         }
@@ -782,6 +907,7 @@ public class SwappablePriorityQueue {
             logger.debug("For DropFlowFileRequest {}, original size is {}", requestIdentifier, size());
 
             try {
+                drainIncomingQueue();
                 final List<FlowFileRecord> activeQueueRecords = new ArrayList<>(activeQueue);
 
                 QueueSize droppedSize;
@@ -990,6 +1116,7 @@ public class SwappablePriorityQueue {
         try {
             // We want the oldest timestamp, which will be the min
             long min = getMinLastQueueDate(activeQueue, 0L);
+            min = Long.min(min, getMinLastQueueDate(incomingQueue, min));
             min = Long.min(min, getMinLastQueueDate(swapQueue, min));
 
             for (Long minSwapQueueDate: minQueueDateInSwapLocation.values()) {
@@ -1020,6 +1147,10 @@ public class SwappablePriorityQueue {
                 sum += (fromTimestamp - flowFileRecord.getLastQueueDate());
             }
 
+            for (FlowFileRecord flowFileRecord : incomingQueue) {
+                sum += (fromTimestamp - flowFileRecord.getLastQueueDate());
+            }
+
             for (FlowFileRecord flowFileRecord : swapQueue) {
                 sum += (fromTimestamp - flowFileRecord.getLastQueueDate());
             }
@@ -1132,6 +1263,7 @@ public class SwappablePriorityQueue {
     public void inheritQueueContents(final FlowFileQueueContents queueContents) {
         writeLock.lock();
         try {
+            drainIncomingQueue();
             putAll(queueContents.getActiveFlowFiles());
 
             final List<String> inheritedSwapLocations = queueContents.getSwapLocations();
@@ -1149,7 +1281,11 @@ public class SwappablePriorityQueue {
     public FlowFileQueueContents packageForRebalance(final String newPartitionName) {
         writeLock.lock();
         try {
+            drainIncomingQueue();
+
             final List<FlowFileRecord> activeRecords = new ArrayList<>(this.activeQueue);
+            final int activeQueueCount = activeRecords.size();
+            final long activeQueueBytes = activeRecords.stream().mapToLong(FlowFileRecord::getSize).sum();
 
             final List<String> updatedSwapLocations = new ArrayList<>(swapLocations.size());
             for (final String swapLocation : swapLocations) {
@@ -1177,7 +1313,9 @@ public class SwappablePriorityQueue {
                 final FlowFileQueueSize currentSize = getFlowFileQueueSize();
                 swapSize = new QueueSize(currentSize.getSwappedCount() - swapQueueCount, currentSize.getSwappedBytes() - swapQueueBytes);
 
-                final FlowFileQueueSize updatedSize = new FlowFileQueueSize(0, 0, 0, 0, 0, currentSize.getUnacknowledgedCount(), currentSize.getUnacknowledgedBytes());
+                // FlowFiles may have been added to the incoming queue since it was drained, so only remove what was taken from the active queue.
+                final FlowFileQueueSize updatedSize = new FlowFileQueueSize(currentSize.getActiveCount() - activeQueueCount, currentSize.getActiveBytes() - activeQueueBytes,
+                    0, 0, 0, currentSize.getUnacknowledgedCount(), currentSize.getUnacknowledgedBytes());
                 updated = updateSize(currentSize, updatedSize);
             } while (!updated);
 
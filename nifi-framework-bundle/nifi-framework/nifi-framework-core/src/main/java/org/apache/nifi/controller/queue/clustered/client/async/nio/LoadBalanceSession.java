@@ -21,6 +21,7 @@ import org.apache.nifi.controller.queue.LoadBalanceCompression;
 import org.apache.nifi.controller.queue.clustered.FlowFileContentAccess;
 import org.apache.nifi.controller.queue.clustered.TransactionThreshold;
 import org.apache.nifi.controller.queue.clustered.client.LoadBalanceFlowFileCodec;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants;
 import org.apache.nifi.controller.queue.clustered.server.TransactionAbortedException;
 import org.apache.nifi.controller.repository.ContentNotFoundException;
@@ -28,12 +29,12 @@ import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.remote.StandardVersionNegotiator;
 import org.apache.nifi.remote.VersionNegotiator;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
-import org.apache.nifi.stream.io.GZIPOutputStream;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -63,6 +64,8 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 public class LoadBalanceSession {
     private static final Logger logger = LoggerFactory.getLogger(LoadBalanceSession.class);
     static final int MAX_DATA_FRAME_SIZE = 65535;
+    // FlowFiles whose content fits in a single Data Frame are coalesced into batches of up to this many bytes of content
+    static final int MAX_BATCH_CONTENT_SIZE = 1024 * 1024;
 
     private final RegisteredPartition partition;
     private final Supplier<FlowFileRecord> flowFileSupplier;
@@ -73,15 +76,17 @@ public class LoadBalanceSession {
     private final String peerDescription;
     private final String connectionId;
     private final TransactionThreshold transactionThreshold;
+    private final LoadBalanceCompressionCodec compressionCodec;
 
-    final VersionNegotiator negotiator = new StandardVersionNegotiator(1);
-    private int protocolVersion = 1;
+    final VersionNegotiator negotiator = new StandardVersionNegotiator(2, 1);
+    private int protocolVersion = 2;
 
     private final Checksum checksum = new CRC32();
 
     // guarded by synchronizing on 'this'
     private ByteBuffer preparedFrame;
     private FlowFileRecord currentFlowFile;
+    private FlowFileRecord pendingFlowFile;
     private final List<FlowFileRecord> flowFilesSent = new ArrayList<>();
     private TransactionPhase phase = TransactionPhase.RECOMMEND_PROTOCOL_VERSION;
     private InputStream flowFileInputStream;
@@ -91,6 +96,11 @@ public class LoadBalanceSession {
 
     public LoadBalanceSession(final RegisteredPartition partition, final FlowFileContentAccess contentAccess, final LoadBalanceFlowFileCodec flowFileCodec, final PeerChannel peerChannel,
                               final int timeoutMillis, final TransactionThreshold transactionThreshold) {
+        this(partition, contentAccess, flowFileCodec, peerChannel, timeoutMillis, transactionThreshold, LoadBalanceCompressionCodec.GZIP);
+    }
+
+    public LoadBalanceSession(final RegisteredPartition partition, final FlowFileContentAccess contentAccess, final LoadBalanceFlowFileCodec flowFileCodec, final PeerChannel peerChannel,
+                              final int timeoutMillis, final TransactionThreshold transactionThreshold, final LoadBalanceCompressionCodec compressionCodec) {
         this.partition = partition;
         this.flowFileSupplier = partition.getFlowFileRecordSupplier();
         this.connectionId = partition.getConnectionId();
@@ -104,6 +114,7 @@ public class LoadBalanceSession {
         }
         this.timeoutMillis = timeoutMillis;
         this.transactionThreshold = transactionThreshold;
+        this.compressionCodec = compressionCodec;
     }
 
     public RegisteredPartition getPartition() {
@@ -345,36 +356,63 @@ public class LoadBalanceSession {
     }
 
     private byte[] compressDataFrame(final byte[] uncompressed, final int byteCount) throws IOException {
-        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             final OutputStream gzipOut = new GZIPOutputStream(baos, 1)) {
-
-            gzipOut.write(uncompressed, 0, byteCount);
-            gzipOut.close();
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            try (final OutputStream compressedOut = getCompressionCodec().compress(baos)) {
+                compressedOut.write(uncompressed, 0, byteCount);
+            }
 
             return baos.toByteArray();
         }
     }
 
-    private ByteBuffer getNextFlowFile() throws IOException {
+    private LoadBalanceCompressionCodec getCompressionCodec() {
+        // Version 1 of the protocol has no means of indicating the codec, so GZIP is always used.
+        return protocolVersion < 2 ? LoadBalanceCompressionCodec.GZIP : compressionCodec;
+    }
+
+    private FlowFileRecord nextFlowFile() {
+        // A FlowFile that could not be added to the previous batch has already been pulled from the partition and must be sent before any other.
+        if (pendingFlowFile != null) {
+            final FlowFileRecord flowFile = pendingFlowFile;
+            pendingFlowFile = null;
+            return flowFile;
+        }
+
         if (transactionThreshold.isThresholdMet()) {
-            currentFlowFile = null;
-            logger.debug("Transaction Threshold reached sending to Peer {}; Transitioning phase to SEND_CHECKSUM", peerDescription);
-        } else {
-            currentFlowFile = flowFileSupplier.get();
+            logger.debug("Transaction Threshold reached sending to Peer {}", peerDescription);
+            return null;
+        }
 
-            if (currentFlowFile == null) {
-                logger.debug("No more FlowFiles to send to Peer {}; Transitioning phase to SEND_CHECKSUM", peerDescription);
-            }
+        final FlowFileRecord flowFile = flowFileSupplier.get();
+        if (flowFile == null) {
+            logger.debug("No more FlowFiles to send to Peer {}", peerDescription);
+            return null;
         }
 
+        transactionThreshold.adjust(1, flowFile.getSize());
+        logger.debug("Next FlowFile to send to Peer {} is {}", peerDescription, flowFile);
+        flowFilesSent.add(flowFile);
+        return flowFile;
+    }
+
+    private boolean isBatchable(final FlowFileRecord flowFile) {
+        return protocolVersion >= 2
+            && partition.getCompression() == LoadBalanceCompression.COMPRESS_ATTRIBUTES_AND_CONTENT
+            && flowFile.getSize() <= MAX_DATA_FRAME_SIZE;
+    }
+
+    private ByteBuffer getNextFlowFile() throws IOException {
+        currentFlowFile = nextFlowFile();
+
         if (currentFlowFile == null) {
+            logger.debug("Transitioning phase to SEND_CHECKSUM for Peer {}", peerDescription);
             phase = TransactionPhase.SEND_CHECKSUM;
             return noMoreFlowFiles();
         }
 
-        transactionThreshold.adjust(1, currentFlowFile.getSize());
-        logger.debug("Next FlowFile to send to Peer {} is {}", peerDescription, currentFlowFile);
-        flowFilesSent.add(currentFlowFile);
+        if (isBatchable(currentFlowFile)) {
+            return getFlowFileBatch();
+        }
 
         final LoadBalanceCompression compression = partition.getCompression();
         final boolean compressAttributes = compression != LoadBalanceCompression.DO_NOT_COMPRESS;
@@ -383,8 +421,8 @@ public class LoadBalanceSession {
         final byte[] flowFileEncoded;
         try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             if (compressAttributes) {
-                try (final OutputStream gzipOut = new GZIPOutputStream(baos, 1);
-                     final ByteCountingOutputStream out = new ByteCountingOutputStream(gzipOut)) {
+                try (final OutputStream compressedOut = getCompressionCodec().compress(baos);
+                     final ByteCountingOutputStream out = new ByteCountingOutputStream(compressedOut)) {
 
                     flowFileCodec.encode(currentFlowFile, out);
                 }
@@ -414,6 +452,70 @@ public class LoadBalanceSession {
         return buffer;
     }
 
+    /**
+     * Coalesces the current FlowFile and as many of the following small FlowFiles as will fit into a single compressed frame, so that
+     * small FlowFiles do not each pay for their own compression stream and data frames. Each FlowFile in the frame is encoded as its
+     * attributes, followed by the length of its content, followed by the content itself.
+     */
+    private ByteBuffer getFlowFileBatch() throws IOException {
+        int flowFileCount = 0;
+        long contentSize = 0L;
+
+        final byte[] batchEncoded;
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            try (final OutputStream compressedOut = getCompressionCodec().compress(baos);
+                 final DataOutputStream out = new DataOutputStream(compressedOut)) {
+
+                FlowFileRecord flowFile = currentFlowFile;
+                while (true) {
+                    flowFileCodec.encode(flowFile, out);
+                    out.writeLong(flowFile.getSize());
+
+                    if (flowFile.getSize() > 0) {
+                        try (final InputStream contentIn = flowFileContentAccess.read(flowFile)) {
+                            StreamUtils.copy(contentIn, out, flowFile.getSize());
+                        } catch (final ContentNotFoundException cnfe) {
+                            throw new ContentNotFoundException(flowFile, cnfe.getMissingClaim(), cnfe.getMessage());
+                        }
+                    }
+
+                    flowFileCount++;
+                    contentSize += flowFile.getSize();
+                    if (contentSize >= MAX_BATCH_CONTENT_SIZE) {
+                        break;
+                    }
+
+                    flowFile = nextFlowFile();
+                    if (flowFile == null) {
+                        break;
+                    }
+
+                    if (!isBatchable(flowFile)) {
+                        pendingFlowFile = flowFile;
+                        break;
+                    }
+                }
+            }
+
+            batchEncoded = baos.toByteArray();
+        }
+
+        logger.debug("Sending batch of {} FlowFiles with {} bytes of content, compressed to {} bytes, to Peer {}", flowFileCount, contentSize, batchEncoded.length, peerDescription);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(batchEncoded.length + 9);
+        buffer.put((byte) LoadBalanceProtocolConstants.FLOWFILE_BATCH_FOLLOWS);
+        buffer.putInt(flowFileCount);
+        buffer.putInt(batchEncoded.length);
+        buffer.put(batchEncoded);
+
+        final byte[] frameArray = buffer.array();
+        checksum.update(frameArray, 0, frameArray.length);
+
+        phase = TransactionPhase.GET_NEXT_FLOWFILE;
+        buffer.rewind();
+        return buffer;
+    }
+
 
     private ByteBuffer recommendProtocolVersion() {
         logger.debug("Recommending to Peer {} that Protocol Version {} be used", peerDescription, protocolVersion);
@@ -517,9 +619,14 @@ public class LoadBalanceSession {
     private ByteBuffer getConnectionId() {
         logger.debug("Sending Connection ID {} to Peer {}", connectionId, peerDescription);
 
-        final ByteBuffer buffer = ByteBuffer.allocate(connectionId.length() + 2);
+        // Beginning with version 2 of the protocol, the Connection ID is followed by the identifier of the Compression Codec
+        final boolean sendCodec = protocolVersion >= 2;
+        final ByteBuffer buffer = ByteBuffer.allocate(connectionId.length() + (sendCodec ? 3 : 2));
         buffer.putShort((short) connectionId.length());
         buffer.put(connectionId.getBytes(StandardCharsets.UTF_8));
+        if (sendCodec) {
+            buffer.put((byte) compressionCodec.getId());
+        }
         buffer.rewind();
 
         final byte[] frameBytes = buffer.array();
@@ -29,6 +29,7 @@ import org.apache.nifi.controller.queue.clustered.client.LoadBalanceFlowFileCode
 import org.apache.nifi.controller.queue.clustered.client.async.AsyncLoadBalanceClient;
 import org.apache.nifi.controller.queue.clustered.client.async.TransactionCompleteCallback;
 import org.apache.nifi.controller.queue.clustered.client.async.TransactionFailureCallback;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.reporting.Severity;
@@ -68,6 +69,7 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
     private final int timeoutMillis;
     private final FlowFileContentAccess flowFileContentAccess;
     private final LoadBalanceFlowFileCodec flowFileCodec;
+    private final LoadBalanceCompressionCodec compressionCodec;
     private final EventReporter eventReporter;
     private final ClusterCoordinator clusterCoordinator;
 
@@ -92,12 +94,14 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
 
 
     public NioAsyncLoadBalanceClient(final NodeIdentifier nodeIdentifier, final SSLContext sslContext, final int timeoutMillis, final FlowFileContentAccess flowFileContentAccess,
-                                     final LoadBalanceFlowFileCodec flowFileCodec, final EventReporter eventReporter, final ClusterCoordinator clusterCoordinator) {
+                                     final LoadBalanceFlowFileCodec flowFileCodec, final LoadBalanceCompressionCodec compressionCodec, final EventReporter eventReporter,
+                                     final ClusterCoordinator clusterCoordinator) {
         this.nodeIdentifier = nodeIdentifier;
         this.sslContext = sslContext;
         this.timeoutMillis = timeoutMillis;
         this.flowFileContentAccess = flowFileContentAccess;
         this.flowFileCodec = flowFileCodec;
+        this.compressionCodec = compressionCodec;
         this.eventReporter = eventReporter;
         this.clusterCoordinator = clusterCoordinator;
     }
@@ -412,7 +416,7 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
             return null;
         }
 
-        loadBalanceSession = new LoadBalanceSession(readyPartition, flowFileContentAccess, flowFileCodec, channel, timeoutMillis, newTransactionThreshold());
+        loadBalanceSession = new LoadBalanceSession(readyPartition, flowFileContentAccess, flowFileCodec, channel, timeoutMillis, newTransactionThreshold(), compressionCodec);
         partitionQueue.offer(readyPartition);
 
         return loadBalanceSession;
@@ -22,6 +22,7 @@ import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.controller.queue.clustered.FlowFileContentAccess;
 import org.apache.nifi.controller.queue.clustered.client.LoadBalanceFlowFileCodec;
 import org.apache.nifi.controller.queue.clustered.client.async.AsyncLoadBalanceClientFactory;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.events.EventReporter;
 
 import javax.net.ssl.SSLContext;
@@ -32,21 +33,29 @@ public class NioAsyncLoadBalanceClientFactory implements AsyncLoadBalanceClientF
     private final FlowFileContentAccess flowFileContentAccess;
     private final EventReporter eventReporter;
     private final LoadBalanceFlowFileCodec flowFileCodec;
+    private final LoadBalanceCompressionCodec compressionCodec;
     private final ClusterCoordinator clusterCoordinator;
 
     public NioAsyncLoadBalanceClientFactory(final SSLContext sslContext, final int timeoutMillis, final FlowFileContentAccess flowFileContentAccess, final EventReporter eventReporter,
                                             final LoadBalanceFlowFileCodec loadBalanceFlowFileCodec, final ClusterCoordinator clusterCoordinator) {
+        this(sslContext, timeoutMillis, flowFileContentAccess, eventReporter, loadBalanceFlowFileCodec, LoadBalanceCompressionCodec.GZIP, clusterCoordinator);
+    }
+
+    public NioAsyncLoadBalanceClientFactory(final SSLContext sslContext, final int timeoutMillis, final FlowFileContentAccess flowFileContentAccess, final EventReporter eventReporter,
+                                            final LoadBalanceFlowFileCodec loadBalanceFlowFileCodec, final LoadBalanceCompressionCodec compressionCodec,
+                                            final ClusterCoordinator clusterCoordinator) {
         this.sslContext = sslContext;
         this.timeoutMillis = timeoutMillis;
         this.flowFileContentAccess = flowFileContentAccess;
         this.eventReporter = eventReporter;
         this.flowFileCodec = loadBalanceFlowFileCodec;
+        this.compressionCodec = compressionCodec;
         this.clusterCoordinator = clusterCoordinator;
     }
 
 
     @Override
     public NioAsyncLoadBalanceClient createClient(final NodeIdentifier nodeIdentifier) {
-        return new NioAsyncLoadBalanceClient(nodeIdentifier, sslContext, timeoutMillis, flowFileContentAccess, flowFileCodec, eventReporter, clusterCoordinator);
+        return new NioAsyncLoadBalanceClient(nodeIdentifier, sslContext, timeoutMillis, flowFileContentAccess, flowFileCodec, compressionCodec, eventReporter, clusterCoordinator);
     }
 }
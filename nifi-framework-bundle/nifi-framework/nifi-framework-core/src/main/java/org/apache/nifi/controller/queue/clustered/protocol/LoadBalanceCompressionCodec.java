@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.queue.clustered.protocol;
+
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream.BlockSize;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.nifi.stream.io.GZIPOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The algorithm that is used to compress FlowFile attributes and content when a Connection's Load Balance Compression calls for compression.
+ * Version 1 of the Load Balance Protocol always uses GZIP. Beginning with version 2, the client sends the identifier of the codec that it will
+ * use immediately after the Connection ID, so each node may choose its codec independently of the nodes that it sends data to.
+ */
+public enum LoadBalanceCompressionCodec {
+    GZIP(1) {
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, 1);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+
+    LZ4(2) {
+        // Checksums are disabled because the Load Balance Protocol already calculates a CRC32 checksum over everything that is sent
+        private final FramedLZ4CompressorOutputStream.Parameters parameters = new FramedLZ4CompressorOutputStream.Parameters(BlockSize.K64, false, false, false);
+
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new FramedLZ4CompressorOutputStream(out, parameters);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new FramedLZ4CompressorInputStream(in);
+        }
+    },
+
+    ZSTD(3) {
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new ZstdCompressorOutputStream(out, 1);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new ZstdCompressorInputStream(in);
+        }
+    };
+
+    private final int id;
+
+    LoadBalanceCompressionCodec(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the identifier that is used to indicate this codec on the wire
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Wraps the given stream so that everything written to the returned stream is compressed. The returned stream must be closed in order to finish compression.
+     *
+     * @param out the stream to write compressed data to
+     * @return a stream that compresses the data written to it
+     * @throws IOException if unable to create the compressing stream
+     */
+    public abstract OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * Wraps the given stream so that the data read from it is decompressed
+     *
+     * @param in the stream to read compressed data from
+     * @return a stream that provides the decompressed data
+     * @throws IOException if unable to create the decompressing stream
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * @param id the identifier of a codec, as sent on the wire
+     * @return the codec with the given identifier, or <code>null</code> if no codec has the given identifier
+     */
+    public static LoadBalanceCompressionCodec fromId(final int id) {
+        for (final LoadBalanceCompressionCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+
+        return null;
+    }
+}
@@ -33,6 +33,8 @@ public class LoadBalanceProtocolConstants {
     // FlowFile constants
     public static final int MORE_FLOWFILES = 0x31;
     public static final int NO_MORE_FLOWFILES = 0x32;
+    // Introduced in version 2 of the protocol: the attributes and content of several FlowFiles follow in a single compressed frame
+    public static final int FLOWFILE_BATCH_FOLLOWS = 0x33;
 
     // Backpressure / Space constants
     public static final int CHECK_SPACE = 0x61;
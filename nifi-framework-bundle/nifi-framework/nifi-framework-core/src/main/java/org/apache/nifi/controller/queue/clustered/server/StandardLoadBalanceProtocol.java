@@ -23,6 +23,7 @@ import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.queue.IllegalClusterStateException;
 import org.apache.nifi.controller.queue.LoadBalanceCompression;
 import org.apache.nifi.controller.queue.LoadBalancedFlowFileQueue;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.repository.ContentRepository;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
@@ -57,6 +58,7 @@ import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,7 +68,6 @@ import java.util.stream.Collectors;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedInputStream;
 import java.util.zip.Checksum;
-import java.util.zip.GZIPInputStream;
 
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.ABORT_PROTOCOL_NEGOTIATION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.ABORT_TRANSACTION;
@@ -75,6 +76,7 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.FLOWFILE_BATCH_FOLLOWS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_FLOWFILES;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_DATA_FRAME;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_FLOWFILES;
@@ -138,7 +140,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
 
 
     protected int negotiateProtocolVersion(final InputStream in, final OutputStream out, final String peerDescription, final String channelDescription) throws IOException {
-        final VersionNegotiator negotiator = new StandardVersionNegotiator(1);
+        final VersionNegotiator negotiator = new StandardVersionNegotiator(2, 1);
 
         for (int i = 0;; i++) {
             final int requestedVersion;
@@ -208,6 +210,8 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
             throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but no Connection exists with that ID");
         }
 
+        final LoadBalanceCompressionCodec compressionCodec = protocolVersion < 2 ? LoadBalanceCompressionCodec.GZIP : getCompressionCodec(dataIn, peerDescription);
+
         final FlowFileQueue flowFileQueue = connection.getFlowFileQueue();
         if (!(flowFileQueue instanceof LoadBalancedFlowFileQueue)) {
             throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but the Connection with that ID is " +
@@ -238,7 +242,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         }
 
         final LoadBalanceCompression compression = connection.getFlowFileQueue().getLoadBalanceCompression();
-        logger.debug("Receiving FlowFiles from Peer {} for Connection {}; Compression = {}", peerDescription, connectionId, compression);
+        logger.debug("Receiving FlowFiles from Peer {} for Connection {}; Compression = {}, Codec = {}", peerDescription, connectionId, compression, compressionCodec);
 
         ContentClaim contentClaim = null;
         final List<RemoteFlowFileRecord> flowFilesReceived = new ArrayList<>();
@@ -247,22 +251,30 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
 
         try {
             try {
-                while (isMoreFlowFiles(dataIn, protocolVersion)) {
+                int flowFileIndicator;
+                while ((flowFileIndicator = getFlowFileIndicator(dataIn, protocolVersion)) != NO_MORE_FLOWFILES) {
                     if (contentClaim == null) {
                         contentClaim = contentRepository.create(false);
                         contentClaimOut = contentRepository.write(contentClaim);
                     }
 
-                    final RemoteFlowFileRecord flowFile = receiveFlowFile(dataIn, contentClaimOut, contentClaim, claimOffset, protocolVersion, peerDescription, compression);
+                    final List<RemoteFlowFileRecord> flowFiles;
+                    if (flowFileIndicator == FLOWFILE_BATCH_FOLLOWS) {
+                        flowFiles = receiveFlowFileBatch(dataIn, contentClaimOut, contentClaim, claimOffset, peerDescription, compressionCodec);
+                    } else {
+                        flowFiles = Collections.singletonList(receiveFlowFile(dataIn, contentClaimOut, contentClaim, claimOffset, protocolVersion, peerDescription, compression, compressionCodec));
+                    }
 
-                    // The FlowFile's Content Claim will either be null or equal to the provided Content Claim.
-                    // Incrementing the FlowFile's content claim will increment the count for the provided Content Claim, if it was
-                    // assigned to the FlowFIle, or call incrementClaimantCount with an argument of null, which will do nothing.
-                    contentRepository.incrementClaimaintCount(flowFile.getFlowFile().getContentClaim());
+                    for (final RemoteFlowFileRecord flowFile : flowFiles) {
+                        // The FlowFile's Content Claim will either be null or equal to the provided Content Claim.
+                        // Incrementing the FlowFile's content claim will increment the count for the provided Content Claim, if it was
+                        // assigned to the FlowFIle, or call incrementClaimantCount with an argument of null, which will do nothing.
+                        contentRepository.incrementClaimaintCount(flowFile.getFlowFile().getContentClaim());
 
-                    flowFilesReceived.add(flowFile);
+                        flowFilesReceived.add(flowFile);
 
-                    claimOffset += flowFile.getFlowFile().getSize();
+                        claimOffset += flowFile.getFlowFile().getSize();
+                    }
                 }
             } finally {
                 if (contentClaimOut != null) {
@@ -477,7 +489,21 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         }
     }
 
-    private boolean isMoreFlowFiles(final DataInputStream in, final int protocolVersion) throws IOException {
+    private LoadBalanceCompressionCodec getCompressionCodec(final DataInputStream in, final String peerDescription) throws IOException {
+        final int codecId = in.read();
+        if (codecId < 0) {
+            throw new EOFException("Expected to receive a Compression Codec identifier from Peer " + peerDescription + " but encountered End-of-File");
+        }
+
+        final LoadBalanceCompressionCodec codec = LoadBalanceCompressionCodec.fromId(codecId);
+        if (codec == null) {
+            throw new TransactionAbortedException("Peer " + peerDescription + " indicated that it will use a Compression Codec with identifier " + codecId + " but no such codec is known");
+        }
+
+        return codec;
+    }
+
+    private int getFlowFileIndicator(final DataInputStream in, final int protocolVersion) throws IOException {
         final int indicator = in.read();
         if (indicator < 0) {
             throw new EOFException();
@@ -485,24 +511,68 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
 
         if (indicator == MORE_FLOWFILES) {
             logger.debug("Peer indicates that there is another FlowFile in transaction");
-            return true;
+            return indicator;
+        }
+        if (indicator == FLOWFILE_BATCH_FOLLOWS && protocolVersion >= 2) {
+            logger.debug("Peer indicates that there is another batch of FlowFiles in transaction");
+            return indicator;
         }
         if (indicator == NO_MORE_FLOWFILES) {
             logger.debug("Peer indicates that there are no more FlowFiles in transaction");
-            return false;
+            return indicator;
         }
 
         throw new IOException("Expected to receive 'More FlowFiles' indicator (" + MORE_FLOWFILES
             + ") or 'No More FlowFiles' indicator (" + NO_MORE_FLOWFILES + ") but received invalid value of " + indicator);
     }
 
+    private List<RemoteFlowFileRecord> receiveFlowFileBatch(final DataInputStream dis, final OutputStream out, final ContentClaim contentClaim, final long claimOffset,
+                                                            final String peerDescription, final LoadBalanceCompressionCodec compressionCodec) throws IOException {
+        final int flowFileCount = dis.readInt();
+        final int batchLength = dis.readInt();
+        logger.debug("Receiving batch of {} FlowFiles compressed to {} bytes from Peer {}", flowFileCount, batchLength, peerDescription);
+
+        final InputStream batchIn = new LimitingInputStream(dis, batchLength);
+        final DataInputStream flowFileIn = new DataInputStream(compressionCodec.decompress(batchIn));
+
+        final List<RemoteFlowFileRecord> flowFiles = new ArrayList<>(flowFileCount);
+        long offset = claimOffset;
+        for (int i = 0; i < flowFileCount; i++) {
+            final Map<String, String> attributes = readAttributes(flowFileIn);
+            final long lineageStartDate = flowFileIn.readLong();
+            final long entryDate = flowFileIn.readLong();
+            final long penaltyExpirationMillis = flowFileIn.readLong();
+
+            final long contentLength = flowFileIn.readLong();
+            final ContentClaimTriple contentClaimTriple;
+            if (contentLength > 0) {
+                StreamUtils.copy(flowFileIn, out, contentLength);
+                contentClaimTriple = new ContentClaimTriple(contentClaim, offset, contentLength);
+            } else {
+                contentClaimTriple = new ContentClaimTriple(null, 0L, 0L);
+            }
+
+            final FlowFileRecord flowFileRecord = createFlowFileRecord(attributes, lineageStartDate, entryDate, penaltyExpirationMillis, contentClaimTriple);
+            logger.debug("Received FlowFile {} with {} attributes and {} bytes of content", flowFileRecord, attributes.size(), contentLength);
+
+            flowFiles.add(new RemoteFlowFileRecord(attributes.get(CoreAttributes.UUID.key()), flowFileRecord));
+            offset += contentLength;
+        }
+
+        // The decompressor need not consume the entire frame in order to provide all of the data, so skip any trailing bytes before reading the next indicator
+        StreamUtils.copy(batchIn, OutputStream.nullOutputStream());
+
+        return flowFiles;
+    }
+
     private RemoteFlowFileRecord receiveFlowFile(final DataInputStream dis, final OutputStream out, final ContentClaim contentClaim, final long claimOffset, final int protocolVersion,
-                                                 final String peerDescription, final LoadBalanceCompression compression) throws IOException {
+                                                 final String peerDescription, final LoadBalanceCompression compression, final LoadBalanceCompressionCodec compressionCodec) throws IOException {
         final int metadataLength = dis.readInt();
 
-        DataInputStream metadataIn = new DataInputStream(new LimitingInputStream(dis, metadataLength));
+        final InputStream limitedMetadataIn = new LimitingInputStream(dis, metadataLength);
+        DataInputStream metadataIn = new DataInputStream(limitedMetadataIn);
         if (compression != LoadBalanceCompression.DO_NOT_COMPRESS) {
-            metadataIn = new DataInputStream(new GZIPInputStream(metadataIn));
+            metadataIn = new DataInputStream(compressionCodec.decompress(metadataIn));
         }
 
         final Map<String, String> attributes = readAttributes(metadataIn);
@@ -514,9 +584,21 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         final long entryDate = metadataIn.readLong();
         final long penaltyExpirationMillis = metadataIn.readLong();
 
-        final ContentClaimTriple contentClaimTriple = consumeContent(dis, out, contentClaim, claimOffset, peerDescription, compression == LoadBalanceCompression.COMPRESS_ATTRIBUTES_AND_CONTENT);
+        // The decompressor need not consume the entire frame in order to provide all of the metadata, so skip any trailing bytes before consuming the content
+        StreamUtils.copy(limitedMetadataIn, OutputStream.nullOutputStream());
+
+        final LoadBalanceCompressionCodec contentCodec = compression == LoadBalanceCompression.COMPRESS_ATTRIBUTES_AND_CONTENT ? compressionCodec : null;
+        final ContentClaimTriple contentClaimTriple = consumeContent(dis, out, contentClaim, claimOffset, peerDescription, contentCodec);
+
+        final FlowFileRecord flowFileRecord = createFlowFileRecord(attributes, lineageStartDate, entryDate, penaltyExpirationMillis, contentClaimTriple);
 
-        final FlowFileRecord flowFileRecord = new StandardFlowFileRecord.Builder()
+        logger.debug("Received FlowFile {} with {} attributes and {} bytes of content", flowFileRecord, attributes.size(), contentClaimTriple.getContentLength());
+        return new RemoteFlowFileRecord(sourceSystemUuid, flowFileRecord);
+    }
+
+    private FlowFileRecord createFlowFileRecord(final Map<String, String> attributes, final long lineageStartDate, final long entryDate, final long penaltyExpirationMillis,
+                                                final ContentClaimTriple contentClaimTriple) {
+        return new StandardFlowFileRecord.Builder()
             .id(flowFileRepository.getNextFlowFileSequence())
             .addAttributes(attributes)
             .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
@@ -527,9 +609,6 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
             .lineageStart(lineageStartDate, lineageStartIndex.getAndIncrement())
             .penaltyExpirationTime(penaltyExpirationMillis)
             .build();
-
-        logger.debug("Received FlowFile {} with {} attributes and {} bytes of content", flowFileRecord, attributes.size(), contentClaimTriple.getContentLength());
-        return new RemoteFlowFileRecord(sourceSystemUuid, flowFileRecord);
     }
 
     private Map<String, String> readAttributes(final DataInputStream in) throws IOException {
@@ -554,7 +633,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
     }
 
     private ContentClaimTriple consumeContent(final DataInputStream in, final OutputStream out, final ContentClaim contentClaim, final long claimOffset,
-                                              final String peerDescription, final boolean compressed) throws IOException {
+                                              final String peerDescription, final LoadBalanceCompressionCodec compressionCodec) throws IOException {
         logger.debug("Consuming content from Peer {}", peerDescription);
 
         int dataFrameIndicator = in.read();
@@ -581,7 +660,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         while (true) {
             final InputStream limitedIn = new LimitedInputStream(in, dataFrameLength);
             final ByteCountingInputStream bcis = new ByteCountingInputStream(limitedIn);
-            final InputStream contentIn = compressed ? new GZIPInputStream(bcis) : bcis;
+            final InputStream contentIn = compressionCodec == null ? bcis : compressionCodec.decompress(bcis);
             final int decompressedSize = StreamUtils.fillBuffer(contentIn, buffer, false);
 
             if (bcis.getBytesRead() < dataFrameLength) {
@@ -16,7 +16,10 @@
  */
 package org.apache.nifi.controller.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
@@ -27,6 +30,7 @@ import org.apache.nifi.engine.FlowEngine;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.reporting.Severity;
+import org.apache.nifi.stream.io.ByteBufferInputStream;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.apache.nifi.stream.io.SynchronizedByteCountingOutputStream;
@@ -47,6 +51,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -91,6 +98,9 @@ public class FileSystemRepository implements ContentRepository {
     // unnecessarily large resource claim files
     public static final String APPENDABLE_CLAIM_LENGTH_CAP = "100 MB";
     public static final Pattern MAX_ARCHIVE_SIZE_PATTERN = Pattern.compile("\\d{1,2}%");
+    public static final String MEMORY_MAPPED_READS_ENABLED = "nifi.content.repository.memory.mapped.reads.enabled";
+    public static final String MEMORY_MAPPED_CACHE_SIZE = "nifi.content.repository.memory.mapped.cache.size";
+    private static final int DEFAULT_MEMORY_MAPPED_CACHE_SIZE = 1024;
     private static final Logger LOG = LoggerFactory.getLogger(FileSystemRepository.class);
 
     private final Logger archiveExpirationLog = LoggerFactory.getLogger(FileSystemRepository.class.getName() + ".archive.expiration");
@@ -123,6 +133,14 @@ public class FileSystemRepository implements ContentRepository {
     private final boolean alwaysSync;
     private final ScheduledExecutorService containerCleanupExecutor;
 
+    // When memory-mapped reads are enabled, we keep a bounded cache of read-only mappings of Resource Claim files so that many
+    // small Content Claims that share a Resource Claim can be read without opening the file and skipping to the offset each time.
+    // Mappings are released by the JVM once they are evicted from the cache and no longer referenced by any reader.
+    // Resource Claims larger than the appendable claim cap are mapped only for the region that is read and are not cached.
+    private final boolean memoryMappedReads;
+    private final long maxCachedMappingLength;
+    private final Cache<ResourceClaim, MappedByteBuffer> mappedResourceClaims;
+
     private ResourceClaimManager resourceClaimManager; // effectively final
     private EventReporter eventReporter;
 
@@ -230,6 +248,26 @@ public class FileSystemRepository implements ContentRepository {
 
         this.alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.content.repository.always.sync"));
         LOG.info("Initializing FileSystemRepository with 'Always Sync' set to {}", alwaysSync);
+
+        // A mapped file cannot be archived or deleted on Windows until the JVM releases the mapping during garbage collection,
+        // so memory-mapped reads are not supported there.
+        final boolean memoryMappedReadsEnabled = Boolean.parseBoolean(nifiProperties.getProperty(MEMORY_MAPPED_READS_ENABLED, "false"));
+        if (memoryMappedReadsEnabled && SystemUtils.IS_OS_WINDOWS) {
+            LOG.warn("Memory-mapped reads are not supported on Windows because mapped files cannot be archived or deleted until the mapping is released; property [{}] will be ignored",
+                MEMORY_MAPPED_READS_ENABLED);
+        }
+        this.memoryMappedReads = memoryMappedReadsEnabled && !SystemUtils.IS_OS_WINDOWS;
+        this.maxCachedMappingLength = Math.min(appendableClaimLengthCap, Integer.MAX_VALUE);
+        if (memoryMappedReads) {
+            final int mappedCacheSize = nifiProperties.getIntegerProperty(MEMORY_MAPPED_CACHE_SIZE, DEFAULT_MEMORY_MAPPED_CACHE_SIZE);
+            this.mappedResourceClaims = Caffeine.newBuilder()
+                .maximumSize(mappedCacheSize)
+                .build();
+            LOG.info("Memory-mapped reads are enabled for FileSystemRepository, caching up to {} mapped Resource Claims", mappedCacheSize);
+        } else {
+            this.mappedResourceClaims = null;
+        }
+
         initializeRepository();
 
         containerCleanupExecutor = new FlowEngine(containers.size(), "Cleanup FileSystemRepository Container", true);
@@ -275,6 +313,10 @@ public class FileSystemRepository implements ContentRepository {
             } catch (final IOException ignored) {
             }
         }
+
+        if (mappedResourceClaims != null) {
+            mappedResourceClaims.invalidateAll();
+        }
     }
 
     private static double getRatio(final String value) {
@@ -906,6 +948,13 @@ public class FileSystemRepository implements ContentRepository {
             return new ByteArrayInputStream(new byte[0]);
         }
 
+        // If the Resource Claim can no longer be written to, the length of the Content Claim cannot change, so we can read
+        // directly from the mapped file. Otherwise, use a FileInputStream so that we can continue reading if the Content Claim grows.
+        // A single mapping cannot exceed Integer.MAX_VALUE bytes, so larger Content Claims are always read from a FileInputStream.
+        if (memoryMappedReads && claim.getLength() >= 0 && claim.getLength() <= Integer.MAX_VALUE && !claim.getResourceClaim().isWritable()) {
+            return new ByteBufferInputStream(getMappedContent(claim, 0L, claim.getLength()));
+        }
+
         final InputStream fis = getInputStream(claim);
         if (claim.getOffset() > 0L) {
             try {
@@ -944,6 +993,67 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public ByteBuffer readAsByteBuffer(final ContentClaim claim, final long offset, final long length) throws IOException {
+        if (!memoryMappedReads || claim == null || length == 0) {
+            return ContentRepository.super.readAsByteBuffer(claim, offset, length);
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Cannot read " + length + " bytes of " + claim + " into a ByteBuffer because the length exceeds the maximum size of a ByteBuffer");
+        }
+
+        return getMappedContent(claim, offset, length);
+    }
+
+    private ByteBuffer getMappedContent(final ContentClaim claim, final long offset, final long length) throws IOException {
+        final ResourceClaim resourceClaim = claim.getResourceClaim();
+        final long start = claim.getOffset() + offset;
+        final long end = start + length;
+
+        final MappedByteBuffer cached = mappedResourceClaims.getIfPresent(resourceClaim);
+        if (cached != null && cached.capacity() >= end) {
+            return cached.slice((int) start, (int) length);
+        }
+
+        // Either the Resource Claim has not been mapped yet, or it has been appended to since it was mapped. In either case, map the file again.
+        try (final FileChannel channel = FileChannel.open(getReadablePath(claim), StandardOpenOption.READ)) {
+            final long resourceClaimLength = channel.size();
+            if (resourceClaimLength < end) {
+                throw new ContentNotFoundException(claim, "Content Claim has an offset of " + claim.getOffset() + " and requested " + length + " bytes starting at offset " + offset
+                    + " but Resource Claim is only " + resourceClaimLength + " bytes");
+            }
+
+            if (resourceClaimLength > maxCachedMappingLength) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, resourceClaimLength);
+            mappedResourceClaims.put(resourceClaim, mapped);
+            return mapped.slice((int) start, (int) length);
+        }
+    }
+
+    private Path getReadablePath(final ContentClaim claim) {
+        final ResourceClaim resourceClaim = claim.getResourceClaim();
+        final Path containerPath = containers.get(resourceClaim.getContainer());
+        if (containerPath == null) {
+            throw new ContentNotFoundException(claim);
+        }
+
+        final Path resolvedPath = containerPath.resolve(resourceClaim.getSection()).resolve(resourceClaim.getId());
+        if (Files.exists(resolvedPath)) {
+            return resolvedPath;
+        }
+
+        final Path archivePath = getArchivePath(resourceClaim);
+        if (Files.exists(archivePath)) {
+            return archivePath;
+        }
+
+        throw new ContentNotFoundException(claim);
+    }
+
     private void closeQuietly(final Closeable closeable) {
         if (closeable == null) {
             return;
@@ -1032,6 +1142,10 @@ public class FileSystemRepository implements ContentRepository {
             }
         }
 
+        if (mappedResourceClaims != null) {
+            mappedResourceClaims.invalidateAll();
+        }
+
         resourceClaimManager.purge();
     }
 
@@ -1135,6 +1249,10 @@ public class FileSystemRepository implements ContentRepository {
             return false;
         }
 
+        if (mappedResourceClaims != null) {
+            mappedResourceClaims.invalidate(claim);
+        }
+
         // If the claim count is decremented to 0 (<= 0 as a 'defensive programming' strategy), ensure that
         // we close the stream if there is one. There may be a stream open if create() is called and then
         // claimant count is removed without writing to the claim (or more specifically, without closing the
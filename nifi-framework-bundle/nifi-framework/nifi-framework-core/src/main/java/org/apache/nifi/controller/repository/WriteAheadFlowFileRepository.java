@@ -25,6 +25,7 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.repository.schema.FieldCache;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.wali.GroupCommitSynchronizer;
 import org.apache.nifi.wali.SequentialAccessWriteAheadLog;
 import org.apache.nifi.wali.SnapshotCapture;
 import org.slf4j.Logger;
@@ -79,22 +80,41 @@ import java.util.stream.Collectors;
  * choose instead to not sync to disk for every write but instead sync only when
  * we checkpoint.
  * </p>
+ *
+ * <p>
+ * When <code>nifi.flowfile.repository.always.sync</code> is <code>true</code>, the
+ * <code>nifi.flowfile.repository.group.commit.enabled</code> property may be set
+ * to <code>true</code> in order to have a single background thread sync the journal
+ * on behalf of all threads that are committing at about the same time, rather than
+ * each thread syncing the journal itself. Each commit is still durable before it
+ * completes, but the cost of each sync is shared across all commits in the batch.
+ * </p>
  */
 public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncListener {
     static final String FLOWFILE_REPOSITORY_DIRECTORY_PREFIX = "nifi.flowfile.repository.directory";
     private static final String RETAIN_ORPHANED_FLOWFILES = "nifi.flowfile.repository.retain.orphaned.flowfiles";
     private static final String FLOWFILE_REPO_CACHE_SIZE = "nifi.flowfile.repository.wal.cache.characters";
+    private static final String GROUP_COMMIT_ENABLED = "nifi.flowfile.repository.group.commit.enabled";
+    private static final String GROUP_COMMIT_WINDOW = "nifi.flowfile.repository.group.commit.window";
+    private static final String GROUP_COMMIT_MAX_BATCH_SIZE = "nifi.flowfile.repository.group.commit.max.batch.size";
+    private static final String ATTRIBUTE_DICTIONARY_ENABLED = "nifi.flowfile.repository.attribute.dictionary.enabled";
 
     static final String SEQUENTIAL_ACCESS_WAL = "org.apache.nifi.wali.SequentialAccessWriteAheadLog";
     static final String ENCRYPTED_SEQUENTIAL_ACCESS_WAL = "org.apache.nifi.wali.EncryptedSequentialAccessWriteAheadLog";
     private static final String DEFAULT_WAL_IMPLEMENTATION = SEQUENTIAL_ACCESS_WAL;
     private static final int DEFAULT_CACHE_SIZE = 10_000_000;
+    private static final String DEFAULT_GROUP_COMMIT_WINDOW = "0 millis";
+    private static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 1000;
 
     private final String walImplementation;
     protected final NiFiProperties nifiProperties;
 
     private final AtomicLong flowFileSequenceGenerator = new AtomicLong(0L);
     private final boolean alwaysSync;
+    private final boolean groupCommitEnabled;
+    private final long groupCommitWindowMicros;
+    private final int groupCommitMaxBatchSize;
+    private final boolean attributeDictionaryEnabled;
     private final boolean retainOrphanedFlowFiles;
 
     private static final Logger logger = LoggerFactory.getLogger(WriteAheadFlowFileRepository.class);
@@ -144,6 +164,10 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
      */
     public WriteAheadFlowFileRepository() {
         alwaysSync = false;
+        groupCommitEnabled = false;
+        groupCommitWindowMicros = 0L;
+        groupCommitMaxBatchSize = DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE;
+        attributeDictionaryEnabled = false;
         checkpointDelayMillis = 0L;
         checkpointExecutor = null;
         walImplementation = null;
@@ -154,6 +178,10 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     public WriteAheadFlowFileRepository(final NiFiProperties nifiProperties) {
         alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.FLOWFILE_REPOSITORY_ALWAYS_SYNC, "false"));
+        groupCommitEnabled = alwaysSync && Boolean.parseBoolean(nifiProperties.getProperty(GROUP_COMMIT_ENABLED, "false"));
+        groupCommitWindowMicros = Math.round(FormatUtils.getPreciseTimeDuration(nifiProperties.getProperty(GROUP_COMMIT_WINDOW, DEFAULT_GROUP_COMMIT_WINDOW), TimeUnit.MICROSECONDS));
+        groupCommitMaxBatchSize = nifiProperties.getIntegerProperty(GROUP_COMMIT_MAX_BATCH_SIZE, DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE);
+        attributeDictionaryEnabled = Boolean.parseBoolean(nifiProperties.getProperty(ATTRIBUTE_DICTIONARY_ENABLED, "false"));
         this.nifiProperties = nifiProperties;
 
         final String orphanedFlowFileProperty = nifiProperties.getProperty(RETAIN_ORPHANED_FLOWFILES);
@@ -189,7 +217,7 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
     }
 
     protected RepositoryRecordSerdeFactory createSerdeFactory(final ResourceClaimManager claimManager, final FieldCache fieldCache) {
-        return new StandardRepositoryRecordSerdeFactory(claimManager, fieldCache);
+        return new StandardRepositoryRecordSerdeFactory(claimManager, fieldCache, attributeDictionaryEnabled);
     }
 
     public void initialize(final ResourceClaimManager claimManager, final RepositoryRecordSerdeFactory serdeFactory, final FieldCache fieldCache) throws IOException {
@@ -209,7 +237,15 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
         // The specified implementation can be plaintext or encrypted; the only difference is the serde factory
         if (walImplementation.equals(SEQUENTIAL_ACCESS_WAL) || walImplementation.equals(ENCRYPTED_SEQUENTIAL_ACCESS_WAL)) {
             // TODO: May need to instantiate ESAWAL for clarity?
-            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this);
+            final GroupCommitSynchronizer groupCommitSynchronizer;
+            if (groupCommitEnabled) {
+                groupCommitSynchronizer = new GroupCommitSynchronizer("Sync FlowFile Repository", groupCommitWindowMicros, TimeUnit.MICROSECONDS, groupCommitMaxBatchSize);
+                logger.info("FlowFile Repository will use Group Commit with a window of {} microseconds and a max batch size of {}", groupCommitWindowMicros, groupCommitMaxBatchSize);
+            } else {
+                groupCommitSynchronizer = null;
+            }
+
+            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this, groupCommitSynchronizer);
         } else {
             throw new IllegalStateException("Cannot create Write-Ahead Log because the configured property '" + NiFiProperties.FLOWFILE_REPOSITORY_WAL_IMPLEMENTATION +
                     "' has an invalid value of '" + walImplementation + "'. Please update nifi.properties to indicate a valid value for this property.");
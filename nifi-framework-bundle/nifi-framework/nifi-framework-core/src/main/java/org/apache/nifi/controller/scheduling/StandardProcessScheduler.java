@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.controller.scheduling;
 
+import org.apache.nifi.annotation.behavior.SupportsVirtualThreads;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
 import org.apache.nifi.annotation.lifecycle.OnShutdown;
 import org.apache.nifi.annotation.lifecycle.OnStopped;
@@ -94,6 +95,7 @@ public final class StandardProcessScheduler implements ProcessScheduler {
     private final AtomicLong frameworkTaskThreadIndex = new AtomicLong(1L);
 
     private final ConcurrentMap<SchedulingStrategy, SchedulingAgent> strategyAgentMap = new ConcurrentHashMap<>();
+    private volatile SchedulingAgent virtualThreadSchedulingAgent;
 
     // thread pool for starting/stopping components
     private volatile boolean shutdown = false;
@@ -204,10 +206,35 @@ public final class StandardProcessScheduler implements ProcessScheduler {
         return strategyAgentMap.get(strategy);
     }
 
-    private SchedulingAgent getSchedulingAgent(final Connectable connectable) {
+    /**
+     * Sets the agent that is used to schedule timer-driven Processors that are annotated with {@link SupportsVirtualThreads}. The agent's
+     * thread pool is separate from the Timer-Driven Thread Pool, so the size of that pool limits the number of such Processors' tasks that may
+     * run concurrently. If no agent is set, those Processors are scheduled by the agent for their Scheduling Strategy, like any other Processor.
+     *
+     * @param agent the agent that runs tasks on virtual threads, or <code>null</code> to disable virtual thread execution
+     */
+    public void setVirtualThreadSchedulingAgent(final SchedulingAgent agent) {
+        this.virtualThreadSchedulingAgent = agent;
+    }
+
+    SchedulingAgent getSchedulingAgent(final Connectable connectable) {
+        final SchedulingAgent virtualAgent = virtualThreadSchedulingAgent;
+        if (virtualAgent != null && isVirtualThreadExecution(connectable)) {
+            return virtualAgent;
+        }
+
         return getSchedulingAgent(connectable.getSchedulingStrategy());
     }
 
+    private boolean isVirtualThreadExecution(final Connectable connectable) {
+        if (connectable.getSchedulingStrategy() != SchedulingStrategy.TIMER_DRIVEN || !(connectable instanceof ProcessorNode)) {
+            return false;
+        }
+
+        final Processor processor = ((ProcessorNode) connectable).getProcessor();
+        return processor != null && processor.getClass().isAnnotationPresent(SupportsVirtualThreads.class);
+    }
+
     @Override
     public void shutdown() {
         shutdown = true;
@@ -220,6 +247,15 @@ public final class StandardProcessScheduler implements ProcessScheduler {
             }
         }
 
+        final SchedulingAgent virtualAgent = virtualThreadSchedulingAgent;
+        if (virtualAgent != null) {
+            try {
+                virtualAgent.shutdown();
+            } catch (final Throwable t) {
+                LOG.error("Failed to shutdown Scheduling Agent {}", virtualAgent, t);
+            }
+        }
+
         componentLifeCycleThreadPool.shutdown();
     }
 
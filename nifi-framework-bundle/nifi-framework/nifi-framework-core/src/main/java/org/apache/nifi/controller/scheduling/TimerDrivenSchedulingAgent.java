@@ -19,6 +19,7 @@ package org.apache.nifi.controller.scheduling;
 import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.ReportingTaskNode;
+import org.apache.nifi.controller.tasks.AdaptiveRunDuration;
 import org.apache.nifi.controller.tasks.ConnectableTask;
 import org.apache.nifi.controller.tasks.InvocationResult;
 import org.apache.nifi.controller.tasks.ReportingTaskWrapper;
@@ -32,8 +33,26 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * <p>
+ * Schedules components to run periodically, according to their configured Scheduling Period.
+ * </p>
+ *
+ * <p>
+ * If the <code>nifi.scheduling.adaptive.run.duration.enabled</code> property is set to <code>true</code>, the Run Duration of each
+ * component that supports batching is tuned automatically, from the component's configured Run Duration up to the value of the
+ * <code>nifi.scheduling.adaptive.run.duration.max</code> property, based on its queue depth, session commit time, and task duration.
+ * See {@link AdaptiveRunDuration} for details.
+ * </p>
+ */
 public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent {
+    static final String ADAPTIVE_RUN_DURATION_ENABLED = "nifi.scheduling.adaptive.run.duration.enabled";
+    static final String ADAPTIVE_RUN_DURATION_MAX = "nifi.scheduling.adaptive.run.duration.max";
+    private static final String DEFAULT_ADAPTIVE_RUN_DURATION_MAX = "500 millis";
+
     private final long noWorkYieldNanos;
+    private final boolean adaptiveRunDurationEnabled;
+    private final long maxAdaptiveRunDurationNanos;
 
     public TimerDrivenSchedulingAgent(final FlowController flowController, final FlowEngine flowEngine, final RepositoryContextFactory contextFactory,
                                       final NiFiProperties nifiProperties) {
@@ -45,6 +64,14 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
         } catch (final IllegalArgumentException e) {
             throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
         }
+
+        adaptiveRunDurationEnabled = Boolean.parseBoolean(nifiProperties.getProperty(ADAPTIVE_RUN_DURATION_ENABLED, "false"));
+        final String maxAdaptiveRunDuration = nifiProperties.getProperty(ADAPTIVE_RUN_DURATION_MAX, DEFAULT_ADAPTIVE_RUN_DURATION_MAX);
+        try {
+            maxAdaptiveRunDurationNanos = FormatUtils.getTimeDuration(maxAdaptiveRunDuration, TimeUnit.NANOSECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + ADAPTIVE_RUN_DURATION_MAX + " property is set to an invalid time duration: " + maxAdaptiveRunDuration);
+        }
     }
 
     @Override
@@ -68,7 +95,8 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
     @Override
     public void doSchedule(final Connectable connectable, final LifecycleState scheduleState) {
         final List<ScheduledFuture<?>> futures = new ArrayList<>();
-        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState);
+        final AdaptiveRunDuration adaptiveRunDuration = adaptiveRunDurationEnabled ? new AdaptiveRunDuration(maxAdaptiveRunDurationNanos) : null;
+        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState, adaptiveRunDuration);
 
         for (int i = 0; i < connectable.getMaxConcurrentTasks(); i++) {
             // Determine the task to run and create it.
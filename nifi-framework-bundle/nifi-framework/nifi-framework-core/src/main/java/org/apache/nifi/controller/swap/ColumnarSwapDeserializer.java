@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+import static org.apache.nifi.controller.swap.ColumnarSwapSerializer.readVarInt;
+import static org.apache.nifi.controller.swap.ColumnarSwapSerializer.readVarLong;
+import static org.apache.nifi.controller.swap.ColumnarSwapSerializer.unZigZag;
+
+/**
+ * Reads swap files that were written by the {@link ColumnarSwapSerializer}. Because each distinct attribute key and value is read only once,
+ * FlowFiles that are swapped in share the same String instances for their common attributes.
+ */
+public class ColumnarSwapDeserializer implements SwapDeserializer {
+
+    @Override
+    public SwapContents deserializeFlowFiles(final DataInputStream in, final String swapLocation, final FlowFileQueue queue, final ResourceClaimManager claimManager) throws IOException {
+        final List<ResourceClaim> resourceClaims = new ArrayList<>();
+        final SwapSummary swapSummary = readHeader(in, swapLocation, claimManager, resourceClaims);
+
+        final DataInputStream bodyIn = new DataInputStream(new InflaterInputStream(in));
+        final int flowFileCount = readVarInt(bodyIn);
+
+        final String[] strings = new String[readVarInt(bodyIn)];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[readVarInt(bodyIn)];
+            bodyIn.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final List<StandardFlowFileRecord.Builder> builders = new ArrayList<>(flowFileCount);
+        long previousId = 0L;
+        for (int i = 0; i < flowFileCount; i++) {
+            final long id = previousId + unZigZag(readVarLong(bodyIn));
+            builders.add(new StandardFlowFileRecord.Builder().id(id));
+            previousId = id;
+        }
+
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            builder.entryDate(bodyIn.readLong());
+        }
+
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            builder.lineageStart(bodyIn.readLong(), bodyIn.readLong());
+        }
+
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            builder.lastQueued(bodyIn.readLong(), bodyIn.readLong());
+        }
+
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            builder.size(bodyIn.readLong());
+        }
+
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            final int claimIndex = readVarInt(bodyIn);
+            if (claimIndex == 0) {
+                continue;
+            }
+
+            final StandardContentClaim contentClaim = new StandardContentClaim(resourceClaims.get(claimIndex - 1), bodyIn.readLong());
+            contentClaim.setLength(bodyIn.readLong());
+            builder.contentClaim(contentClaim);
+            builder.contentClaimOffset(bodyIn.readLong());
+        }
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(flowFileCount);
+        for (final StandardFlowFileRecord.Builder builder : builders) {
+            final int attributeCount = readVarInt(bodyIn);
+            for (int i = 0; i < attributeCount; i++) {
+                builder.addAttribute(strings[readVarInt(bodyIn)], strings[readVarInt(bodyIn)]);
+            }
+
+            flowFiles.add(builder.build());
+        }
+
+        return new StandardSwapContents(swapSummary, flowFiles);
+    }
+
+    @Override
+    public SwapSummary getSwapSummary(final DataInputStream in, final String swapLocation, final ResourceClaimManager claimManager) throws IOException {
+        return readHeader(in, swapLocation, claimManager, new ArrayList<>());
+    }
+
+    private SwapSummary readHeader(final DataInputStream in, final String swapLocation, final ResourceClaimManager claimManager,
+                                   final List<ResourceClaim> distinctResourceClaims) throws IOException {
+        final int encodingVersion = in.readInt();
+        if (encodingVersion > ColumnarSwapSerializer.ENCODING_VERSION) {
+            throw new IOException("Cannot read Swap File " + swapLocation + " because it was written with encoding version " + encodingVersion
+                + " but this version of NiFi can only read up to encoding version " + ColumnarSwapSerializer.ENCODING_VERSION);
+        }
+
+        in.readUTF(); // queue identifier
+        final int flowFileCount = in.readInt();
+        final long contentSize = in.readLong();
+        final long maxFlowFileId = in.readLong();
+        final boolean minLastQueueDatePresent = in.readBoolean();
+        final long minLastQueueDate = in.readLong();
+        final long totalLastQueueDate = in.readLong();
+
+        final int claimCount = in.readInt();
+        final List<ResourceClaim> resourceClaims = new ArrayList<>();
+        for (int i = 0; i < claimCount; i++) {
+            final ResourceClaim resourceClaim = readResourceClaim(in, claimManager);
+            distinctResourceClaims.add(resourceClaim);
+            final int references = in.readInt();
+            for (int j = 0; j < references; j++) {
+                resourceClaims.add(resourceClaim);
+            }
+        }
+
+        final QueueSize queueSize = new QueueSize(flowFileCount, contentSize);
+        return new StandardSwapSummary(queueSize, maxFlowFileId, resourceClaims, minLastQueueDatePresent ? minLastQueueDate : System.currentTimeMillis(), totalLastQueueDate);
+    }
+
+    private ResourceClaim readResourceClaim(final DataInputStream in, final ResourceClaimManager claimManager) throws IOException {
+        final String container = in.readUTF();
+        final String section = in.readUTF();
+        final String identifier = in.readUTF();
+        final boolean lossTolerant = in.readBoolean();
+
+        // Make sure that we preserve the existing ResourceClaim, if there is already one held by the Resource Claim Manager
+        // because we need to honor its determination of whether or not the claim is writable.
+        ResourceClaim resourceClaim = claimManager.getResourceClaim(container, section, identifier);
+        if (resourceClaim == null) {
+            resourceClaim = claimManager.newResourceClaim(container, section, identifier, lossTolerant, false);
+        }
+
+        return resourceClaim;
+    }
+
+    public static String getSerializationName() {
+        return ColumnarSwapSerializer.SERIALIZATION_NAME;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * <p>
+ * Writes swap files in a columnar, compressed format. The file begins with an uncompressed header that contains the Swap Summary, so that
+ * the summary can be read on restart without reading the FlowFiles themselves. The header is followed by a single compressed block that holds
+ * a dictionary of all distinct attribute keys and values and then each FlowFile field written as a column, one value per FlowFile. FlowFiles in
+ * the same queue typically share most of their attribute keys and many of their values, so each distinct String is written only once and each
+ * attribute is written as a pair of dictionary indices. Content Claims refer to the Resource Claims of the header by index.
+ * </p>
+ *
+ * <p>
+ * Counts, lengths, and dictionary indices are written as variable-length integers. FlowFile IDs within a swap file are typically close to one
+ * another, so each ID is written as the zig-zag encoded, variable-length difference from the previous ID, which usually requires a single byte.
+ * </p>
+ *
+ * <p>
+ * The format of the header is:
+ * </p>
+ * <ul>
+ * <li>int: encoding version</li>
+ * <li>UTF: queue identifier</li>
+ * <li>int: FlowFile count</li>
+ * <li>long: total content size</li>
+ * <li>long: max FlowFile ID</li>
+ * <li>boolean + long: whether or not a min Last Queue Date is present and, if so, its value</li>
+ * <li>long: total of all Last Queue Dates</li>
+ * <li>int: number of distinct Resource Claims, followed by each Resource Claim (container, section, identifier, loss tolerant) and the number of
+ * FlowFiles that reference it</li>
+ * </ul>
+ */
+public class ColumnarSwapSerializer implements SwapSerializer {
+    static final String SERIALIZATION_NAME = "Columnar Swap Serialization";
+    static final int ENCODING_VERSION = 1;
+
+    private static final int COMPRESSION_BUFFER_SIZE = 65536;
+
+    @Override
+    public void serializeFlowFiles(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final String swapLocation, final OutputStream out) throws IOException {
+        final DataOutputStream headerOut = new DataOutputStream(out);
+        final Map<ResourceClaim, Integer> claimIndices = writeHeader(toSwap, queue, headerOut);
+        headerOut.flush();
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            final DeflaterOutputStream compressedOut = new DeflaterOutputStream(out, deflater, COMPRESSION_BUFFER_SIZE);
+            final DataOutputStream bodyOut = new DataOutputStream(compressedOut);
+            writeBody(toSwap, claimIndices, bodyOut);
+            bodyOut.flush();
+            compressedOut.finish();
+        } finally {
+            deflater.end();
+        }
+
+        out.flush();
+    }
+
+    private Map<ResourceClaim, Integer> writeHeader(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final DataOutputStream out) throws IOException {
+        long contentSize = 0L;
+        long maxFlowFileId = -1L;
+        Long minLastQueueDate = null;
+        long totalLastQueueDate = 0L;
+        final Map<ResourceClaim, Integer> claimCounts = new LinkedHashMap<>();
+        for (final FlowFileRecord flowFile : toSwap) {
+            contentSize += flowFile.getSize();
+            if (flowFile.getId() > maxFlowFileId) {
+                maxFlowFileId = flowFile.getId();
+            }
+
+            totalLastQueueDate += flowFile.getLastQueueDate();
+            minLastQueueDate = minLastQueueDate == null ? flowFile.getLastQueueDate() : Long.min(minLastQueueDate, flowFile.getLastQueueDate());
+
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim != null) {
+                claimCounts.merge(contentClaim.getResourceClaim(), 1, Integer::sum);
+            }
+        }
+
+        out.writeInt(ENCODING_VERSION);
+        out.writeUTF(queue.getIdentifier());
+        out.writeInt(toSwap.size());
+        out.writeLong(contentSize);
+        out.writeLong(maxFlowFileId);
+        out.writeBoolean(minLastQueueDate != null);
+        out.writeLong(minLastQueueDate == null ? 0L : minLastQueueDate);
+        out.writeLong(totalLastQueueDate);
+
+        final Map<ResourceClaim, Integer> claimIndices = new HashMap<>();
+        out.writeInt(claimCounts.size());
+        for (final Map.Entry<ResourceClaim, Integer> entry : claimCounts.entrySet()) {
+            writeResourceClaim(entry.getKey(), out);
+            out.writeInt(entry.getValue());
+            claimIndices.put(entry.getKey(), claimIndices.size());
+        }
+
+        return claimIndices;
+    }
+
+    private void writeBody(final List<FlowFileRecord> toSwap, final Map<ResourceClaim, Integer> claimIndices, final DataOutputStream out) throws IOException {
+        final Map<String, Integer> stringIndices = new LinkedHashMap<>();
+        for (final FlowFileRecord flowFile : toSwap) {
+            for (final Map.Entry<String, String> entry : flowFile.getAttributes().entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+
+                stringIndices.putIfAbsent(entry.getKey(), stringIndices.size());
+                stringIndices.putIfAbsent(entry.getValue(), stringIndices.size());
+            }
+        }
+
+        writeVarInt(out, toSwap.size());
+
+        writeVarInt(out, stringIndices.size());
+        for (final String value : stringIndices.keySet()) {
+            // Attribute values may exceed the 64 KB limit of DataOutputStream.writeUTF, so write the length explicitly
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        // FlowFiles are not necessarily ordered by ID, so the difference from the previous ID may be negative
+        long previousId = 0L;
+        for (final FlowFileRecord flowFile : toSwap) {
+            writeVarLong(out, zigZag(flowFile.getId() - previousId));
+            previousId = flowFile.getId();
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            out.writeLong(flowFile.getEntryDate());
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            out.writeLong(flowFile.getLineageStartDate());
+            out.writeLong(flowFile.getLineageStartIndex());
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            out.writeLong(flowFile.getLastQueueDate());
+            out.writeLong(flowFile.getQueueDateIndex());
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            out.writeLong(flowFile.getSize());
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim == null) {
+                writeVarInt(out, 0);
+                continue;
+            }
+
+            // Index 0 indicates that there is no Content Claim, so Resource Claim indices are written offset by one
+            writeVarInt(out, claimIndices.get(contentClaim.getResourceClaim()) + 1);
+            out.writeLong(contentClaim.getOffset());
+            out.writeLong(contentClaim.getLength());
+            out.writeLong(flowFile.getContentClaimOffset());
+        }
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            final Map<String, String> attributes = flowFile.getAttributes();
+
+            int attributeCount = 0;
+            for (final String value : attributes.values()) {
+                if (value != null) {
+                    attributeCount++;
+                }
+            }
+
+            writeVarInt(out, attributeCount);
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+
+                writeVarInt(out, stringIndices.get(entry.getKey()));
+                writeVarInt(out, stringIndices.get(entry.getValue()));
+            }
+        }
+    }
+
+    private void writeResourceClaim(final ResourceClaim resourceClaim, final DataOutputStream out) throws IOException {
+        out.writeUTF(resourceClaim.getContainer());
+        out.writeUTF(resourceClaim.getSection());
+        out.writeUTF(resourceClaim.getId());
+        out.writeBoolean(resourceClaim.isLossTolerant());
+    }
+
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(final DataInputStream in) throws IOException {
+        final long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Expected a non-negative integer value but found " + value);
+        }
+
+        return (int) value;
+    }
+
+    static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        out.write((int) remaining);
+    }
+
+    static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Variable-length integer is too long");
+    }
+
+    @Override
+    public String getSerializationName() {
+        return SERIALIZATION_NAME;
+    }
+}
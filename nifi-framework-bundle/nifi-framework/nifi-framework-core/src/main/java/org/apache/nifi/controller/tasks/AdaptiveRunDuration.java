@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.tasks;
+
+import org.apache.nifi.controller.repository.FlowFileEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Tunes the Run Duration of a single component based on the metrics that are gathered each time the component is triggered.
+ * The Run Duration that is configured for the component is used as the lower bound, so that a component is never batched less
+ * than the user requested, and the maximum is configured for the entire instance.
+ * </p>
+ *
+ * <p>
+ * After each invocation, the Run Duration is doubled if the component still has work to do and batching would pay off, meaning
+ * that the component spent a significant portion of its time committing sessions or that each trigger was very short. It is halved
+ * if the component ran out of work or stopped because back pressure was engaged, since in either case a longer batch only adds latency
+ * for the FlowFiles that have already been processed.
+ * </p>
+ *
+ * <p>
+ * Concurrent tasks that share a component also share its AdaptiveRunDuration. Updates are not synchronized, as a lost update
+ * only delays the adjustment until the next invocation.
+ * </p>
+ */
+public class AdaptiveRunDuration {
+    static final long INITIAL_RUN_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    static final long SHORT_INVOCATION_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    static final double COMMIT_OVERHEAD_THRESHOLD = 0.1D;
+
+    private final long maxRunDurationNanos;
+    private volatile long runDurationNanos = 0L;
+
+    public AdaptiveRunDuration(final long maxRunDurationNanos) {
+        this.maxRunDurationNanos = maxRunDurationNanos;
+    }
+
+    /**
+     * @param configuredRunDurationNanos the Run Duration that is configured for the component
+     * @return the Run Duration to use for the next invocation, in nanoseconds
+     */
+    public long getRunDuration(final long configuredRunDurationNanos) {
+        return Math.max(configuredRunDurationNanos, runDurationNanos);
+    }
+
+    /**
+     * Adjusts the Run Duration based on the results of an invocation of the component
+     *
+     * @param event the metrics for the invocation
+     * @param workRemaining whether or not the component still had work to do when the invocation completed
+     * @param backPressureEngaged whether or not the invocation stopped because back pressure was engaged
+     */
+    public void update(final FlowFileEvent event, final boolean workRemaining, final boolean backPressureEngaged) {
+        final long current = runDurationNanos;
+
+        if (backPressureEngaged || !workRemaining) {
+            final long decreased = current / 2;
+            runDurationNanos = decreased < INITIAL_RUN_DURATION_NANOS ? 0L : decreased;
+            return;
+        }
+
+        final int invocations = Math.max(1, event.getInvocations());
+        final long processingNanos = Math.max(1L, event.getProcessingNanoseconds());
+        final double commitOverhead = (double) event.getSessionCommitNanoseconds() / (double) processingNanos;
+        final boolean shortInvocations = processingNanos / invocations < SHORT_INVOCATION_NANOS;
+
+        if (commitOverhead >= COMMIT_OVERHEAD_THRESHOLD || shortInvocations) {
+            final long increased = current == 0L ? INITIAL_RUN_DURATION_NANOS : current * 2;
+            runDurationNanos = Math.min(maxRunDurationNanos, increased);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveRunDuration[current=" + TimeUnit.NANOSECONDS.toMillis(runDurationNanos) + " millis, max=" + TimeUnit.NANOSECONDS.toMillis(maxRunDurationNanos) + " millis]";
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.nifi.controller.lifecycle.TaskTerminationAwareStateManager;
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.repository.ActiveProcessSessionFactory;
 import org.apache.nifi.controller.repository.BatchingSessionFactory;
+import org.apache.nifi.controller.repository.FlowFileEvent;
 import org.apache.nifi.controller.repository.RepositoryContext;
 import org.apache.nifi.controller.repository.StandardProcessSession;
 import org.apache.nifi.controller.repository.StandardProcessSessionFactory;
@@ -77,9 +78,25 @@ public class ConnectableTask {
     private final AtomicLong invocations = new AtomicLong(0L);
     private volatile SampledMetrics sampledMetrics = new SampledMetrics();
     private final int perfTrackingNthIteration;
+    private final AdaptiveRunDuration adaptiveRunDuration;
 
     public ConnectableTask(final SchedulingAgent schedulingAgent, final Connectable connectable,
                            final FlowController flowController, final RepositoryContextFactory contextFactory, final LifecycleState lifecycleState) {
+        this(schedulingAgent, connectable, flowController, contextFactory, lifecycleState, null);
+    }
+
+    /**
+     * Creates a ConnectableTask
+     *
+     * @param schedulingAgent the agent that schedules the component
+     * @param connectable the component to run
+     * @param flowController the flow controller
+     * @param contextFactory the factory for the component's repository context
+     * @param lifecycleState the lifecycle state of the component
+     * @param adaptiveRunDuration tunes the component's Run Duration based on its metrics, or <code>null</code> to always use the configured Run Duration
+     */
+    public ConnectableTask(final SchedulingAgent schedulingAgent, final Connectable connectable, final FlowController flowController, final RepositoryContextFactory contextFactory,
+                           final LifecycleState lifecycleState, final AdaptiveRunDuration adaptiveRunDuration) {
 
         this.schedulingAgent = schedulingAgent;
         this.connectable = connectable;
@@ -87,6 +104,7 @@ public class ConnectableTask {
         this.numRelationships = connectable.getRelationships().size();
         this.flowController = flowController;
         this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.adaptiveRunDuration = connectable.isSessionBatchingSupported() ? adaptiveRunDuration : null;
 
         final StateManager stateManager = new TaskTerminationAwareStateManager(flowController.getStateManagerProvider().getStateManager(connectable.getIdentifier()), lifecycleState::isTerminated);
         if (connectable instanceof ProcessorNode) {
@@ -213,7 +231,8 @@ public class ConnectableTask {
 
         final PerformanceTracker performanceTracker = measureExpensiveMetrics ? new NanoTimePerformanceTracker() : new NopPerformanceTracker();
 
-        final long batchNanos = connectable.getRunDuration(TimeUnit.NANOSECONDS);
+        final long configuredBatchNanos = connectable.getRunDuration(TimeUnit.NANOSECONDS);
+        final long batchNanos = adaptiveRunDuration == null ? configuredBatchNanos : adaptiveRunDuration.getRunDuration(configuredBatchNanos);
         final ProcessSessionFactory sessionFactory;
         final StandardProcessSession rawSession;
         final boolean batch;
@@ -234,6 +253,7 @@ public class ConnectableTask {
         final long finishIfBackpressureEngaged = startNanos + (batchNanos / 25L);
         final long finishNanos = startNanos + batchNanos;
         int invocationCount = 0;
+        boolean backPressureEngaged = false;
 
         final String originalThreadName = Thread.currentThread().getName();
         try {
@@ -253,6 +273,7 @@ public class ConnectableTask {
                     }
 
                     if (nanoTime > finishIfBackpressureEngaged && isBackPressureEngaged()) {
+                        backPressureEngaged = true;
                         return InvocationResult.DO_NOT_YIELD;
                     }
 
@@ -270,6 +291,7 @@ public class ConnectableTask {
                     if (numRelationships > 0) {
                         final int requiredNumberOfAvailableRelationships = connectable.isTriggerWhenAnyDestinationAvailable() ? 1 : numRelationships;
                         shouldRun = repositoryContext.isRelationshipAvailabilitySatisfied(requiredNumberOfAvailableRelationships);
+                        backPressureEngaged = !shouldRun;
                     }
                 }
             } catch (final TerminatedTaskException e) {
@@ -299,7 +321,10 @@ public class ConnectableTask {
                 }
 
                 try {
-                    updateEventRepo(startNanos, startCpuTime, startGcMillis, invocationCount, measureCpuTime, performanceTracker);
+                    final FlowFileEvent flowFileEvent = updateEventRepo(startNanos, startCpuTime, startGcMillis, invocationCount, measureCpuTime, performanceTracker);
+                    if (adaptiveRunDuration != null) {
+                        adaptiveRunDuration.update(flowFileEvent, isWorkToDo(), backPressureEngaged);
+                    }
                 } catch (final IOException e) {
                     logger.error("Unable to update FlowFileEvent Repository for {}; statistics may be inaccurate.", connectable.getRunnableComponent(), e);
                 }
@@ -312,7 +337,7 @@ public class ConnectableTask {
         return InvocationResult.DO_NOT_YIELD;
     }
 
-    private void updateEventRepo(final long startNanoTime, final long startCpuTime, final long startGcMillis, final int invocationCount, final boolean measureCpuTime,
+    private FlowFileEvent updateEventRepo(final long startNanoTime, final long startCpuTime, final long startGcMillis, final int invocationCount, final boolean measureCpuTime,
                                  final PerformanceTracker performanceTracker)
                 throws IOException {
         final long processingNanos = System.nanoTime() - startNanoTime;
@@ -330,6 +355,7 @@ public class ConnectableTask {
         }
 
         repositoryContext.getFlowFileEventRepository().updateRepository(flowFileEvent, connectable.getIdentifier());
+        return flowFileEvent;
     }
 
     private void estimatePerformanceTrackingMetrics(final StandardFlowFileEvent flowFileEvent, final long processingNanos) {
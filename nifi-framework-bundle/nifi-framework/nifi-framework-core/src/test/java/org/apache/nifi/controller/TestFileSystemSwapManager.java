@@ -23,6 +23,8 @@ import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.swap.ColumnarSwapDeserializer;
+import org.apache.nifi.controller.swap.SchemaSwapDeserializer;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.junit.jupiter.api.Test;
@@ -113,6 +115,37 @@ public class TestFileSystemSwapManager {
                 () -> swapManager.swapOut(flowFileRecords, flowFileQueue, "partition-1"));
     }
 
+    @Test
+    public void testSwapOutSchemaFormatByDefault() throws IOException {
+        final FileSystemSwapManager swapManager = createSwapManager();
+        assertSwapOutSerializationName(swapManager, SchemaSwapDeserializer.getSerializationName());
+    }
+
+    @Test
+    public void testSwapOutColumnarFormatEnabled() throws IOException {
+        final FileSystemSwapManager swapManager = createSwapManager(mock(FlowFileRepository.class), true);
+        assertSwapOutSerializationName(swapManager, ColumnarSwapDeserializer.getSerializationName());
+    }
+
+    private void assertSwapOutSerializationName(final FileSystemSwapManager swapManager, final String expectedSerializationName) throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        final String swapLocation = swapManager.swapOut(flowFileRecords, flowFileQueue, null);
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(swapLocation)))) {
+            in.readFully(new byte[4]);
+            assertEquals(expectedSerializationName, in.readUTF());
+        }
+
+        final SwapContents swapContents = swapManager.peek(swapLocation, flowFileQueue);
+        assertEquals(flowFileRecords.size(), swapContents.getFlowFiles().size());
+    }
+
     @Test
     public void testSwapFileUnknownToRepoNotSwappedIn() throws IOException {
         final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
@@ -172,7 +205,11 @@ public class TestFileSystemSwapManager {
     public Path temporaryFolder;
 
     private FileSystemSwapManager createSwapManager(final FlowFileRepository flowFileRepo) {
-        final FileSystemSwapManager swapManager = new FileSystemSwapManager(temporaryFolder);
+        return createSwapManager(flowFileRepo, false);
+    }
+
+    private FileSystemSwapManager createSwapManager(final FlowFileRepository flowFileRepo, final boolean columnarFormatEnabled) {
+        final FileSystemSwapManager swapManager = new FileSystemSwapManager(temporaryFolder, columnarFormatEnabled);
         final ResourceClaimManager resourceClaimManager = new NopResourceClaimManager();
         swapManager.initialize(new SwapManagerInitializationContext() {
             @Override
@@ -42,6 +42,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -651,6 +653,57 @@ public class TestSwappablePriorityQueue {
     }
 
 
+    @Test
+    @Timeout(30)
+    public void testConcurrentPutAndPollWithoutPrioritizers() throws InterruptedException {
+        final int producerCount = 8;
+        final int flowFilesPerProducer = 5000;
+        final int totalFlowFiles = producerCount * flowFilesPerProducer;
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            threads.add(new Thread(() -> {
+                // Alternate between put and putAll, adding 10 FlowFiles per iteration
+                for (int j = 0; j < flowFilesPerProducer / 10; j++) {
+                    final List<FlowFileRecord> batch = new ArrayList<>();
+                    for (int k = 0; k < 5; k++) {
+                        queue.put(new MockFlowFileRecord(1L));
+                        batch.add(new MockFlowFileRecord(1L));
+                    }
+                    queue.putAll(batch);
+                }
+            }));
+        }
+
+        final Set<FlowFileRecord> polled = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger(0);
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                while (polled.size() < totalFlowFiles) {
+                    final List<FlowFileRecord> flowFiles = queue.poll(100, new HashSet<>(), 0L);
+                    for (final FlowFileRecord flowFile : flowFiles) {
+                        if (!polled.add(flowFile)) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+
+                    queue.acknowledge(flowFiles);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(totalFlowFiles, polled.size());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size().getByteCount());
+        assertTrue(queue.getActiveFlowFiles().isEmpty());
+    }
+
     @Test
     @Timeout(5)
     public void testGetActiveFlowFilesReturnsAllActiveFlowFiles() throws InterruptedException {
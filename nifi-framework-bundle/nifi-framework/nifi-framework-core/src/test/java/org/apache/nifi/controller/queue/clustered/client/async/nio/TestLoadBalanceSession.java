@@ -23,6 +23,7 @@ import org.apache.nifi.controller.queue.clustered.FlowFileContentAccess;
 import org.apache.nifi.controller.queue.clustered.SimpleLimitThreshold;
 import org.apache.nifi.controller.queue.clustered.client.StandardLoadBalanceFlowFileCodec;
 import org.apache.nifi.controller.queue.clustered.client.async.TransactionFailureCallback;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.junit.jupiter.api.AfterEach;
@@ -35,6 +36,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -137,10 +139,11 @@ public class TestLoadBalanceSession {
 
         final Checksum expectedChecksum = new CRC32();
         final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
-        expectedOut.write(1); // Protocol Version
+        expectedOut.write(2); // Protocol Version
 
         final DataOutputStream expectedDos = new DataOutputStream(new CheckedOutputStream(expectedOut, expectedChecksum));
         expectedDos.writeUTF("unit-test-connection");
+        expectedDos.write(LoadBalanceCompressionCodec.GZIP.getId());
 
         expectedDos.write(LoadBalanceProtocolConstants.CHECK_SPACE);
         expectedDos.write(LoadBalanceProtocolConstants.MORE_FLOWFILES);
@@ -226,11 +229,12 @@ public class TestLoadBalanceSession {
 
         final Checksum expectedChecksum = new CRC32();
         final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
-        expectedOut.write(1); // Protocol Version
+        expectedOut.write(2); // Protocol Version
 
         final DataOutputStream expectedDos = new DataOutputStream(new CheckedOutputStream(expectedOut, expectedChecksum));
 
         expectedDos.writeUTF("unit-test-connection");
+        expectedDos.write(LoadBalanceCompressionCodec.GZIP.getId());
 
         expectedDos.write(LoadBalanceProtocolConstants.CHECK_SPACE);
         expectedDos.write(LoadBalanceProtocolConstants.MORE_FLOWFILES);
@@ -270,4 +274,124 @@ public class TestLoadBalanceSession {
 
         assertEquals(Arrays.asList(flowFile1), transaction.getAndPurgeFlowFilesSent());
     }
+
+    @Test
+    @Timeout(10)
+    public void testSmallFlowFilesBatched() throws InterruptedException, IOException {
+        final byte[] largeContent = new byte[66000];
+        Arrays.fill(largeContent, (byte) 'A');
+
+        final Queue<FlowFileRecord> flowFiles = new LinkedList<>();
+        final FlowFileRecord flowFile1 = new MockFlowFileRecord(5);
+        final FlowFileRecord flowFile2 = new MockFlowFileRecord(8);
+        final FlowFileRecord flowFile3 = new MockFlowFileRecord(largeContent.length);
+        final FlowFileRecord flowFile4 = new MockFlowFileRecord(3);
+        flowFiles.offer(flowFile1);
+        flowFiles.offer(flowFile2);
+        flowFiles.offer(flowFile3);
+        flowFiles.offer(flowFile4);
+
+        final Map<FlowFileRecord, InputStream> contentMap = new HashMap<>();
+        contentMap.put(flowFile1, new ByteArrayInputStream("hello".getBytes()));
+        contentMap.put(flowFile2, new ByteArrayInputStream("good-bye".getBytes()));
+        contentMap.put(flowFile3, new ByteArrayInputStream(largeContent));
+        contentMap.put(flowFile4, new ByteArrayInputStream("hey".getBytes()));
+
+        final FlowFileContentAccess contentAccess = contentMap::get;
+
+        final RegisteredPartition partition = new RegisteredPartition("unit-test-connection", () -> false,
+            flowFiles::poll, NOP_FAILURE_CALLBACK, (ff, nodeId) -> { }, () -> LoadBalanceCompression.COMPRESS_ATTRIBUTES_AND_CONTENT, () -> true);
+
+        final SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress("localhost", port));
+
+        socketChannel.configureBlocking(false);
+        final PeerChannel peerChannel = new PeerChannel(socketChannel, null, "unit-test");
+        final LoadBalanceSession transaction = new LoadBalanceSession(partition, contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
+            new SimpleLimitThreshold(100, 10_000_000), LoadBalanceCompressionCodec.LZ4);
+
+        Thread.sleep(100L);
+
+        while (transaction.communicate()) {
+        }
+
+        assertTrue(transaction.getSessionState().isComplete());
+        socketChannel.close();
+
+        final Checksum expectedChecksum = new CRC32();
+        final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+        expectedOut.write(2); // Protocol Version
+
+        final DataOutputStream expectedDos = new DataOutputStream(new CheckedOutputStream(expectedOut, expectedChecksum));
+        expectedDos.writeUTF("unit-test-connection");
+        expectedDos.write(LoadBalanceCompressionCodec.LZ4.getId());
+
+        expectedDos.write(LoadBalanceProtocolConstants.CHECK_SPACE);
+
+        // The first two FlowFiles are batched together. The third is too large to batch, so it ends the batch and is sent on its own.
+        final byte[] firstBatch = compress(encodeBatch(Arrays.asList(flowFile1, flowFile2), Arrays.asList("hello", "good-bye")));
+        expectedDos.write(LoadBalanceProtocolConstants.FLOWFILE_BATCH_FOLLOWS);
+        expectedDos.writeInt(2);
+        expectedDos.writeInt(firstBatch.length);
+        expectedDos.write(firstBatch);
+
+        final ByteArrayOutputStream metadataOut = new ByteArrayOutputStream();
+        new StandardLoadBalanceFlowFileCodec().encode(flowFile3, metadataOut);
+        final byte[] metadata = compress(metadataOut.toByteArray());
+        expectedDos.write(LoadBalanceProtocolConstants.MORE_FLOWFILES);
+        expectedDos.writeInt(metadata.length);
+        expectedDos.write(metadata);
+
+        final byte[] firstFrame = compress(Arrays.copyOfRange(largeContent, 0, LoadBalanceSession.MAX_DATA_FRAME_SIZE));
+        expectedDos.write(LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS);
+        expectedDos.writeInt(firstFrame.length);
+        expectedDos.write(firstFrame);
+
+        final byte[] secondFrame = compress(Arrays.copyOfRange(largeContent, LoadBalanceSession.MAX_DATA_FRAME_SIZE, largeContent.length));
+        expectedDos.write(LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS);
+        expectedDos.writeInt(secondFrame.length);
+        expectedDos.write(secondFrame);
+        expectedDos.write(LoadBalanceProtocolConstants.NO_DATA_FRAME);
+
+        final byte[] secondBatch = compress(encodeBatch(List.of(flowFile4), List.of("hey")));
+        expectedDos.write(LoadBalanceProtocolConstants.FLOWFILE_BATCH_FOLLOWS);
+        expectedDos.writeInt(1);
+        expectedDos.writeInt(secondBatch.length);
+        expectedDos.write(secondBatch);
+
+        expectedDos.write(LoadBalanceProtocolConstants.NO_MORE_FLOWFILES);
+        expectedDos.writeLong(expectedChecksum.getValue());
+        expectedDos.write(LoadBalanceProtocolConstants.COMPLETE_TRANSACTION);
+
+        final byte[] expectedSent = expectedOut.toByteArray();
+
+        while (received.size() < expectedSent.length) {
+            Thread.sleep(10L);
+        }
+        final byte[] dataSent = received.toByteArray();
+
+        assertArrayEquals(expectedSent, dataSent);
+
+        assertEquals(Arrays.asList(flowFile1, flowFile2, flowFile3, flowFile4), transaction.getAndPurgeFlowFilesSent());
+    }
+
+    private byte[] encodeBatch(final List<FlowFileRecord> flowFiles, final List<String> contents) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(baos);
+        for (int i = 0; i < flowFiles.size(); i++) {
+            new StandardLoadBalanceFlowFileCodec().encode(flowFiles.get(i), out);
+            out.writeLong(flowFiles.get(i).getSize());
+            out.write(contents.get(i).getBytes());
+        }
+
+        return baos.toByteArray();
+    }
+
+    private byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final OutputStream out = LoadBalanceCompressionCodec.LZ4.compress(baos)) {
+            out.write(data);
+        }
+
+        return baos.toByteArray();
+    }
 }
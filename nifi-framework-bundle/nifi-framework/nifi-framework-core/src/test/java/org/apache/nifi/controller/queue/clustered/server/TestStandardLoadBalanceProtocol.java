@@ -23,6 +23,7 @@ import org.apache.nifi.controller.flow.FlowManager;
 import org.apache.nifi.controller.queue.IllegalClusterStateException;
 import org.apache.nifi.controller.queue.LoadBalanceCompression;
 import org.apache.nifi.controller.queue.LoadBalancedFlowFileQueue;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceCompressionCodec;
 import org.apache.nifi.controller.repository.ContentRepository;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
@@ -63,6 +64,7 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.FLOWFILE_BATCH_FOLLOWS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_FLOWFILES;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_DATA_FRAME;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_FLOWFILES;
@@ -71,6 +73,7 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.SPACE_AVAILABLE;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyCollection;
@@ -603,6 +606,88 @@ public class TestStandardLoadBalanceProtocol {
         Mockito.verify(flowFileQueue, times(1)).receiveFromPeer(anyCollection());
     }
 
+    @Test
+    public void testFlowFileBatch() throws IOException {
+        final StandardLoadBalanceProtocol protocol = new StandardLoadBalanceProtocol(flowFileRepo, contentRepo, provenanceRepo, flowController, ALWAYS_AUTHORIZED);
+
+        final PipedInputStream serverInput = new PipedInputStream();
+        final PipedOutputStream serverContentSource = new PipedOutputStream();
+        serverInput.connect(serverContentSource);
+
+        final ByteArrayOutputStream serverOutput = new ByteArrayOutputStream();
+
+        // Write connection ID and Compression Codec
+        final Checksum checksum = new CRC32();
+        final OutputStream checkedOutput = new CheckedOutputStream(serverContentSource, checksum);
+        final DataOutputStream dos = new DataOutputStream(checkedOutput);
+        dos.writeUTF("unit-test-connection-id");
+        dos.write(LoadBalanceCompressionCodec.LZ4.getId());
+
+        final ByteArrayOutputStream batchOut = new ByteArrayOutputStream();
+        try (final DataOutputStream batchDos = new DataOutputStream(LoadBalanceCompressionCodec.LZ4.compress(batchOut))) {
+            writeBatchedFlowFile(Collections.singletonMap("uuid", "unit-test-id-1"), "hello".getBytes(), batchDos);
+            writeBatchedFlowFile(Collections.singletonMap("uuid", "unit-test-id-2"), new byte[0], batchDos);
+            writeBatchedFlowFile(Collections.singletonMap("uuid", "unit-test-id-3"), "greetings".getBytes(), batchDos);
+        }
+
+        dos.write(CHECK_SPACE);
+        dos.write(FLOWFILE_BATCH_FOLLOWS);
+        dos.writeInt(3);
+        dos.writeInt(batchOut.size());
+        batchOut.writeTo(dos);
+        dos.write(NO_MORE_FLOWFILES);
+
+        dos.writeLong(checksum.getValue());
+        dos.write(COMPLETE_TRANSACTION);
+
+        protocol.receiveFlowFiles(serverInput, serverOutput, "Unit Test", 2);
+
+        final byte[] serverResponse = serverOutput.toByteArray();
+        assertEquals(3, serverResponse.length);
+        assertEquals(SPACE_AVAILABLE, serverResponse[0]);
+        assertEquals(CONFIRM_CHECKSUM, serverResponse[1]);
+        assertEquals(CONFIRM_COMPLETE_TRANSACTION, serverResponse[2]);
+
+        assertEquals(1, claimContents.size());
+        assertArrayEquals("hellogreetings".getBytes(), claimContents.values().iterator().next());
+
+        assertEquals(3, flowFileQueueReceiveRecords.size());
+        final FlowFileRecord first = flowFileQueueReceiveRecords.get(0);
+        assertEquals(0L, first.getContentClaimOffset());
+        assertEquals(5L, first.getSize());
+
+        final FlowFileRecord second = flowFileQueueReceiveRecords.get(1);
+        assertNull(second.getContentClaim());
+        assertEquals(0L, second.getSize());
+
+        final FlowFileRecord third = flowFileQueueReceiveRecords.get(2);
+        assertEquals(5L, third.getContentClaimOffset());
+        assertEquals(9L, third.getSize());
+
+        assertEquals(3, provRepoUpdateRecords.size());
+        assertTrue(provRepoUpdateRecords.stream().allMatch(event -> event.getEventType() == ProvenanceEventType.RECEIVE));
+    }
+
+    private void writeBatchedFlowFile(final Map<String, String> attributes, final byte[] content, final DataOutputStream out) throws IOException {
+        out.writeInt(attributes.size());
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            final byte[] key = entry.getKey().getBytes();
+            out.writeInt(key.length);
+            out.write(key);
+
+            final byte[] value = entry.getValue().getBytes();
+            out.writeInt(value.length);
+            out.write(value);
+        }
+
+        out.writeLong(0L); // lineage start date
+        out.writeLong(0L); // entry date
+        out.writeLong(0L); // penalty expiration time
+
+        out.writeLong(content.length);
+        out.write(content);
+    }
+
     private void writeAttributes(final Map<String, String> attributes, final DataOutputStream dos) throws IOException {
         try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
              final DataOutputStream out = new DataOutputStream(baos)) {
@@ -19,11 +19,13 @@ package org.apache.nifi.controller.repository;
 
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.controller.repository.schema.AttributeFrequencyTracker;
 import org.apache.nifi.controller.repository.schema.RepositoryRecordSchema;
 import org.apache.nifi.repository.schema.NoOpFieldCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.wali.SerDe;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -34,8 +36,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.apache.nifi.controller.repository.RepositoryRecordType.SWAP_IN;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -245,6 +249,86 @@ public class SchemaRepositoryRecordSerdeTest {
         assertEquals(SWAP_IN, repositoryRecord.getType());
     }
 
+    @Test
+    public void testRoundTripWithAttributeDictionary() throws IOException {
+        final Map<String, String> commonAttributes = new HashMap<>();
+        commonAttributes.put("path", "./");
+        commonAttributes.put("mime.type", "application/json");
+        commonAttributes.put("schema.name", "transactions");
+
+        final AttributeFrequencyTracker tracker = new AttributeFrequencyTracker();
+        for (int i = 0; i < 1000; i++) {
+            tracker.sample(commonAttributes);
+        }
+
+        final Map<String, String> attributes = new HashMap<>(commonAttributes);
+        attributes.put("filename", "unique-file-name");
+
+        final SchemaRepositoryRecordSerde dictionarySerde = new SchemaRepositoryRecordSerde(resourceClaimManager, new NoOpFieldCache(), tracker, true);
+        dictionarySerde.writeHeader(dataOutputStream);
+        final int headerLength = dataOutputStream.size();
+        dictionarySerde.serializeRecord(new LiveSerializedRepositoryRecord(createCreateFlowFileRecord(attributes)), dataOutputStream);
+        final int dictionaryRecordLength = dataOutputStream.size() - headerLength;
+
+        final SchemaRepositoryRecordSerde recoverySerde = new SchemaRepositoryRecordSerde(resourceClaimManager, new NoOpFieldCache());
+        final DataInputStream dataInputStream = createDataInputStream();
+        recoverySerde.readHeader(dataInputStream);
+        final SerializedRepositoryRecord repositoryRecord = recoverySerde.deserializeRecord(dataInputStream, 3);
+        assertEquals(attributes, repositoryRecord.getFlowFileRecord().getAttributes());
+
+        // Without a dictionary, every attribute name and value is written to the record
+        final ByteArrayOutputStream literalOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream literalDataOutputStream = new DataOutputStream(literalOutputStream);
+        schemaRepositoryRecordSerde.writeHeader(literalDataOutputStream);
+        final int literalHeaderLength = literalDataOutputStream.size();
+        schemaRepositoryRecordSerde.serializeRecord(new LiveSerializedRepositoryRecord(createCreateFlowFileRecord(attributes)), literalDataOutputStream);
+        final int literalRecordLength = literalDataOutputStream.size() - literalHeaderLength;
+
+        assertTrue(dictionaryRecordLength < literalRecordLength);
+    }
+
+    @Test
+    public void testAttributeDictionaryDisabledByDefault() throws IOException {
+        final StandardRepositoryRecordSerdeFactory serdeFactory = new StandardRepositoryRecordSerdeFactory(resourceClaimManager, new NoOpFieldCache());
+        final SerDe<SerializedRepositoryRecord> writeSerde = serdeFactory.createSerDe(null);
+        assertEquals(2, writeSerde.getVersion());
+
+        // The header consists of only the V2 schema, without an Attribute Dictionary, so that earlier versions can read the journal
+        writeSerde.writeHeader(dataOutputStream);
+        final ByteArrayOutputStream schemaOutputStream = new ByteArrayOutputStream();
+        RepositoryRecordSchema.REPOSITORY_RECORD_SCHEMA_V2.writeTo(schemaOutputStream);
+        dataOutputStream.flush();
+        assertArrayEquals(schemaOutputStream.toByteArray(), byteArrayOutputStream.toByteArray());
+
+        final Map<String, String> attributes = Map.of("path", "./", "filename", "file.txt");
+        writeSerde.serializeRecord(new LiveSerializedRepositoryRecord(createCreateFlowFileRecord(attributes)), dataOutputStream);
+
+        final SerDe<SerializedRepositoryRecord> readSerde = serdeFactory.createSerDe(SchemaRepositoryRecordSerde.class.getName());
+        final DataInputStream recoveryInputStream = createDataInputStream();
+        readSerde.readHeader(recoveryInputStream);
+        assertEquals(attributes, readSerde.deserializeRecord(recoveryInputStream, 2).getFlowFileRecord().getAttributes());
+    }
+
+    @Test
+    public void testVersion3ReadableWithAttributeDictionaryDisabled() throws IOException {
+        final SchemaRepositoryRecordSerde dictionarySerde = new SchemaRepositoryRecordSerde(resourceClaimManager, new NoOpFieldCache(), new AttributeFrequencyTracker(), true);
+        assertEquals(3, dictionarySerde.getVersion());
+
+        dictionarySerde.writeHeader(dataOutputStream);
+        final Map<String, String> attributes = Map.of("path", "./", "filename", "file.txt");
+        dictionarySerde.serializeRecord(new LiveSerializedRepositoryRecord(createCreateFlowFileRecord(attributes)), dataOutputStream);
+
+        // Journals are recovered using a SerDe created for the encoding name in the journal header, which must accept version 3
+        // even though new journals are written using version 2, so that the dictionary can be disabled before downgrading.
+        final StandardRepositoryRecordSerdeFactory serdeFactory = new StandardRepositoryRecordSerdeFactory(resourceClaimManager, new NoOpFieldCache(), false);
+        final SerDe<SerializedRepositoryRecord> readSerde = serdeFactory.createSerDe(SchemaRepositoryRecordSerde.class.getName());
+        assertTrue(readSerde.getVersion() >= dictionarySerde.getVersion());
+
+        final DataInputStream dataInputStream = createDataInputStream();
+        readSerde.readHeader(dataInputStream);
+        assertEquals(attributes, readSerde.deserializeRecord(dataInputStream, 3).getFlowFileRecord().getAttributes());
+    }
+
     private DataInputStream createDataInputStream() throws IOException {
         dataOutputStream.flush();
         return new DataInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
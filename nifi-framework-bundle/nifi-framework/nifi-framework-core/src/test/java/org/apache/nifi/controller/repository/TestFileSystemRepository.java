@@ -42,6 +42,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -368,6 +369,66 @@ public class TestFileSystemRepository {
         assertEquals("good-bye", new String(buffer2));
     }
 
+    @Test
+    public void testReadAsByteBufferWithMemoryMappedReads() throws IOException {
+        final Map<String, String> propertyOverrides = new HashMap<>();
+        propertyOverrides.put(FileSystemRepository.MEMORY_MAPPED_READS_ENABLED, "true");
+        recreateRepositoryWithPropertyOverrides(propertyOverrides);
+
+        final ContentClaim firstClaim = repository.create(false);
+        try (final OutputStream out = repository.write(firstClaim)) {
+            out.write("hello".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ByteBuffer firstBuffer = repository.readAsByteBuffer(firstClaim, 0L, firstClaim.getLength());
+        assertTrue(firstBuffer.isReadOnly());
+        assertEquals("hello", StandardCharsets.UTF_8.decode(firstBuffer).toString());
+
+        // The second claim is appended to the same Resource Claim, so the mapping must be extended to read it
+        final ContentClaim secondClaim = repository.create(false);
+        assertEquals(firstClaim.getResourceClaim(), secondClaim.getResourceClaim());
+        try (final OutputStream out = repository.write(secondClaim)) {
+            out.write("good-bye".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ByteBuffer secondBuffer = repository.readAsByteBuffer(secondClaim, 5L, 3L);
+        assertEquals("bye", StandardCharsets.UTF_8.decode(secondBuffer).toString());
+
+        final ByteBuffer firstBufferAgain = repository.readAsByteBuffer(firstClaim, 1L, 4L);
+        assertEquals("ello", StandardCharsets.UTF_8.decode(firstBufferAgain).toString());
+
+        try (final InputStream in = repository.read(secondClaim)) {
+            assertEquals("good-bye", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertThrows(ContentNotFoundException.class, () -> repository.readAsByteBuffer(secondClaim, 0L, 100L));
+    }
+
+    @Test
+    public void testMemoryMappedReadsFallBackForContentLargerThanMaxMapping() throws IOException {
+        final Map<String, String> propertyOverrides = new HashMap<>();
+        propertyOverrides.put(FileSystemRepository.MEMORY_MAPPED_READS_ENABLED, "true");
+        recreateRepositoryWithPropertyOverrides(propertyOverrides);
+
+        final File contentFile = new File("target/content_repository/0/0.bin");
+        try (final OutputStream fos = new FileOutputStream(contentFile)) {
+            fos.write("Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The Content Claim is longer than a single mapping allows, so it must be read from the file rather than mapped
+        final ResourceClaim resourceClaim = new StandardResourceClaim(claimManager, "default", "0", "0.bin", false);
+        final StandardContentClaim largeContentClaim = new StandardContentClaim(resourceClaim, 0);
+        largeContentClaim.setLength(Integer.MAX_VALUE + 1L);
+
+        try (final InputStream in = repository.read(largeContentClaim)) {
+            final byte[] buff = new byte[11];
+            StreamUtils.fillBuffer(in, buff);
+            assertEquals("Hello World", new String(buff, StandardCharsets.UTF_8));
+        }
+
+        assertThrows(IOException.class, () -> repository.readAsByteBuffer(largeContentClaim, 0L, largeContentClaim.getLength()));
+    }
+
     @Test
     public void testClaimantCounts() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -17,6 +17,7 @@
 package org.apache.nifi.controller.scheduling;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.nifi.annotation.behavior.SupportsVirtualThreads;
 import org.apache.nifi.annotation.lifecycle.OnDisabled;
 import org.apache.nifi.annotation.lifecycle.OnEnabled;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
@@ -101,6 +102,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -321,6 +323,39 @@ public class TestStandardProcessScheduler {
         }
     }
 
+    @SupportsVirtualThreads
+    public static class VirtualThreadProcessor extends AbstractProcessor {
+        @Override
+        public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        }
+    }
+
+    @Test
+    public void testVirtualThreadSchedulingAgentUsedForSupportingProcessors() {
+        final SchedulingAgent timerDrivenAgent = scheduler.getSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN);
+        final ProcessorNode supportingNode = createProcessorNode(new VirtualThreadProcessor());
+        final ProcessorNode otherNode = createProcessorNode(new ServiceReferencingProcessor());
+
+        // Virtual threads are not used unless the scheduler has an agent for them
+        assertSame(timerDrivenAgent, scheduler.getSchedulingAgent(supportingNode));
+
+        final SchedulingAgent virtualThreadAgent = Mockito.mock(SchedulingAgent.class);
+        scheduler.setVirtualThreadSchedulingAgent(virtualThreadAgent);
+        assertSame(virtualThreadAgent, scheduler.getSchedulingAgent(supportingNode));
+        assertSame(timerDrivenAgent, scheduler.getSchedulingAgent(otherNode));
+
+        // Only timer-driven Processors are run on virtual threads
+        when(supportingNode.getSchedulingStrategy()).thenReturn(SchedulingStrategy.CRON_DRIVEN);
+        assertNotSame(virtualThreadAgent, scheduler.getSchedulingAgent(supportingNode));
+    }
+
+    private ProcessorNode createProcessorNode(final Processor processor) {
+        final ProcessorNode procNode = Mockito.mock(ProcessorNode.class);
+        when(procNode.getProcessor()).thenReturn(processor);
+        when(procNode.getSchedulingStrategy()).thenReturn(SchedulingStrategy.TIMER_DRIVEN);
+        return procNode;
+    }
+
     /**
      * Validates the atomic nature of ControllerServiceNode.enable() method
      * which must only trigger @OnEnabled once, regardless of how many threads
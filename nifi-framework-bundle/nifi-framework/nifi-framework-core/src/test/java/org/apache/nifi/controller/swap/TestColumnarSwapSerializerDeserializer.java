@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.flowfile.FlowFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestColumnarSwapSerializerDeserializer {
+
+    private final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+
+    @BeforeEach
+    public void setup() {
+        MockFlowFile.resetIdGenerator();
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+    }
+
+    @Test
+    public void testRoundTripSerializeDeserializeSummary() throws IOException {
+        final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+        final ResourceClaim firstResourceClaim = resourceClaimManager.newResourceClaim("container", "section", "id", true, false);
+        resourceClaimManager.incrementClaimantCount(firstResourceClaim);
+
+        final List<FlowFileRecord> toSwap = new ArrayList<>(10000);
+        final Map<String, String> attrs = new HashMap<>();
+        long size = 0L;
+        final ContentClaim firstClaim = MockFlowFile.createContentClaim("id", resourceClaimManager);
+        for (int i = 0; i < 10000; i++) {
+            attrs.put("i", String.valueOf(i));
+            final FlowFileRecord ff = i < 2 ? new MockFlowFile(attrs, i, firstClaim) : new MockFlowFile(attrs, i, resourceClaimManager);
+            toSwap.add(ff);
+            size += i;
+        }
+
+        final byte[] serialized = serialize(toSwap);
+
+        final SwapSummary swapSummary;
+        try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialized))) {
+            swapSummary = new ColumnarSwapDeserializer().getSwapSummary(dis, "testRoundTrip.swap", resourceClaimManager);
+        }
+
+        assertEquals(10000, swapSummary.getQueueSize().getObjectCount());
+        assertEquals(size, swapSummary.getQueueSize().getByteCount());
+        assertEquals(9999, swapSummary.getMaxFlowFileId().intValue());
+
+        final List<ResourceClaim> resourceClaims = swapSummary.getResourceClaims();
+        assertEquals(10000, resourceClaims.size());
+        assertFalse(resourceClaims.stream().anyMatch(claim -> claim == null));
+        assertEquals(2, resourceClaims.stream().filter(claim -> claim.getId().equals("id")).collect(Collectors.counting()).intValue());
+
+        final Set<ResourceClaim> uniqueClaims = new HashSet<>(resourceClaims);
+        assertEquals(9999, uniqueClaims.size());
+
+        assertEquals((Long) toSwap.stream().mapToLong(FlowFile::getLastQueueDate).sum(), swapSummary.getTotalLastQueueDate());
+        assertEquals((Long) toSwap.stream().mapToLong(FlowFile::getLastQueueDate).min().getAsLong(), swapSummary.getMinLastQueueDate());
+    }
+
+    @Test
+    public void testRoundTripSerializeDeserializeFullSwapFile() throws IOException {
+        final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+        final ContentClaim sharedClaim = MockFlowFile.createContentClaim("shared", resourceClaimManager);
+
+        final List<FlowFileRecord> toSwap = new ArrayList<>(10000);
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("path", "./");
+        attrs.put("large", "x".repeat(100_000));
+        long size = 0L;
+        for (int i = 0; i < 10000; i++) {
+            attrs.put("i", String.valueOf(i));
+            final FlowFileRecord ff = i % 2 == 0 ? new MockFlowFile(attrs, i, resourceClaimManager) : new MockFlowFile(attrs, i, sharedClaim);
+            toSwap.add(ff);
+            size += i;
+        }
+
+        final byte[] serialized = serialize(toSwap);
+
+        final SwapContents contents;
+        try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialized))) {
+            contents = new ColumnarSwapDeserializer().deserializeFlowFiles(dis, "testRoundTrip.swap", flowFileQueue, resourceClaimManager);
+        }
+
+        final SwapSummary swapSummary = contents.getSummary();
+        assertEquals(10000, swapSummary.getQueueSize().getObjectCount());
+        assertEquals(size, swapSummary.getQueueSize().getByteCount());
+        assertEquals(9999, swapSummary.getMaxFlowFileId().intValue());
+
+        assertEquals(10000, contents.getFlowFiles().size());
+
+        FlowFileRecord previous = null;
+        for (int i = 0; i < toSwap.size(); i++) {
+            final FlowFileRecord original = toSwap.get(i);
+            final FlowFileRecord flowFile = contents.getFlowFiles().get(i);
+
+            assertEquals(original.getId(), flowFile.getId());
+            assertEquals(original.getAttributes(), flowFile.getAttributes());
+            assertEquals(original.getSize(), flowFile.getSize());
+            assertEquals(original.getEntryDate(), flowFile.getEntryDate());
+            assertEquals(original.getLineageStartDate(), flowFile.getLineageStartDate());
+            assertEquals(original.getLastQueueDate(), flowFile.getLastQueueDate());
+            assertEquals(original.getContentClaim(), flowFile.getContentClaim());
+            assertEquals(original.getContentClaimOffset(), flowFile.getContentClaimOffset());
+
+            // Attribute values that are common across FlowFiles should be shared rather than duplicated
+            if (previous != null) {
+                assertSame(previous.getAttribute("large"), flowFile.getAttribute("large"));
+            }
+            previous = flowFile;
+        }
+    }
+
+    @Test
+    public void testRoundTripUnorderedIdsWithoutContentClaims() throws IOException {
+        final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+        final ContentClaim contentClaim = MockFlowFile.createContentClaim("claim", resourceClaimManager);
+
+        // FlowFiles may be swapped out in an order other than that of their IDs, so differences between IDs may be negative
+        final long[] ids = {1_000_000L, 5L, 1_000_001L, Long.MAX_VALUE, 0L};
+        final List<FlowFileRecord> toSwap = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            toSwap.add(new MockFlowFile(ids[i], Map.of("i", String.valueOf(i)), i, i % 2 == 0 ? null : contentClaim));
+        }
+
+        final SwapContents contents;
+        try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialize(toSwap)))) {
+            contents = new ColumnarSwapDeserializer().deserializeFlowFiles(dis, "testRoundTrip.swap", flowFileQueue, resourceClaimManager);
+        }
+
+        assertEquals(Long.MAX_VALUE, contents.getSummary().getMaxFlowFileId().longValue());
+        for (int i = 0; i < ids.length; i++) {
+            final FlowFileRecord flowFile = contents.getFlowFiles().get(i);
+            assertEquals(ids[i], flowFile.getId());
+            assertEquals(toSwap.get(i).getContentClaim(), flowFile.getContentClaim());
+            assertEquals(toSwap.get(i).getAttributes(), flowFile.getAttributes());
+        }
+    }
+
+    @Test
+    public void testSequentialIdsWrittenAsSingleByte() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(baos)) {
+            for (long id = 1; id <= 100; id++) {
+                ColumnarSwapSerializer.writeVarLong(out, ColumnarSwapSerializer.zigZag(1L));
+            }
+            ColumnarSwapSerializer.writeVarLong(out, ColumnarSwapSerializer.zigZag(-1L));
+        }
+
+        assertEquals(101, baos.size());
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(1L, ColumnarSwapSerializer.unZigZag(ColumnarSwapSerializer.readVarLong(in)));
+            }
+            assertEquals(-1L, ColumnarSwapSerializer.unZigZag(ColumnarSwapSerializer.readVarLong(in)));
+        }
+    }
+
+    private byte[] serialize(final List<FlowFileRecord> toSwap) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ColumnarSwapSerializer().serializeFlowFiles(toSwap, flowFileQueue, "testRoundTrip.swap", baos);
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.tasks;
+
+import org.apache.nifi.controller.repository.metrics.StandardFlowFileEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestAdaptiveRunDuration {
+    private static final long MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(8L);
+
+    @Test
+    public void testIncreasesWhileWorkRemainsAndInvocationsAreShort() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(MAX_NANOS);
+        assertEquals(0L, runDuration.getRunDuration(0L));
+
+        final StandardFlowFileEvent event = createEvent(100, TimeUnit.MILLISECONDS.toNanos(10L), 0L);
+        runDuration.update(event, true, false);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1L), runDuration.getRunDuration(0L));
+
+        runDuration.update(event, true, false);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2L), runDuration.getRunDuration(0L));
+
+        for (int i = 0; i < 10; i++) {
+            runDuration.update(event, true, false);
+        }
+        assertEquals(MAX_NANOS, runDuration.getRunDuration(0L));
+    }
+
+    @Test
+    public void testIncreasesWhenCommitOverheadIsHigh() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(MAX_NANOS);
+
+        // Each invocation is long, but a large portion of the time is spent committing
+        runDuration.update(createEvent(1, TimeUnit.MILLISECONDS.toNanos(50L), TimeUnit.MILLISECONDS.toNanos(20L)), true, false);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1L), runDuration.getRunDuration(0L));
+    }
+
+    @Test
+    public void testUnchangedWhenInvocationsAreLongAndCommitsAreCheap() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(MAX_NANOS);
+        runDuration.update(createEvent(1, TimeUnit.MILLISECONDS.toNanos(50L), TimeUnit.MILLISECONDS.toNanos(1L)), true, false);
+        assertEquals(0L, runDuration.getRunDuration(0L));
+    }
+
+    @Test
+    public void testDecreasesWhenWorkExhaustedOrBackPressureEngaged() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(MAX_NANOS);
+        final StandardFlowFileEvent event = createEvent(100, TimeUnit.MILLISECONDS.toNanos(10L), 0L);
+        for (int i = 0; i < 4; i++) {
+            runDuration.update(event, true, false);
+        }
+        assertEquals(MAX_NANOS, runDuration.getRunDuration(0L));
+
+        runDuration.update(event, false, false);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(4L), runDuration.getRunDuration(0L));
+
+        runDuration.update(event, true, true);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2L), runDuration.getRunDuration(0L));
+
+        runDuration.update(event, false, false);
+        runDuration.update(event, false, false);
+        assertEquals(0L, runDuration.getRunDuration(0L));
+    }
+
+    @Test
+    public void testConfiguredRunDurationIsMinimum() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(MAX_NANOS);
+        final long configured = TimeUnit.MILLISECONDS.toNanos(25L);
+        assertEquals(configured, runDuration.getRunDuration(configured));
+
+        runDuration.update(createEvent(100, TimeUnit.MILLISECONDS.toNanos(10L), 0L), true, false);
+        assertEquals(configured, runDuration.getRunDuration(configured));
+    }
+
+    private StandardFlowFileEvent createEvent(final int invocations, final long processingNanos, final long commitNanos) {
+        final StandardFlowFileEvent event = new StandardFlowFileEvent();
+        event.setInvocations(invocations);
+        event.setProcessingNanos(processingNanos);
+        event.setSessionCommitNanos(commitNanos);
+        return event;
+    }
+}
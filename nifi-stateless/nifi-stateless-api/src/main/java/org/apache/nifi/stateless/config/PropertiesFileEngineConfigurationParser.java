@@ -51,7 +51,9 @@ public class PropertiesFileEngineConfigurationParser {
     private static final String READONLY_EXTENSIONS_DIRECTORY = PREFIX + "readonly.extensions.directory.";
     private static final String WORKING_DIRECTORY = PREFIX + "working.directory";
     private static final String CONTENT_REPO_DIRECTORY = PREFIX + "content.repository.directory";
+    private static final String CONTENT_REPO_MEMORY_THRESHOLD = PREFIX + "content.repository.memory.threshold";
     private static final String STATUS_TASK_INTERVAL = PREFIX + "status.task.interval";
+    private static final String MAX_CONCURRENT_TRIGGERS = PREFIX + "max.concurrent.triggers";
 
     private static final String COMPONENT_ENABLE_TIMEOUT = PREFIX + "component.enableTimeout";
     private static final String PROCESSOR_START_TIMEOUT = PREFIX + "processor.startTimeout";
@@ -103,6 +105,8 @@ public class PropertiesFileEngineConfigurationParser {
 
         final String contentRepoDirectoryFilename = properties.getProperty(CONTENT_REPO_DIRECTORY, "");
         final File contentRepoDirectory = contentRepoDirectoryFilename.isEmpty() ? null : new File(contentRepoDirectoryFilename);
+        final String contentRepoMemoryThresholdValue = properties.getProperty(CONTENT_REPO_MEMORY_THRESHOLD, "").trim();
+        final String contentRepoMemoryThreshold = contentRepoMemoryThresholdValue.isEmpty() ? null : contentRepoMemoryThresholdValue;
 
         final String krb5Filename = properties.getProperty(KRB5_FILE, DEFAULT_KRB5_FILENAME);
         final File krb5File = new File(krb5Filename);
@@ -116,6 +120,7 @@ public class PropertiesFileEngineConfigurationParser {
 
         final String processorStartTimeout = properties.getProperty(PROCESSOR_START_TIMEOUT, "10 secs");
         final String componentEnableTimeout = properties.getProperty(COMPONENT_ENABLE_TIMEOUT, "10 secs");
+        final int maxConcurrentTriggers = getMaxConcurrentTriggers(properties);
 
         return new StatelessEngineConfiguration() {
             @Override
@@ -148,6 +153,11 @@ public class PropertiesFileEngineConfigurationParser {
                 return Optional.ofNullable(contentRepoDirectory);
             }
 
+            @Override
+            public String getContentRepositoryMemoryThreshold() {
+                return contentRepoMemoryThreshold;
+            }
+
             @Override
             public SslContextDefinition getSslContext() {
                 return sslContextDefinition;
@@ -177,9 +187,27 @@ public class PropertiesFileEngineConfigurationParser {
             public String getComponentEnableTimeout() {
                 return componentEnableTimeout;
             }
+
+            @Override
+            public int getMaxConcurrentTriggers() {
+                return maxConcurrentTriggers;
+            }
         };
     }
 
+    private int getMaxConcurrentTriggers(final Properties properties) throws StatelessConfigurationException {
+        final String maxConcurrentTriggers = properties.getProperty(MAX_CONCURRENT_TRIGGERS, "1").trim();
+        try {
+            final int parsed = Integer.parseInt(maxConcurrentTriggers);
+            if (parsed < 1) {
+                throw new StatelessConfigurationException("Property " + MAX_CONCURRENT_TRIGGERS + " must be at least 1 but was " + maxConcurrentTriggers);
+            }
+            return parsed;
+        } catch (final NumberFormatException e) {
+            throw new StatelessConfigurationException("Property " + MAX_CONCURRENT_TRIGGERS + " must be an integer but was " + maxConcurrentTriggers, e);
+        }
+    }
+
 
     private List<File> getReadOnlyExtensionsDirectories(final Properties properties) {
         return properties.keySet().stream()
@@ -58,6 +58,14 @@ public interface StatelessEngineConfiguration {
      */
     Optional<File> getContentRepositoryDirectory();
 
+    /**
+     * @return a String representing the maximum amount of off-heap memory to use for storing FlowFile Content (e.g., 256 MB) before content is spilled to the
+     * Content Repository directory. A <code>null</code> value indicates that all content is stored in the Content Repository directory, if one is configured.
+     */
+    default String getContentRepositoryMemoryThreshold() {
+        return null;
+    }
+
     /**
      * @return the definition needed to create an SSL Context that can be used for interacting with a Nexus Repository or retrieving a flow from the Flow Registry, etc.
      * This SSL Context will NOT be made available to extensions running in the dataflow.
@@ -105,4 +113,14 @@ public interface StatelessEngineConfiguration {
     default String getComponentEnableTimeout() {
         return "10 sec";
     }
+
+    /**
+     * @return the maximum number of triggers of a dataflow that may run concurrently. Concurrent triggers share the components of the dataflow,
+     * including Controller Services, while each trigger queues its own FlowFiles. Triggers run serially if FlowFile content is not held in memory
+     * or if the dataflow contains stateful components, Processors that must be triggered serially, or Process Groups that limit FlowFile Concurrency.
+     * Defaults to 1, which runs triggers serially
+     */
+    default int getMaxConcurrentTriggers() {
+        return 1;
+    }
 }
@@ -116,6 +116,7 @@ public class StandardStatelessEngine implements StatelessEngine {
     private final CounterRepository counterRepository;
     private final Duration statusTaskInterval;
     private final Duration componentEnableTimeout;
+    private final int maxConcurrentTriggers;
 
     // Member Variables created/managed internally
     private final ReloadComponent reloadComponent;
@@ -141,6 +142,7 @@ public class StandardStatelessEngine implements StatelessEngine {
         this.counterRepository = requireNonNull(builder.counterRepository, "Counter Repository must be provided");
         this.statusTaskInterval = parseDuration(builder.statusTaskInterval);
         this.componentEnableTimeout = parseDuration(builder.componentEnableTimeout);
+        this.maxConcurrentTriggers = builder.maxConcurrentTriggers;
 
         this.reloadComponent = new StatelessReloadComponent(this);
         this.validationTrigger = new StandardValidationTrigger(new FlowEngine(1, "Component Validation", true), () -> true);
@@ -195,7 +197,8 @@ public class StandardStatelessEngine implements StatelessEngine {
         final List<ReportingTaskNode> reportingTaskNodes = createReportingTasks(dataflowDefinition);
         final LifecycleStateManager lifecycleStateManager = new StandardLifecycleStateManager();
         final StandardStatelessFlow dataflow = new StandardStatelessFlow(childGroup, reportingTaskNodes, controllerServiceProvider, processContextFactory,
-            repositoryContextFactory, dataflowDefinition, stateManagerProvider, processScheduler, bulletinRepository, lifecycleStateManager, componentEnableTimeout);
+            repositoryContextFactory, dataflowDefinition, stateManagerProvider, processScheduler, bulletinRepository, lifecycleStateManager, componentEnableTimeout,
+            maxConcurrentTriggers);
 
         if (statusTaskInterval != null) {
             final LogComponentStatuses logComponentStatuses = new LogComponentStatuses(flowFileEventRepository, counterRepository, flowManager);
@@ -674,6 +677,7 @@ public class StandardStatelessEngine implements StatelessEngine {
         private CounterRepository counterRepository = null;
         private String statusTaskInterval = null;
         private String componentEnableTimeout = null;
+        private int maxConcurrentTriggers = 1;
 
         public Builder extensionManager(final ExtensionManager extensionManager) {
             this.extensionManager = extensionManager;
@@ -735,6 +739,11 @@ public class StandardStatelessEngine implements StatelessEngine {
             return this;
         }
 
+        public Builder maxConcurrentTriggers(final int maxConcurrentTriggers) {
+            this.maxConcurrentTriggers = maxConcurrentTriggers;
+            return this;
+        }
+
         public StandardStatelessEngine build() {
             return new StandardStatelessEngine(this);
         }
@@ -48,6 +48,7 @@ import org.apache.nifi.nar.ExtensionDiscoveringManager;
 import org.apache.nifi.nar.NarClassLoaders;
 import org.apache.nifi.parameter.ParameterContextManager;
 import org.apache.nifi.parameter.StandardParameterContextManager;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.provenance.IdentifierLookup;
 import org.apache.nifi.provenance.ProvenanceRepository;
 import org.apache.nifi.python.DisabledPythonBridge;
@@ -74,6 +75,7 @@ import org.apache.nifi.stateless.repository.ByteArrayContentRepository;
 import org.apache.nifi.stateless.repository.RepositoryContextFactory;
 import org.apache.nifi.stateless.repository.StatelessFileSystemContentRepository;
 import org.apache.nifi.stateless.repository.StatelessFlowFileRepository;
+import org.apache.nifi.stateless.repository.StatelessHybridContentRepository;
 import org.apache.nifi.stateless.repository.StatelessProvenanceRepository;
 import org.apache.nifi.stateless.repository.StatelessRepositoryContextFactory;
 import org.apache.nifi.util.FormatUtils;
@@ -197,6 +199,7 @@ public class StandardStatelessDataflowFactory implements StatelessDataflowFactor
                     .counterRepository(counterRepo)
                     .statusTaskInterval(engineConfiguration.getStatusTaskInterval())
                     .componentEnableTimeout(engineConfiguration.getComponentEnableTimeout())
+                    .maxConcurrentTriggers(engineConfiguration.getMaxConcurrentTriggers())
                     .build();
 
             final StatelessFlowManager flowManager = new StatelessFlowManager(flowFileEventRepo, parameterContextManager, statelessEngine, () -> true, sslContext, bulletinRepository);
@@ -304,7 +307,11 @@ public class StandardStatelessDataflowFactory implements StatelessDataflowFactor
 
     private ContentRepository createContentRepository(final StatelessEngineConfiguration engineConfiguration) {
         final Optional<File> contentRepoStorageDirectory = engineConfiguration.getContentRepositoryDirectory();
-        if (contentRepoStorageDirectory.isPresent()) {
+        final String memoryThreshold = engineConfiguration.getContentRepositoryMemoryThreshold();
+        if (contentRepoStorageDirectory.isPresent() && memoryThreshold != null) {
+            final long maxMemoryBytes = DataUnit.parseDataSize(memoryThreshold, DataUnit.B).longValue();
+            return new StatelessHybridContentRepository(contentRepoStorageDirectory.get(), maxMemoryBytes);
+        } else if (contentRepoStorageDirectory.isPresent()) {
             return new StatelessFileSystemContentRepository(contentRepoStorageDirectory.get());
         } else {
             return new ByteArrayContentRepository();
@@ -51,6 +51,8 @@ import org.apache.nifi.controller.service.ControllerServiceProvider;
 import org.apache.nifi.controller.service.StandardConfigurationContext;
 import org.apache.nifi.controller.state.StandardStateMap;
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.groups.FlowFileConcurrency;
+import org.apache.nifi.groups.FlowFileOutboundPolicy;
 import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.groups.RemoteProcessGroup;
 import org.apache.nifi.processor.ProcessContext;
@@ -67,6 +69,9 @@ import org.apache.nifi.stateless.engine.ExecutionProgress;
 import org.apache.nifi.stateless.engine.ProcessContextFactory;
 import org.apache.nifi.stateless.engine.StandardExecutionProgress;
 import org.apache.nifi.stateless.queue.DrainableFlowFileQueue;
+import org.apache.nifi.stateless.queue.FlowFileQueueScope;
+import org.apache.nifi.stateless.repository.ByteArrayContentRepository;
+import org.apache.nifi.stateless.repository.InvocationRepositoryContextFactory;
 import org.apache.nifi.stateless.repository.RepositoryContextFactory;
 import org.apache.nifi.stateless.session.AsynchronousCommitTracker;
 import org.apache.nifi.stream.io.StreamUtils;
@@ -123,8 +128,10 @@ public class StandardStatelessFlow implements StatelessDataflow {
     private final LifecycleStateManager lifecycleStateManager;
     private final long componentEnableTimeoutMillis;
     private final List<Port> inputPorts;
+    private final int maxConcurrentTriggers;
 
     private volatile ExecutorService runDataflowExecutor;
+    private volatile int concurrentTriggers = 1;
     private volatile ScheduledExecutorService backgroundTaskExecutor;
     private volatile boolean initialized = false;
     private volatile Boolean stateful = null;
@@ -134,6 +141,20 @@ public class StandardStatelessFlow implements StatelessDataflow {
                                  final ProcessContextFactory processContextFactory, final RepositoryContextFactory repositoryContextFactory, final DataflowDefinition dataflowDefinition,
                                  final StatelessStateManagerProvider stateManagerProvider, final ProcessScheduler processScheduler, final BulletinRepository bulletinRepository,
                                  final LifecycleStateManager lifecycleStateManager, final Duration componentEnableTimeout) {
+        this(rootGroup, reportingTasks, controllerServiceProvider, processContextFactory, repositoryContextFactory, dataflowDefinition, stateManagerProvider, processScheduler,
+            bulletinRepository, lifecycleStateManager, componentEnableTimeout, 1);
+    }
+
+    /**
+     * Creates a Stateless Flow that runs as many as the given number of triggers concurrently. Each concurrent invocation queues its own FlowFiles,
+     * tracks its own asynchronous commits and records its own Provenance Events, while all invocations share the components of the flow, including
+     * Controller Services. Invocations run serially if the flow cannot isolate concurrent invocations from one another, which is determined when the
+     * flow is initialized.
+     */
+    public StandardStatelessFlow(final ProcessGroup rootGroup, final List<ReportingTaskNode> reportingTasks, final ControllerServiceProvider controllerServiceProvider,
+                                 final ProcessContextFactory processContextFactory, final RepositoryContextFactory repositoryContextFactory, final DataflowDefinition dataflowDefinition,
+                                 final StatelessStateManagerProvider stateManagerProvider, final ProcessScheduler processScheduler, final BulletinRepository bulletinRepository,
+                                 final LifecycleStateManager lifecycleStateManager, final Duration componentEnableTimeout, final int maxConcurrentTriggers) {
         this.rootGroup = rootGroup;
         this.allConnections = rootGroup.findAllConnections();
         this.reportingTasks = reportingTasks;
@@ -149,6 +170,7 @@ public class StandardStatelessFlow implements StatelessDataflow {
         this.tracker = new AsynchronousCommitTracker(rootGroup);
         this.lifecycleStateManager = lifecycleStateManager;
         this.inputPorts = new ArrayList<>(rootGroup.getInputPorts());
+        this.maxConcurrentTriggers = maxConcurrentTriggers;
 
         rootConnectables = new HashSet<>();
         inputPortsByName = mapInputPortsToName(rootGroup);
@@ -274,9 +296,10 @@ public class StandardStatelessFlow implements StatelessDataflow {
                 initializationMillis, validationMillis, serviceEnableMillis);
 
             // Create executor for dataflow
+            concurrentTriggers = determineConcurrentTriggers();
             final String flowName = dataflowDefinition.getFlowName();
             final String threadName = (flowName == null || flowName.trim().isEmpty()) ? "Run Dataflow" : "Run Dataflow " + flowName;
-            runDataflowExecutor = Executors.newFixedThreadPool(1, createNamedThreadFactory(threadName, false));
+            runDataflowExecutor = Executors.newFixedThreadPool(concurrentTriggers, createNamedThreadFactory(threadName, false));
 
             // Periodically log component statuses
             backgroundTaskExecutor = Executors.newScheduledThreadPool(1, createNamedThreadFactory("Background Tasks", true));
@@ -296,6 +319,49 @@ public class StandardStatelessFlow implements StatelessDataflow {
         }
     }
 
+    private int determineConcurrentTriggers() {
+        if (maxConcurrentTriggers <= 1) {
+            return 1;
+        }
+
+        final String serialTriggerReason = getSerialTriggerReason();
+        if (serialTriggerReason != null) {
+            logger.warn("{} configured to run {} triggers concurrently but will run triggers serially because {}", this, maxConcurrentTriggers, serialTriggerReason);
+            return 1;
+        }
+
+        logger.info("{} will run up to {} triggers concurrently", this, maxConcurrentTriggers);
+        return maxConcurrentTriggers;
+    }
+
+    private String getSerialTriggerReason() {
+        // Content Repositories that store content on disk release all content when purged rather than only the content of one invocation
+        if (!(repositoryContextFactory.getContentRepository() instanceof ByteArrayContentRepository)) {
+            return "FlowFile content is not held in memory";
+        }
+
+        // Component state is committed and rolled back for the flow as a whole rather than for an invocation
+        if (isStateful()) {
+            return "the flow contains stateful components";
+        }
+
+        for (final ProcessorNode processor : rootGroup.findAllProcessors()) {
+            if (processor.isTriggeredSerially()) {
+                return processor + " must be triggered serially";
+            }
+        }
+
+        final List<ProcessGroup> groups = new ArrayList<>(rootGroup.findAllProcessGroups());
+        groups.add(rootGroup);
+        for (final ProcessGroup group : groups) {
+            if (group.getFlowFileConcurrency() != FlowFileConcurrency.UNBOUNDED || group.getFlowFileOutboundPolicy() == FlowFileOutboundPolicy.BATCH_OUTPUT) {
+                return group + " limits FlowFile Concurrency or uses Batch Output";
+            }
+        }
+
+        return null;
+    }
+
     private ThreadFactory createNamedThreadFactory(final String name, final boolean daemon) {
         return (Runnable r) -> {
             final Thread thread = Executors.defaultThreadFactory().newThread(r);
@@ -500,11 +566,32 @@ public class StandardStatelessFlow implements StatelessDataflow {
 
         final BlockingQueue<TriggerResult> resultQueue = new LinkedBlockingQueue<>();
 
-        final ExecutionProgress executionProgress = new StandardExecutionProgress(rootGroup, internalFlowFileQueues, resultQueue,
-            repositoryContextFactory, dataflowDefinition.getFailurePortNames(), tracker, stateManagerProvider, triggerContext, this::purge);
+        final ExecutionProgress executionProgress;
+        final Future<?> future;
+        if (concurrentTriggers > 1) {
+            // Each invocation queues FlowFiles, tracks commits, and records Provenance Events separately from the invocations running concurrently
+            final FlowFileQueueScope queueScope = new FlowFileQueueScope();
+            final InvocationRepositoryContextFactory invocationContextFactory = new InvocationRepositoryContextFactory(repositoryContextFactory, stateManagerProvider);
+            final AsynchronousCommitTracker invocationTracker = new AsynchronousCommitTracker(rootGroup);
+            final TransactionThresholdMeter invocationThresholdMeter = new TransactionThresholdMeter(dataflowDefinition.getTransactionThresholds());
+
+            executionProgress = new StandardExecutionProgress(rootGroup, internalFlowFileQueues, resultQueue, invocationContextFactory,
+                dataflowDefinition.getFailurePortNames(), invocationTracker, stateManagerProvider, triggerContext, () -> queueScope.runWithin(this::purgeQueues));
+
+            future = runDataflowExecutor.submit(() -> queueScope.runWithin(() -> {
+                try {
+                    executeDataflow(resultQueue, executionProgress, invocationTracker, invocationThresholdMeter, invocationContextFactory, triggerContext.getFlowFileSupplier());
+                } finally {
+                    invocationContextFactory.publishProvenanceEvents();
+                }
+            }));
+        } else {
+            executionProgress = new StandardExecutionProgress(rootGroup, internalFlowFileQueues, resultQueue,
+                repositoryContextFactory, dataflowDefinition.getFailurePortNames(), tracker, stateManagerProvider, triggerContext, this::purge);
 
-        final Future<?> future = runDataflowExecutor.submit(
-            () -> executeDataflow(resultQueue, executionProgress, tracker, triggerContext.getFlowFileSupplier()));
+            future = runDataflowExecutor.submit(
+                () -> executeDataflow(resultQueue, executionProgress, tracker, transactionThresholdMeter, repositoryContextFactory, triggerContext.getFlowFileSupplier()));
+        }
 
         final DataflowTrigger trigger = new DataflowTrigger() {
             @Override
@@ -537,6 +624,7 @@ public class StandardStatelessFlow implements StatelessDataflow {
 
 
     private void executeDataflow(final BlockingQueue<TriggerResult> resultQueue, final ExecutionProgress executionProgress, final AsynchronousCommitTracker tracker,
+                                 final TransactionThresholdMeter transactionThresholdMeter, final RepositoryContextFactory repositoryContextFactory,
                                  final FlowFileSupplier flowFileSupplier) {
         final long startNanos = System.nanoTime();
         transactionThresholdMeter.reset();
@@ -649,6 +737,10 @@ public class StandardStatelessFlow implements StatelessDataflow {
 
     @Override
     public QueueSize enqueue(final InputStream flowFileContents, final Map<String, String> attributes, final String portName) {
+        if (concurrentTriggers > 1) {
+            throw new IllegalStateException("Cannot enqueue FlowFiles for a dataflow that runs triggers concurrently; FlowFiles must be provided by the FlowFileSupplier of the trigger context");
+        }
+
         final Port inputPort = rootGroup.getInputPortByName(portName);
         if (inputPort == null) {
             throw new IllegalArgumentException("No Input Port exists with name <" + portName + ">. Valid Port names are " + getInputPortNames());
@@ -693,6 +785,11 @@ public class StandardStatelessFlow implements StatelessDataflow {
 
     @Override
     public void purge() {
+        purgeQueues();
+        repositoryContextFactory.getContentRepository().purge();
+    }
+
+    private void purgeQueues() {
         final List<FlowFileRecord> flowFiles = new ArrayList<>();
         for (final Connection connection : allConnections) {
             try {
@@ -713,8 +810,6 @@ public class StandardStatelessFlow implements StatelessDataflow {
 
             flowFiles.clear();
         }
-
-        repositoryContextFactory.getContentRepository().purge();
     }
 
     @Override
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.stateless.queue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The FlowFiles that a single invocation of a dataflow has queued in each {@link StatelessFlowFileQueue}. While a scope is bound to the current thread,
+ * every StatelessFlowFileQueue reads and writes the FlowFiles of that scope only, which allows several invocations of the same dataflow to run concurrently
+ * on separate threads without seeing one another's FlowFiles. Queues accessed by a thread that is not bound to a scope use the FlowFiles that are shared
+ * by all threads.
+ */
+public class FlowFileQueueScope {
+    private static final ThreadLocal<FlowFileQueueScope> boundScope = new ThreadLocal<>();
+
+    private final Map<StatelessFlowFileQueue, StatelessFlowFileQueue.QueueContents> queueContents = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the given action with this scope bound to the current thread, restoring any scope that was previously bound once the action completes
+     *
+     * @param action the action to run
+     */
+    public void runWithin(final Runnable action) {
+        final FlowFileQueueScope previousScope = boundScope.get();
+        boundScope.set(this);
+        try {
+            action.run();
+        } finally {
+            if (previousScope == null) {
+                boundScope.remove();
+            } else {
+                boundScope.set(previousScope);
+            }
+        }
+    }
+
+    static FlowFileQueueScope getBoundScope() {
+        return boundScope.get();
+    }
+
+    StatelessFlowFileQueue.QueueContents getContents(final StatelessFlowFileQueue queue) {
+        return queueContents.computeIfAbsent(queue, key -> new StatelessFlowFileQueue.QueueContents());
+    }
+}
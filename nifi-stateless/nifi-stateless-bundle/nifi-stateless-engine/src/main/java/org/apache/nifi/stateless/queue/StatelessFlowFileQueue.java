@@ -46,14 +46,20 @@ import java.util.concurrent.atomic.AtomicLong;
 public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
     private final String identifier;
     private volatile long expirationMillis;
-    private final BlockingQueue<FlowFileRecord> flowFiles = new LinkedBlockingQueue<>();
-    private final AtomicInteger unacknowledgedCount = new AtomicInteger(0);
-    private final AtomicLong totalBytes = new AtomicLong(0L);
+    private final QueueContents sharedContents = new QueueContents();
 
     public StatelessFlowFileQueue(final String identifier) {
         this.identifier = identifier;
     }
 
+    /**
+     * @return the FlowFiles of the {@link FlowFileQueueScope} bound to the current thread, or the FlowFiles shared by all threads if no scope is bound
+     */
+    private QueueContents getContents() {
+        final FlowFileQueueScope scope = FlowFileQueueScope.getBoundScope();
+        return scope == null ? sharedContents : scope.getContents(this);
+    }
+
     @Override
     public String getIdentifier() {
         return identifier;
@@ -97,13 +103,14 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
 
     @Override
     public QueueSize size() {
-        return new QueueSize(flowFiles.size() + unacknowledgedCount.get(), totalBytes.get());
+        final QueueContents contents = getContents();
+        return new QueueSize(contents.flowFiles.size() + contents.unacknowledgedCount.get(), contents.totalBytes.get());
     }
 
     @Override
     public long getTotalQueuedDuration(long fromTimestamp) {
         long sum = 0L;
-        for (FlowFileRecord flowFileRecord : flowFiles) {
+        for (FlowFileRecord flowFileRecord : getContents().flowFiles) {
             long l = fromTimestamp - flowFileRecord.getLastQueueDate();
             sum += l;
         }
@@ -113,7 +120,7 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
     @Override
     public long getMinLastQueueDate() {
         long min = 0;
-        for (FlowFileRecord flowFile : flowFiles) {
+        for (FlowFileRecord flowFile : getContents().flowFiles) {
             min = min == 0 ? flowFile.getLastQueueDate() : Long.min(min, flowFile.getLastQueueDate());
         }
         return min;
@@ -121,7 +128,8 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
 
     @Override
     public boolean isEmpty() {
-        return flowFiles.isEmpty() && unacknowledgedCount.get() == 0;
+        final QueueContents contents = getContents();
+        return contents.flowFiles.isEmpty() && contents.unacknowledgedCount.get() == 0;
     }
 
     @Override
@@ -132,24 +140,26 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
 
     @Override
     public boolean isActiveQueueEmpty() {
-        return flowFiles.isEmpty();
+        return getContents().flowFiles.isEmpty();
     }
 
     @Override
     public void acknowledge(final FlowFileRecord flowFile) {
-        unacknowledgedCount.decrementAndGet();
-        totalBytes.addAndGet(-flowFile.getSize());
+        final QueueContents contents = getContents();
+        contents.unacknowledgedCount.decrementAndGet();
+        contents.totalBytes.addAndGet(-flowFile.getSize());
     }
 
     @Override
     public void acknowledge(final Collection<FlowFileRecord> flowFiles) {
-        unacknowledgedCount.addAndGet(-flowFiles.size());
-        flowFiles.forEach(ff -> totalBytes.addAndGet(-ff.getSize()));
+        final QueueContents contents = getContents();
+        contents.unacknowledgedCount.addAndGet(-flowFiles.size());
+        flowFiles.forEach(ff -> contents.totalBytes.addAndGet(-ff.getSize()));
     }
 
     @Override
     public boolean isUnacknowledgedFlowFile() {
-        return unacknowledgedCount.get() > 0;
+        return getContents().unacknowledgedCount.get() > 0;
     }
 
     @Override
@@ -159,18 +169,28 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
 
     @Override
     public void put(final FlowFileRecord flowFile) {
-        flowFiles.add(flowFile);
-        totalBytes.addAndGet(flowFile.getSize());
+        final QueueContents contents = getContents();
+        contents.flowFiles.add(flowFile);
+        contents.totalBytes.addAndGet(flowFile.getSize());
     }
 
     @Override
     public void putAll(final Collection<FlowFileRecord> flowFiles) {
-        this.flowFiles.addAll(flowFiles);
-        flowFiles.forEach(ff -> totalBytes.addAndGet(ff.getSize()));
+        final QueueContents contents = getContents();
+        contents.flowFiles.addAll(flowFiles);
+        flowFiles.forEach(ff -> contents.totalBytes.addAndGet(ff.getSize()));
     }
 
     @Override
-    public synchronized FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
+    public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
+        final QueueContents contents = getContents();
+        synchronized (contents) {
+            return poll(contents, expiredRecords, pollStrategy);
+        }
+    }
+
+    private FlowFileRecord poll(final QueueContents contents, final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
+        final BlockingQueue<FlowFileRecord> flowFiles = contents.flowFiles;
         while (!flowFiles.isEmpty()) {
             final FlowFileRecord flowFile = flowFiles.peek();
             if (flowFile == null) {
@@ -190,7 +210,7 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
                 return null;
             }
 
-            unacknowledgedCount.incrementAndGet();
+            contents.unacknowledgedCount.incrementAndGet();
             return flowFiles.poll();
         }
 
@@ -212,20 +232,23 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
     }
 
     @Override
-    public synchronized List<FlowFileRecord> poll(final int maxResults, final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
-        final List<FlowFileRecord> selected = new ArrayList<>(Math.min(maxResults, flowFiles.size()));
-        for (int i = 0; i < maxResults; i++) {
-            final FlowFileRecord flowFile = poll(expiredRecords, pollStrategy);
-            if (flowFile != null) {
-                selected.add(flowFile);
-            }
+    public List<FlowFileRecord> poll(final int maxResults, final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
+        final QueueContents contents = getContents();
+        synchronized (contents) {
+            final List<FlowFileRecord> selected = new ArrayList<>(Math.min(maxResults, contents.flowFiles.size()));
+            for (int i = 0; i < maxResults; i++) {
+                final FlowFileRecord flowFile = poll(contents, expiredRecords, pollStrategy);
+                if (flowFile != null) {
+                    selected.add(flowFile);
+                }
 
-            if (flowFile == null || expiredRecords.size() >= 10_000) {
-                break;
+                if (flowFile == null || expiredRecords.size() >= 10_000) {
+                    break;
+                }
             }
-        }
 
-        return selected;
+            return selected;
+        }
     }
 
     @Override
@@ -234,42 +257,45 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
     }
 
     @Override
-    public synchronized List<FlowFileRecord> poll(final FlowFileFilter filter, final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
-        final List<FlowFileRecord> selected = new ArrayList<>();
+    public List<FlowFileRecord> poll(final FlowFileFilter filter, final Set<FlowFileRecord> expiredRecords, final PollStrategy pollStrategy) {
+        final QueueContents contents = getContents();
+        synchronized (contents) {
+            final List<FlowFileRecord> selected = new ArrayList<>();
 
-        // Use an iterator to iterate over all FlowFiles in the queue. This allows us to
-        // Remove from the queue only those FlowFiles that are selected. This, in turn, allows
-        // us to retain our FIFO ordering.
-        final Iterator<FlowFileRecord> itr = flowFiles.iterator();
-        while (itr.hasNext()) {
-            final FlowFileRecord flowFile = itr.next();
+            // Use an iterator to iterate over all FlowFiles in the queue. This allows us to
+            // Remove from the queue only those FlowFiles that are selected. This, in turn, allows
+            // us to retain our FIFO ordering.
+            final Iterator<FlowFileRecord> itr = contents.flowFiles.iterator();
+            while (itr.hasNext()) {
+                final FlowFileRecord flowFile = itr.next();
 
-            if (isExpired(flowFile)) {
-                expiredRecords.add(flowFile);
-                if (expiredRecords.size() >= 10_000) {
-                    break;
+                if (isExpired(flowFile)) {
+                    expiredRecords.add(flowFile);
+                    if (expiredRecords.size() >= 10_000) {
+                        break;
+                    }
+
+                    continue;
                 }
 
-                continue;
-            }
+                if (flowFile.isPenalized() && pollStrategy == PollStrategy.UNPENALIZED_FLOWFILES) {
+                    break;
+                }
 
-            if (flowFile.isPenalized() && pollStrategy == PollStrategy.UNPENALIZED_FLOWFILES) {
-                break;
-            }
+                final FlowFileFilter.FlowFileFilterResult filterResult = filter.filter(flowFile);
+                if (filterResult.isAccept()) {
+                    selected.add(flowFile);
+                    itr.remove();
+                }
 
-            final FlowFileFilter.FlowFileFilterResult filterResult = filter.filter(flowFile);
-            if (filterResult.isAccept()) {
-                selected.add(flowFile);
-                itr.remove();
+                if (!filterResult.isContinue()) {
+                    break;
+                }
             }
 
-            if (!filterResult.isContinue()) {
-                break;
-            }
+            contents.unacknowledgedCount.addAndGet(selected.size());
+            return selected;
         }
-
-        unacknowledgedCount.addAndGet(selected.size());
-        return selected;
     }
 
     @Override
@@ -392,7 +418,7 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
 
     @Override
     public void drainTo(final List<FlowFileRecord> destination) {
-        this.flowFiles.drainTo(destination);
+        getContents().flowFiles.drainTo(destination);
     }
 
     @Override
@@ -404,4 +430,10 @@ public class StatelessFlowFileQueue implements DrainableFlowFileQueue {
     public boolean equals(final Object obj) {
         return this == obj;
     }
+
+    static class QueueContents {
+        private final BlockingQueue<FlowFileRecord> flowFiles = new LinkedBlockingQueue<>();
+        private final AtomicInteger unacknowledgedCount = new AtomicInteger(0);
+        private final AtomicLong totalBytes = new AtomicLong(0L);
+    }
 }
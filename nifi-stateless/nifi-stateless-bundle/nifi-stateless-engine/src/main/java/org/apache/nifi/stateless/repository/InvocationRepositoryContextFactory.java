@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.stateless.repository;
+
+import org.apache.nifi.components.state.StateManager;
+import org.apache.nifi.components.state.StateManagerProvider;
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.controller.repository.ContentRepository;
+import org.apache.nifi.controller.repository.CounterRepository;
+import org.apache.nifi.controller.repository.FlowFileEventRepository;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.RepositoryContext;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository Context Factory for a single invocation of a dataflow that runs concurrently with other invocations of the same dataflow.
+ * The Content, FlowFile, FlowFile Event, and Counter Repositories are shared with the dataflow, while Provenance Events are recorded
+ * in a repository that belongs to the invocation so that the result of the invocation reports only its own events. The events are
+ * published to the Provenance Repository of the dataflow by calling {@link #publishProvenanceEvents()}.
+ */
+public class InvocationRepositoryContextFactory implements RepositoryContextFactory {
+    private static final Logger logger = LoggerFactory.getLogger(InvocationRepositoryContextFactory.class);
+    private static final int MAX_PROVENANCE_EVENTS = 1_000;
+
+    private final RepositoryContextFactory delegate;
+    private final StateManagerProvider stateManagerProvider;
+    private final StatelessProvenanceRepository provenanceRepository = new StatelessProvenanceRepository(MAX_PROVENANCE_EVENTS);
+
+    public InvocationRepositoryContextFactory(final RepositoryContextFactory delegate, final StateManagerProvider stateManagerProvider) {
+        this.delegate = delegate;
+        this.stateManagerProvider = stateManagerProvider;
+    }
+
+    @Override
+    public RepositoryContext createRepositoryContext(final Connectable connectable) {
+        final StateManager stateManager = stateManagerProvider.getStateManager(connectable.getIdentifier());
+        return new StatelessRepositoryContext(connectable, new AtomicLong(0L), getContentRepository(), getFlowFileRepository(),
+            getFlowFileEventRepository(), getCounterRepository(), provenanceRepository, stateManager);
+    }
+
+    /**
+     * Registers the Provenance Events recorded by this invocation with the Provenance Repository of the dataflow
+     */
+    public void publishProvenanceEvents() {
+        try {
+            final List<ProvenanceEventRecord> events = provenanceRepository.getEvents(0L, Integer.MAX_VALUE);
+            delegate.getProvenanceRepository().registerEvents(events);
+        } catch (final IOException e) {
+            logger.warn("Failed to publish Provenance Events of dataflow invocation", e);
+        }
+    }
+
+    @Override
+    public ContentRepository getContentRepository() {
+        return delegate.getContentRepository();
+    }
+
+    @Override
+    public FlowFileRepository getFlowFileRepository() {
+        return delegate.getFlowFileRepository();
+    }
+
+    @Override
+    public FlowFileEventRepository getFlowFileEventRepository() {
+        return delegate.getFlowFileEventRepository();
+    }
+
+    @Override
+    public ProvenanceEventRepository getProvenanceRepository() {
+        return provenanceRepository;
+    }
+
+    @Override
+    public CounterRepository getCounterRepository() {
+        return delegate.getCounterRepository();
+    }
+
+    @Override
+    public void shutdown() {
+        // The shared repositories are shut down with the dataflow
+    }
+}
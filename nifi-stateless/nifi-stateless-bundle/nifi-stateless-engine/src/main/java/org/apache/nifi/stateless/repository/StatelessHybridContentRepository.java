@@ -0,0 +1,814 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.stateless.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.nifi.controller.repository.ContentNotFoundException;
+import org.apache.nifi.controller.repository.ContentRepository;
+import org.apache.nifi.controller.repository.ContentRepositoryContext;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaim;
+import org.apache.nifi.controller.repository.io.LimitedInputStream;
+import org.apache.nifi.stream.io.StreamUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content Repository that stores content in blocks of direct memory outside the Java heap, up to a configured number of bytes.
+ * When no more memory is available, the content of the largest Content Claim that has been fully written, with ties going to the
+ * oldest Content Claim, is spilled to a file in the configured directory. If no such Content Claim exists, the Content Claim being
+ * written is spilled instead. Memory blocks are pooled and reused after the repository is purged.
+ */
+public class StatelessHybridContentRepository implements ContentRepository {
+    private static final Logger logger = LoggerFactory.getLogger(StatelessHybridContentRepository.class);
+    private static final String CONTENT_FILE_REGEX = "\\d+\\.nifi\\.bin";
+
+    private static final String CONTAINER = "stateless";
+    private static final String SECTION = "stateless";
+
+    private static final int MIN_BLOCK_SIZE = 1024;
+    private static final int MAX_BLOCK_SIZE = 1024 * 1024;
+
+    private final File directory;
+    private final BlockPool blockPool;
+    private final ConcurrentMap<ResourceClaim, HybridContent> contentMap = new ConcurrentHashMap<>();
+    private final AtomicLong resourceClaimIndex = new AtomicLong(0L);
+
+    // Guards the Block Pool as well as the blocks, spill state, and open readers of each Hybrid Content
+    private final Lock lock = new ReentrantLock();
+    private ResourceClaimManager resourceClaimManager;
+
+    public StatelessHybridContentRepository(final File directory, final long maxMemoryBytes) {
+        if (maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Maximum memory for Content Repository cannot be negative");
+        }
+
+        this.directory = directory;
+        this.blockPool = new BlockPool(maxMemoryBytes);
+    }
+
+    @Override
+    public void initialize(final ContentRepositoryContext context) throws IOException {
+        this.resourceClaimManager = context.getResourceClaimManager();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot initialize Content Repository because " + directory.getAbsolutePath() + " does not exist and cannot be created");
+        }
+
+        // Check if there are any existing files and if so, purges them.
+        final File[] existingFiles = directory.listFiles(file -> file.getName().matches(CONTENT_FILE_REGEX));
+        if (existingFiles == null) {
+            throw new IOException("Cannot initialize Content Repository because failed to list contents of directory " + directory.getAbsolutePath());
+        }
+
+        for (final File existingFile : existingFiles) {
+            logger.info("Found existing file from previous run {}. Removing file.", existingFile.getName());
+            final boolean deleted = existingFile.delete();
+
+            if (!deleted) {
+                logger.warn("Failed to remove existing file from previous run {}", existingFile);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        purge();
+
+        lock.lock();
+        try {
+            blockPool.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<String> getContainerNames() {
+        return Collections.singleton(CONTAINER);
+    }
+
+    @Override
+    public long getContainerCapacity(final String containerName) {
+        return 0;
+    }
+
+    @Override
+    public long getContainerUsableSpace(final String containerName) {
+        return 0;
+    }
+
+    @Override
+    public String getContainerFileStoreName(final String containerName) {
+        return "container";
+    }
+
+    @Override
+    public ContentClaim create(final boolean lossTolerant) {
+        final long index = resourceClaimIndex.getAndIncrement();
+        final ResourceClaim resourceClaim = new StandardResourceClaim(resourceClaimManager, CONTAINER, SECTION, String.valueOf(index), false);
+        contentMap.put(resourceClaim, new HybridContent(resourceClaim, index));
+
+        final ContentClaim contentClaim = new StandardContentClaim(resourceClaim, 0L);
+        resourceClaimManager.incrementClaimantCount(contentClaim.getResourceClaim());
+        return contentClaim;
+    }
+
+    @Override
+    public int incrementClaimaintCount(final ContentClaim claim) {
+        if (claim == null) {
+            return 0;
+        }
+
+        return resourceClaimManager.incrementClaimantCount(claim.getResourceClaim());
+    }
+
+    @Override
+    public int getClaimantCount(final ContentClaim claim) {
+        if (claim == null) {
+            return 0;
+        }
+
+        return resourceClaimManager.getClaimantCount(claim.getResourceClaim());
+    }
+
+    @Override
+    public int decrementClaimantCount(final ContentClaim claim) {
+        if (claim == null) {
+            return 0;
+        }
+
+        return resourceClaimManager.decrementClaimantCount(claim.getResourceClaim());
+    }
+
+    @Override
+    public boolean remove(final ContentClaim claim) {
+        return true;
+    }
+
+    @Override
+    public ContentClaim clone(final ContentClaim original, final boolean lossTolerant) throws IOException {
+        final ContentClaim clone = create(lossTolerant);
+        try (final InputStream in = read(original);
+             final OutputStream out = write(clone)) {
+            StreamUtils.copy(in, out);
+        }
+
+        return clone;
+    }
+
+    @Override
+    public long importFrom(final Path content, final ContentClaim claim) throws IOException {
+        try (final InputStream in = Files.newInputStream(content, StandardOpenOption.READ)) {
+            return importFrom(in, claim);
+        }
+    }
+
+    @Override
+    public long importFrom(final InputStream content, final ContentClaim claim) throws IOException {
+        try (final OutputStream out = write(claim)) {
+            return StreamUtils.copy(content, out);
+        }
+    }
+
+    @Override
+    public long exportTo(final ContentClaim claim, final Path destination, final boolean append) throws IOException {
+        final OpenOption[] openOptions = append ? new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND} :
+            new StandardOpenOption[] {StandardOpenOption.CREATE};
+
+        try (final OutputStream out = Files.newOutputStream(destination, openOptions)) {
+            return exportTo(claim, out);
+        }
+    }
+
+    @Override
+    public long exportTo(final ContentClaim claim, final Path destination, final boolean append, final long offset, final long length) throws IOException {
+        final OpenOption[] openOptions = append ? new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND} :
+            new StandardOpenOption[] {StandardOpenOption.CREATE};
+
+        try (final OutputStream out = Files.newOutputStream(destination, openOptions)) {
+            return exportTo(claim, out, offset, length);
+        }
+    }
+
+    @Override
+    public long exportTo(final ContentClaim claim, final OutputStream destination) throws IOException {
+        try (final InputStream in = read(claim)) {
+            return StreamUtils.copy(in, destination);
+        }
+    }
+
+    @Override
+    public long exportTo(final ContentClaim claim, final OutputStream destination, final long offset, final long length) throws IOException {
+        try (final InputStream in = read(claim)) {
+            StreamUtils.skip(in, offset);
+            StreamUtils.copy(in, destination, length);
+        }
+
+        return length;
+    }
+
+    @Override
+    public long size(final ContentClaim claim) {
+        return claim.getLength();
+    }
+
+    @Override
+    public long size(final ResourceClaim claim) throws IOException {
+        return 0;
+    }
+
+    @Override
+    public InputStream read(final ContentClaim claim) throws IOException {
+        if (claim == null) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        final InputStream resourceClaimIn = read(claim.getResourceClaim());
+        return new LimitedInputStream(resourceClaimIn, Math.max(0L, claim.getLength()));
+    }
+
+    @Override
+    public InputStream read(final ResourceClaim claim) throws IOException {
+        final HybridContent content = getContent(claim);
+        if (content == null) {
+            throw new ContentNotFoundException(new StandardContentClaim(claim, 0L));
+        }
+
+        lock.lock();
+        try {
+            if (!content.isWritten()) {
+                // Content is not visible until the Output Stream has been closed
+                return new ByteArrayInputStream(new byte[0]);
+            }
+
+            if (content.isSpilled()) {
+                return new FileInputStream(getFile(claim));
+            }
+
+            content.openReaders++;
+            return new BlockInputStream(content);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private HybridContent getContent(final ResourceClaim claim) {
+        validateResourceClaim(claim);
+        return contentMap.get(claim);
+    }
+
+    private File getFile(final ResourceClaim claim) {
+        return new File(directory, claim.getId() + ".nifi.bin");
+    }
+
+    private void validateResourceClaim(final ResourceClaim resourceClaim) {
+        Objects.requireNonNull(resourceClaim, "ResourceClaim cannot be null");
+
+        if (!CONTAINER.equals(resourceClaim.getContainer())) {
+            throwInvalidResourceClaim();
+        }
+
+        if (!SECTION.equals(resourceClaim.getSection())) {
+            throwInvalidResourceClaim();
+        }
+    }
+
+    @Override
+    public OutputStream write(final ContentClaim claim) throws IOException {
+        validateContentClaimForWriting(claim);
+
+        final HybridContent content = contentMap.get(claim.getResourceClaim());
+        if (content == null) {
+            throwInvalidContentClaim();
+        }
+
+        final StandardContentClaim scc = (StandardContentClaim) claim;
+        scc.setLength(0); // Set the length to 0. Initially it will be set to -1. By setting it to 0, the repository knows that it has been written to and cannot be written to again.
+
+        final ContentOutputStream out = new ContentOutputStream(content, scc);
+        content.outputStream = out;
+        return out;
+    }
+
+    private void validateContentClaimForWriting(final ContentClaim claim) throws IOException {
+        Objects.requireNonNull(claim, "ContentClaim cannot be null");
+
+        if (!(claim instanceof StandardContentClaim)) {
+            throwInvalidContentClaim();
+        }
+
+        validateResourceClaim(claim.getResourceClaim());
+
+        if (claim.getLength() >= 0) {
+            throw new IOException("Cannot write to " + claim + " because it has already been written to.");
+        }
+    }
+
+    private void throwInvalidContentClaim() {
+        throw new IllegalArgumentException("The given ContentClaim does not belong to this Content Repository");
+    }
+
+    private void throwInvalidResourceClaim() {
+        throw new IllegalArgumentException("The given ResourceClaim does not belong to this Content Repository");
+    }
+
+    /**
+     * Allocates a block of memory for the given content, spilling the content of other Content Claims to disk if necessary
+     *
+     * @param content the content that the block will be appended to
+     * @param desiredSize the desired size of the block; the returned block may be larger or smaller
+     * @return the allocated block, or <code>null</code> if no memory could be made available
+     * @throws IOException if unable to spill the content of another Content Claim to disk
+     */
+    private ByteBuffer allocateBlock(final HybridContent content, final int desiredSize) throws IOException {
+        lock.lock();
+        try {
+            ByteBuffer block = blockPool.acquire(desiredSize);
+            while (block == null && spillLargestContent(content)) {
+                block = blockPool.acquire(desiredSize);
+            }
+
+            if (block != null) {
+                content.blocks.add(block);
+            }
+
+            return block;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean spillLargestContent(final HybridContent excluded) throws IOException {
+        HybridContent largest = null;
+        for (final HybridContent content : contentMap.values()) {
+            if (content == excluded || !content.isSpillable()) {
+                continue;
+            }
+
+            if (largest == null || content.length > largest.length || (content.length == largest.length && content.index < largest.index)) {
+                largest = content;
+            }
+        }
+
+        if (largest == null) {
+            return false;
+        }
+
+        try (final FileChannel channel = openSpillChannel(largest)) {
+            writeBlocks(largest, channel);
+        }
+
+        logger.debug("Spilled {} bytes of {} to disk in order to free memory", largest.length, largest.resourceClaim);
+        releaseBlocks(largest);
+        largest.spilled = true;
+        return true;
+    }
+
+    private FileChannel openSpillChannel(final HybridContent content) throws IOException {
+        final Path path = getFile(content.resourceClaim).toPath();
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void writeBlocks(final HybridContent content, final FileChannel channel) throws IOException {
+        for (final ByteBuffer block : content.blocks) {
+            final ByteBuffer readable = block.duplicate();
+            readable.flip();
+            while (readable.hasRemaining()) {
+                channel.write(readable);
+            }
+        }
+    }
+
+    private void releaseBlocks(final HybridContent content) {
+        content.blocks.forEach(blockPool::release);
+        content.blocks.clear();
+    }
+
+    @Override
+    public void purge() {
+        lock.lock();
+        try {
+            for (final HybridContent content : contentMap.values()) {
+                final ContentOutputStream out = content.outputStream;
+                if (out != null) {
+                    try {
+                        out.abort();
+                    } catch (final IOException ioe) {
+                        logger.warn("Failed to close Content Repository Output Stream", ioe);
+                    }
+                }
+
+                if (content.openReaders > 0) {
+                    // Blocks may still be read, so they cannot be reused and are left for garbage collection
+                    content.blocks.forEach(blockPool::discard);
+                    content.blocks.clear();
+                } else {
+                    releaseBlocks(content);
+                }
+
+                if (content.isSpilled()) {
+                    final File file = getFile(content.resourceClaim);
+                    if (!file.delete() && file.exists()) {
+                        logger.warn("Failed to remove file from Content Repository: {}", file.getAbsolutePath());
+                    }
+                }
+            }
+
+            contentMap.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        resourceClaimManager.purge();
+    }
+
+    @Override
+    public void cleanup() {
+        purge();
+    }
+
+    @Override
+    public boolean isAccessible(final ContentClaim contentClaim) {
+        return false;
+    }
+
+    private static class HybridContent {
+        private final ResourceClaim resourceClaim;
+        private final long index;
+        private final List<ByteBuffer> blocks = new ArrayList<>();
+        private volatile ContentOutputStream outputStream;
+        private long length = -1L;
+        private boolean spilled;
+        private int openReaders;
+
+        private HybridContent(final ResourceClaim resourceClaim, final long index) {
+            this.resourceClaim = resourceClaim;
+            this.index = index;
+        }
+
+        private boolean isWritten() {
+            return length >= 0;
+        }
+
+        private boolean isSpilled() {
+            return spilled;
+        }
+
+        private boolean isSpillable() {
+            return isWritten() && !spilled && openReaders == 0 && !blocks.isEmpty();
+        }
+    }
+
+    /**
+     * Pool of direct memory blocks with sizes in powers of two between the minimum and maximum block size. Blocks are allocated
+     * until the capacity is reached and released blocks are retained for reuse. Not thread-safe; access is guarded by the repository lock.
+     */
+    private static class BlockPool {
+        private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+        private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BLOCK_SIZE) - MIN_SIZE_SHIFT + 1;
+
+        private final long capacity;
+        private final List<Deque<ByteBuffer>> freeBlocks = new ArrayList<>(SIZE_CLASSES);
+        private long allocatedBytes;
+
+        private BlockPool(final long capacity) {
+            this.capacity = capacity;
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                freeBlocks.add(new ArrayDeque<>());
+            }
+        }
+
+        private ByteBuffer acquire(final int desiredSize) {
+            final int sizeClass = getSizeClass(desiredSize);
+            final ByteBuffer pooled = freeBlocks.get(sizeClass).poll();
+            if (pooled != null) {
+                return pooled;
+            }
+
+            final int blockSize = MIN_BLOCK_SIZE << sizeClass;
+            if (allocatedBytes + blockSize <= capacity) {
+                allocatedBytes += blockSize;
+                return ByteBuffer.allocateDirect(blockSize);
+            }
+
+            // Memory is exhausted, so prefer any free block over spilling content to disk
+            for (int i = sizeClass + 1; i < SIZE_CLASSES; i++) {
+                final ByteBuffer larger = freeBlocks.get(i).poll();
+                if (larger != null) {
+                    return larger;
+                }
+            }
+
+            for (int i = sizeClass - 1; i >= 0; i--) {
+                final ByteBuffer smaller = freeBlocks.get(i).poll();
+                if (smaller != null) {
+                    return smaller;
+                }
+            }
+
+            return null;
+        }
+
+        private void release(final ByteBuffer block) {
+            block.clear();
+            freeBlocks.get(getSizeClass(block.capacity())).push(block);
+        }
+
+        private void discard(final ByteBuffer block) {
+            allocatedBytes -= block.capacity();
+        }
+
+        private void clear() {
+            freeBlocks.forEach(Deque::clear);
+            allocatedBytes = 0;
+        }
+
+        private static int getSizeClass(final int size) {
+            final int boundedSize = Math.min(Math.max(size, MIN_BLOCK_SIZE), MAX_BLOCK_SIZE);
+            final int shift = 32 - Integer.numberOfLeadingZeros(boundedSize - 1);
+            return shift - MIN_SIZE_SHIFT;
+        }
+    }
+
+    private class ContentOutputStream extends OutputStream {
+        private final HybridContent content;
+        private final StandardContentClaim scc;
+        private ByteBuffer currentBlock;
+        private int nextBlockSize = MIN_BLOCK_SIZE;
+        private FileChannel spillChannel;
+        private OutputStream spillOutputStream;
+        private long bytesWritten;
+        private volatile boolean closed = false;
+
+        public ContentOutputStream(final HybridContent content, final StandardContentClaim scc) {
+            this.content = content;
+            this.scc = scc;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            verifyNotClosed();
+
+            if (spillOutputStream == null && !hasCapacity()) {
+                ensureCapacity();
+            }
+
+            if (spillOutputStream == null) {
+                currentBlock.put((byte) b);
+            } else {
+                spillOutputStream.write(b);
+            }
+
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            verifyNotClosed();
+
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (spillOutputStream == null && !hasCapacity()) {
+                    ensureCapacity();
+                }
+
+                if (spillOutputStream != null) {
+                    spillOutputStream.write(b, offset, remaining);
+                    bytesWritten += remaining;
+                    return;
+                }
+
+                final int count = Math.min(remaining, currentBlock.remaining());
+                currentBlock.put(b, offset, count);
+                offset += count;
+                remaining -= count;
+                bytesWritten += count;
+            }
+        }
+
+        private boolean hasCapacity() {
+            return currentBlock != null && currentBlock.hasRemaining();
+        }
+
+        private void ensureCapacity() throws IOException {
+            final ByteBuffer block = allocateBlock(content, nextBlockSize);
+            if (block == null) {
+                spill();
+                return;
+            }
+
+            currentBlock = block;
+            nextBlockSize = Math.min(nextBlockSize * 2, MAX_BLOCK_SIZE);
+        }
+
+        private void spill() throws IOException {
+            lock.lock();
+            try {
+                spillChannel = openSpillChannel(content);
+                writeBlocks(content, spillChannel);
+                releaseBlocks(content);
+                content.spilled = true;
+            } finally {
+                lock.unlock();
+            }
+
+            logger.debug("Spilled {} bytes of {} to disk while writing because no memory is available", bytesWritten, content.resourceClaim);
+            currentBlock = null;
+            spillOutputStream = new BufferedOutputStream(Channels.newOutputStream(spillChannel));
+        }
+
+        private void verifyNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("OutputStream for " + scc + " has been closed");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (spillOutputStream != null) {
+                spillOutputStream.flush();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                if (spillOutputStream != null) {
+                    spillOutputStream.close();
+                }
+            } finally {
+                lock.lock();
+                try {
+                    content.length = bytesWritten;
+                    content.outputStream = null;
+                } finally {
+                    lock.unlock();
+                }
+
+                scc.setLength(bytesWritten);
+            }
+        }
+
+        private synchronized void abort() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            content.outputStream = null;
+            if (spillChannel != null) {
+                spillChannel.close();
+            }
+        }
+    }
+
+    private class BlockInputStream extends InputStream {
+        private final HybridContent content;
+        private final Deque<ByteBuffer> readableBlocks = new ArrayDeque<>();
+        private boolean closed = false;
+
+        public BlockInputStream(final HybridContent content) {
+            this.content = content;
+            for (final ByteBuffer block : content.blocks) {
+                final ByteBuffer readable = block.asReadOnlyBuffer();
+                readable.flip();
+                readableBlocks.add(readable);
+            }
+        }
+
+        private ByteBuffer nextReadableBlock() {
+            ByteBuffer block = readableBlocks.peek();
+            while (block != null && !block.hasRemaining()) {
+                readableBlocks.poll();
+                block = readableBlocks.peek();
+            }
+
+            return block;
+        }
+
+        @Override
+        public int read() throws IOException {
+            verifyNotClosed();
+
+            final ByteBuffer block = nextReadableBlock();
+            if (block == null) {
+                return -1;
+            }
+
+            return block.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            verifyNotClosed();
+
+            if (len == 0) {
+                return 0;
+            }
+
+            final ByteBuffer block = nextReadableBlock();
+            if (block == null) {
+                return -1;
+            }
+
+            final int count = Math.min(len, block.remaining());
+            block.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            verifyNotClosed();
+
+            long skipped = 0;
+            ByteBuffer block;
+            while (skipped < n && (block = nextReadableBlock()) != null) {
+                final int count = (int) Math.min(n - skipped, block.remaining());
+                block.position(block.position() + count);
+                skipped += count;
+            }
+
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            final ByteBuffer block = readableBlocks.peek();
+            return block == null ? 0 : block.remaining();
+        }
+
+        private void verifyNotClosed() throws IOException {
+            if (closed) {
+                throw new IOException("InputStream for " + content.resourceClaim + " has been closed");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            readableBlocks.clear();
+
+            lock.lock();
+            try {
+                content.openReaders--;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -114,6 +114,54 @@ public class TestStatelessFlowFileQueue {
         }
     }
 
+    @Test
+    public void testScopesQueueSeparateFlowFiles() {
+        final StatelessFlowFileQueue queue = new StatelessFlowFileQueue("id");
+        final FlowFileQueueScope firstScope = new FlowFileQueueScope();
+        final FlowFileQueueScope secondScope = new FlowFileQueueScope();
+
+        firstScope.runWithin(() -> {
+            queue.put(new MockFlowFileRecord(1));
+            queue.put(new MockFlowFileRecord(2));
+        });
+        secondScope.runWithin(() -> queue.put(new MockFlowFileRecord(3)));
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll(Collections.emptySet()));
+
+        firstScope.runWithin(() -> {
+            assertQueueSize(2, 0, queue.size());
+            final List<FlowFileRecord> flowFiles = queue.poll(10, Collections.emptySet());
+            assertEquals(2, flowFiles.size());
+            assertEquals(1, flowFiles.getFirst().getId());
+            queue.acknowledge(flowFiles);
+            assertTrue(queue.isEmpty());
+        });
+
+        secondScope.runWithin(() -> {
+            assertQueueSize(1, 0, queue.size());
+            final FlowFileRecord flowFile = queue.poll(Collections.emptySet());
+            assertNotNull(flowFile);
+            assertEquals(3, flowFile.getId());
+        });
+    }
+
+    @Test
+    public void testScopeRestoredAfterNestedScope() {
+        final StatelessFlowFileQueue queue = new StatelessFlowFileQueue("id");
+        final FlowFileQueueScope outerScope = new FlowFileQueueScope();
+        final FlowFileQueueScope innerScope = new FlowFileQueueScope();
+
+        outerScope.runWithin(() -> {
+            innerScope.runWithin(() -> queue.put(new MockFlowFileRecord(1)));
+            queue.put(new MockFlowFileRecord(2));
+            assertQueueSize(1, 0, queue.size());
+        });
+
+        innerScope.runWithin(() -> assertQueueSize(1, 0, queue.size()));
+        assertTrue(queue.isEmpty());
+    }
+
     private void assertQueueSize(final int flowFileCount, final long byteCount, final QueueSize queueSize) {
         assertEquals(flowFileCount, queueSize.getObjectCount());
         assertEquals(byteCount, queueSize.getByteCount());
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.stateless.repository;
+
+import org.apache.nifi.controller.repository.ContentRepositoryContext;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.stream.io.StreamUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestStatelessHybridContentRepository {
+    private static final long MAX_MEMORY_BYTES = 64 * 1024;
+
+    private final File repoDirectory = new File("target/test-stateless-hybrid-repository");
+    private StatelessHybridContentRepository repository;
+
+    private final ContentRepositoryContext contentRepositoryContext = new ContentRepositoryContext() {
+        @Override
+        public ResourceClaimManager getResourceClaimManager() {
+            return new StandardResourceClaimManager();
+        }
+
+        @Override
+        public EventReporter getEventReporter() {
+            return EventReporter.NO_OP;
+        }
+    };
+
+    @BeforeEach
+    public void setup() throws IOException {
+        repository = new StatelessHybridContentRepository(repoDirectory, MAX_MEMORY_BYTES);
+        repository.initialize(contentRepositoryContext);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repository.shutdown();
+    }
+
+    @Test
+    public void testWriteThenReadFromMemory() throws IOException {
+        final byte[] contents = "Hello, World!".getBytes();
+        final ContentClaim claim = write(contents);
+
+        assertEquals(contents.length, claim.getLength());
+
+        // Ensure we can read multiple times.
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(contents, read(claim));
+        }
+
+        assertEquals(0, getSpilledFiles().length);
+    }
+
+    @Test
+    public void testLargestContentSpilledWhenMemoryExhausted() throws IOException {
+        final byte[] small = createContents(1000);
+        final byte[] large = createContents(40_000);
+        final ContentClaim smallClaim = write(small);
+        final ContentClaim largeClaim = write(large);
+        assertEquals(0, getSpilledFiles().length);
+
+        final byte[] next = createContents(40_000);
+        final ContentClaim nextClaim = write(next);
+
+        final File[] spilledFiles = getSpilledFiles();
+        assertEquals(1, spilledFiles.length);
+        assertEquals(largeClaim.getResourceClaim().getId() + ".nifi.bin", spilledFiles[0].getName());
+
+        assertArrayEquals(small, read(smallClaim));
+        assertArrayEquals(large, read(largeClaim));
+        assertArrayEquals(next, read(nextClaim));
+
+        repository.purge();
+        assertEquals(0, getSpilledFiles().length);
+    }
+
+    @Test
+    public void testContentLargerThanMemorySpilledWhileWriting() throws IOException {
+        final byte[] contents = createContents((int) MAX_MEMORY_BYTES * 3);
+        final ContentClaim claim = write(contents);
+
+        assertEquals(contents.length, claim.getLength());
+        assertEquals(1, getSpilledFiles().length);
+        assertArrayEquals(contents, read(claim));
+
+        // Memory released by the spilled content is available for subsequent content
+        final byte[] next = createContents(1000);
+        final ContentClaim nextClaim = write(next);
+        assertEquals(1, getSpilledFiles().length);
+        assertArrayEquals(next, read(nextClaim));
+    }
+
+    @Test
+    public void testContentBeingReadNotSpilled() throws IOException {
+        final byte[] first = createContents(40_000);
+        final ContentClaim firstClaim = write(first);
+
+        try (final InputStream in = repository.read(firstClaim)) {
+            final byte[] second = createContents(40_000);
+            final ContentClaim secondClaim = write(second);
+
+            final File[] spilledFiles = getSpilledFiles();
+            assertEquals(1, spilledFiles.length);
+            assertEquals(secondClaim.getResourceClaim().getId() + ".nifi.bin", spilledFiles[0].getName());
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            StreamUtils.copy(in, baos);
+            assertArrayEquals(first, baos.toByteArray());
+            assertArrayEquals(second, read(secondClaim));
+        }
+    }
+
+    @Test
+    public void testMemoryReusedAfterPurge() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            final byte[] contents = createContents(60_000);
+            final ContentClaim claim = write(contents);
+            assertArrayEquals(contents, read(claim));
+            assertEquals(0, getSpilledFiles().length);
+
+            repository.purge();
+        }
+    }
+
+    @Test
+    public void testExportWithOffset() throws IOException {
+        final byte[] contents = createContents(10_000);
+        final ContentClaim claim = write(contents);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        repository.exportTo(claim, baos, 5000, 2000);
+        assertArrayEquals(Arrays.copyOfRange(contents, 5000, 7000), baos.toByteArray());
+    }
+
+    @Test
+    public void testOverwriteFails() throws IOException {
+        final ContentClaim claim = write("Hello, World!".getBytes());
+
+        // An attempt to write to a content claim multiple times should fail
+        assertThrows(IOException.class, () -> repository.write(claim));
+    }
+
+    @Test
+    public void testWriteAfterPurgeFails() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        final OutputStream out = repository.write(claim);
+        out.write("Hello".getBytes());
+
+        repository.purge();
+        assertThrows(IOException.class, () -> out.write("World".getBytes()));
+        assertFalse(new File(repoDirectory, claim.getResourceClaim().getId() + ".nifi.bin").exists());
+    }
+
+    private ContentClaim write(final byte[] contents) throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write(contents);
+        }
+
+        return claim;
+    }
+
+    private byte[] read(final ContentClaim claim) throws IOException {
+        try (final InputStream in = repository.read(claim);
+             final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            StreamUtils.copy(in, baos);
+            return baos.toByteArray();
+        }
+    }
+
+    private byte[] createContents(final int length) {
+        final byte[] contents = new byte[length];
+        new Random(length).nextBytes(contents);
+        return contents;
+    }
+
+    private File[] getSpilledFiles() {
+        final File[] files = repoDirectory.listFiles();
+        assertNotNull(files);
+        assertTrue(Arrays.stream(files).allMatch(File::isFile));
+        return files;
+    }
+}